@@ -0,0 +1,110 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris;
+
+/**
+ * Indicates that evaluation was stopped, because it exceeded one of the
+ * resource limits of the knowledge-base configuration. The statistics
+ * describe the evaluation up to the point at which it was stopped.
+ */
+public class EvaluationLimitExceededException extends EvaluationException
+{
+	/**
+	 * The resource limits that can be exceeded.
+	 */
+	public static enum Limit
+	{
+		/** The evaluation timeout. */
+		TIME,
+		/** The maximum number of generated tuples. */
+		TUPLES,
+		/** The maximum complexity of inferred constructed terms. */
+		COMPLEXITY
+	}
+
+	/**
+	 * Constructor.
+	 * @param message The exception message.
+	 * @param limit The limit that was exceeded.
+	 * @param elapsedMilliseconds The time spent evaluating.
+	 * @param tuples The number of tuples generated.
+	 * @param iterations The number of iterations (or top-down resolution steps) done.
+	 */
+	public EvaluationLimitExceededException( String message, Limit limit, long elapsedMilliseconds, long tuples, long iterations )
+	{
+		super( message );
+		
+		mLimit = limit;
+		mElapsedMilliseconds = elapsedMilliseconds;
+		mTuples = tuples;
+		mIterations = iterations;
+	}
+	
+	/**
+	 * Get the limit that was exceeded.
+	 * @return The exceeded limit.
+	 */
+	public Limit getLimit()
+	{
+		return mLimit;
+	}
+	
+	/**
+	 * Get the time spent evaluating before evaluation was stopped.
+	 * @return The elapsed time in milliseconds.
+	 */
+	public long getElapsedMilliseconds()
+	{
+		return mElapsedMilliseconds;
+	}
+	
+	/**
+	 * Get the number of tuples generated before evaluation was stopped.
+	 * @return The number of tuples.
+	 */
+	public long getTuples()
+	{
+		return mTuples;
+	}
+	
+	/**
+	 * Get the number of iterations (or top-down resolution steps) done before
+	 * evaluation was stopped.
+	 * @return The number of iterations.
+	 */
+	public long getIterations()
+	{
+		return mIterations;
+	}
+	
+	private final Limit mLimit;
+	
+	private final long mElapsedMilliseconds;
+	
+	private final long mTuples;
+	
+	private final long mIterations;
+
+	/** The serial ID */
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,58 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.api;
+
+import java.util.Map;
+
+import org.deri.iris.EvaluationException;
+import org.deri.iris.api.basics.IPredicate;
+import org.deri.iris.storage.IRelation;
+
+/**
+ * A knowledge-base, whose model can be updated when facts are added or
+ * removed, instead of being evaluated again from scratch.
+ */
+public interface IIncrementalKnowledgeBase extends IKnowledgeBase
+{
+	/**
+	 * Add facts to this knowledge-base. Everything that is derived from the
+	 * new facts is derived as well, so that subsequent queries see the
+	 * updated model.
+	 * @param facts The facts to add. Tuples that are already known are ignored.
+	 * @throws EvaluationException If the update of the model fails.
+	 * @throws UnsupportedOperationException If the evaluation strategy of this
+	 * knowledge-base can not be updated.
+	 */
+	void addFacts( Map<IPredicate, IRelation> facts ) throws EvaluationException;
+
+	/**
+	 * Remove facts from this knowledge-base. Everything that can no longer be
+	 * derived without the removed facts is removed as well, so that subsequent
+	 * queries see the updated model.
+	 * @param facts The facts to remove. Tuples that are not known are ignored.
+	 * @throws EvaluationException If the update of the model fails.
+	 * @throws UnsupportedOperationException If the evaluation strategy of this
+	 * knowledge-base can not be updated.
+	 */
+	void removeFacts( Map<IPredicate, IRelation> facts ) throws EvaluationException;
+}
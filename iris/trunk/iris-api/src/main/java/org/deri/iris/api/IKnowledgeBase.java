@@ -59,6 +59,23 @@ public interface IKnowledgeBase
 	 * @throws EvaluationException If the execution of a query fails for any other reason.
 	 */
 	IRelation execute( IQuery query, List<IVariable> variableBindings ) throws ProgramNotStratifiedException, RuleUnsafeException, EvaluationException;
+
+	/**
+	 * Evaluate a query and pass the results to a consumer as they are produced,
+	 * instead of collecting all of them in a relation first. The evaluation stops
+	 * as soon as the consumer does not want to receive any more results.
+	 * @param query The query to evaluate.
+	 * @param variableBindings If this is not null, it will be filled with the variable bindings
+	 * of the result tuples before the first result is passed to the consumer.
+	 * @param consumer The consumer of the results.
+	 * @return true if all results have been passed to the consumer, false if the
+	 * consumer stopped the evaluation.
+	 * @throws ProgramNotStratifiedException If the program (knowledge-base)can not be stratified
+	 * @throws RuleUnsafeException If the program (knowledge-base) contains an unsafe rule.
+	 * @throws EvaluationException If the execution of a query fails for any other reason,
+	 * or if the consumer fails to process a result.
+	 */
+	boolean execute( IQuery query, List<IVariable> variableBindings, IResultConsumer consumer ) throws ProgramNotStratifiedException, RuleUnsafeException, EvaluationException;
 	
 	/**
 	 * Get the rules hidden within the knowledge-base.
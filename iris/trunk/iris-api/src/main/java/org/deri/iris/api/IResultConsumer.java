@@ -0,0 +1,46 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.api;
+
+import java.util.List;
+
+import org.deri.iris.EvaluationException;
+import org.deri.iris.api.basics.IQuery;
+import org.deri.iris.api.basics.ITuple;
+import org.deri.iris.api.terms.IVariable;
+
+/**
+ * Receives the results of a query one tuple at a time, see
+ * {@link IKnowledgeBase#execute(IQuery, List, IResultConsumer)}.
+ */
+public interface IResultConsumer
+{
+	/**
+	 * Receive the next result of a query.
+	 * @param tuple The result tuple, whose terms are in the order of the variable bindings.
+	 * @return true to receive more results, false to stop the evaluation of the query.
+	 * @throws EvaluationException If the result can not be processed. The exception
+	 * aborts the evaluation of the query.
+	 */
+	boolean consume( ITuple tuple ) throws EvaluationException;
+}
@@ -345,6 +345,16 @@ public interface IConcreteFactory {
 	 */
 	public IIntegerTerm createInteger(int i);
 
+	/**
+	 * <p>
+	 * Create a new term representing a xs:integer.
+	 * </p>
+	 * 
+	 * @param i The long value.
+	 * @return The new term.
+	 */
+	public IIntegerTerm createInteger(long i);
+
 	/**
 	 * <p>
 	 * Create a new term representing a xs:integer.
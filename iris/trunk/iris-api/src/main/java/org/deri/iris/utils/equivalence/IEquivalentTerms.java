@@ -70,4 +70,28 @@ public interface IEquivalentTerms {
 	 */
 	public Set<ITerm> getEquivalent(ITerm term);
 
+	/**
+	 * Returns the modification version of this equivalence relation. The
+	 * version increases monotonically whenever the representative of any term
+	 * changes. Clients can therefore detect changes by comparing versions
+	 * instead of inspecting the whole relation.
+	 * 
+	 * @return The current modification version.
+	 */
+	public long getVersion();
+
+	/**
+	 * Returns the terms that have been representatives of equivalence classes,
+	 * which were merged with another class after the specified version. A
+	 * term, whose representative at the specified version is not contained
+	 * in the returned set, still has the same representative.
+	 * 
+	 * @param sinceVersion The version to compare with.
+	 * @return The representatives of the merged classes (possibly empty), or
+	 *         <code>null</code> if the changes since the specified version can
+	 *         not be determined, in which case any representative may have
+	 *         changed.
+	 */
+	public Set<ITerm> getMergedRepresentatives(long sinceVersion);
+
 }
@@ -0,0 +1,59 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * <p>
+ * Entry point of the benchmark jar. Build it with
+ * <code>mvn -Pbenchmarks package</code> and run it with
+ * <code>java -jar iris-benchmarks/target/benchmarks.jar</code>.
+ * </p>
+ * <p>
+ * All the usual JMH command line options are understood (e.g. a regular
+ * expression selecting the benchmarks, or <code>-p storage=columnar</code>).
+ * Unless a result file is given with <code>-rff</code>, the results are
+ * written (as JSON unless <code>-rf</code> says otherwise) to <code>target/jmh-result.json</code>, so that runs of
+ * different revisions can be compared.
+ * </p>
+ */
+public class BenchmarkRunner {
+
+	/** The result file used if none is given on the command line. */
+	private static final String DEFAULT_RESULT = "target/jmh-result.json";
+
+	public static void main(final String[] args) throws Exception {
+		final CommandLineOptions commandLine = new CommandLineOptions(args);
+		final Options options = new OptionsBuilder().parent(commandLine)
+				.resultFormat(
+						commandLine.getResultFormat().orElse(
+								ResultFormatType.JSON)).result(
+						commandLine.getResult().orElse(DEFAULT_RESULT)).build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.deri.iris.api.IProgramOptimisation.Result;
+import org.deri.iris.api.basics.IQuery;
+import org.deri.iris.compiler.Parser;
+import org.deri.iris.optimisations.magicsets.MagicSets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the magic sets rewriting of the rules for a bound query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MagicSetsBenchmark {
+
+	/**
+	 * The program, whose own query is replaced by one with a constant,
+	 * because magic sets only rewrite for bound queries.
+	 */
+	@Param( { "anc:16", "lubm:1" })
+	public String program;
+
+	private ParsedProgram mProgram;
+
+	private IQuery mQuery;
+
+	private final MagicSets mMagicSets = new MagicSets();
+
+	@Setup
+	public void setUp() throws Exception {
+		mProgram = new ParsedProgram(Programs.bySpec(program));
+
+		final Parser parser = new Parser();
+		parser.parse(program.startsWith("lubm") ? "?- member(?X, 'u0')."
+				: "?- anc('n0', ?Y).");
+		mQuery = parser.getQueries().get(0);
+	}
+
+	@Benchmark
+	public Result optimise() {
+		return mMagicSets.optimise(mProgram.getRules(), mQuery);
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.benchmarks;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.deri.iris.api.basics.IPredicate;
+import org.deri.iris.api.basics.IQuery;
+import org.deri.iris.api.basics.IRule;
+import org.deri.iris.compiler.Parser;
+import org.deri.iris.compiler.ParserException;
+import org.deri.iris.storage.IRelation;
+import org.deri.iris.storage.IRelationFactory;
+
+/**
+ * A parsed program, ready to be handed to a knowledge base.
+ */
+public final class ParsedProgram {
+
+	private final Map<IPredicate, IRelation> mFacts;
+
+	private final List<IRule> mRules;
+
+	private final IQuery mQuery;
+
+	/**
+	 * Parses the given program.
+	 * 
+	 * @param program the program text, which must contain exactly one
+	 * query
+	 * @throws ParserException if the program could not be parsed
+	 */
+	public ParsedProgram(final String program) throws ParserException {
+		final Parser parser = new Parser();
+		parser.parse(program);
+		if (parser.getQueries().size() != 1) {
+			throw new IllegalArgumentException(
+					"The program must contain exactly one query");
+		}
+		mFacts = parser.getFacts();
+		mRules = parser.getRules();
+		mQuery = parser.getQueries().get(0);
+	}
+
+	/**
+	 * Returns a fresh copy of the facts. A copy is needed for every
+	 * evaluation, because the knowledge base adds the derived tuples to
+	 * the relations of predicates which are defined by facts and rules.
+	 * 
+	 * @param relationFactory the factory for the copied relations
+	 * @return the copied facts
+	 */
+	public Map<IPredicate, IRelation> copyFacts(
+			final IRelationFactory relationFactory) {
+		final Map<IPredicate, IRelation> copy = new HashMap<IPredicate, IRelation>();
+		for (final Map.Entry<IPredicate, IRelation> entry : mFacts.entrySet()) {
+			final IRelation source = entry.getValue();
+			final IRelation target = relationFactory.createRelation();
+			for (int i = 0; i < source.size(); i++) {
+				target.add(source.get(i));
+			}
+			copy.put(entry.getKey(), target);
+		}
+		return copy;
+	}
+
+	/**
+	 * Returns the facts as they were parsed. The returned relations must
+	 * not be modified.
+	 * 
+	 * @return the facts
+	 */
+	public Map<IPredicate, IRelation> getFacts() {
+		return mFacts;
+	}
+
+	public List<IRule> getRules() {
+		return mRules;
+	}
+
+	public IQuery getQuery() {
+		return mQuery;
+	}
+}
@@ -0,0 +1,223 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.benchmarks;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * Generators for the synthetic datalog programs used by the benchmarks.
+ * </p>
+ * <p>
+ * Every generator is deterministic for a given set of arguments, so that
+ * results of different runs (and of different versions of the engine)
+ * can be compared with each other. The returned programs are in the
+ * textual syntax accepted by the parser and each contains exactly one
+ * query.
+ * </p>
+ */
+public final class Programs {
+
+	/** The seed used for all random graphs. */
+	private static final long SEED = 42L;
+
+	private Programs() {
+	}
+
+	/**
+	 * Returns the program described by a specification of the form
+	 * <code>name:size</code>.
+	 * 
+	 * @param spec the specification, where the name is one of
+	 * <code>tc</code>, <code>sg</code>, <code>lubm</code> or
+	 * <code>anc</code> and the size is interpreted by the respective
+	 * generator
+	 * @return the program text
+	 * @throws IllegalArgumentException if the specification is malformed
+	 * or the name is unknown
+	 */
+	public static String bySpec(final String spec) {
+		final int colon = spec.indexOf(':');
+		if (colon < 0) {
+			throw new IllegalArgumentException(
+					"The specification must be of the form name:size, but was "
+							+ spec);
+		}
+		final String name = spec.substring(0, colon);
+		final int size = Integer.parseInt(spec.substring(colon + 1));
+		if ("tc".equals(name)) {
+			return transitiveClosure(size, size * 2);
+		} else if ("sg".equals(name)) {
+			return sameGeneration(size, 3);
+		} else if ("lubm".equals(name)) {
+			return lubm(size);
+		} else if ("anc".equals(name)) {
+			return ancestorChain(size);
+		}
+		throw new IllegalArgumentException("Unknown program: " + name);
+	}
+
+	/**
+	 * Creates a transitive closure program over a random directed graph.
+	 * 
+	 * @param nodes the number of nodes of the graph
+	 * @param edges the number of edges of the graph
+	 * @return the program text, querying the whole closure
+	 */
+	public static String transitiveClosure(final int nodes, final int edges) {
+		final Random random = new Random(SEED);
+		final StringBuilder b = new StringBuilder();
+		for (int i = 0; i < edges; i++) {
+			b.append("edge(").append(random.nextInt(nodes)).append(", ")
+					.append(random.nextInt(nodes)).append(").\n");
+		}
+		b.append("tc(?X, ?Y) :- edge(?X, ?Y).\n");
+		b.append("tc(?X, ?Z) :- tc(?X, ?Y), edge(?Y, ?Z).\n");
+		b.append("?- tc(?X, ?Y).\n");
+		return b.toString();
+	}
+
+	/**
+	 * Creates a chain shaped ancestor program, which is acyclic and
+	 * therefore also suitable for the top-down evaluators.
+	 * 
+	 * @param length the number of parent edges of the chain
+	 * @return the program text, querying the ancestors of the first node
+	 */
+	public static String ancestorChain(final int length) {
+		final StringBuilder b = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			b.append("parent('n").append(i).append("', 'n").append(i + 1)
+					.append("').\n");
+		}
+		b.append("anc(?X, ?Y) :- parent(?X, ?Y).\n");
+		b.append("anc(?X, ?Z) :- parent(?X, ?Y), anc(?Y, ?Z).\n");
+		b.append("?- anc('n0', ?Y).\n");
+		return b.toString();
+	}
+
+	/**
+	 * Creates a same-generation program over a complete tree.
+	 * 
+	 * @param depth the depth of the tree
+	 * @param fanout the number of children of each inner node
+	 * @return the program text, querying all same-generation pairs
+	 */
+	public static String sameGeneration(final int depth, final int fanout) {
+		final StringBuilder b = new StringBuilder();
+		int first = 0;
+		int width = 1;
+		int next = 1;
+		for (int level = 0; level < depth; level++) {
+			for (int parent = first; parent < first + width; parent++) {
+				for (int c = 0; c < fanout; c++) {
+					b.append("par(").append(next++).append(", ").append(parent)
+							.append(").\n");
+				}
+			}
+			first += width;
+			width *= fanout;
+		}
+		b.append("sg(?X, ?Y) :- par(?X, ?P), par(?Y, ?P).\n");
+		b.append("sg(?X, ?Y) :- par(?X, ?A), sg(?A, ?B), par(?Y, ?B).\n");
+		b.append("?- sg(?X, ?Y).\n");
+		return b.toString();
+	}
+
+	/**
+	 * Creates a program modelled after the Lehigh University Benchmark
+	 * (LUBM): universities with departments, faculty, students and
+	 * courses, a small class hierarchy expressed as rules and the
+	 * (cyclic) join of LUBM query 9.
+	 * 
+	 * @param universities the number of universities
+	 * @return the program text
+	 */
+	public static String lubm(final int universities) {
+		final Random random = new Random(SEED);
+		final StringBuilder b = new StringBuilder();
+		final int departments = 5;
+		final int professors = 8;
+		final int students = 40;
+		final int courses = 10;
+		for (int u = 0; u < universities; u++) {
+			final String univ = "u" + u;
+			fact(b, "university", univ);
+			for (int d = 0; d < departments; d++) {
+				final String dept = univ + "_d" + d;
+				fact(b, "department", dept);
+				fact(b, "subOrganizationOf", dept, univ);
+				for (int c = 0; c < courses; c++) {
+					fact(b, "course", dept + "_c" + c);
+				}
+				for (int p = 0; p < professors; p++) {
+					final String prof = dept + "_p" + p;
+					fact(b, p == 0 ? "fullProfessor" : "associateProfessor", prof);
+					fact(b, "worksFor", prof, dept);
+					fact(b, "teacherOf", prof, dept + "_c" + (p % courses));
+				}
+				for (int s = 0; s < students; s++) {
+					final String student = dept + "_s" + s;
+					fact(b, "student", student);
+					fact(b, "memberOf", student, dept);
+					fact(b, "advisor", student, dept + "_p"
+							+ random.nextInt(professors));
+					for (int t = 0; t < 3; t++) {
+						fact(b, "takesCourse", student, dept + "_c"
+								+ random.nextInt(courses));
+					}
+				}
+			}
+		}
+		b.append("professor(?X) :- fullProfessor(?X).\n");
+		b.append("professor(?X) :- associateProfessor(?X).\n");
+		b.append("faculty(?X) :- professor(?X).\n");
+		b.append("person(?X) :- faculty(?X).\n");
+		b.append("person(?X) :- student(?X).\n");
+		b.append("memberOf(?X, ?D) :- worksFor(?X, ?D).\n");
+		b.append("subOrganizationOf(?X, ?Z) :- subOrganizationOf(?X, ?Y), subOrganizationOf(?Y, ?Z).\n");
+		b.append("member(?X, ?U) :- person(?X), memberOf(?X, ?D), subOrganizationOf(?D, ?U), university(?U).\n");
+		b.append("q9(?X, ?Y, ?Z) :- student(?X), faculty(?Y), course(?Z), advisor(?X, ?Y), teacherOf(?Y, ?Z), takesCourse(?X, ?Z).\n");
+		b.append("?- q9(?X, ?Y, ?Z).\n");
+		return b.toString();
+	}
+
+	/**
+	 * Appends a ground fact with string constants.
+	 * 
+	 * @param b the program to append to
+	 * @param predicate the predicate symbol
+	 * @param constants the unquoted constants
+	 */
+	private static void fact(final StringBuilder b, final String predicate,
+			final String... constants) {
+		b.append(predicate).append('(');
+		for (int i = 0; i < constants.length; i++) {
+			if (i > 0) {
+				b.append(", ");
+			}
+			b.append('\'').append(constants[i]).append('\'');
+		}
+		b.append(").\n");
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.deri.iris.Configuration;
+import org.deri.iris.KnowledgeBaseFactory;
+import org.deri.iris.api.IKnowledgeBase;
+import org.deri.iris.evaluation.stratifiedbottomup.StratifiedBottomUpEvaluationStrategyFactory;
+import org.deri.iris.evaluation.stratifiedbottomup.seminaive.SemiNaiveEvaluatorFactory;
+import org.deri.iris.storage.IRelation;
+import org.deri.iris.storage.columnar.ColumnarIndexFactory;
+import org.deri.iris.storage.columnar.ColumnarRelationFactory;
+import org.deri.iris.storage.simple.SimpleIndexFactory;
+import org.deri.iris.storage.simple.SimpleRelationFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the complete bottom-up evaluation (rule compilation,
+ * stratification and semi-naive evaluation) of the synthetic programs
+ * with the different storage implementations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SemiNaiveEvaluatorBenchmark {
+
+	@Param( { "tc:100", "tc:400", "sg:4", "sg:5", "lubm:1", "lubm:4" })
+	public String program;
+
+	@Param( { "simple", "columnar" })
+	public String storage;
+
+	private ParsedProgram mProgram;
+
+	private Configuration mConfiguration;
+
+	@Setup
+	public void setUp() throws Exception {
+		mProgram = new ParsedProgram(Programs.bySpec(program));
+
+		mConfiguration = KnowledgeBaseFactory.getDefaultConfiguration();
+		mConfiguration.evaluationStrategyFactory = new StratifiedBottomUpEvaluationStrategyFactory(
+				new SemiNaiveEvaluatorFactory());
+		if ("columnar".equals(storage)) {
+			final ColumnarRelationFactory relationFactory = new ColumnarRelationFactory();
+			mConfiguration.relationFactory = relationFactory;
+			mConfiguration.indexFactory = new ColumnarIndexFactory(
+					relationFactory);
+		} else {
+			mConfiguration.relationFactory = new SimpleRelationFactory();
+			mConfiguration.indexFactory = new SimpleIndexFactory();
+		}
+	}
+
+	@Benchmark
+	public IRelation evaluate() throws Exception {
+		final IKnowledgeBase knowledgeBase = KnowledgeBaseFactory
+				.createKnowledgeBase(mProgram.copyFacts(mConfiguration.relationFactory),
+						mProgram.getRules(), mConfiguration);
+		return knowledgeBase.execute(mProgram.getQuery());
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.benchmarks;
+
+import static org.deri.iris.factory.Factory.BASIC;
+import static org.deri.iris.factory.Factory.CONCRETE;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.deri.iris.api.basics.ITuple;
+import org.deri.iris.api.terms.ITerm;
+import org.deri.iris.storage.IIndex;
+import org.deri.iris.storage.IRelation;
+import org.deri.iris.storage.simple.SimpleIndexFactory;
+import org.deri.iris.storage.simple.SimpleRelationFactory;
+import org.deri.iris.utils.equivalence.IgnoreTermEquivalence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the look-up of tuples in a <code>SimpleIndex</code> on the
+ * second column of a binary relation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SimpleIndexBenchmark {
+
+	@Param( { "10000", "100000" })
+	public int size;
+
+	/** The number of distinct keys, i.e. each key matches 16 tuples. */
+	private int mKeys;
+
+	private IIndex mIndex;
+
+	private List<List<ITerm>> mLookups;
+
+	private int mNext;
+
+	@Setup
+	public void setUp() {
+		mKeys = Math.max(1, size / 16);
+
+		final IRelation relation = new SimpleRelationFactory().createRelation();
+		for (int i = 0; i < size; i++) {
+			relation.add(BASIC.createTuple(CONCRETE.createInteger(i),
+					CONCRETE.createInteger(i % mKeys)));
+		}
+
+		mIndex = new SimpleIndexFactory().createIndex(relation,
+				new IgnoreTermEquivalence(), 1);
+
+		// create the keys up front, so that only the look-up is measured
+		mLookups = new ArrayList<List<ITerm>>(mKeys);
+		for (int i = 0; i < mKeys; i++) {
+			final List<ITerm> key = new ArrayList<ITerm>(1);
+			key.add(CONCRETE.createInteger(i));
+			mLookups.add(key);
+		}
+		mIndex.get(mLookups.get(0));
+	}
+
+	@Benchmark
+	public List<ITuple> get() {
+		final List<ITerm> key = mLookups.get(mNext);
+		mNext = (mNext + 1) % mKeys;
+		return mIndex.get(key);
+	}
+}
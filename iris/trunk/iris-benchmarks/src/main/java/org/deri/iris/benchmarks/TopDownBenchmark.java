@@ -0,0 +1,91 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.deri.iris.Configuration;
+import org.deri.iris.KnowledgeBaseFactory;
+import org.deri.iris.api.IKnowledgeBase;
+import org.deri.iris.evaluation.topdown.oldt.OLDTEvaluationStrategyFactory;
+import org.deri.iris.evaluation.topdown.sldnf.SLDNFEvaluationStrategyFactory;
+import org.deri.iris.storage.IRelation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the goal directed top-down evaluators (SLDNF and OLDT) on an
+ * acyclic ancestor program with a bound query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TopDownBenchmark {
+
+	/**
+	 * The program. The chains are kept short, because the SLDNF
+	 * evaluator bails out on deep recursion.
+	 */
+	@Param( { "anc:8", "anc:12" })
+	public String program;
+
+	@Param( { "sldnf", "oldt" })
+	public String evaluator;
+
+	private ParsedProgram mProgram;
+
+	private IKnowledgeBase mKnowledgeBase;
+
+	@Setup
+	public void setUp() throws Exception {
+		mProgram = new ParsedProgram(Programs.bySpec(program));
+
+		final Configuration configuration = KnowledgeBaseFactory
+				.getDefaultConfiguration();
+		if ("oldt".equals(evaluator)) {
+			configuration.evaluationStrategyFactory = new OLDTEvaluationStrategyFactory();
+		} else {
+			configuration.evaluationStrategyFactory = new SLDNFEvaluationStrategyFactory();
+		}
+		// top-down evaluation only reads the facts, so they can be shared
+		mKnowledgeBase = KnowledgeBaseFactory.createKnowledgeBase(mProgram
+				.getFacts(), mProgram.getRules(), configuration);
+	}
+
+	@Benchmark
+	public IRelation execute() throws Exception {
+		return mKnowledgeBase.execute(mProgram.getQuery());
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.rules.compiler;
+
+import static org.deri.iris.factory.Factory.BASIC;
+import static org.deri.iris.factory.Factory.CONCRETE;
+import static org.deri.iris.factory.Factory.TERM;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.deri.iris.Configuration;
+import org.deri.iris.api.basics.IPredicate;
+import org.deri.iris.api.terms.IVariable;
+import org.deri.iris.storage.IRelation;
+import org.deri.iris.utils.equivalence.IgnoreTermEquivalence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a single join of <code>edge(?X, ?Y), edge(?Y, ?Z)</code> as
+ * it is done by the compiled rules. The benchmark lives in the package
+ * of the rule compiler, because the rule elements are not public.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JoinerBenchmark {
+
+	/** The number of edges, the graph has half as many nodes. */
+	@Param( { "10000", "100000" })
+	public int size;
+
+	private IRelation mInput;
+
+	private Joiner mJoiner;
+
+	@Setup
+	public void setUp() {
+		final Configuration configuration = new Configuration();
+		final Random random = new Random(42L);
+		final int nodes = Math.max(1, size / 2);
+
+		final IRelation edges = configuration.relationFactory.createRelation();
+		for (int i = 0; i < size; i++) {
+			edges.add(BASIC.createTuple(CONCRETE.createInteger(random
+					.nextInt(nodes)), CONCRETE.createInteger(random
+					.nextInt(nodes))));
+		}
+		mInput = edges;
+
+		final IVariable x = TERM.createVariable("X");
+		final IVariable y = TERM.createVariable("Y");
+		final IVariable z = TERM.createVariable("Z");
+		final List<IVariable> inputVariables = new ArrayList<IVariable>();
+		inputVariables.add(x);
+		inputVariables.add(y);
+		final IPredicate edge = BASIC.createPredicate("edge", 2);
+
+		mJoiner = new Joiner(inputVariables, edge, edges, BASIC.createTuple(
+				y, z), new IgnoreTermEquivalence(), configuration);
+	}
+
+	@Benchmark
+	public IRelation process() throws Exception {
+		return mJoiner.process(mInput);
+	}
+}
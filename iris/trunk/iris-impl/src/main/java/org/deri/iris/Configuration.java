@@ -24,6 +24,7 @@ package org.deri.iris;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import org.deri.iris.api.IProgramOptimisation;
 import org.deri.iris.evaluation.IEvaluationStrategyFactory;
@@ -36,8 +37,8 @@ import org.deri.iris.rules.IRuleReOrderingOptimiser;
 import org.deri.iris.rules.IRuleSafetyProcessor;
 import org.deri.iris.rules.IRuleStratifier;
 import org.deri.iris.rules.IgnoreRuleHeadEquality;
+import org.deri.iris.rules.optimisation.CostBasedReOrderLiteralsOptimiser;
 import org.deri.iris.rules.optimisation.JoinConditionOptimiser;
-import org.deri.iris.rules.optimisation.ReOrderLiteralsOptimiser;
 import org.deri.iris.rules.optimisation.RemoveDuplicateLiteralOptimiser;
 import org.deri.iris.rules.optimisation.ReplaceVariablesWithConstantsOptimiser;
 import org.deri.iris.rules.ordering.SimpleReOrdering;
@@ -95,6 +96,24 @@ public class Configuration
 	/** The factory for creating indexes required during evaluation. */
 	public IIndexFactory indexFactory = new SimpleIndexFactory();
 
+	/**
+	 * The executor used to process the input of a single join, negated literal or
+	 * built-in in partitions concurrently. Null means that the input is processed
+	 * sequentially by the evaluating thread.
+	 */
+	public ExecutorService ruleElementExecutor = null;
+
+	/** The minimum number of input tuples in a partition processed by the rule element executor. */
+	public int ruleElementPartitionSize = 4096;
+
+	/**
+	 * Evaluate the rule elements of a compiled rule as a pipeline, passing each
+	 * tuple straight on to the next rule element instead of materialising the
+	 * intermediate relations. Only the output of the rule is collected in a relation.
+	 * This is ignored if a rule element executor is set.
+	 */
+	public boolean ruleElementPipelining = true;
+
 	/** The number of bits of precision to use for comparing double term values. */ 
 	public int floatingPointDoublePrecision = 42;
 
@@ -115,6 +134,15 @@ public class Configuration
 	
 	/** Collection of program optimisations. */
 	public final List<IProgramOptimisation> programOptmimisers = new ArrayList<IProgramOptimisation>();
+
+	/**
+	 * The number of queries for which the optimised program and its evaluated model are
+	 * kept, when program optimisations are used. The optimised program is also reused for
+	 * queries that only differ in their constants, which assumes that the program
+	 * optimisations only depend on which arguments of a query are bound. Zero means that
+	 * the program is optimised and evaluated again for every query.
+	 */
+	public int optimisedProgramCacheSize = 16;
 	
 	/** Rule safety processors (e.g. standard rule-safety check and augmented-unsafe-rule modifier). */
 	public IRuleSafetyProcessor ruleSafetyProcessor = new StandardRuleSafetyProcessor();
@@ -136,7 +164,7 @@ public class Configuration
 		
 		ruleOptimisers.add( new JoinConditionOptimiser() );
 		ruleOptimisers.add( new ReplaceVariablesWithConstantsOptimiser() );
-		ruleOptimisers.add( new ReOrderLiteralsOptimiser() );
+		ruleOptimisers.add( new CostBasedReOrderLiteralsOptimiser() );
 		ruleOptimisers.add( new RemoveDuplicateLiteralOptimiser() );
 	}
 }
@@ -27,14 +27,18 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.deri.iris.api.IKnowledgeBase;
+import org.deri.iris.api.IIncrementalKnowledgeBase;
+import org.deri.iris.api.IResultConsumer;
 import org.deri.iris.api.basics.IPredicate;
 import org.deri.iris.api.basics.IQuery;
 import org.deri.iris.api.basics.IRule;
 import org.deri.iris.api.basics.ITuple;
 import org.deri.iris.api.terms.IVariable;
 import org.deri.iris.evaluation.IEvaluationStrategy;
+import org.deri.iris.evaluation.IIncrementalEvaluationStrategy;
 import org.deri.iris.evaluation.OptimisedProgramStrategyAdaptor;
+import org.deri.iris.evaluation.QueryResults;
+import org.deri.iris.evaluation.ResourceGovernor;
 import org.deri.iris.facts.Facts;
 import org.deri.iris.facts.FactsWithExternalData;
 import org.deri.iris.facts.IFacts;
@@ -46,7 +50,7 @@ import org.slf4j.LoggerFactory;
 /**
  * The concrete knowledge-base.
  */
-public class KnowledgeBase implements IKnowledgeBase {
+public class KnowledgeBase implements IIncrementalKnowledgeBase {
 	private Logger logger = LoggerFactory.getLogger(getClass());
 
 	/**
@@ -109,12 +113,19 @@ public class KnowledgeBase implements IKnowledgeBase {
 			}
 		}
 
-		if (mConfiguration.programOptmimisers.size() > 0)
-			mEvaluationStrategy = new OptimisedProgramStrategyAdaptor(facts,
-					rules, mConfiguration);
-		else
-			mEvaluationStrategy = mConfiguration.evaluationStrategyFactory
-					.createEvaluator(facts, rules, configuration);
+		// The resource limits apply to the whole evaluation of the program.
+		ResourceGovernor governor = ResourceGovernor.enter(mConfiguration);
+
+		try {
+			if (mConfiguration.programOptmimisers.size() > 0)
+				mEvaluationStrategy = new OptimisedProgramStrategyAdaptor(
+						facts, rules, mConfiguration);
+			else
+				mEvaluationStrategy = mConfiguration.evaluationStrategyFactory
+						.createEvaluator(facts, rules, configuration);
+		} finally {
+			governor.exit();
+		}
 	}
 
 	public IRelation execute(IQuery query, List<IVariable> variableBindings)
@@ -134,8 +145,17 @@ public class KnowledgeBase implements IKnowledgeBase {
 		logger.debug("==========");
 		logger.debug(query.toString());
 
-		IRelation result = mEvaluationStrategy.evaluateQuery(RuleManipulator
-				.removeDuplicateLiterals(query), variableBindings);
+		// The resource limits apply to each query separately.
+		ResourceGovernor governor = ResourceGovernor.enter(mConfiguration);
+
+		IRelation result;
+
+		try {
+			result = mEvaluationStrategy.evaluateQuery(RuleManipulator
+					.removeDuplicateLiterals(query), variableBindings);
+		} finally {
+			governor.exit();
+		}
 
 		logger.debug("------------");
 		logger.debug(result.toString());
@@ -143,6 +163,38 @@ public class KnowledgeBase implements IKnowledgeBase {
 		return result;
 	}
 
+	public boolean execute(IQuery query, List<IVariable> variableBindings,
+			IResultConsumer consumer) throws EvaluationException {
+		if (query == null)
+			throw new IllegalArgumentException(
+					"KnowledgeBase.execute() - the query is null.");
+
+		if (consumer == null)
+			throw new IllegalArgumentException(
+					"KnowledgeBase.execute() - the consumer is null.");
+
+		if (variableBindings == null)
+			variableBindings = new ArrayList<IVariable>();
+
+		// Store the configuration object against the current thread.
+		ConfigurationThreadLocalStorage.setConfiguration(mConfiguration);
+
+		logger.debug("IRIS query (streamed results)");
+		logger.debug("=============================");
+		logger.debug(query.toString());
+
+		// The resource limits apply to each query separately.
+		ResourceGovernor governor = ResourceGovernor.enter(mConfiguration);
+
+		try {
+			return QueryResults.evaluateQuery(mEvaluationStrategy,
+					RuleManipulator.removeDuplicateLiterals(query),
+					variableBindings, consumer);
+		} finally {
+			governor.exit();
+		}
+	}
+
 	public IRelation execute(IQuery query) throws EvaluationException {
 		return execute(query, null);
 	}
@@ -151,6 +203,48 @@ public class KnowledgeBase implements IKnowledgeBase {
 		return mRules;
 	}
 
+	public void addFacts(Map<IPredicate, IRelation> facts)
+			throws EvaluationException {
+		update(facts, true);
+	}
+
+	public void removeFacts(Map<IPredicate, IRelation> facts)
+			throws EvaluationException {
+		update(facts, false);
+	}
+
+	/**
+	 * Add or remove facts using the incremental evaluation strategy.
+	 */
+	private void update(Map<IPredicate, IRelation> facts, boolean add)
+			throws EvaluationException {
+		if (facts == null)
+			throw new IllegalArgumentException(
+					"KnowledgeBase.update() - the facts are null.");
+
+		if (!(mEvaluationStrategy instanceof IIncrementalEvaluationStrategy))
+			throw new UnsupportedOperationException("The evaluation strategy "
+					+ mEvaluationStrategy.getClass().getName()
+					+ " does not support incremental updates.");
+
+		IIncrementalEvaluationStrategy strategy = (IIncrementalEvaluationStrategy) mEvaluationStrategy;
+
+		// Store the configuration object against the current thread.
+		ConfigurationThreadLocalStorage.setConfiguration(mConfiguration);
+
+		// The resource limits apply to each update separately.
+		ResourceGovernor governor = ResourceGovernor.enter(mConfiguration);
+
+		try {
+			if (add)
+				strategy.addFacts(facts);
+			else
+				strategy.removeFacts(facts);
+		} finally {
+			governor.exit();
+		}
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder result = new StringBuilder();
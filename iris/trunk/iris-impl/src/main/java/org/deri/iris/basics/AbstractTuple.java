@@ -0,0 +1,224 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.basics;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.deri.iris.api.basics.ITuple;
+import org.deri.iris.api.terms.IConstructedTerm;
+import org.deri.iris.api.terms.ITerm;
+import org.deri.iris.api.terms.IVariable;
+
+/**
+ * <p>
+ * The base of all tuple implementations. The hash code of a tuple is computed
+ * once, when the tuple is created, and is the same as the one of a
+ * <code>List</code> with the same terms. Tuples with different hash codes are
+ * never compared term by term.
+ * </p>
+ */
+abstract class AbstractTuple extends AbstractList<ITerm> implements ITuple {
+
+	/** The hash code of this tuple. */
+	private final int hash;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param hash the hash code of the tuple, computed with
+	 * {@link #hash(int, ITerm)}
+	 */
+	AbstractTuple(final int hash) {
+		this.hash = hash;
+	}
+
+	/**
+	 * Combines the hash code of the preceding terms of a tuple with the next
+	 * term. The hash code of a tuple is the combination of all its terms,
+	 * starting with 1.
+	 * 
+	 * @param hash the hash code of the preceding terms
+	 * @param term the next term
+	 * @return the combined hash code
+	 */
+	static int hash(final int hash, final ITerm term) {
+		return 31 * hash + (term == null ? 0 : term.hashCode());
+	}
+
+	/**
+	 * Compares two terms, which might be <code>null</code>.
+	 */
+	static boolean equal(final ITerm t0, final ITerm t1) {
+		return t0 == null ? t1 == null : t0.equals(t1);
+	}
+
+	public ITuple append(final Collection<? extends ITerm> t) {
+		if (t == null) {
+			throw new IllegalArgumentException("The term list must not be null");
+		}
+
+		if (t.isEmpty()) {
+			return this;
+		}
+
+		final List<ITerm> res = new ArrayList<ITerm>(size() + t.size());
+		res.addAll(this);
+		res.addAll(t);
+		return Tuples.create(res);
+	}
+
+	public boolean isGround() {
+		for (int i = 0; i < size(); i++) {
+			if (!get(i).isGround()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public String toString() {
+		if (size() <= 0) {
+			return "()";
+		}
+		final StringBuilder buffer = new StringBuilder();
+		buffer.append('(');
+		for (int i = 0; i < size(); i++) {
+			if (i > 0) {
+				buffer.append(", ");
+			}
+			buffer.append(get(i));
+		}
+		buffer.append(')');
+		return buffer.toString();
+	}
+
+	public int compareTo(final ITuple t) {
+		if (t == null) {
+			throw new NullPointerException("Cannot compare with null");
+		}
+
+		int res = 0;
+		for (int i = 0; i < Math.min(size(), t.size()); i++) {
+			if ((res = get(i).compareTo(t.get(i))) != 0) {
+				return res;
+			}
+		}
+		return size() - t.size();
+	}
+
+	public int hashCode() {
+		return hash;
+	}
+
+	public boolean equals(final Object o) {
+		if (o == this) {
+			return true;
+		}
+		if (!(o instanceof AbstractTuple)) {
+			return false;
+		}
+		final AbstractTuple t = (AbstractTuple) o;
+		if (hash != t.hash || size() != t.size()) {
+			return false;
+		}
+		for (int i = 0; i < size(); i++) {
+			if (!equal(get(i), t.get(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public Set<IVariable> getVariables() {
+		final Set<IVariable> variables = new HashSet<IVariable>();
+		for (final ITerm term : this) {
+			if(term instanceof IVariable) {
+				variables.add((IVariable) term);
+			}
+			if(term instanceof IConstructedTerm) {
+				variables.addAll(getVariables((IConstructedTerm) term));
+			}
+		}
+		return variables;
+	}
+	
+	private Set<IVariable> getVariables(final IConstructedTerm t) {
+		assert t != null: "The conscructed term must not be null";
+
+		final Set<IVariable> variables = new HashSet<IVariable>();
+		for (final ITerm term : t.getValue()) {
+			if(term instanceof IVariable) {
+				variables.add((IVariable) term);
+			}
+			if(term instanceof IConstructedTerm) {
+				variables.addAll(getVariables((IConstructedTerm) term));
+			}
+		}
+		return variables;
+	}
+
+	public List<IVariable> getAllVariables() {
+		final List<IVariable> variables = new ArrayList<IVariable>();
+		for (final ITerm term : this) {
+			if (term instanceof IVariable) {
+				variables.add((IVariable) term);
+			}
+			if (term instanceof IConstructedTerm) {
+				variables.addAll(getAllVariables((IConstructedTerm) term));
+			}
+		}
+		return variables;
+	}
+	
+	private List<IVariable> getAllVariables(final IConstructedTerm t) {
+		assert t != null: "The conscructed term must not be null";
+
+		final List<IVariable> variables = new ArrayList<IVariable>();
+		for(final ITerm term : t.getValue()){
+			if (term instanceof IVariable) {
+				variables.add((IVariable) term);
+			}
+			if (term instanceof IConstructedTerm) {
+				variables.addAll(getAllVariables((IConstructedTerm) term));
+			}
+		}
+		return variables;
+	}
+
+	/**
+	 * Creates the exception for an invalid index.
+	 */
+	IllegalArgumentException invalidIndex(final int i) {
+		if (i < 0) {
+			return new IllegalArgumentException("The index must be positive, but was " + i);
+		}
+		return new IllegalArgumentException(
+				"The index must not be greater or equal to the size (" + 
+				size() + "), but was " + i);
+	}
+}
@@ -83,11 +83,11 @@ public class BasicFactory implements IBasicFactory {
 	}
 
 	public ITuple createTuple(ITerm... terms) {
-		return createTuple(Arrays.asList(terms));
+		return Tuples.create(terms);
 	}
 	
 	public ITuple createTuple(List<ITerm> terms) {
-		return new Tuple(terms);
+		return Tuples.create(terms);
 	}
 
 	public IAtom createAtom(final IAtom a) {
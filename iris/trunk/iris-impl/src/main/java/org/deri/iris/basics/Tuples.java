@@ -0,0 +1,278 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.basics;
+
+import java.util.List;
+
+import org.deri.iris.api.basics.ITuple;
+import org.deri.iris.api.terms.ITerm;
+
+/**
+ * <p>
+ * Creates tuples. Tuples with up to four terms are created as specialised
+ * tuples, which keep their terms in fields and compare them directly. All
+ * other tuples are created as {@link Tuple}.
+ * </p>
+ */
+final class Tuples {
+
+	/** The empty tuple. */
+	private static final ITuple EMPTY = new Empty();
+
+	private Tuples() {
+		// prevent instantiation
+	}
+
+	/**
+	 * Creates a tuple.
+	 * 
+	 * @param terms the terms of the tuple
+	 * @return the tuple
+	 * @throws NullPointerException if terms is <code>null</code>
+	 */
+	static ITuple create(final List<ITerm> terms) {
+		if (terms == null) {
+			throw new NullPointerException("Input argument must not be null");
+		}
+
+		switch (terms.size()) {
+		case 0:
+			return EMPTY;
+		case 1:
+			return new Unary(terms.get(0));
+		case 2:
+			return new Binary(terms.get(0), terms.get(1));
+		case 3:
+			return new Ternary(terms.get(0), terms.get(1), terms.get(2));
+		case 4:
+			return new Quaternary(terms.get(0), terms.get(1), terms.get(2),
+					terms.get(3));
+		default:
+			return new Tuple(terms);
+		}
+	}
+
+	/**
+	 * Creates a tuple.
+	 * 
+	 * @param terms the terms of the tuple, which are copied
+	 * @return the tuple
+	 * @throws NullPointerException if terms is <code>null</code>
+	 */
+	static ITuple create(final ITerm... terms) {
+		if (terms == null) {
+			throw new NullPointerException("Input argument must not be null");
+		}
+
+		switch (terms.length) {
+		case 0:
+			return EMPTY;
+		case 1:
+			return new Unary(terms[0]);
+		case 2:
+			return new Binary(terms[0], terms[1]);
+		case 3:
+			return new Ternary(terms[0], terms[1], terms[2]);
+		case 4:
+			return new Quaternary(terms[0], terms[1], terms[2], terms[3]);
+		default:
+			return new Tuple(terms.clone());
+		}
+	}
+
+	/** A tuple without terms. */
+	private static final class Empty extends AbstractTuple {
+
+		Empty() {
+			super(1);
+		}
+
+		public int size() {
+			return 0;
+		}
+
+		public ITerm get(final int i) {
+			throw invalidIndex(i);
+		}
+	}
+
+	/** A tuple with one term. */
+	private static final class Unary extends AbstractTuple {
+
+		private final ITerm t0;
+
+		Unary(final ITerm t0) {
+			super(hash(1, t0));
+			this.t0 = t0;
+		}
+
+		public int size() {
+			return 1;
+		}
+
+		public ITerm get(final int i) {
+			if (i != 0) {
+				throw invalidIndex(i);
+			}
+			return t0;
+		}
+
+		public boolean equals(final Object o) {
+			if (o instanceof Unary) {
+				return equal(t0, ((Unary) o).t0);
+			}
+			return super.equals(o);
+		}
+	}
+
+	/** A tuple with two terms. */
+	private static final class Binary extends AbstractTuple {
+
+		private final ITerm t0;
+
+		private final ITerm t1;
+
+		Binary(final ITerm t0, final ITerm t1) {
+			super(hash(hash(1, t0), t1));
+			this.t0 = t0;
+			this.t1 = t1;
+		}
+
+		public int size() {
+			return 2;
+		}
+
+		public ITerm get(final int i) {
+			switch (i) {
+			case 0:
+				return t0;
+			case 1:
+				return t1;
+			default:
+				throw invalidIndex(i);
+			}
+		}
+
+		public boolean equals(final Object o) {
+			if (o instanceof Binary) {
+				final Binary t = (Binary) o;
+				return hashCode() == t.hashCode() && equal(t0, t.t0)
+						&& equal(t1, t.t1);
+			}
+			return super.equals(o);
+		}
+	}
+
+	/** A tuple with three terms. */
+	private static final class Ternary extends AbstractTuple {
+
+		private final ITerm t0;
+
+		private final ITerm t1;
+
+		private final ITerm t2;
+
+		Ternary(final ITerm t0, final ITerm t1, final ITerm t2) {
+			super(hash(hash(hash(1, t0), t1), t2));
+			this.t0 = t0;
+			this.t1 = t1;
+			this.t2 = t2;
+		}
+
+		public int size() {
+			return 3;
+		}
+
+		public ITerm get(final int i) {
+			switch (i) {
+			case 0:
+				return t0;
+			case 1:
+				return t1;
+			case 2:
+				return t2;
+			default:
+				throw invalidIndex(i);
+			}
+		}
+
+		public boolean equals(final Object o) {
+			if (o instanceof Ternary) {
+				final Ternary t = (Ternary) o;
+				return hashCode() == t.hashCode() && equal(t0, t.t0)
+						&& equal(t1, t.t1) && equal(t2, t.t2);
+			}
+			return super.equals(o);
+		}
+	}
+
+	/** A tuple with four terms. */
+	private static final class Quaternary extends AbstractTuple {
+
+		private final ITerm t0;
+
+		private final ITerm t1;
+
+		private final ITerm t2;
+
+		private final ITerm t3;
+
+		Quaternary(final ITerm t0, final ITerm t1, final ITerm t2,
+				final ITerm t3) {
+			super(hash(hash(hash(hash(1, t0), t1), t2), t3));
+			this.t0 = t0;
+			this.t1 = t1;
+			this.t2 = t2;
+			this.t3 = t3;
+		}
+
+		public int size() {
+			return 4;
+		}
+
+		public ITerm get(final int i) {
+			switch (i) {
+			case 0:
+				return t0;
+			case 1:
+				return t1;
+			case 2:
+				return t2;
+			case 3:
+				return t3;
+			default:
+				throw invalidIndex(i);
+			}
+		}
+
+		public boolean equals(final Object o) {
+			if (o instanceof Quaternary) {
+				final Quaternary t = (Quaternary) o;
+				return hashCode() == t.hashCode() && equal(t0, t.t0)
+						&& equal(t1, t.t1) && equal(t2, t.t2)
+						&& equal(t3, t.t3);
+			}
+			return super.equals(o);
+		}
+	}
+}
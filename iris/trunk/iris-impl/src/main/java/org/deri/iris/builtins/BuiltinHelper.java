@@ -58,6 +58,7 @@ import org.deri.iris.builtins.datatype.ToDoubleBuiltin;
 import org.deri.iris.builtins.datatype.ToFloatBuiltin;
 import org.deri.iris.builtins.datatype.ToYearMonthDurationBuiltin;
 import org.deri.iris.factory.Factory;
+import org.deri.iris.terms.concrete.IntegerTerm;
 import org.deri.iris.terms.concrete.XmlDurationWorkAroundHelper;
 import org.deri.iris.utils.StandardFloatingPointComparator;
 import org.deri.iris.utils.equivalence.IEquivalentTerms;
@@ -428,6 +429,17 @@ public class BuiltinHelper {
 			throw new NullPointerException("The terms must not be null");
 		}
 
+		// long + long = integer, unless the sum overflows
+		if (isLong(t0) && isLong(t1)) {
+			long l0 = ((IntegerTerm) t0).longValue();
+			long l1 = ((IntegerTerm) t1).longValue();
+			long sum = l0 + l1;
+
+			if (((l0 ^ sum) & (l1 ^ sum)) >= 0) {
+				return CONCRETE.createInteger(sum);
+			}
+		}
+
 		// number + number = number
 		if ((t0 instanceof INumericTerm) && (t1 instanceof INumericTerm)) {
 			BigDecimal sum = ((INumericTerm) t0).getValue().add(
@@ -532,6 +544,17 @@ public class BuiltinHelper {
 			throw new NullPointerException("The terms must not be null");
 		}
 
+		// long - long = integer, unless the difference overflows
+		if (isLong(t0) && isLong(t1)) {
+			long l0 = ((IntegerTerm) t0).longValue();
+			long l1 = ((IntegerTerm) t1).longValue();
+			long difference = l0 - l1;
+
+			if (((l0 ^ l1) & (l0 ^ difference)) >= 0) {
+				return CONCRETE.createInteger(difference);
+			}
+		}
+
 		// number - number = number
 		if ((t0 instanceof INumericTerm) && (t1 instanceof INumericTerm)) {
 			BigDecimal result = ((INumericTerm) t0).getValue().subtract(
@@ -665,6 +688,19 @@ public class BuiltinHelper {
 			throw new NullPointerException("The terms must not be null");
 		}
 
+		// long * long = integer, unless the product overflows
+		if (isLong(t0) && isLong(t1)) {
+			long l0 = ((IntegerTerm) t0).longValue();
+			long l1 = ((IntegerTerm) t1).longValue();
+			long product = l0 * l1;
+
+			boolean small = ((Math.abs(l0) | Math.abs(l1)) >>> 31) == 0;
+			if (small || ((l1 == 0 || product / l1 == l0)
+					&& !(l0 == Long.MIN_VALUE && l1 == -1))) {
+				return CONCRETE.createInteger(product);
+			}
+		}
+
 		// number * number = number
 		if (t0 instanceof INumericTerm && t1 instanceof INumericTerm) {
 			BigDecimal result = ((INumericTerm) t0).getValue().multiply(
@@ -909,6 +945,18 @@ public class BuiltinHelper {
 		return null;
 	}
 
+	/**
+	 * Checks whether a term is an integer, which fits into a
+	 * <code>long</code>. Arithmetic on such terms is done on primitives.
+	 * 
+	 * @param t the term to check
+	 * @return <code>true</code> if the term is an integer fitting into a
+	 *         <code>long</code>
+	 */
+	private static boolean isLong(ITerm t) {
+		return t instanceof IntegerTerm && ((IntegerTerm) t).isLong();
+	}
+
 	/**
 	 * Constructs a number term with of the most appropriate term type.
 	 * 
@@ -0,0 +1,248 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.builtins.string;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.deri.iris.api.terms.IStringTerm;
+import org.deri.iris.api.terms.ITerm;
+
+/**
+ * Compiles the regular expressions of the string built-ins, which take a
+ * pattern and flags as described in
+ * http://www.w3.org/TR/xpath-functions/#flags. Compiled patterns are kept in a
+ * bounded cache shared by all built-ins, because the same pattern is usually
+ * applied to many strings.
+ */
+final class RegularExpressions {
+
+	/** The maximum number of patterns in the cache. */
+	static final int CACHE_SIZE = 1024;
+
+	/** The compiled patterns, in least recently used order. */
+	private static final Map<Key, Pattern> cache = new LinkedHashMap<Key, Pattern>(
+			16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, Pattern> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+
+	private RegularExpressions() {
+	}
+
+	/**
+	 * Returns the compiled pattern for a regular expression and flags, from
+	 * the cache if possible.
+	 * 
+	 * @param regex The regular expression.
+	 * @param flags The flags.
+	 * @return The compiled pattern.
+	 * @throws PatternSyntaxException If the regular expression is invalid.
+	 */
+	static Pattern compile(String regex, String flags) {
+		Key key = new Key(regex, flags);
+
+		synchronized (cache) {
+			Pattern pattern = cache.get(key);
+
+			if (pattern != null) {
+				return pattern;
+			}
+		}
+
+		// Compile outside the lock, a concurrent duplicate does no harm.
+		Pattern pattern = translate(regex, flags);
+
+		synchronized (cache) {
+			cache.put(key, pattern);
+		}
+
+		return pattern;
+	}
+
+	/**
+	 * Compiles a regular expression with the given flags.
+	 */
+	private static Pattern translate(String regex, String flags) {
+		int flag = 0;
+
+		// See http://www.w3.org/TR/xpath-functions/#flags.
+		if (flags.contains("s")) {
+			flag |= Pattern.DOTALL;
+		}
+
+		if (flags.contains("m")) {
+			flag |= Pattern.MULTILINE;
+		}
+
+		if (flags.contains("i")) {
+			flag |= Pattern.UNICODE_CASE;
+		}
+
+		if (flags.contains("x")) {
+			/*
+			 * Naive approach would be to use Pattern.COMMENTS but whit this
+			 * flag set, whitespace elimination in character class expression
+			 * may lead to errors, e.g. the pattern hello[ ]world with COMMENT
+			 * mode on results in a character class with no elements and
+			 * therefore results in an exception.
+			 */
+
+			// Sort this array in order to enable binary search.
+			int[] whitespaces = { 0x9, 0xA, 0xD, 0x20 };
+			StringBuffer buffer = new StringBuffer();
+
+			int brackets = 0;
+
+			for (int i = 0; i < regex.length(); i++) {
+				char character = regex.charAt(i);
+
+				/*
+				 * With this mechanism brackets is 0 if and only if the current
+				 * character is outside a character class.
+				 */
+				if (character == '[') {
+					brackets++;
+				} else if (character == ']') {
+					brackets--;
+				}
+
+				if (Arrays.binarySearch(whitespaces, character) >= 0
+						&& brackets == 0) {
+				} else {
+					buffer.append(character);
+				}
+			}
+
+			regex = buffer.toString();
+		}
+
+		return Pattern.compile(regex, flag);
+	}
+
+	/**
+	 * The pattern argument of a built-in. If the pattern and the flags are
+	 * constants of the built-in atom, the pattern is compiled once when the
+	 * built-in is created. Otherwise, the patterns bound at evaluation time
+	 * are taken from the shared cache.
+	 */
+	static final class PatternArgument {
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param regex The regular expression term of the built-in atom.
+		 * @param flags The flags term of the built-in atom, or {@code null}
+		 *            if the built-in has no flags.
+		 */
+		PatternArgument(ITerm regex, ITerm flags) {
+			if (regex instanceof IStringTerm
+					&& (flags == null || flags instanceof IStringTerm)) {
+				constantRegex = ((IStringTerm) regex).getValue();
+				constantFlags = flags == null ? "" : ((IStringTerm) flags)
+						.getValue();
+				constantPattern = compileConstant(constantRegex, constantFlags);
+			} else {
+				constantRegex = null;
+				constantFlags = null;
+				constantPattern = null;
+			}
+		}
+
+		private static Pattern compileConstant(String regex, String flags) {
+			try {
+				return translate(regex, flags);
+			} catch (PatternSyntaxException e) {
+				// Reported when the built-in is evaluated.
+				return null;
+			}
+		}
+
+		/**
+		 * Returns the compiled pattern for the regular expression and flags
+		 * bound at evaluation time.
+		 * 
+		 * @param regex The regular expression.
+		 * @param flags The flags.
+		 * @return The compiled pattern.
+		 * @throws PatternSyntaxException If the regular expression is invalid.
+		 */
+		Pattern get(String regex, String flags) {
+			// The bound terms can differ from the constants, if they have been
+			// replaced by equivalent terms.
+			if (constantPattern != null && regex.equals(constantRegex)
+					&& flags.equals(constantFlags)) {
+				return constantPattern;
+			}
+
+			return compile(regex, flags);
+		}
+
+		/** The constant regular expression, if any. */
+		private final String constantRegex;
+
+		/** The constant flags, if any. */
+		private final String constantFlags;
+
+		/** The pattern compiled from the constants, if any. */
+		private final Pattern constantPattern;
+	}
+
+	/**
+	 * The key of a cached pattern.
+	 */
+	private static final class Key {
+
+		Key(String regex, String flags) {
+			this.regex = regex;
+			this.flags = flags;
+		}
+
+		@Override
+		public int hashCode() {
+			return regex.hashCode() * 31 + flags.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+
+			Key other = (Key) obj;
+			return regex.equals(other.regex) && flags.equals(other.flags);
+		}
+
+		private final String regex;
+
+		private final String flags;
+	}
+
+}
@@ -24,7 +24,6 @@ package org.deri.iris.builtins.string;
 
 import static org.deri.iris.factory.Factory.BASIC;
 
-import java.util.Arrays;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -56,6 +55,9 @@ public class StringMatchesBuiltin extends BooleanBuiltin {
 	 */
 	public StringMatchesBuiltin(ITerm... terms) {
 		super(PREDICATE, terms);
+
+		patternArgument = new RegularExpressions.PatternArgument(terms[1],
+				terms[2]);
 	}
 
 	@Override
@@ -73,67 +75,16 @@ public class StringMatchesBuiltin extends BooleanBuiltin {
 			return false;
 		}
 
-		return matches(string, pattern, flags);
+		return matches(string, patternArgument.get(pattern, flags));
 	}
 
-	static boolean matches(String string, String regex, String flags) {
-		int flag = 0;
-
-		// See http://www.w3.org/TR/xpath-functions/#flags.
-		if (flags.contains("s")) {
-			flag |= Pattern.DOTALL;
-		}
-
-		if (flags.contains("m")) {
-			flag |= Pattern.MULTILINE;
-		}
-
-		if (flags.contains("i")) {
-			flag |= Pattern.UNICODE_CASE;
-		}
-
-		if (flags.contains("x")) {
-			/*
-			 * Naive approach would be to use Pattern.COMMENTS but whit this
-			 * flag set, whitespace elimination in character class expression
-			 * may lead to errors, e.g. the pattern hello[ ]world with COMMENT
-			 * mode on results in a character class with no elements and
-			 * therefore results in an exception.
-			 */
-
-			// Sort this array in order to enable binary search.
-			int[] whitespaces = { 0x9, 0xA, 0xD, 0x20 };
-			StringBuffer buffer = new StringBuffer();
-
-			int brackets = 0;
-
-			for (int i = 0; i < regex.length(); i++) {
-				char character = regex.charAt(i);
-
-				/*
-				 * With this mechanism brackets is 0 if and only if the current
-				 * character is outside a character class.
-				 */
-				if (character == '[') {
-					brackets++;
-				} else if (character == ']') {
-					brackets--;
-				}
-
-				if (Arrays.binarySearch(whitespaces, character) >= 0
-						&& brackets == 0) {
-				} else {
-					buffer.append(character);
-				}
-			}
-
-			regex = buffer.toString();
-		}
-
-		Pattern pattern = Pattern.compile(regex, flag);
+	static boolean matches(String string, Pattern pattern) {
 		Matcher matcher = pattern.matcher(string);
 
 		return matcher.find();
 	}
 
+	/** The pattern, compiled once if it is a constant. */
+	private final RegularExpressions.PatternArgument patternArgument;
+
 }
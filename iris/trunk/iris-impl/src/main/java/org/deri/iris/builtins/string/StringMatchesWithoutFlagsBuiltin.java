@@ -53,6 +53,9 @@ public class StringMatchesWithoutFlagsBuiltin extends BooleanBuiltin {
 	 */
 	public StringMatchesWithoutFlagsBuiltin(ITerm... terms) {
 		super(PREDICATE, terms);
+
+		patternArgument = new RegularExpressions.PatternArgument(terms[1],
+				null);
 	}
 
 	@Override
@@ -68,7 +71,11 @@ public class StringMatchesWithoutFlagsBuiltin extends BooleanBuiltin {
 			return false;
 		}
 
-		return StringMatchesBuiltin.matches(string, pattern, flags);
+		return StringMatchesBuiltin.matches(string, patternArgument.get(pattern,
+				flags));
 	}
 
+	/** The pattern, compiled once if it is a constant. */
+	private final RegularExpressions.PatternArgument patternArgument;
+
 }
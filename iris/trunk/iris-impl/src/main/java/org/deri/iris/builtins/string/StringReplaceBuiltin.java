@@ -24,7 +24,6 @@ package org.deri.iris.builtins.string;
 
 import static org.deri.iris.factory.Factory.BASIC;
 
-import java.util.Arrays;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -60,6 +59,9 @@ public class StringReplaceBuiltin extends FunctionalBuiltin {
 	 */
 	public StringReplaceBuiltin(ITerm... terms) {
 		super(PREDICATE, terms);
+
+		patternArgument = new RegularExpressions.PatternArgument(terms[1],
+				terms[3]);
 	}
 
 	protected ITerm computeResult(ITerm[] terms) throws EvaluationException {
@@ -79,7 +81,8 @@ public class StringReplaceBuiltin extends FunctionalBuiltin {
 			return null;
 		}
 
-		String result = replace(string, regex, replacement, flags);
+		String result = replace(string, patternArgument.get(regex, flags),
+				replacement);
 
 		if (result != null) {
 			return Factory.TERM.createString(result);
@@ -88,65 +91,13 @@ public class StringReplaceBuiltin extends FunctionalBuiltin {
 		return null;
 	}
 
-	static String replace(String string, String regex, String replacement,
-			String flags) {
-		int flag = 0;
-
-		// See http://www.w3.org/TR/xpath-functions/#flags.
-		if (flags.contains("s")) {
-			flag |= Pattern.DOTALL;
-		}
-
-		if (flags.contains("m")) {
-			flag |= Pattern.MULTILINE;
-		}
-
-		if (flags.contains("i")) {
-			flag |= Pattern.UNICODE_CASE;
-		}
-
-		if (flags.contains("x")) {
-			/*
-			 * Naive approach would be to use Pattern.COMMENTS but whit this
-			 * flag set, whitespace elimination in character class expression
-			 * may lead to errors, e.g. the pattern hello[ ]world with COMMENT
-			 * mode on results in a character class with no elements and
-			 * therefore results in an exception.
-			 */
-
-			// Sort this array in order to enable binary search.
-			int[] whitespaces = { 0x9, 0xA, 0xD, 0x20 };
-			StringBuffer buffer = new StringBuffer();
-
-			int brackets = 0;
-
-			for (int i = 0; i < regex.length(); i++) {
-				char character = regex.charAt(i);
-
-				/*
-				 * With this mechanism brackets is 0 if and only if the current
-				 * character is outside a character class.
-				 */
-				if (character == '[') {
-					brackets++;
-				} else if (character == ']') {
-					brackets--;
-				}
-
-				if (Arrays.binarySearch(whitespaces, character) >= 0
-						&& brackets == 0) {
-				} else {
-					buffer.append(character);
-				}
-			}
-
-			regex = buffer.toString();
-		}
-
-		Pattern pattern = Pattern.compile(regex, flag);
+	static String replace(String string, Pattern pattern, String replacement) {
 		Matcher matcher = pattern.matcher(string);
 
 		return matcher.replaceAll(replacement);
 	}
 
+	/** The pattern, compiled once if it is a constant. */
+	private final RegularExpressions.PatternArgument patternArgument;
+
 }
@@ -55,6 +55,9 @@ public class StringReplaceWithoutFlagsBuiltin extends FunctionalBuiltin {
 	 */
 	public StringReplaceWithoutFlagsBuiltin(ITerm... terms) {
 		super(PREDICATE, terms);
+
+		patternArgument = new RegularExpressions.PatternArgument(terms[1],
+				null);
 	}
 
 	protected ITerm computeResult(ITerm[] terms) throws EvaluationException {
@@ -72,8 +75,8 @@ public class StringReplaceWithoutFlagsBuiltin extends FunctionalBuiltin {
 			return null;
 		}
 
-		String result = StringReplaceBuiltin.replace(string, regex,
-				replacement, flags);
+		String result = StringReplaceBuiltin.replace(string, patternArgument.get(
+				regex, flags), replacement);
 
 		if (result != null) {
 			return Factory.TERM.createString(result);
@@ -82,4 +85,7 @@ public class StringReplaceWithoutFlagsBuiltin extends FunctionalBuiltin {
 		return null;
 	}
 
+	/** The pattern, compiled once if it is a constant. */
+	private final RegularExpressions.PatternArgument patternArgument;
+
 }
@@ -0,0 +1,55 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.evaluation;
+
+import java.util.Map;
+
+import org.deri.iris.EvaluationException;
+import org.deri.iris.api.basics.IPredicate;
+import org.deri.iris.storage.IRelation;
+
+/**
+ * Interface for evaluation strategies, which are able to update their
+ * evaluated model when facts are added or removed, instead of evaluating
+ * the whole program again.
+ */
+public interface IIncrementalEvaluationStrategy extends IEvaluationStrategy
+{
+	/**
+	 * Add facts and everything that can be derived from them.
+	 * @param facts The facts to add.
+	 * @throws EvaluationException If the update fails.
+	 * @throws UnsupportedOperationException If the program of this strategy
+	 * can not be maintained incrementally.
+	 */
+	void addFacts( Map<IPredicate, IRelation> facts ) throws EvaluationException;
+
+	/**
+	 * Remove facts and everything that can no longer be derived without them.
+	 * @param facts The facts to remove.
+	 * @throws EvaluationException If the update fails.
+	 * @throws UnsupportedOperationException If the program of this strategy
+	 * can not be maintained incrementally.
+	 */
+	void removeFacts( Map<IPredicate, IRelation> facts ) throws EvaluationException;
+}
@@ -0,0 +1,54 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.evaluation;
+
+import java.util.List;
+
+import org.deri.iris.EvaluationException;
+import org.deri.iris.ProgramNotStratifiedException;
+import org.deri.iris.RuleUnsafeException;
+import org.deri.iris.api.IResultConsumer;
+import org.deri.iris.api.basics.IQuery;
+import org.deri.iris.api.terms.IVariable;
+
+/**
+ * Interface for evaluation strategies, which are able to pass the results of
+ * a query to a consumer while the query is evaluated, instead of collecting
+ * all results in a relation first.
+ */
+public interface IStreamingEvaluationStrategy extends IEvaluationStrategy
+{
+	/**
+	 * Evaluate a query and pass the results to a consumer.
+	 * @param query The query to evaluate.
+	 * @param outputVariables This list is filled with the variable bindings
+	 * of the result tuples, before the first result is passed to the consumer.
+	 * @param consumer The consumer of the results.
+	 * @return true if all results have been passed to the consumer, false if the
+	 * consumer stopped the evaluation.
+	 * @throws ProgramNotStratifiedException If the program (knowledge-base)can not be stratified
+	 * @throws RuleUnsafeException If the program (knowledge-base) contains an unsafe rule.
+	 * @throws EvaluationException If the evaluation fails for any other reason.
+	 */
+	boolean evaluateQuery( IQuery query, List<IVariable> outputVariables, IResultConsumer consumer ) throws ProgramNotStratifiedException, RuleUnsafeException, EvaluationException;
+}
@@ -22,26 +22,51 @@
  */
 package org.deri.iris.evaluation;
 
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.deri.iris.Configuration;
 import org.deri.iris.EvaluationException;
+import org.deri.iris.api.IResultConsumer;
 import org.deri.iris.api.IProgramOptimisation;
+import org.deri.iris.api.basics.IAtom;
+import org.deri.iris.api.basics.ILiteral;
+import org.deri.iris.api.basics.IPredicate;
 import org.deri.iris.api.basics.IQuery;
 import org.deri.iris.api.basics.IRule;
+import org.deri.iris.api.terms.IConstructedTerm;
+import org.deri.iris.api.terms.ITerm;
 import org.deri.iris.api.terms.IVariable;
 import org.deri.iris.facts.IFacts;
 import org.deri.iris.facts.OriginalFactsPreservingFacts;
+import org.deri.iris.factory.Factory;
+import org.deri.iris.rules.RuleManipulator;
 import org.deri.iris.storage.IRelation;
 
 /**
  * An evaluation strategy adaptor that uses program optimisations. <br />
- * This adaptor applies the optimisations each time a query is executed.
- * This requires a new evaluation strategy to also be created for each query.
+ * This adaptor applies the optimisations when a query is executed and creates a new
+ * evaluation strategy for the optimised program. <br />
+ * The optimised programs are cached by the shape of their query, i.e. the predicates,
+ * variables and positions of the constants, so that a query that only differs in its
+ * constants from a previous one is not optimised again. The evaluation strategies are
+ * cached by query, so that the model of the optimised program is reused when the same
+ * query is executed again. The evaluation strategies are discarded as soon as the
+ * facts change.
  */
-public class OptimisedProgramStrategyAdaptor implements IEvaluationStrategy
+public class OptimisedProgramStrategyAdaptor implements IStreamingEvaluationStrategy
 {
+	/**
+	 * The prefix of the variables that stand for the constants of a query in a cached
+	 * program. Should prevent collisions with the variables of the program.
+	 */
+	private static final String PARAMETER_PREFIX = "param_xXx_prefix_xXx";
+
 	/**
 	 * Constructor.
 	 * @param facts The original program's facts (which will not get modified).
@@ -53,6 +78,8 @@ public class OptimisedProgramStrategyAdaptor implements IEvaluationStrategy
 		mFacts = facts;
 		mRules = rules;
 		mConfiguration = configuration;
+		mPrograms = createCache( configuration.optimisedProgramCacheSize );
+		mEvaluations = createCache( configuration.optimisedProgramCacheSize );
 	}
 	
 	// Need to think about this.
@@ -60,24 +87,105 @@ public class OptimisedProgramStrategyAdaptor implements IEvaluationStrategy
 	// optimise again. This makes sense for bottom-up evaluation strategies, but not for anything else.
 	// However, magic sets is only for optimising bottom-up evaluation......
 	public IRelation evaluateQuery( IQuery query, List<IVariable> outputVariables ) throws EvaluationException
+	{
+		IQuery optimisedQuery = prepare( query );
+		
+		return mStrategy.evaluateQuery( optimisedQuery, outputVariables );
+	}
+
+	public boolean evaluateQuery( IQuery query, List<IVariable> outputVariables, IResultConsumer consumer ) throws EvaluationException
+	{
+		IQuery optimisedQuery = prepare( query );
+		
+		return QueryResults.evaluateQuery( mStrategy, optimisedQuery, outputVariables, consumer );
+	}
+	
+	/**
+	 * Set up the evaluation strategy for answering a query.
+	 * @param query The query.
+	 * @return The query to evaluate with the evaluation strategy.
+	 * @throws EvaluationException If the evaluation strategy can not be created.
+	 */
+	private IQuery prepare( IQuery query ) throws EvaluationException
 	{
 		if( mMinimalModelComputed )
 		{
-			return mStrategy.evaluateQuery( query, outputVariables );
+			return query;
 		}
 		else
+		{
+			discardEvaluationsIfFactsChanged();
+			
+			Evaluation evaluation = mEvaluations.get( query );
+			
+			if( evaluation == null )
+			{
+				evaluation = optimise( query );
+				
+				if( evaluation == null )
+				{
+					// Couldn't optimise at all, so the entire minimal model must be calculated
+					// (assuming a bottom-up evaluation strategy is used!)
+					mStrategy = mConfiguration.evaluationStrategyFactory.createEvaluator( mFacts, mRules, mConfiguration );
+					
+					mMinimalModelComputed = true;
+					mPrograms.clear();
+					mEvaluations.clear();
+
+					return query;
+				}
+				
+				mEvaluations.put( query, evaluation );
+			}
+			
+			mStrategy = evaluation.mStrategy;
+			
+			return evaluation.mQuery;
+		}
+	}
+
+	/**
+	 * Optimise the program for a query and create the evaluation strategy for the
+	 * optimised program.
+	 * @param query The query.
+	 * @return The evaluation strategy and the query to evaluate with it, or null if the
+	 * program could not be optimised.
+	 * @throws EvaluationException If the evaluation strategy can not be created.
+	 */
+	private Evaluation optimise( IQuery query ) throws EvaluationException
+	{
+		List<ITerm> constants = new ArrayList<ITerm>();
+		List<Object> shape = createShape( query, constants );
+		
+		// If a constant of the query also occurs in the rules, then the occurrences in
+		// the optimised program can not be told apart.
+		boolean parameterised = true;
+		for( ITerm constant : constants )
+		{
+			if( getRuleTerms().contains( constant ) )
+			{
+				shape.add( constants );
+				parameterised = false;
+				break;
+			}
+		}
+		
+		Program program = mPrograms.get( shape );
+		
+		if( program == null )
 		{
 			List<IRule> rules = mRules;
+			IQuery optimisedQuery = query;
 			boolean optimised = false;
 	
 			for( IProgramOptimisation optimisation : mConfiguration.programOptmimisers )
 			{
-				IProgramOptimisation.Result result = optimisation.optimise( rules, query );
+				IProgramOptimisation.Result result = optimisation.optimise( rules, optimisedQuery );
 				
 				// If the optimisation succeeded then replace the rules and query with the optimised version. 
 				if( result != null )
 				{
-					query = result.query;
+					optimisedQuery = result.query;
 					rules = result.rules;
 					optimised = true;
 				}
@@ -91,25 +199,233 @@ public class OptimisedProgramStrategyAdaptor implements IEvaluationStrategy
 //			System.out.println( "Rule count: " + rules.size() );
 //			System.out.println( "==================================================================");
 			
-			if( optimised )
+			if( ! optimised )
+				return null;
+			
+			program = new Program( rules, optimisedQuery, parameterised ? constants : new ArrayList<ITerm>() );
+			mPrograms.put( shape, program );
+		}
+		
+		IFacts facts = new OriginalFactsPreservingFacts( mFacts, mConfiguration.relationFactory );
+		
+		IEvaluationStrategy strategy = mConfiguration.evaluationStrategyFactory.createEvaluator( facts, program.getRules( constants ), mConfiguration );
+		
+		return new Evaluation( strategy, program.getQuery( constants ) );
+	}
+	
+	/**
+	 * Create the shape of a query, which are the predicates, the variables and the
+	 * positions of the constants of its literals. Equal constants get the same
+	 * position.
+	 * @param query The query.
+	 * @param constants The list to add the distinct constants of the query to.
+	 * @return The shape.
+	 */
+	private static List<Object> createShape( IQuery query, List<ITerm> constants )
+	{
+		List<Object> shape = new ArrayList<Object>();
+		
+		for( ILiteral literal : query.getLiterals() )
+		{
+			IAtom atom = literal.getAtom();
+			
+			shape.add( literal.isPositive() );
+			shape.add( atom.isBuiltin() );
+			shape.add( atom.getPredicate() );
+			
+			for( ITerm term : atom.getTuple() )
 			{
-				IFacts facts = new OriginalFactsPreservingFacts( mFacts, mConfiguration.relationFactory );
-				
-				mStrategy = mConfiguration.evaluationStrategyFactory.createEvaluator( facts, rules, mConfiguration );
-				
-				return mStrategy.evaluateQuery( query, outputVariables );
+				if( term.isGround() )
+				{
+					int index = constants.indexOf( term );
+					if( index < 0 )
+					{
+						index = constants.size();
+						constants.add( term );
+					}
+					shape.add( index );
+				}
+				else
+				{
+					shape.add( term );
+				}
 			}
-			else
+		}
+		
+		return shape;
+	}
+	
+	/**
+	 * Get all terms occurring in the rules, including the terms within constructed terms.
+	 */
+	private Set<ITerm> getRuleTerms()
+	{
+		if( mRuleTerms == null )
+		{
+			mRuleTerms = new HashSet<ITerm>();
+			
+			for( IRule rule : mRules )
 			{
-				// Couldn't optimise at all, so the entire minimal model must be calculated
-				// (assuming a bottom-up evaluation strategy is used!)
-				mStrategy = mConfiguration.evaluationStrategyFactory.createEvaluator( mFacts, mRules, mConfiguration );
-				
-				mMinimalModelComputed = true;
+				for( ILiteral literal : rule.getHead() )
+					addTerms( literal.getAtom().getTuple(), mRuleTerms );
+				for( ILiteral literal : rule.getBody() )
+					addTerms( literal.getAtom().getTuple(), mRuleTerms );
+			}
+		}
+		
+		return mRuleTerms;
+	}
+	
+	private static void addTerms( Collection<ITerm> terms, Set<ITerm> result )
+	{
+		for( ITerm term : terms )
+		{
+			result.add( term );
+			
+			if( term instanceof IConstructedTerm )
+				addTerms( ( (IConstructedTerm) term ).getParameters(), result );
+		}
+	}
+	
+	/**
+	 * Discard the cached evaluation strategies, if any facts have been added since they
+	 * were created. Relations can not shrink, so the number of tuples is sufficient to
+	 * detect any change.
+	 */
+	private void discardEvaluationsIfFactsChanged()
+	{
+		long tuples = 0;
+		
+		Set<IPredicate> predicates = mFacts.getPredicates();
+		for( IPredicate predicate : predicates )
+			tuples += mFacts.get( predicate ).size();
+		
+		if( tuples != mFactsTupleCount || predicates.size() != mFactsPredicateCount )
+		{
+			mEvaluations.clear();
+			
+			mFactsTupleCount = tuples;
+			mFactsPredicateCount = predicates.size();
+		}
+	}
+	
+	/**
+	 * Create a map that keeps the given number of most recently used entries.
+	 */
+	private static <K, V> Map<K, V> createCache( final int maximumSize )
+	{
+		return new LinkedHashMap<K, V>( 16, 0.75f, true )
+		{
+			private static final long serialVersionUID = 1L;
 
-				return mStrategy.evaluateQuery( query, outputVariables );
+			@Override
+			protected boolean removeEldestEntry( Map.Entry<K, V> eldest )
+			{
+				return size() > maximumSize;
 			}
+		};
+	}
+	
+	/**
+	 * An optimised program, in which the constants of the query it was optimised for are
+	 * replaced by parameters.
+	 */
+	private static class Program
+	{
+		/**
+		 * Constructor.
+		 * @param rules The optimised rules.
+		 * @param query The optimised query.
+		 * @param constants The constants of the original query to replace by parameters.
+		 */
+		Program( List<IRule> rules, IQuery query, List<ITerm> constants )
+		{
+			List<ITerm> parameters = new ArrayList<ITerm>();
+			for( int i = 0; i < constants.size(); ++i )
+				parameters.add( Factory.TERM.createVariable( PARAMETER_PREFIX + i ) );
+			
+			mParameters = parameters;
+			mRules = replace( rules, constants, parameters );
+			mQuery = replace( query, constants, parameters );
 		}
+		
+		/**
+		 * Get the optimised rules for the given constants.
+		 */
+		List<IRule> getRules( List<ITerm> constants )
+		{
+			return replace( mRules, mParameters, constants );
+		}
+		
+		/**
+		 * Get the optimised query for the given constants.
+		 */
+		IQuery getQuery( List<ITerm> constants )
+		{
+			return replace( mQuery, mParameters, constants );
+		}
+		
+		private static List<IRule> replace( List<IRule> rules, List<ITerm> remove, List<ITerm> replaceWith )
+		{
+			if( remove.isEmpty() )
+				return rules;
+			
+			RuleManipulator manipulator = new RuleManipulator();
+			List<IRule> result = new ArrayList<IRule>( rules.size() );
+			
+			for( IRule rule : rules )
+			{
+				for( int i = 0; i < remove.size(); ++i )
+					rule = manipulator.replace( rule, true, remove.get( i ), replaceWith.get( i ) );
+				result.add( rule );
+			}
+			
+			return result;
+		}
+		
+		private static IQuery replace( IQuery query, List<ITerm> remove, List<ITerm> replaceWith )
+		{
+			if( remove.isEmpty() )
+				return query;
+			
+			RuleManipulator manipulator = new RuleManipulator();
+			List<ILiteral> literals = new ArrayList<ILiteral>();
+			
+			for( ILiteral literal : query.getLiterals() )
+			{
+				IAtom atom = literal.getAtom();
+				for( int i = 0; i < remove.size(); ++i )
+					atom = manipulator.replace( atom, remove.get( i ), replaceWith.get( i ) );
+				literals.add( Factory.BASIC.createLiteral( literal.isPositive(), atom ) );
+			}
+			
+			return Factory.BASIC.createQuery( literals );
+		}
+		
+		/** The variables standing for the constants. */
+		private final List<ITerm> mParameters;
+		
+		/** The optimised rules. */
+		private final List<IRule> mRules;
+		
+		/** The optimised query. */
+		private final IQuery mQuery;
+	}
+	
+	/**
+	 * An evaluation strategy for an optimised program and the query to evaluate with it.
+	 */
+	private static class Evaluation
+	{
+		Evaluation( IEvaluationStrategy strategy, IQuery query )
+		{
+			mStrategy = strategy;
+			mQuery = query;
+		}
+		
+		final IEvaluationStrategy mStrategy;
+		
+		final IQuery mQuery;
 	}
 
 	/** The original facts. */
@@ -126,4 +442,19 @@ public class OptimisedProgramStrategyAdaptor implements IEvaluationStrategy
 	
 	/** The last 'real' evaluation strategy used to answer a query. */ 
 	private IEvaluationStrategy mStrategy;
+	
+	/** The optimised programs, by the shape of their query. */
+	private final Map<List<Object>, Program> mPrograms;
+	
+	/** The evaluation strategies of the optimised programs, by query. */
+	private final Map<IQuery, Evaluation> mEvaluations;
+	
+	/** All terms occurring in the original rules, or null if not collected yet. */
+	private Set<ITerm> mRuleTerms;
+	
+	/** The number of tuples in the original facts when the evaluations were created. */
+	private long mFactsTupleCount = -1;
+	
+	/** The number of predicates in the original facts when the evaluations were created. */
+	private int mFactsPredicateCount = -1;
 }
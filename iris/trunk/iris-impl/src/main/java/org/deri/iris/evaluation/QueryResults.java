@@ -0,0 +1,80 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.evaluation;
+
+import java.util.List;
+
+import org.deri.iris.EvaluationException;
+import org.deri.iris.api.IResultConsumer;
+import org.deri.iris.api.basics.IQuery;
+import org.deri.iris.api.terms.IVariable;
+import org.deri.iris.storage.IRelation;
+
+/**
+ * Helpers for passing query results to a consumer.
+ */
+public class QueryResults
+{
+	/**
+	 * Evaluate a query with the given strategy and pass the results to a consumer.
+	 * Streaming strategies pass the results while evaluating the query, for all
+	 * other strategies the results are passed from the result relation.
+	 * @param strategy The evaluation strategy.
+	 * @param query The query to evaluate.
+	 * @param outputVariables This list is filled with the variable bindings of the result tuples.
+	 * @param consumer The consumer of the results.
+	 * @return true if all results have been passed to the consumer, false if the
+	 * consumer stopped the evaluation.
+	 * @throws EvaluationException If the evaluation of the query fails.
+	 */
+	public static boolean evaluateQuery( IEvaluationStrategy strategy, IQuery query, List<IVariable> outputVariables, IResultConsumer consumer ) throws EvaluationException
+	{
+		if( strategy instanceof IStreamingEvaluationStrategy )
+			return ( (IStreamingEvaluationStrategy) strategy ).evaluateQuery( query, outputVariables, consumer );
+
+		return consumeAll( strategy.evaluateQuery( query, outputVariables ), consumer );
+	}
+
+	/**
+	 * Pass all tuples of a relation to a consumer.
+	 * @param relation The relation.
+	 * @param consumer The consumer.
+	 * @return true if all tuples have been passed to the consumer, false if the
+	 * consumer stopped early.
+	 * @throws EvaluationException If the consumer fails to process a tuple.
+	 */
+	public static boolean consumeAll( IRelation relation, IResultConsumer consumer ) throws EvaluationException
+	{
+		for( int t = 0; t < relation.size(); ++t )
+		{
+			if( ! consumer.consume( relation.get( t ) ) )
+				return false;
+		}
+
+		return true;
+	}
+
+	private QueryResults()
+	{
+	}
+}
@@ -0,0 +1,293 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.evaluation;
+
+import java.util.Collection;
+
+import org.deri.iris.Configuration;
+import org.deri.iris.EvaluationLimitExceededException;
+import org.deri.iris.EvaluationLimitExceededException.Limit;
+import org.deri.iris.api.terms.IConstructedTerm;
+import org.deri.iris.api.terms.ITerm;
+import org.deri.iris.storage.IRelation;
+
+/**
+ * <p>
+ * A cooperative governor for the resource limits of the knowledge-base
+ * configuration, i.e. the evaluation timeout, the maximum number of generated
+ * tuples and the maximum complexity of inferred constructed terms.
+ * Evaluators report their progress at iteration and join boundaries and the
+ * governor throws an {@link EvaluationLimitExceededException} as soon as a
+ * limit is exceeded.
+ * </p>
+ * <p>
+ * The governor is associated with the evaluating thread. The outermost
+ * {@link #enter(Configuration)} starts the budget, nested calls share it, so a
+ * single timeout covers all strata and evaluators of one knowledge-base
+ * operation. Threads that evaluate on behalf of the evaluating thread can
+ * share its governor with {@link #setCurrent(ResourceGovernor)}, but only the
+ * evaluating thread reports tuples and iterations.
+ * </p>
+ */
+public class ResourceGovernor {
+	/**
+	 * Constructor.
+	 * 
+	 * @param configuration The configuration with the resource limits.
+	 */
+	public ResourceGovernor(Configuration configuration) {
+		this(configuration, null);
+	}
+
+	private ResourceGovernor(Configuration configuration,
+			ResourceGovernor outer) {
+		assert configuration != null;
+
+		mConfiguration = configuration;
+		mOuter = outer;
+		mStartTime = System.nanoTime();
+
+		mTimeout = Math.max(0, configuration.evaluationTimeoutMilliseconds) * 1000000L;
+	}
+
+	/**
+	 * Start (or join) the governed evaluation of the current thread. Every
+	 * call must be followed by a call to {@link #exit()}.
+	 * 
+	 * @param configuration The configuration with the resource limits.
+	 * @return The governor of the current thread.
+	 */
+	public static ResourceGovernor enter(Configuration configuration) {
+		ResourceGovernor governor = CURRENT.get();
+
+		if (governor == null || governor.mConfiguration != configuration) {
+			governor = new ResourceGovernor(configuration, governor);
+			CURRENT.set(governor);
+		}
+
+		++governor.mDepth;
+
+		return governor;
+	}
+
+	/**
+	 * Leave the governed evaluation. The outermost call dissociates the
+	 * governor from the current thread.
+	 */
+	public void exit() {
+		assert mDepth > 0;
+
+		if (--mDepth == 0)
+			setCurrent(mOuter);
+	}
+
+	/**
+	 * Get the governor of the current thread.
+	 * 
+	 * @return The governor or null if the current thread is not evaluating.
+	 */
+	public static ResourceGovernor current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Associate a governor with the current thread, e.g. for a worker thread
+	 * that evaluates on behalf of another thread.
+	 * 
+	 * @param governor The governor, or null to remove the association.
+	 */
+	public static void setCurrent(ResourceGovernor governor) {
+		if (governor == null)
+			CURRENT.remove();
+		else
+			CURRENT.set(governor);
+	}
+
+	/**
+	 * Check that the evaluation timeout has not been exceeded.
+	 * 
+	 * @throws EvaluationLimitExceededException If the timeout has been
+	 *             exceeded.
+	 */
+	public void checkTime() throws EvaluationLimitExceededException {
+		if (mTimeout > 0 && System.nanoTime() - mStartTime > mTimeout)
+			throw exceeded(Limit.TIME, "Evaluation timeout exceeded: "
+					+ mConfiguration.evaluationTimeoutMilliseconds + "ms");
+	}
+
+	/**
+	 * Report the start of a new iteration (or top-down resolution step) and
+	 * check the evaluation timeout.
+	 * 
+	 * @throws EvaluationLimitExceededException If the timeout has been
+	 *             exceeded.
+	 */
+	public void checkIteration() throws EvaluationLimitExceededException {
+		++mIterations;
+
+		checkTime();
+	}
+
+	/**
+	 * Report newly generated tuples and check all limits.
+	 * 
+	 * @param tuples The new tuples.
+	 * @throws EvaluationLimitExceededException If a limit has been exceeded.
+	 */
+	public void checkTuples(IRelation tuples)
+			throws EvaluationLimitExceededException {
+		checkTuples(tuples, 0);
+	}
+
+	/**
+	 * Report the newly generated tuples at the end of a relation and check all
+	 * limits.
+	 * 
+	 * @param relation The relation.
+	 * @param from The index of the first new tuple.
+	 * @throws EvaluationLimitExceededException If a limit has been exceeded.
+	 */
+	public void checkTuples(IRelation relation, int from)
+			throws EvaluationLimitExceededException {
+		int size = relation.size();
+
+		if (mConfiguration.evaluationMaxComplexity > 0) {
+			for (int t = from; t < size; ++t)
+				checkComplexity(relation.get(t));
+		}
+
+		addTuples(size - from);
+	}
+
+	/**
+	 * Report one newly generated tuple (or answer substitution) and check all
+	 * limits.
+	 * 
+	 * @param terms The terms of the new tuple.
+	 * @throws EvaluationLimitExceededException If a limit has been exceeded.
+	 */
+	public void checkTuple(Collection<ITerm> terms)
+			throws EvaluationLimitExceededException {
+		if (mConfiguration.evaluationMaxComplexity > 0)
+			checkComplexity(terms);
+
+		addTuples(1);
+	}
+
+	private void addTuples(int count) throws EvaluationLimitExceededException {
+		mTuples += count;
+
+		int max = mConfiguration.evaluationMaxTuples;
+
+		if (max > 0 && mTuples > max)
+			throw exceeded(Limit.TUPLES, "Maximum number of tuples exceeded: "
+					+ max);
+
+		checkTime();
+	}
+
+	private void checkComplexity(Collection<ITerm> terms)
+			throws EvaluationLimitExceededException {
+		int max = mConfiguration.evaluationMaxComplexity;
+
+		for (ITerm term : terms) {
+			if (depth(term) > max)
+				throw exceeded(Limit.COMPLEXITY,
+						"Maximum term complexity exceeded: " + max + " by "
+								+ term);
+		}
+	}
+
+	/**
+	 * Compute the depth of a term, which is zero for all but constructed
+	 * terms.
+	 */
+	private static int depth(ITerm term) {
+		if (!(term instanceof IConstructedTerm))
+			return 0;
+
+		int depth = 0;
+
+		for (ITerm argument : ((IConstructedTerm) term).getValue())
+			depth = Math.max(depth, depth(argument));
+
+		return depth + 1;
+	}
+
+	private EvaluationLimitExceededException exceeded(Limit limit,
+			String message) {
+		return new EvaluationLimitExceededException(message, limit,
+				getElapsedMilliseconds(), mTuples, mIterations);
+	}
+
+	/**
+	 * Get the time spent since the governed evaluation started.
+	 * 
+	 * @return The elapsed time in milliseconds.
+	 */
+	public long getElapsedMilliseconds() {
+		return (System.nanoTime() - mStartTime) / 1000000L;
+	}
+
+	/**
+	 * Get the number of tuples generated so far.
+	 * 
+	 * @return The number of tuples.
+	 */
+	public long getTuples() {
+		return mTuples;
+	}
+
+	/**
+	 * Get the number of iterations done so far.
+	 * 
+	 * @return The number of iterations.
+	 */
+	public long getIterations() {
+		return mIterations;
+	}
+
+	/** The governor of each evaluating thread. */
+	private static final ThreadLocal<ResourceGovernor> CURRENT = new ThreadLocal<ResourceGovernor>();
+
+	/** The configuration with the resource limits. */
+	private final Configuration mConfiguration;
+
+	/** The governor that was current before this one was entered. */
+	private final ResourceGovernor mOuter;
+
+	/** The start of the evaluation in nanoseconds. */
+	private final long mStartTime;
+
+	/** The evaluation timeout in nanoseconds, or 0 for none. */
+	private final long mTimeout;
+
+	/** The number of nested enter() calls not yet exited. */
+	private int mDepth;
+
+	/** The number of generated tuples. */
+	private long mTuples;
+
+	/** The number of iterations. */
+	private long mIterations;
+}
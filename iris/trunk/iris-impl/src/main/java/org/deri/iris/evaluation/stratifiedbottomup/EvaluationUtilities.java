@@ -29,8 +29,12 @@ import org.deri.iris.Configuration;
 import org.deri.iris.ProgramNotStratifiedException;
 import org.deri.iris.RuleUnsafeException;
 import org.deri.iris.api.basics.IRule;
+import org.deri.iris.facts.IFacts;
+import org.deri.iris.rules.IFactsAwareRuleOptimiser;
 import org.deri.iris.rules.IRuleOptimiser;
 import org.deri.iris.rules.IRuleStratifier;
+import org.deri.iris.rules.optimisation.CostBasedReOrderLiteralsOptimiser;
+import org.deri.iris.rules.optimisation.RelationStatistics;
 
 /**
  * A collection of useful evaluation steps.
@@ -85,20 +89,78 @@ public class EvaluationUtilities
 	 * @return A list of optimised rules.
 	 */
 	public List<IRule> applyRuleOptimisers( final List<IRule> rules )
+	{
+		return applyRuleOptimisers( rules, null );
+	}
+	
+	/**
+	 * Optimise a collection of rules by applying each of the rule optimisations to each rule in turn.
+	 * @param rules A collection of rules to optimise.
+	 * @param facts The facts the rules are evaluated against, which are passed to
+	 * the facts aware rule optimisers, or null if they are not known.
+	 * @return A list of optimised rules.
+	 */
+	public List<IRule> applyRuleOptimisers( final List<IRule> rules, IFacts facts )
 	{
 		List<IRule> optimisedRules = new ArrayList<IRule>();
 		
 		for( IRule rule : rules )
-		{
-			IRule optimisedRule = rule;
+			optimisedRules.add( applyRuleOptimisers( rule, facts ) );
 			
-			for( IRuleOptimiser optimiser : mConfiguration.ruleOptimisers )
+		return optimisedRules;
+	}
+	
+	/**
+	 * Optimise a rule by applying each of the rule optimisations in turn.
+	 * @param rule The rule to optimise.
+	 * @param facts The facts the rule is evaluated against, or null if they are not known.
+	 * @return The optimised rule.
+	 */
+	public IRule applyRuleOptimisers( IRule rule, IFacts facts )
+	{
+		IRule optimisedRule = rule;
+		
+		for( IRuleOptimiser optimiser : mConfiguration.ruleOptimisers )
+		{
+			if( facts != null && optimiser instanceof CostBasedReOrderLiteralsOptimiser )
+				optimisedRule = ((CostBasedReOrderLiteralsOptimiser) optimiser).optimise( optimisedRule, getRelationStatistics( facts ) );
+			else if( facts != null && optimiser instanceof IFactsAwareRuleOptimiser )
+				optimisedRule = ((IFactsAwareRuleOptimiser) optimiser).optimise( optimisedRule, facts );
+			else
 				optimisedRule = optimiser.optimise( optimisedRule );
-			
-			optimisedRules.add( optimisedRule );
 		}
-			
-		return optimisedRules;
+		
+		return optimisedRule;
+	}
+	
+	/**
+	 * Get the statistics of the facts, which are shared by all rules optimised
+	 * with these utilities, so that the relations are only sampled again once
+	 * they have grown or shrunk considerably.
+	 * @param facts The facts.
+	 * @return The statistics of the facts.
+	 */
+	public synchronized RelationStatistics getRelationStatistics( IFacts facts )
+	{
+		if( mRelationStatistics == null || mRelationStatistics.getFacts() != facts )
+			mRelationStatistics = new RelationStatistics( facts );
+
+		return mRelationStatistics;
+	}
+
+	/**
+	 * Check if the result of the rule optimisations depends on the facts.
+	 * @return true, if at least one of the rule optimisers is facts aware.
+	 */
+	public boolean hasFactsAwareRuleOptimisers()
+	{
+		for( IRuleOptimiser optimiser : mConfiguration.ruleOptimisers )
+		{
+			if( optimiser instanceof IFactsAwareRuleOptimiser )
+				return true;
+		}
+		
+		return false;
 	}
 	
 	/**
@@ -123,4 +185,7 @@ public class EvaluationUtilities
 	
 	/** The knowledge-base configuration object. */
 	protected final Configuration mConfiguration;
+
+	/** The statistics of the facts the rules were last optimised for. */
+	private RelationStatistics mRelationStatistics;
 }
@@ -0,0 +1,533 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.evaluation.stratifiedbottomup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.deri.iris.Configuration;
+import org.deri.iris.EvaluationException;
+import org.deri.iris.api.basics.ILiteral;
+import org.deri.iris.api.basics.IPredicate;
+import org.deri.iris.api.basics.IRule;
+import org.deri.iris.api.basics.ITuple;
+import org.deri.iris.evaluation.ResourceGovernor;
+import org.deri.iris.facts.Facts;
+import org.deri.iris.facts.IFacts;
+import org.deri.iris.facts.ReplaceableFacts;
+import org.deri.iris.rules.compiler.ICompiledRule;
+import org.deri.iris.rules.compiler.RuleCompiler;
+import org.deri.iris.storage.IRelation;
+
+/**
+ * <p>
+ * Maintains the model computed by the stratified bottom-up evaluation when
+ * facts are added or removed, using the delete and re-derive (DRed) algorithm
+ * of Gupta, Mumick and Subrahmanian.
+ * </p>
+ * <p>
+ * An update is done in three phases:
+ * <ol>
+ * <li>Over-delete: starting with the removed facts, everything that has a
+ * derivation using a removed tuple is marked as deleted. This is done stratum
+ * by stratum on the unmodified model with the semi-naive delta rules.</li>
+ * <li>Remove: the marked tuples are removed, which means that the affected
+ * relations are replaced and the rules reading them are compiled again.</li>
+ * <li>Re-derive and insert: stratum by stratum, the deleted tuples which still
+ * have a derivation are derived again and the added facts (and the tuples
+ * re-derived in lower strata) are propagated with semi-naive evaluation. A
+ * stratum that negates a changed predicate is not maintained this way, but
+ * evaluated again from its explicit facts.</li>
+ * </ol>
+ * </p>
+ * <p>
+ * The compiled rules of a stratum are kept between updates, as long as none
+ * of the relations they read is replaced.
+ * </p>
+ */
+class IncrementalMaintainer {
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param facts The facts the rules are compiled against.
+	 * @param compiler The compiler to use to compile rules again.
+	 * @param configuration The configuration of the knowledge-base.
+	 */
+	IncrementalMaintainer(ReplaceableFacts facts, RuleCompiler compiler,
+			Configuration configuration) {
+		mFacts = facts;
+		mCompiler = compiler;
+		mConfiguration = configuration;
+	}
+
+	/**
+	 * Record the explicit facts of the rule head predicates. This must be
+	 * called before the rules are evaluated the first time.
+	 * 
+	 * @param rules All rules of the program.
+	 */
+	void recordExplicitFacts(List<IRule> rules) {
+		for (IRule rule : rules) {
+			for (ILiteral literal : rule.getHead()) {
+				IPredicate predicate = literal.getAtom().getPredicate();
+
+				if (!mExplicitFacts.containsKey(predicate)) {
+					Set<ITuple> explicit = new HashSet<ITuple>();
+					IRelation relation = mFacts.get(predicate);
+					for (int t = 0; t < relation.size(); ++t)
+						explicit.add(relation.get(t));
+					mExplicitFacts.put(predicate, explicit);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Add a stratum, strata must be added from the lowest to the highest.
+	 * 
+	 * @param rules The (optimised) rules of the stratum.
+	 * @param compiledRules The compiled rules, in the same order.
+	 * @param evaluator The evaluator used for the stratum.
+	 */
+	void addStratum(List<IRule> rules, List<ICompiledRule> compiledRules,
+			IRuleEvaluator evaluator) {
+		mStrata.add(new Stratum(rules, compiledRules, evaluator));
+	}
+
+	/**
+	 * Add and remove facts and update the model accordingly.
+	 * 
+	 * @param additions The facts to add.
+	 * @param removals The facts to remove.
+	 * @throws EvaluationException If the evaluation of a rule fails.
+	 */
+	void update(Map<IPredicate, IRelation> additions,
+			Map<IPredicate, IRelation> removals) throws EvaluationException {
+		Update update = new Update();
+
+		for (Map.Entry<IPredicate, IRelation> entry : removals.entrySet()) {
+			IPredicate predicate = entry.getKey();
+			IRelation relation = entry.getValue();
+			IRelation current = mFacts.get(predicate);
+			Set<ITuple> explicit = mExplicitFacts.get(predicate);
+
+			for (int t = 0; t < relation.size(); ++t) {
+				ITuple tuple = relation.get(t);
+
+				if (explicit != null) {
+					// Derived predicate, the tuple might have another derivation.
+					if (explicit.remove(tuple) && current.contains(tuple))
+						update.mExplicitRemovals.get(predicate).add(tuple);
+				} else if (current.contains(tuple)) {
+					update.mDeleted.get(predicate).add(tuple);
+				}
+			}
+		}
+
+		overDelete(update);
+		remove(update);
+
+		for (Map.Entry<IPredicate, IRelation> entry : additions.entrySet()) {
+			IPredicate predicate = entry.getKey();
+			IRelation relation = entry.getValue();
+			Set<ITuple> explicit = mExplicitFacts.get(predicate);
+
+			for (int t = 0; t < relation.size(); ++t) {
+				ITuple tuple = relation.get(t);
+
+				if (explicit != null) {
+					// Derived predicate, inserted with its stratum.
+					if (explicit.add(tuple))
+						update.mExplicitAdditions.get(predicate).add(tuple);
+				} else {
+					update.add(predicate, tuple);
+				}
+			}
+		}
+
+		for (Stratum stratum : mStrata)
+			reDeriveAndInsert(stratum, update);
+	}
+
+	/**
+	 * Mark everything that is derived from deleted tuples as deleted, too.
+	 * The model is not modified.
+	 */
+	private void overDelete(Update update) throws EvaluationException {
+		for (Stratum stratum : mStrata) {
+			IFacts delta = new Facts(mConfiguration.relationFactory);
+
+			for (IPredicate predicate : stratum.mPositive)
+				copy(update.mDeleted, delta, predicate);
+
+			for (IPredicate predicate : stratum.mHeads) {
+				IRelation removed = update.mExplicitRemovals.get(predicate);
+				update.mDeleted.get(predicate).addAll(removed);
+				delta.get(predicate).addAll(removed);
+			}
+
+			while (!isEmpty(delta)) {
+				checkIteration();
+
+				IFacts newDelta = new Facts(mConfiguration.relationFactory);
+
+				for (ICompiledRule rule : stratum.mCompiledRules) {
+					IPredicate predicate = rule.headPredicate();
+					IRelation output = rule.evaluateIteratively(delta);
+					IRelation current = mFacts.get(predicate);
+					IRelation deleted = update.mDeleted.get(predicate);
+
+					for (int t = 0; t < output.size(); ++t) {
+						ITuple tuple = output.get(t);
+
+						if (current.contains(tuple) && deleted.add(tuple))
+							newDelta.get(predicate).add(tuple);
+					}
+				}
+
+				delta = newDelta;
+			}
+		}
+	}
+
+	/**
+	 * Remove the deleted tuples from the model and compile all rules that
+	 * read a changed relation again.
+	 */
+	private void remove(Update update) throws EvaluationException {
+		Set<IPredicate> replaced = new HashSet<IPredicate>();
+
+		for (IPredicate predicate : update.mDeleted.getPredicates()) {
+			IRelation deleted = update.mDeleted.get(predicate);
+
+			if (deleted.size() > 0) {
+				IRelation current = mFacts.get(predicate);
+				IRelation relation = mConfiguration.relationFactory
+						.createRelation();
+
+				for (int t = 0; t < current.size(); ++t) {
+					ITuple tuple = current.get(t);
+
+					if (!deleted.contains(tuple))
+						relation.add(tuple);
+				}
+
+				mFacts.replace(predicate, relation);
+				replaced.add(predicate);
+			}
+		}
+
+		recompile(replaced);
+	}
+
+	/**
+	 * Derive the deleted tuples of a stratum again, if they still have a
+	 * derivation, and propagate all insertions into the stratum.
+	 */
+	private void reDeriveAndInsert(Stratum stratum, Update update)
+			throws EvaluationException {
+		if (needsEvaluation(stratum, update)) {
+			evaluate(stratum, update);
+			return;
+		}
+
+		IFacts delta = new Facts(mConfiguration.relationFactory);
+
+		for (IPredicate predicate : stratum.mPositive)
+			copy(update.mInserted, delta, predicate);
+
+		for (IPredicate predicate : stratum.mHeads) {
+			IRelation additions = update.mExplicitAdditions.get(predicate);
+			IRelation deleted = update.mDeleted.get(predicate);
+			Set<ITuple> explicit = mExplicitFacts.get(predicate);
+
+			for (int t = 0; t < additions.size(); ++t)
+				insert(predicate, additions.get(t), update, delta);
+
+			for (int t = 0; t < deleted.size(); ++t) {
+				ITuple tuple = deleted.get(t);
+
+				if (explicit.contains(tuple))
+					insert(predicate, tuple, update, delta);
+			}
+		}
+
+		for (ICompiledRule rule : stratum.mCompiledRules) {
+			IPredicate predicate = rule.headPredicate();
+			IRelation deleted = update.mDeleted.get(predicate);
+
+			if (deleted.size() > 0) {
+				IRelation output = rule.evaluate();
+
+				for (int t = 0; t < output.size(); ++t) {
+					ITuple tuple = output.get(t);
+
+					if (deleted.contains(tuple))
+						insert(predicate, tuple, update, delta);
+				}
+			}
+		}
+
+		while (!isEmpty(delta)) {
+			checkIteration();
+
+			IFacts newDelta = new Facts(mConfiguration.relationFactory);
+
+			for (ICompiledRule rule : stratum.mCompiledRules) {
+				IPredicate predicate = rule.headPredicate();
+				IRelation output = rule.evaluateIteratively(delta);
+
+				for (int t = 0; t < output.size(); ++t)
+					insert(predicate, output.get(t), update, newDelta);
+			}
+
+			delta = newDelta;
+		}
+	}
+
+	/**
+	 * Decide whether a stratum can not be maintained with DRed, because it
+	 * negates a changed predicate or reads a predicate with deletions, which
+	 * were not found by the over-deletion.
+	 */
+	private boolean needsEvaluation(Stratum stratum, Update update) {
+		for (IPredicate predicate : stratum.mNegative) {
+			if (update.mChanged.get(predicate).size() > 0
+					|| update.mLateDeleted.get(predicate).size() > 0)
+				return true;
+
+			IRelation deleted = update.mDeleted.get(predicate);
+			IRelation current = mFacts.get(predicate);
+			for (int t = 0; t < deleted.size(); ++t) {
+				if (!current.contains(deleted.get(t)))
+					return true;
+			}
+		}
+
+		for (IPredicate predicate : stratum.mPositive) {
+			if (update.mLateDeleted.get(predicate).size() > 0)
+				return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Evaluate a stratum again, starting with the explicit facts of its head
+	 * predicates.
+	 */
+	private void evaluate(Stratum stratum, Update update)
+			throws EvaluationException {
+		Map<IPredicate, IRelation> old = new HashMap<IPredicate, IRelation>();
+
+		for (IPredicate predicate : stratum.mHeads) {
+			IRelation relation = mConfiguration.relationFactory
+					.createRelation();
+			for (ITuple tuple : mExplicitFacts.get(predicate))
+				relation.add(tuple);
+
+			old.put(predicate, mFacts.get(predicate));
+			mFacts.replace(predicate, relation);
+		}
+
+		recompile(stratum.mHeads);
+
+		stratum.mEvaluator.evaluateRules(stratum.mCompiledRules, mFacts,
+				mConfiguration);
+
+		for (IPredicate predicate : stratum.mHeads) {
+			IRelation before = old.get(predicate);
+			IRelation after = mFacts.get(predicate);
+
+			for (int t = 0; t < after.size(); ++t) {
+				ITuple tuple = after.get(t);
+
+				if (!before.contains(tuple))
+					update.inserted(predicate, tuple);
+			}
+
+			for (int t = 0; t < before.size(); ++t) {
+				ITuple tuple = before.get(t);
+
+				if (!after.contains(tuple))
+					update.mLateDeleted.get(predicate).add(tuple);
+			}
+		}
+	}
+
+	/**
+	 * Insert a tuple into the model and into the delta, if it is new.
+	 */
+	private void insert(IPredicate predicate, ITuple tuple, Update update,
+			IFacts delta) {
+		if (mFacts.get(predicate).add(tuple)) {
+			update.inserted(predicate, tuple);
+			delta.get(predicate).add(tuple);
+		}
+	}
+
+	/**
+	 * Compile all rules again, which read one of the given predicates.
+	 */
+	private void recompile(Set<IPredicate> predicates)
+			throws EvaluationException {
+		if (predicates.isEmpty())
+			return;
+
+		for (Stratum stratum : mStrata) {
+			for (int r = 0; r < stratum.mRules.size(); ++r) {
+				IRule rule = stratum.mRules.get(r);
+
+				for (ILiteral literal : rule.getBody()) {
+					if (predicates.contains(literal.getAtom().getPredicate())) {
+						stratum.mCompiledRules.set(r, mCompiler.compile(rule));
+						break;
+					}
+				}
+			}
+		}
+	}
+
+	private void checkIteration() throws EvaluationException {
+		ResourceGovernor governor = ResourceGovernor.current();
+
+		if (governor != null)
+			governor.checkIteration();
+	}
+
+	private static void copy(IFacts source, IFacts target, IPredicate predicate) {
+		IRelation relation = source.get(predicate);
+
+		if (relation.size() > 0)
+			target.get(predicate).addAll(relation);
+	}
+
+	private static boolean isEmpty(IFacts facts) {
+		for (IPredicate predicate : facts.getPredicates()) {
+			if (facts.get(predicate).size() > 0)
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * The bookkeeping of a single update.
+	 */
+	private class Update {
+		/**
+		 * Insert a tuple of a predicate without rules into the model.
+		 */
+		void add(IPredicate predicate, ITuple tuple) {
+			if (mFacts.get(predicate).add(tuple))
+				inserted(predicate, tuple);
+		}
+
+		/**
+		 * Record a tuple, which was inserted into the model.
+		 */
+		void inserted(IPredicate predicate, ITuple tuple) {
+			mInserted.get(predicate).add(tuple);
+
+			if (!mDeleted.get(predicate).contains(tuple))
+				mChanged.get(predicate).add(tuple);
+		}
+
+		/** The removed explicit facts of derived predicates. */
+		final IFacts mExplicitRemovals = new Facts(
+				mConfiguration.relationFactory);
+
+		/** The added explicit facts of derived predicates. */
+		final IFacts mExplicitAdditions = new Facts(
+				mConfiguration.relationFactory);
+
+		/** The tuples removed from the model by the over-deletion. */
+		final IFacts mDeleted = new Facts(mConfiguration.relationFactory);
+
+		/** The tuples removed from the model by evaluating a stratum again. */
+		final IFacts mLateDeleted = new Facts(mConfiguration.relationFactory);
+
+		/** All tuples inserted into the model after the removal. */
+		final IFacts mInserted = new Facts(mConfiguration.relationFactory);
+
+		/** The inserted tuples, which were not in the model before the update. */
+		final IFacts mChanged = new Facts(mConfiguration.relationFactory);
+	}
+
+	/**
+	 * The rules of a stratum.
+	 */
+	private static class Stratum {
+		Stratum(List<IRule> rules, List<ICompiledRule> compiledRules,
+				IRuleEvaluator evaluator) {
+			mRules = rules;
+			mCompiledRules = compiledRules;
+			mEvaluator = evaluator;
+
+			for (IRule rule : rules) {
+				for (ILiteral literal : rule.getHead())
+					mHeads.add(literal.getAtom().getPredicate());
+
+				for (ILiteral literal : rule.getBody()) {
+					if (literal.getAtom().isBuiltin())
+						continue;
+
+					if (literal.isPositive())
+						mPositive.add(literal.getAtom().getPredicate());
+					else
+						mNegative.add(literal.getAtom().getPredicate());
+				}
+			}
+		}
+
+		final List<IRule> mRules;
+
+		final List<ICompiledRule> mCompiledRules;
+
+		final IRuleEvaluator mEvaluator;
+
+		final Set<IPredicate> mHeads = new HashSet<IPredicate>();
+
+		final Set<IPredicate> mPositive = new HashSet<IPredicate>();
+
+		final Set<IPredicate> mNegative = new HashSet<IPredicate>();
+	}
+
+	/** The facts the rules are compiled against. */
+	private final ReplaceableFacts mFacts;
+
+	private final RuleCompiler mCompiler;
+
+	private final Configuration mConfiguration;
+
+	/** The strata from the lowest to the highest. */
+	private final List<Stratum> mStrata = new ArrayList<Stratum>();
+
+	/** The explicit facts of all predicates, which are defined by rules. */
+	private final Map<IPredicate, Set<ITuple>> mExplicitFacts = new HashMap<IPredicate, Set<ITuple>>();
+}
@@ -0,0 +1,169 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.evaluation.stratifiedbottomup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.deri.iris.EvaluationException;
+import org.deri.iris.api.IResultConsumer;
+import org.deri.iris.api.basics.ILiteral;
+import org.deri.iris.api.basics.IPredicate;
+import org.deri.iris.api.basics.IRule;
+import org.deri.iris.api.builtins.IBuiltinAtom;
+import org.deri.iris.api.terms.IVariable;
+import org.deri.iris.facts.IFacts;
+import org.deri.iris.rules.compiler.ICompiledRule;
+import org.deri.iris.rules.compiler.RuleCompiler;
+import org.deri.iris.storage.IRelation;
+
+/**
+ * A compiled rule, that applies the rule optimisers and compiles the rule
+ * again, whenever the cardinality of a relation used in the body of the rule
+ * has changed by more than an order of magnitude since the rule was last
+ * optimised. This allows facts aware rule optimisers to adapt the join order
+ * to relations, that grow during the evaluation of a stratum.
+ */
+class ReplanningCompiledRule implements ICompiledRule {
+
+	/**
+	 * The factor by which the cardinality of a relation has to change, before
+	 * the rule is optimised again.
+	 */
+	static final double REPLAN_FACTOR = 10;
+
+	/**
+	 * Creates a new compiled rule.
+	 * 
+	 * @param rule
+	 *            The rule before the rule optimisers have been applied.
+	 * @param optimisedRule
+	 *            The rule optimised for the current facts.
+	 * @param compiler
+	 *            The compiler for the rule.
+	 * @param utils
+	 *            The utilities applying the rule optimisers.
+	 * @param facts
+	 *            The facts the rule is evaluated against.
+	 * @throws EvaluationException
+	 *             If the optimised rule can not be compiled.
+	 */
+	ReplanningCompiledRule(IRule rule, IRule optimisedRule,
+			RuleCompiler compiler, EvaluationUtilities utils, IFacts facts)
+			throws EvaluationException {
+		mRule = rule;
+		mCompiler = compiler;
+		mUtils = utils;
+		mFacts = facts;
+
+		mBodyPredicates = new ArrayList<IPredicate>();
+		for (ILiteral literal : rule.getBody()) {
+			if (literal.isPositive()
+					&& !(literal.getAtom() instanceof IBuiltinAtom)) {
+				mBodyPredicates.add(literal.getAtom().getPredicate());
+			}
+		}
+
+		mOptimisedRule = optimisedRule;
+		mCompiledRule = compiler.compile(optimisedRule);
+		mPlannedSizes = currentSizes();
+	}
+
+	public IRelation evaluate() throws EvaluationException {
+		replanIfNecessary();
+
+		return mCompiledRule.evaluate();
+	}
+
+	public boolean evaluate(IResultConsumer consumer)
+			throws EvaluationException {
+		replanIfNecessary();
+
+		return mCompiledRule.evaluate(consumer);
+	}
+
+	public IRelation evaluateIteratively(IFacts deltas)
+			throws EvaluationException {
+		replanIfNecessary();
+
+		return mCompiledRule.evaluateIteratively(deltas);
+	}
+
+	public IPredicate headPredicate() {
+		return mCompiledRule.headPredicate();
+	}
+
+	public List<IVariable> getVariablesBindings() {
+		return mCompiledRule.getVariablesBindings();
+	}
+
+	private void replanIfNecessary() throws EvaluationException {
+		int[] sizes = currentSizes();
+
+		for (int i = 0; i < sizes.length; i++) {
+			double before = Math.max(1, mPlannedSizes[i]);
+			double now = Math.max(1, sizes[i]);
+
+			if (now >= before * REPLAN_FACTOR || before >= now * REPLAN_FACTOR) {
+				IRule optimisedRule = mUtils.applyRuleOptimisers(mRule, mFacts);
+
+				if (!optimisedRule.equals(mOptimisedRule)) {
+					mCompiledRule = mCompiler.compile(optimisedRule);
+					mOptimisedRule = optimisedRule;
+				}
+
+				mPlannedSizes = sizes;
+				return;
+			}
+		}
+	}
+
+	private int[] currentSizes() {
+		int[] sizes = new int[mBodyPredicates.size()];
+
+		for (int i = 0; i < sizes.length; i++) {
+			sizes[i] = mFacts.get(mBodyPredicates.get(i)).size();
+		}
+
+		return sizes;
+	}
+
+	/** The rule before the rule optimisers have been applied. */
+	private final IRule mRule;
+
+	private final RuleCompiler mCompiler;
+
+	private final EvaluationUtilities mUtils;
+
+	private final IFacts mFacts;
+
+	/** The predicates of the positive ordinary literals of the rule. */
+	private final List<IPredicate> mBodyPredicates;
+
+	/** The cardinalities of the body relations when the rule was optimised. */
+	private int[] mPlannedSizes;
+
+	private IRule mOptimisedRule;
+
+	private ICompiledRule mCompiledRule;
+}
@@ -23,17 +23,23 @@
 package org.deri.iris.evaluation.stratifiedbottomup;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.deri.iris.Configuration;
 import org.deri.iris.EvaluationException;
+import org.deri.iris.api.IResultConsumer;
+import org.deri.iris.api.basics.IPredicate;
 import org.deri.iris.api.basics.IQuery;
 import org.deri.iris.api.basics.IRule;
 import org.deri.iris.api.terms.IVariable;
-import org.deri.iris.evaluation.IEvaluationStrategy;
+import org.deri.iris.evaluation.IIncrementalEvaluationStrategy;
+import org.deri.iris.evaluation.IStreamingEvaluationStrategy;
 import org.deri.iris.evaluation.stratifiedbottomup.naive.NaiveEvaluator;
 import org.deri.iris.facts.FiniteUniverseFacts;
 import org.deri.iris.facts.IFacts;
+import org.deri.iris.facts.ReplaceableFacts;
 import org.deri.iris.rules.RuleHeadEquality;
 import org.deri.iris.rules.compiler.ICompiledRule;
 import org.deri.iris.rules.compiler.RuleCompiler;
@@ -43,21 +49,43 @@ import org.deri.iris.utils.equivalence.IEquivalentTerms;
 
 /**
  * A strategy that uses bottom up evaluation on a stratified rule set.
+ * The evaluated model is maintained incrementally when facts are added or
+ * removed, unless the program uses rule head equality or the augmenting rule
+ * safety processor.
  */
 public class StratifiedBottomUpEvaluationStrategy implements
-		IEvaluationStrategy {
+		IIncrementalEvaluationStrategy, IStreamingEvaluationStrategy {
 	StratifiedBottomUpEvaluationStrategy(IFacts facts, List<IRule> rules,
 			IRuleEvaluatorFactory ruleEvaluatorFactory,
 			Configuration configuration) throws EvaluationException {
 		mConfiguration = configuration;
 		mRuleEvaluatorFactory = ruleEvaluatorFactory;
-		mFacts = facts;
 		mEquivalentTerms = mConfiguration.equivalentTermsFactory
 				.createEquivalentTerms();
 
 		List<IRule> allRules = mConfiguration.ruleHeadEqualityPreProcessor
 				.process(rules, facts);
 
+		// The model can not be maintained if terms are merged by rule head
+		// equality or if the universe is derived from the facts.
+		boolean incremental = !(mConfiguration.ruleSafetyProcessor instanceof AugmentingRuleSafetyProcessor);
+		for (IRule rule : allRules) {
+			if (RuleHeadEquality.hasRuleHeadEquality(rule))
+				incremental = false;
+		}
+
+		if (incremental) {
+			ReplaceableFacts replaceableFacts = new ReplaceableFacts(facts);
+			facts = replaceableFacts;
+			mFacts = facts;
+			mMaintainer = new IncrementalMaintainer(replaceableFacts,
+					new RuleCompiler(facts, mEquivalentTerms, mConfiguration),
+					mConfiguration);
+		} else {
+			mFacts = facts;
+			mMaintainer = null;
+		}
+
 		if (mConfiguration.ruleSafetyProcessor instanceof AugmentingRuleSafetyProcessor)
 			facts = new FiniteUniverseFacts(facts, allRules);
 
@@ -69,22 +97,36 @@ public class StratifiedBottomUpEvaluationStrategy implements
 		// Stratify
 		List<List<IRule>> stratifiedRules = utils.stratify(safeRules);
 
+		if (mMaintainer != null)
+			mMaintainer.recordExplicitFacts(safeRules);
+
 		RuleCompiler rc = new RuleCompiler(facts, mEquivalentTerms,
 				mConfiguration);
 
+		// Rules optimised for the facts are planned again while they are
+		// evaluated, as the relations grow.
+		boolean replan = utils.hasFactsAwareRuleOptimisers();
+
 		int stratumNumber = 0;
 		for (List<IRule> stratum : stratifiedRules) {
 			// Re-order stratum
 			List<IRule> reorderedRules = utils.reOrderRules(stratum);
 
 			// Rule optimisation
-			List<IRule> optimisedRules = utils
-					.applyRuleOptimisers(reorderedRules);
+			List<IRule> optimisedRules = utils.applyRuleOptimisers(
+					reorderedRules, facts);
 
 			List<ICompiledRule> compiledRules = new ArrayList<ICompiledRule>();
 
-			for (IRule rule : optimisedRules) {
-				compiledRules.add(rc.compile(rule));
+			for (int r = 0; r < optimisedRules.size(); r++) {
+				IRule rule = optimisedRules.get(r);
+
+				if (replan) {
+					compiledRules.add(new ReplanningCompiledRule(
+							reorderedRules.get(r), rule, rc, utils, facts));
+				} else {
+					compiledRules.add(rc.compile(rule));
+				}
 			}
 
 			// TODO Enable rule head equality support for semi-naive evaluation.
@@ -94,6 +136,10 @@ public class StratifiedBottomUpEvaluationStrategy implements
 
 			evaluator.evaluateRules(compiledRules, facts, configuration);
 
+			if (mMaintainer != null)
+				mMaintainer.addStratum(optimisedRules, compiledRules,
+						evaluator);
+
 			stratumNumber++;
 		}
 	}
@@ -135,6 +181,57 @@ public class StratifiedBottomUpEvaluationStrategy implements
 		return result;
 	}
 
+	public boolean evaluateQuery(IQuery query, List<IVariable> outputVariables,
+			IResultConsumer consumer) throws EvaluationException {
+		if (query == null)
+			throw new IllegalArgumentException(
+					"StratifiedBottomUpEvaluationStrategy.evaluateQuery() - query must not be null.");
+
+		if (outputVariables == null)
+			throw new IllegalArgumentException(
+					"StratifiedBottomUpEvaluationStrategy.evaluateQuery() - outputVariables must not be null.");
+
+		if (consumer == null)
+			throw new IllegalArgumentException(
+					"StratifiedBottomUpEvaluationStrategy.evaluateQuery() - consumer must not be null.");
+
+		RuleCompiler compiler = new RuleCompiler(mFacts, mEquivalentTerms,
+				mConfiguration);
+
+		ICompiledRule compiledQuery = compiler.compile(query);
+
+		outputVariables.clear();
+		outputVariables.addAll(compiledQuery.getVariablesBindings());
+
+		return compiledQuery.evaluate(consumer);
+	}
+
+	public void addFacts(Map<IPredicate, IRelation> facts)
+			throws EvaluationException {
+		if (facts == null)
+			throw new IllegalArgumentException(
+					"StratifiedBottomUpEvaluationStrategy.addFacts() - facts must not be null.");
+
+		maintainer().update(facts, new HashMap<IPredicate, IRelation>());
+	}
+
+	public void removeFacts(Map<IPredicate, IRelation> facts)
+			throws EvaluationException {
+		if (facts == null)
+			throw new IllegalArgumentException(
+					"StratifiedBottomUpEvaluationStrategy.removeFacts() - facts must not be null.");
+
+		maintainer().update(new HashMap<IPredicate, IRelation>(), facts);
+	}
+
+	private IncrementalMaintainer maintainer() {
+		if (mMaintainer == null)
+			throw new UnsupportedOperationException(
+					"Programs with rule head equality or augmented rule safety can not be updated incrementally.");
+
+		return mMaintainer;
+	}
+
 	protected IEquivalentTerms mEquivalentTerms;
 
 	protected final Configuration mConfiguration;
@@ -142,4 +239,7 @@ public class StratifiedBottomUpEvaluationStrategy implements
 	protected final IFacts mFacts;
 
 	protected final IRuleEvaluatorFactory mRuleEvaluatorFactory;
+
+	/** The maintainer of the model, or null if it can not be maintained. */
+	private final IncrementalMaintainer mMaintainer;
 }
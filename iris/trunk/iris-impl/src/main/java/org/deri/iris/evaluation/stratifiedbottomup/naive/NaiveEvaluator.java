@@ -27,6 +27,7 @@ import java.util.List;
 import org.deri.iris.Configuration;
 import org.deri.iris.EvaluationException;
 import org.deri.iris.api.basics.IPredicate;
+import org.deri.iris.evaluation.ResourceGovernor;
 import org.deri.iris.evaluation.stratifiedbottomup.IRuleEvaluator;
 import org.deri.iris.facts.IFacts;
 import org.deri.iris.rules.compiler.ICompiledRule;
@@ -39,23 +40,41 @@ public class NaiveEvaluator implements IRuleEvaluator
 {
 	public void evaluateRules( List<ICompiledRule> rules, IFacts facts, Configuration configuration ) throws EvaluationException
 	{
-		boolean cont = true;
-		while( cont )
+		ResourceGovernor governor = ResourceGovernor.enter( configuration );
+		
+		try
 		{
-			cont = false;
-			
-			// For each rule in the collection (stratum)
-			for (final ICompiledRule rule : rules )
+			boolean cont = true;
+			while( cont )
 			{
-				IRelation delta = rule.evaluate();
-
-				if( delta != null && delta.size() > 0 )
+				governor.checkIteration();
+				
+				cont = false;
+				
+				// For each rule in the collection (stratum)
+				for (final ICompiledRule rule : rules )
 				{
-					IPredicate predicate = rule.headPredicate();
-					if( facts.get( predicate ).addAll( delta ) )
-						cont = true;
+					IRelation delta = rule.evaluate();
+	
+					if( delta != null && delta.size() > 0 )
+					{
+						IPredicate predicate = rule.headPredicate();
+						IRelation relation = facts.get( predicate );
+						
+						// Only the tuples appended to the relation are new.
+						int known = relation.size();
+						if( relation.addAll( delta ) )
+						{
+							cont = true;
+							governor.checkTuples( relation, known );
+						}
+					}
 				}
 			}
 		}
+		finally
+		{
+			governor.exit();
+		}
 	}
 }
@@ -0,0 +1,281 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.evaluation.stratifiedbottomup.seminaive;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.deri.iris.Configuration;
+import org.deri.iris.ConfigurationThreadLocalStorage;
+import org.deri.iris.EvaluationException;
+import org.deri.iris.api.basics.IPredicate;
+import org.deri.iris.evaluation.ResourceGovernor;
+import org.deri.iris.evaluation.stratifiedbottomup.IRuleEvaluator;
+import org.deri.iris.facts.Facts;
+import org.deri.iris.facts.IFacts;
+import org.deri.iris.rules.compiler.ICompiledRule;
+import org.deri.iris.storage.IRelation;
+
+/**
+ * <p>
+ * Semi-naive evaluation, which evaluates the rules of one iteration
+ * concurrently.
+ * </p>
+ * <p>
+ * Within one iteration every rule only reads the facts and the deltas of the
+ * previous iteration, so the rules are fanned out over an executor and the
+ * new deltas are merged at the end of the iteration. Removing the already
+ * known tuples from the result of a rule is done by the rule's task as well.
+ * </p>
+ */
+public class ParallelSemiNaiveEvaluator implements IRuleEvaluator
+{
+	/**
+	 * Constructor.
+	 * @param executor The executor to evaluate the rules with.
+	 */
+	public ParallelSemiNaiveEvaluator( ExecutorService executor )
+	{
+		assert executor != null;
+		
+		mExecutor = executor;
+	}
+
+	public void evaluateRules( List<ICompiledRule> rules, IFacts facts, Configuration configuration ) throws EvaluationException
+	{
+		ResourceGovernor governor = ResourceGovernor.enter( configuration );
+		
+		try
+		{
+			evaluateRules( rules, facts, configuration, governor );
+		}
+		finally
+		{
+			governor.exit();
+		}
+	}
+	
+	private void evaluateRules( List<ICompiledRule> rules, IFacts facts, Configuration configuration, ResourceGovernor governor ) throws EvaluationException
+	{
+		// Create the relations of all head predicates up front, so that the
+		// facts are never modified while the rules are evaluated.
+		List<IRelation> headRelations = new ArrayList<IRelation>( rules.size() );
+		for( ICompiledRule rule : rules )
+			headRelations.add( facts.get( rule.headPredicate() ) );
+		
+		// One pass with simple evaluation to generate deltas
+		List<IRelation> results = evaluate( rules, headRelations, null, configuration, governor );
+		
+		IFacts deltas = merge( rules, results, configuration, governor );
+		
+		// Update the facts
+		SemiNaiveEvaluator.addAll( facts, deltas );
+		
+		// Now do iterative evaluation (semi-naive)
+		for(;;)
+		{
+			governor.checkIteration();
+			
+			IFacts previousDeltas = new ReadOnlyFacts( deltas, configuration.relationFactory.createRelation() );
+			
+			results = evaluate( rules, headRelations, previousDeltas, configuration, governor );
+			
+			deltas = merge( rules, results, configuration, governor );
+			
+			if( deltas.getPredicates().isEmpty() )
+				break;
+
+			// Iterate new tuples in dP[i] and add to program
+			SemiNaiveEvaluator.addAll( facts, deltas );
+		}
+	}
+	
+	/**
+	 * Evaluate all rules concurrently and wait for the results.
+	 * @param rules The rules to evaluate.
+	 * @param headRelations The relations of the known facts for each rule's head predicate.
+	 * @param previousDeltas The deltas of the previous iteration or null for the first pass.
+	 * @param governor The resource governor of the evaluating thread.
+	 * @return The new tuples computed by each rule (in the same order as the rules).
+	 * @throws EvaluationException If the evaluation of any rule fails.
+	 */
+	private List<IRelation> evaluate( List<ICompiledRule> rules, List<IRelation> headRelations,
+					IFacts previousDeltas, Configuration configuration, ResourceGovernor governor ) throws EvaluationException
+	{
+		List<Future<IRelation>> futures = new ArrayList<Future<IRelation>>( rules.size() );
+		
+		for( int r = 0; r < rules.size(); ++r )
+			futures.add( mExecutor.submit( new RuleTask( rules.get( r ), headRelations.get( r ), previousDeltas, configuration, governor ) ) );
+		
+		List<IRelation> results = new ArrayList<IRelation>( rules.size() );
+		
+		try
+		{
+			for( Future<IRelation> future : futures )
+				results.add( future.get() );
+		}
+		catch( InterruptedException e )
+		{
+			Thread.currentThread().interrupt();
+			throw new EvaluationException( "Evaluation has been interrupted." );
+		}
+		catch( ExecutionException e )
+		{
+			Throwable cause = e.getCause();
+			
+			if( cause instanceof EvaluationException )
+				throw (EvaluationException) cause;
+			if( cause instanceof RuntimeException )
+				throw (RuntimeException) cause;
+			if( cause instanceof Error )
+				throw (Error) cause;
+			
+			throw new RuntimeException( cause );
+		}
+		finally
+		{
+			// Do not leave any rule running, if one of them failed.
+			for( Future<IRelation> future : futures )
+				future.cancel( true );
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * Merge the results of the rules into a new collection of deltas.
+	 */
+	private static IFacts merge( List<ICompiledRule> rules, List<IRelation> results, Configuration configuration,
+					ResourceGovernor governor ) throws EvaluationException
+	{
+		IFacts deltas = new Facts( configuration.relationFactory );
+		
+		for( int r = 0; r < rules.size(); ++r )
+		{
+			IRelation delta = results.get( r );
+			
+			if( delta != null && delta.size() > 0 )
+			{
+				deltas.get( rules.get( r ).headPredicate() ).addAll( delta );
+				
+				governor.checkTuples( delta );
+			}
+		}
+		
+		return deltas;
+	}
+	
+	/**
+	 * The evaluation of one rule in one iteration.
+	 */
+	private static class RuleTask implements Callable<IRelation>
+	{
+		RuleTask( ICompiledRule rule, IRelation programFacts, IFacts previousDeltas, Configuration configuration,
+						ResourceGovernor governor )
+		{
+			mRule = rule;
+			mProgramFacts = programFacts;
+			mPreviousDeltas = previousDeltas;
+			mConfiguration = configuration;
+			mGovernor = governor;
+		}
+		
+		public IRelation call() throws EvaluationException
+		{
+			// Built-ins find the configuration by the evaluating thread.
+			ConfigurationThreadLocalStorage.setConfiguration( mConfiguration );
+			
+			// Let the compiled rule check the evaluation timeout.
+			ResourceGovernor.setCurrent( mGovernor );
+			
+			try
+			{
+				if( mPreviousDeltas == null )
+					return mRule.evaluate();
+				
+				IRelation delta = mRule.evaluateIteratively( mPreviousDeltas );
+				
+				// Remove already known tuples
+				if( delta != null && delta.size() > 0 )
+					delta = SemiNaiveEvaluator.removeDeducedTuples( mRule.headPredicate(), delta, mProgramFacts, mConfiguration );
+				
+				return delta;
+			}
+			finally
+			{
+				ResourceGovernor.setCurrent( null );
+			}
+		}
+		
+		private final ICompiledRule mRule;
+		
+		private final IRelation mProgramFacts;
+		
+		private final IFacts mPreviousDeltas;
+		
+		private final Configuration mConfiguration;
+		
+		private final ResourceGovernor mGovernor;
+	}
+	
+	/**
+	 * Facts, which can be read by several threads concurrently. Instead of
+	 * creating relations for unknown predicates, an empty relation is returned.
+	 */
+	private static class ReadOnlyFacts implements IFacts
+	{
+		ReadOnlyFacts( IFacts facts, IRelation emptyRelation )
+		{
+			for( IPredicate predicate : facts.getPredicates() )
+				mRelations.put( predicate, facts.get( predicate ) );
+			
+			mEmptyRelation = emptyRelation;
+		}
+		
+		public IRelation get( IPredicate predicate )
+		{
+			IRelation relation = mRelations.get( predicate );
+			
+			return relation == null ? mEmptyRelation : relation;
+		}
+		
+		public Set<IPredicate> getPredicates()
+		{
+			return mRelations.keySet();
+		}
+		
+		private final Map<IPredicate, IRelation> mRelations = new HashMap<IPredicate, IRelation>();
+		
+		private final IRelation mEmptyRelation;
+	}
+
+	/** The executor to evaluate the rules with. */
+	private final ExecutorService mExecutor;
+}
@@ -0,0 +1,107 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.evaluation.stratifiedbottomup.seminaive;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.deri.iris.evaluation.stratifiedbottomup.IRuleEvaluator;
+import org.deri.iris.evaluation.stratifiedbottomup.IRuleEvaluatorFactory;
+
+/**
+ * <p>
+ * Factory for parallel semi-naive rules evaluators.
+ * </p>
+ * <p>
+ * All evaluators created by one factory share the same executor. Unless an
+ * executor is given, a pool of daemon threads is created on first use.
+ * </p>
+ */
+public class ParallelSemiNaiveEvaluatorFactory implements IRuleEvaluatorFactory
+{
+	/**
+	 * Creates a factory using one thread per available processor.
+	 */
+	public ParallelSemiNaiveEvaluatorFactory()
+	{
+		this( Runtime.getRuntime().availableProcessors() );
+	}
+	
+	/**
+	 * Creates a factory using the specified number of threads.
+	 * @param threads The number of threads to evaluate rules with.
+	 * @throws IllegalArgumentException If the number of threads is less than one.
+	 */
+	public ParallelSemiNaiveEvaluatorFactory( int threads )
+	{
+		if( threads < 1 )
+			throw new IllegalArgumentException( "The number of threads must be at least 1, but was " + threads );
+		
+		mThreads = threads;
+	}
+	
+	/**
+	 * Creates a factory using the given executor.
+	 * The executor is not shut down by this factory.
+	 * @param executor The executor to evaluate rules with.
+	 */
+	public ParallelSemiNaiveEvaluatorFactory( ExecutorService executor )
+	{
+		if( executor == null )
+			throw new IllegalArgumentException( "The executor must not be null" );
+		
+		mThreads = 0;
+		mExecutor = executor;
+	}
+	
+	public synchronized IRuleEvaluator createEvaluator()
+	{
+		if( mExecutor == null )
+			mExecutor = Executors.newFixedThreadPool( mThreads, new EvaluationThreadFactory() );
+		
+		return new ParallelSemiNaiveEvaluator( mExecutor );
+	}
+	
+	/**
+	 * Creates daemon threads, so that an idle pool does not keep the JVM alive.
+	 */
+	private static class EvaluationThreadFactory implements ThreadFactory
+	{
+		public Thread newThread( Runnable runnable )
+		{
+			Thread thread = new Thread( runnable, "IRIS rule evaluation " + mCount.incrementAndGet() );
+			thread.setDaemon( true );
+			return thread;
+		}
+		
+		private static final AtomicInteger mCount = new AtomicInteger();
+	}
+	
+	/** The number of threads of the pool to create. */
+	private final int mThreads;
+	
+	/** The executor shared by all created evaluators. */
+	private ExecutorService mExecutor;
+}
@@ -28,6 +28,7 @@ import org.deri.iris.Configuration;
 import org.deri.iris.EvaluationException;
 import org.deri.iris.api.basics.IPredicate;
 import org.deri.iris.api.basics.ITuple;
+import org.deri.iris.evaluation.ResourceGovernor;
 import org.deri.iris.evaluation.stratifiedbottomup.IRuleEvaluator;
 import org.deri.iris.facts.Facts;
 import org.deri.iris.facts.IFacts;
@@ -40,6 +41,20 @@ import org.deri.iris.storage.IRelation;
 public class SemiNaiveEvaluator implements IRuleEvaluator
 {
 	public void evaluateRules( List<ICompiledRule> rules, IFacts facts, Configuration configuration ) throws EvaluationException
+	{
+		ResourceGovernor governor = ResourceGovernor.enter( configuration );
+		
+		try
+		{
+			evaluateRules( rules, facts, configuration, governor );
+		}
+		finally
+		{
+			governor.exit();
+		}
+	}
+	
+	private void evaluateRules( List<ICompiledRule> rules, IFacts facts, Configuration configuration, ResourceGovernor governor ) throws EvaluationException
 	{
 		IFacts deltas = new Facts( configuration.relationFactory );
 		
@@ -53,6 +68,8 @@ public class SemiNaiveEvaluator implements IRuleEvaluator
 			{
 				IPredicate predicate = rule.headPredicate();
 				deltas.get( predicate ).addAll( delta );
+				
+				governor.checkTuples( delta );
 			}
 		}
 		
@@ -63,6 +80,8 @@ public class SemiNaiveEvaluator implements IRuleEvaluator
 		boolean newTuples;
 		for(;;)
 		{
+			governor.checkIteration();
+			
 			newTuples = false;
 			
 			IFacts previousDeltas = deltas;
@@ -86,6 +105,8 @@ public class SemiNaiveEvaluator implements IRuleEvaluator
 				{
 					newTuples = true;
 					deltas.get( predicate ).addAll( delta );
+					
+					governor.checkTuples( delta );
 				}
 			}
 			
@@ -102,7 +123,7 @@ public class SemiNaiveEvaluator implements IRuleEvaluator
 	 * @param target The facts to be added to.
 	 * @param deltas The facts to be added.
 	 */
-	private static void addAll( IFacts target, IFacts deltas )
+	static void addAll( IFacts target, IFacts deltas )
 	{
 		for( IPredicate predicate : deltas.getPredicates() )
 			target.get( predicate ).addAll( deltas.get( predicate ) );
@@ -115,7 +136,7 @@ public class SemiNaiveEvaluator implements IRuleEvaluator
 	 * @param programFacts The already known or computed facts.
 	 * @return
 	 */
-	private static IRelation removeDeducedTuples( IPredicate predicate, IRelation delta, IRelation programFacts, Configuration configuration )
+	static IRelation removeDeducedTuples( IPredicate predicate, IRelation delta, IRelation programFacts, Configuration configuration )
 	{
 		// If there is nothing to take away from, or just nothing to take-away...
 		if( delta.size() == 0 || programFacts.size() == 0 )
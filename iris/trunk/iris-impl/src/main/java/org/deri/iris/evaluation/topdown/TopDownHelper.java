@@ -22,6 +22,7 @@
  */
 package org.deri.iris.evaluation.topdown;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -729,4 +730,51 @@ public class TopDownHelper {
 		return newQueryList;
 	}
 
+	/**
+	 * Creates the variant of an atom, i.e. its arguments with all variables
+	 * replaced by the position of their first occurrence. Two atoms with the
+	 * same predicate are variants of each other, if they have equal variants.
+	 * 
+	 * @param atom the atom
+	 * 
+	 * @return the arguments of the atom with numbered variables
+	 */
+	public static List<Object> createVariant(IAtom atom) {
+		Map<IVariable, Integer> numbers = new HashMap<IVariable, Integer>();
+		List<Object> variant = new ArrayList<Object>(atom.getTuple().size());
+		
+		for (ITerm term : atom.getTuple())
+			variant.add(createVariant(term, numbers));
+		
+		return variant;
+	}
+	
+	private static Object createVariant(ITerm term, Map<IVariable, Integer> numbers) {
+		if (term.isGround())
+			return term;
+		
+		if (term instanceof IVariable) {
+			Integer number = numbers.get(term);
+			if (number == null) {
+				number = numbers.size();
+				numbers.put((IVariable) term, number);
+			}
+			
+			return number;
+		}
+		
+		if (term instanceof IConstructedTerm) {
+			IConstructedTerm constructed = (IConstructedTerm) term;
+			List<Object> variant = new ArrayList<Object>(constructed.getValue().size() + 1);
+			
+			variant.add(constructed.getFunctionSymbol());
+			for (ITerm argument : constructed.getValue())
+				variant.add(createVariant(argument, numbers));
+			
+			return variant;
+		}
+		
+		return term;
+	}
+
 }
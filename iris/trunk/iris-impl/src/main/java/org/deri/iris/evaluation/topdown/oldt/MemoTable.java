@@ -23,18 +23,32 @@
 
 package org.deri.iris.evaluation.topdown.oldt;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.deri.iris.api.basics.IAtom;
 import org.deri.iris.api.basics.ITuple;
 import org.deri.iris.api.terms.ITerm;
 import org.deri.iris.api.terms.IVariable;
+import org.deri.iris.evaluation.topdown.TopDownHelper;
 import org.deri.iris.storage.IRelation;
 import org.deri.iris.storage.simple.SimpleRelationFactory;
 import org.deri.iris.utils.TermMatchingAndSubstitution;
 
 /**
+ * The memo table of the OLDT evaluator, which maps tabled atoms to their
+ * answers.
+ * 
+ * The tabled atoms are indexed by their predicate and the pattern of their
+ * ground arguments, and within such a group by their variant, i.e. the atom
+ * with its variables numbered by their first occurrence. Looking up an atom
+ * that is a variant of a tabled atom therefore takes two hash lookups. Only
+ * atoms that share variables between arguments or contain non-ground
+ * constructed terms can be subsumed by a tabled atom that is not a variant,
+ * and only for those the atoms of the group are tested for subsumption.
  * 
  * @author gigi
  * 
@@ -46,6 +60,16 @@ public class MemoTable extends HashMap<IAtom, IRelation> implements Map<IAtom, I
 	 */
 	private static final long serialVersionUID = -6479163774782815998L;
 	
+	/**
+	 * Stands for an argument that is not ground in the pattern of an atom.
+	 */
+	private static final Object NON_GROUND = new Object();
+	
+	/**
+	 * The tabled atoms, by pattern and by variant.
+	 */
+	private final Map<List<Object>, Map<List<Object>, IAtom>> mIndex = new HashMap<List<Object>, Map<List<Object>, IAtom>>();
+	
 	/**
 	 * Constructor
 	 */
@@ -73,39 +97,27 @@ public class MemoTable extends HashMap<IAtom, IRelation> implements Map<IAtom, I
 		if (atom == null)
 			return null;
 		
-		// An entry which subsums the atom is already present
-		for (IAtom a : this.keySet()) {
-			if ( TermMatchingAndSubstitution.subsums(a, atom) ) {
-				
-				IRelation relation = (IRelation) (this.get(a) == null ? srf.createRelation() : this.get(a));
-				if ( tuple != null && !relation.contains(tuple) ) {
-					relation.add(tuple);
-				}
-				
-				return this.put(a, relation);
-			}
-		}
+		// An entry which subsums the atom might already be present
+		IAtom key = findSubsuming(atom);
+		if (key == null)
+			key = atom;
 		
 		// Initialize relation if necessary
-		IRelation relation = (IRelation) (this.get(atom) == null ? srf.createRelation() : this.get(atom));
-		if ( tuple != null && !relation.contains(tuple) ) {
+		IRelation relation = super.get(key);
+		if (relation == null)
+			relation = srf.createRelation();
+		
+		// The relation ignores duplicate answers.
+		if (tuple != null)
 			relation.add(tuple);
-		}
 		
-		// Atom is not in the memo table, add it
-		return this.put(atom, relation);
+		return this.put(key, relation);
 	}
 	
 	public IRelation get(IAtom atom, Map<IVariable, ITerm> variableMap) {
+		IAtom key = findSubsuming(atom);
 		
-		for (IAtom a : this.keySet()) {
-			if ( TermMatchingAndSubstitution.subsums(a, atom) ) {
-				return this.get(a); 
-			}
-		}
-
-		return null;
-		
+		return key == null ? null : super.get(key);
 	}
 	
 	/**
@@ -125,13 +137,114 @@ public class MemoTable extends HashMap<IAtom, IRelation> implements Map<IAtom, I
 	}
 	
 	public boolean containsKey(IAtom atom) {
-		for (IAtom a : this.keySet()) {
+		return findSubsuming(atom) != null;
+	}
+	
+	@Override
+	public IRelation put(IAtom atom, IRelation relation) {
+		if (!super.containsKey(atom)) {
+			List<Object> pattern = createPattern(atom);
+			Map<List<Object>, IAtom> variants = mIndex.get(pattern);
+			
+			if (variants == null) {
+				variants = new LinkedHashMap<List<Object>, IAtom>();
+				mIndex.put(pattern, variants);
+			}
+			
+			variants.put(TopDownHelper.createVariant(atom), atom);
+		}
+		
+		return super.put(atom, relation);
+	}
+	
+	@Override
+	public void putAll(Map<? extends IAtom, ? extends IRelation> map) {
+		for (Map.Entry<? extends IAtom, ? extends IRelation> entry : map.entrySet())
+			put(entry.getKey(), entry.getValue());
+	}
+	
+	@Override
+	public IRelation remove(Object key) {
+		if (key instanceof IAtom && super.containsKey(key)) {
+			IAtom atom = (IAtom) key;
+			List<Object> pattern = createPattern(atom);
+			Map<List<Object>, IAtom> variants = mIndex.get(pattern);
+			
+			variants.remove(TopDownHelper.createVariant(atom));
+			if (variants.isEmpty())
+				mIndex.remove(pattern);
+		}
+		
+		return super.remove(key);
+	}
+	
+	@Override
+	public void clear() {
+		mIndex.clear();
+		super.clear();
+	}
+	
+	/**
+	 * Finds the tabled atom that subsums the given atom.
+	 * 
+	 * @param atom the atom to look up
+	 * @return the subsuming tabled atom, or <code>null</code> if there is none
+	 */
+	private IAtom findSubsuming(IAtom atom) {
+		Map<List<Object>, IAtom> variants = mIndex.get(createPattern(atom));
+		if (variants == null)
+			return null;
+		
+		List<Object> variant = TopDownHelper.createVariant(atom);
+		IAtom key = variants.get(variant);
+		if (key != null)
+			return key;
+		
+		// An atom with pairwise distinct variables as arguments is only
+		// subsumed by its variants.
+		if (!hasSharedOrNestedVariables(atom, variant))
+			return null;
+		
+		for (IAtom a : variants.values()) {
 			if ( TermMatchingAndSubstitution.subsums(a, atom) ) {
-				return true;
+				return a;
 			}
 		}
 		
-		return false;
+		return null;
+	}
+	
+	/**
+	 * Creates the pattern of an atom, i.e. its predicate followed by its
+	 * ground arguments, where the non-ground arguments are replaced by a
+	 * placeholder.
+	 */
+	private static List<Object> createPattern(IAtom atom) {
+		ITuple tuple = atom.getTuple();
+		List<Object> pattern = new ArrayList<Object>(tuple.size() + 1);
+		
+		pattern.add(atom.getPredicate());
+		for (ITerm term : tuple)
+			pattern.add(term.isGround() ? term : NON_GROUND);
+		
+		return pattern;
+	}
+	
+	/**
+	 * Checks whether a variable occurs more than once in the atom, or whether
+	 * the atom contains a non-ground constructed term.
+	 */
+	private static boolean hasSharedOrNestedVariables(IAtom atom, List<Object> variant) {
+		int variables = 0;
+		
+		for (Object argument : variant) {
+			if (argument instanceof List<?>)
+				return true;
+			if (argument instanceof Integer)
+				variables++;
+		}
+		
+		return atom.getTuple().getVariables().size() < variables;
 	}
 	
 	private static final SimpleRelationFactory srf = new SimpleRelationFactory();
@@ -59,7 +59,7 @@ public class OLDTEvaluationStrategy implements IEvaluationStrategy {
 			throw new IllegalArgumentException( "SLDEvaluationStrategy.evaluateQuery() - query must not be null." ); 
 		
 		
-		ITopDownEvaluator evaluator = new OLDTEvaluator( mFacts, mRules );
+		ITopDownEvaluator evaluator = new OLDTEvaluator( mFacts, mRules, mConfiguration );
 		IRelation relation = evaluator.evaluate( query );
 		outputVariables = evaluator.getOutputVariables();		
 		
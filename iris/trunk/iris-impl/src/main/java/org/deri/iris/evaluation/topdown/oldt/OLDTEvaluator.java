@@ -29,6 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.deri.iris.Configuration;
 import org.deri.iris.EvaluationException;
 import org.deri.iris.api.basics.IAtom;
 import org.deri.iris.api.basics.ILiteral;
@@ -41,6 +42,7 @@ import org.deri.iris.api.terms.ITerm;
 import org.deri.iris.api.terms.IVariable;
 import org.deri.iris.builtins.EqualBuiltin;
 import org.deri.iris.builtins.ExactEqualBuiltin;
+import org.deri.iris.evaluation.ResourceGovernor;
 import org.deri.iris.evaluation.topdown.FirstLiteralSelector;
 import org.deri.iris.evaluation.topdown.ILiteralSelector;
 import org.deri.iris.evaluation.topdown.IPredicateTagger;
@@ -75,6 +77,8 @@ public class OLDTEvaluator implements ITopDownEvaluator {
 	private MemoTable mMemoTable;
 	private Set<IPredicate> mMemoPredicates;
 	private ILiteralSelector mLiteralSelector;
+	private Configuration mConfiguration;
+	private ResourceGovernor mGovernor;
 
 	public static final SimpleRelationFactory srf = new SimpleRelationFactory();
 
@@ -89,9 +93,25 @@ public class OLDTEvaluator implements ITopDownEvaluator {
 	 *            list of rules
 	 */
 	public OLDTEvaluator(IFacts facts, List<IRule> rules) {
+		this(facts, rules, new Configuration());
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param facts
+	 *            one or many facts
+	 * @param rules
+	 *            list of rules
+	 * @param configuration
+	 *            configuration with the resource limits of the evaluation
+	 */
+	public OLDTEvaluator(IFacts facts, List<IRule> rules,
+			Configuration configuration) {
 		// Initialize Facts and Rules
 		mFacts = facts;
 		mRules = rules;
+		mConfiguration = configuration;
 
 		// Initialize Memo Predicates
 		mMemoPredicates = new HashSet<IPredicate>();
@@ -124,10 +144,16 @@ public class OLDTEvaluator implements ITopDownEvaluator {
 		logger.debug("Memo predicates: " + mMemoPredicates);
 		logger.debug("------------");
 
-		Node root = new Node(query);
-		root.registerAtMemoTable();
-		root.evaluate();
-		IRelation relation = root.getEvaluation();
+		IRelation relation;
+		mGovernor = ResourceGovernor.enter(mConfiguration);
+		try {
+			Node root = new Node(query);
+			root.registerAtMemoTable();
+			root.evaluate();
+			relation = root.getEvaluation();
+		} finally {
+			mGovernor.exit();
+		}
 
 		logger.debug("------------");
 		logger.debug("Relation " + relation);
@@ -173,6 +199,8 @@ public class OLDTEvaluator implements ITopDownEvaluator {
 		 *             on failure
 		 */
 		public Node(IQuery query) throws EvaluationException {
+			mGovernor.checkIteration();
+
 			this.query = query;
 			this.substitution = null;
 			this.predecessor = null;
@@ -259,6 +287,9 @@ public class OLDTEvaluator implements ITopDownEvaluator {
 				this.setState(NodeState.SUCCESS);
 				this.printNodeDebug();
 
+				if (this.getSubstitution() != null)
+					mGovernor.checkTuple(this.getSubstitution().values());
+
 				this.pushTupleUp(this.getSubstitution()); // Push tuple up
 				// recursively
 
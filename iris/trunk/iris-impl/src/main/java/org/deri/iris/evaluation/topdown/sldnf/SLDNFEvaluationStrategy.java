@@ -65,7 +65,7 @@ public class SLDNFEvaluationStrategy implements IEvaluationStrategy {
 		if( query == null )
 			throw new IllegalArgumentException( "SLDEvaluationStrategy.evaluateQuery() - query must not be null." ); 
 		
-		SLDNFEvaluator evaluator = new SLDNFEvaluator( mFacts, mRules );
+		SLDNFEvaluator evaluator = new SLDNFEvaluator( mFacts, mRules, mConfiguration );
 		IRelation relation = evaluator.evaluate(query);
  		outputVariables.addAll( evaluator.getOutputVariables() );
  		
@@ -29,20 +29,45 @@ import org.deri.iris.EvaluationException;
 import org.deri.iris.api.basics.IRule;
 import org.deri.iris.evaluation.IEvaluationStrategy;
 import org.deri.iris.evaluation.IEvaluationStrategyFactory;
+import org.deri.iris.evaluation.topdown.slg.SLGEvaluationStrategy;
 import org.deri.iris.facts.IFacts;
 
 /**
- * Factory for SLDNF evaluation strategy
+ * Factory for SLDNF evaluation strategy. If tabling is enabled, the queries
+ * are evaluated by the tabled SLG evaluator instead, which terminates on
+ * recursive programs and evaluates every subgoal only once.
  * 
  * @author gigi
  * 
  */
 public class SLDNFEvaluationStrategyFactory implements IEvaluationStrategyFactory
 {
+	/**
+	 * Creates a factory for the SLDNF evaluation strategy without tabling.
+	 */
+	public SLDNFEvaluationStrategyFactory()
+	{
+		this( false );
+	}
+
+	/**
+	 * Creates a factory for the SLDNF evaluation strategy.
+	 * @param tabling <code>true</code> to evaluate queries with tabling
+	 */
+	public SLDNFEvaluationStrategyFactory( boolean tabling )
+	{
+		mTabling = tabling;
+	}
+
 	public IEvaluationStrategy createEvaluator( IFacts facts, List<IRule> rules, Configuration configuration )
 	                throws EvaluationException
 	{
+		if( mTabling )
+			return new SLGEvaluationStrategy( facts, rules, configuration );
+		
 		return new SLDNFEvaluationStrategy( facts, rules, configuration );
 	}
 
+	private final boolean mTabling;
+
 }
@@ -28,6 +28,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.deri.iris.Configuration;
 import org.deri.iris.EvaluationException;
 import org.deri.iris.api.basics.IAtom;
 import org.deri.iris.api.basics.ILiteral;
@@ -40,6 +41,7 @@ import org.deri.iris.api.terms.ITerm;
 import org.deri.iris.api.terms.IVariable;
 import org.deri.iris.builtins.EqualBuiltin;
 import org.deri.iris.builtins.ExactEqualBuiltin;
+import org.deri.iris.evaluation.ResourceGovernor;
 import org.deri.iris.evaluation.topdown.ILiteralSelector;
 import org.deri.iris.evaluation.topdown.ITopDownEvaluator;
 import org.deri.iris.evaluation.topdown.MaximumRecursionDepthReachedException;
@@ -77,6 +79,8 @@ public class SLDNFEvaluator implements ITopDownEvaluator {
 	private IQuery mInitialQuery;
 	private IFacts mFacts;
 	private List<IRule> mRules;
+	private Configuration mConfiguration;
+	private ResourceGovernor mGovernor;
 	
 	private static final SimpleRelationFactory srf = new SimpleRelationFactory();
 	static final RuleManipulator rm = new RuleManipulator();
@@ -88,7 +92,18 @@ public class SLDNFEvaluator implements ITopDownEvaluator {
 	 * @param rules list of rules
 	 */
 	public SLDNFEvaluator(IFacts facts, List<IRule> rules) {
+		this(facts, rules, new Configuration());
+	}
+	
+	/**
+	 * Constructor
+	 * @param facts one or many facts 
+	 * @param rules list of rules
+	 * @param configuration configuration with the resource limits of the evaluation
+	 */
+	public SLDNFEvaluator(IFacts facts, List<IRule> rules, Configuration configuration) {
 		mFacts = facts;
+		mConfiguration = configuration;
 		mRules = new LinkedList<IRule>();
 		ReOrderLiteralsOptimiser rolo = new ReOrderLiteralsOptimiser();
 		for (IRule rule : rules) {
@@ -104,7 +119,14 @@ public class SLDNFEvaluator implements ITopDownEvaluator {
 	public IRelation evaluate(IQuery query) throws EvaluationException {
 		// Process the query
 		mInitialQuery = query;
-		IRelation relation = findAndSubstitute(query);
+		
+		IRelation relation;
+		mGovernor = ResourceGovernor.enter(mConfiguration);
+		try {
+			relation = findAndSubstitute(query);
+		} finally {
+			mGovernor.exit();
+		}
 		
 		logger.debug("------------");
 		logger.debug("Relation " + relation);
@@ -144,6 +166,8 @@ public class SLDNFEvaluator implements ITopDownEvaluator {
 		if (recursionDepth >= _MAX_NESTING_LEVEL)
 			throw new MaximumRecursionDepthReachedException("You may ran into an infinite loop. SLDNF evaluation does not support tabling.");
 		
+		mGovernor.checkIteration();
+		
 		String debugPrefix = getDebugPrefix(recursionDepth, inNegationAsFailureFlip);
 		
 		logger.debug(debugPrefix + query);
@@ -183,6 +207,7 @@ public class SLDNFEvaluator implements ITopDownEvaluator {
 				// Success node (empty clause)
 				if (newQuery.getLiterals().isEmpty()) {					
 					ITuple tuple = TopDownHelper.resolveTuple(query, variableMap);
+					mGovernor.checkTuple(tuple);
 					relationReturned.add(tuple);
 					
 					continue;
@@ -0,0 +1,837 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.evaluation.topdown.slg;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.deri.iris.Configuration;
+import org.deri.iris.EvaluationException;
+import org.deri.iris.api.basics.IAtom;
+import org.deri.iris.api.basics.ILiteral;
+import org.deri.iris.api.basics.IPredicate;
+import org.deri.iris.api.basics.IQuery;
+import org.deri.iris.api.basics.IRule;
+import org.deri.iris.api.basics.ITuple;
+import org.deri.iris.api.builtins.IBuiltinAtom;
+import org.deri.iris.api.terms.ITerm;
+import org.deri.iris.api.terms.IVariable;
+import org.deri.iris.builtins.EqualBuiltin;
+import org.deri.iris.builtins.ExactEqualBuiltin;
+import org.deri.iris.evaluation.ResourceGovernor;
+import org.deri.iris.evaluation.topdown.AllPredicateTagger;
+import org.deri.iris.evaluation.topdown.ILiteralSelector;
+import org.deri.iris.evaluation.topdown.IPredicateTagger;
+import org.deri.iris.evaluation.topdown.ITopDownEvaluator;
+import org.deri.iris.evaluation.topdown.SafeStandardLiteralSelector;
+import org.deri.iris.evaluation.topdown.TopDownHelper;
+import org.deri.iris.factory.Factory;
+import org.deri.iris.facts.IFacts;
+import org.deri.iris.rules.RuleManipulator;
+import org.deri.iris.storage.IIndex;
+import org.deri.iris.storage.IRelation;
+import org.deri.iris.storage.simple.SimpleRelationFactory;
+import org.deri.iris.utils.TermMatchingAndSubstitution;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Implementation of a tabled top-down evaluator in the style of SLG
+ * resolution. Every call of a tabled predicate becomes a subgoal, that is
+ * identified by its variant and evaluated only once. Later calls of a variant
+ * consume the answers in the table, so that the evaluation terminates on
+ * recursive programs and repeated subgoals are not derived again.
+ * </p>
+ * <p>
+ * Subgoals, that depend on each other, form a strongly connected component,
+ * which is detected with the depth first numbering of Tarjan's algorithm. The
+ * leader of a component re-evaluates all its members until no new answers are
+ * derived, after which the whole component is completed at once.
+ * </p>
+ * <p>
+ * A negative literal on a completed subgoal is decided immediately. A negative
+ * literal on an incomplete subgoal (which only happens for programs, that are
+ * not stratified) is delayed, and the answer derived with it is conditional.
+ * Conditional answers are simplified when their component is completed.
+ * Answers, that are still conditional after that, are undefined under the
+ * well-founded semantics and are not part of the result of a query.
+ * </p>
+ */
+public class SLGEvaluator implements ITopDownEvaluator {
+
+	private Logger logger = LoggerFactory.getLogger(getClass());
+
+	private static final SimpleRelationFactory srf = new SimpleRelationFactory();
+
+	private static final RuleManipulator rm = new RuleManipulator();
+
+	/** The status of a delayed literal, which is false. */
+	private static final int FALSE = 0;
+
+	/** The status of a delayed literal, which is true. */
+	private static final int TRUE = 1;
+
+	/** The status of a delayed literal, which is still unknown. */
+	private static final int UNKNOWN = 2;
+
+	private IQuery mInitialQuery;
+	private List<IVariable> mOutputVariables;
+	private IFacts mFacts;
+	private Map<IPredicate, List<IRule>> mRules;
+	private Set<IPredicate> mMemoPredicates;
+	private ILiteralSelector mLiteralSelector;
+	private Configuration mConfiguration;
+	private ResourceGovernor mGovernor;
+
+	/** The tabled subgoals, by their predicate and variant. */
+	private final Map<IPredicate, Map<List<Object>, Subgoal>> mTable = new HashMap<IPredicate, Map<List<Object>, Subgoal>>();
+
+	/** The incomplete subgoals in the order of their creation. */
+	private final List<Subgoal> mStack = new ArrayList<Subgoal>();
+
+	/** The indexes on the facts, by predicate and indexed positions. */
+	private final Map<IPredicate, Map<List<Integer>, IIndex>> mIndexes = new HashMap<IPredicate, Map<List<Integer>, IIndex>>();
+
+	/** The next depth first number. */
+	private int mDfn;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param facts one or many facts
+	 * @param rules list of rules
+	 */
+	public SLGEvaluator(IFacts facts, List<IRule> rules) {
+		this(facts, rules, new Configuration());
+	}
+
+	/**
+	 * Constructor. All rule predicates are tabled.
+	 * 
+	 * @param facts one or many facts
+	 * @param rules list of rules
+	 * @param configuration configuration with the resource limits of the
+	 *            evaluation
+	 */
+	public SLGEvaluator(IFacts facts, List<IRule> rules,
+			Configuration configuration) {
+		this(facts, rules, configuration, new SafeStandardLiteralSelector(),
+				new AllPredicateTagger(rules));
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param facts one or many facts
+	 * @param rules list of rules
+	 * @param configuration configuration with the resource limits of the
+	 *            evaluation
+	 * @param literalSelector the selector for the next literal to resolve
+	 * @param predicateTagger the tagger of the predicates to table. Every
+	 *            recursive predicate must be tagged, otherwise the evaluation
+	 *            might not terminate.
+	 */
+	public SLGEvaluator(IFacts facts, List<IRule> rules,
+			Configuration configuration, ILiteralSelector literalSelector,
+			IPredicateTagger predicateTagger) {
+		mFacts = facts;
+		mConfiguration = configuration;
+		mLiteralSelector = literalSelector;
+		mMemoPredicates = predicateTagger.getMemoPredicates();
+
+		mRules = new HashMap<IPredicate, List<IRule>>();
+		for (IRule rule : rules) {
+			IPredicate predicate = rule.getHead().get(0).getAtom()
+					.getPredicate();
+			List<IRule> list = mRules.get(predicate);
+			if (list == null) {
+				list = new ArrayList<IRule>();
+				mRules.put(predicate, list);
+			}
+			list.add(rule);
+		}
+	}
+
+	/**
+	 * Evaluate given query
+	 */
+	public IRelation evaluate(IQuery query) throws EvaluationException {
+		mInitialQuery = query;
+		mOutputVariables = new ArrayList<IVariable>();
+		for (ILiteral literal : query.getLiterals()) {
+			if (literal.isPositive()) {
+				for (IVariable variable : TermMatchingAndSubstitution
+						.getVariables(literal.getAtom().getTuple(), true))
+					if (!mOutputVariables.contains(variable))
+						mOutputVariables.add(variable);
+			}
+		}
+
+		mTable.clear();
+		mStack.clear();
+		mIndexes.clear();
+
+		// The query is resolved like the body of a rule, whose head consists
+		// of the variables of the query.
+		Subgoal root = new Subgoal(null, false);
+		ITuple template = Factory.BASIC.createTuple(new ArrayList<ITerm>(
+				getOutputVariables()));
+
+		mGovernor = ResourceGovernor.enter(mConfiguration);
+		try {
+			resolve(root, template, query.getLiterals(), Collections
+					.<Delay> emptySet());
+		} finally {
+			mGovernor.exit();
+		}
+
+		logger.debug("------------");
+		logger.debug("Relation " + root.answers);
+		logger.debug("Original Query: " + query);
+		logger.debug("Subgoals: " + mTable);
+
+		return root.answers;
+	}
+
+	/**
+	 * Return the variables of the positive literals of the initial query
+	 */
+	public List<IVariable> getOutputVariables() {
+		return mOutputVariables;
+	}
+
+	/**
+	 * Returns the subgoal of an atom, and evaluates it if it was not called
+	 * before. The depth first number of the caller is lowered, if the subgoal
+	 * is not complete.
+	 * 
+	 * @param atom the called atom
+	 * @param table <code>true</code> if the subgoal must be tabled
+	 * @param caller the subgoal, whose evaluation calls the atom
+	 * @return the subgoal
+	 * @throws EvaluationException on failure
+	 */
+	private Subgoal call(IAtom atom, boolean table, Subgoal caller)
+			throws EvaluationException {
+		IPredicate predicate = atom.getPredicate();
+
+		if (!table && !mMemoPredicates.contains(predicate)) {
+			// Predicates, that are not tabled, are resolved on every call.
+			Subgoal subgoal = new Subgoal(atom, false);
+			evaluate(subgoal);
+			if (subgoal.lowlink != Integer.MAX_VALUE) {
+				caller.lowlink = Math.min(caller.lowlink, subgoal.lowlink);
+				caller.recursive = true;
+			}
+			return subgoal;
+		}
+
+		Map<List<Object>, Subgoal> variants = mTable.get(predicate);
+		if (variants == null) {
+			variants = new HashMap<List<Object>, Subgoal>();
+			mTable.put(predicate, variants);
+		}
+
+		List<Object> variant = TopDownHelper.createVariant(atom);
+		Subgoal subgoal = variants.get(variant);
+
+		if (subgoal == null) {
+			subgoal = new Subgoal(atom, true);
+			subgoal.dfn = subgoal.lowlink = mDfn++;
+			subgoal.position = mStack.size();
+			variants.put(variant, subgoal);
+			mStack.add(subgoal);
+
+			evaluate(subgoal);
+
+			if (subgoal.lowlink == subgoal.dfn)
+				complete(subgoal);
+			if (!subgoal.complete) {
+				caller.lowlink = Math.min(caller.lowlink, subgoal.lowlink);
+				caller.recursive = true;
+			}
+		} else if (!subgoal.complete) {
+			// A call of an incomplete subgoal (a recursive call)
+			caller.lowlink = Math.min(caller.lowlink, subgoal.dfn);
+			caller.recursive = true;
+		}
+
+		return subgoal;
+	}
+
+	/**
+	 * Evaluates the leader of a strongly connected component until no new
+	 * answers are derived for any of its members, and completes the component
+	 * afterwards.
+	 * 
+	 * @param leader the leader of the component
+	 * @throws EvaluationException on failure
+	 */
+	private void complete(Subgoal leader) throws EvaluationException {
+		if (mStack.size() > leader.position + 1 || leader.recursive) {
+			long before;
+			do {
+				before = countChanges(leader.position);
+				for (int i = leader.position; i < mStack.size(); ++i)
+					evaluate(mStack.get(i));
+			} while (countChanges(leader.position) != before);
+
+			// The re-evaluation might have called subgoals below the leader.
+			for (int i = leader.position; i < mStack.size(); ++i)
+				leader.lowlink = Math.min(leader.lowlink, mStack.get(i).lowlink);
+			if (leader.lowlink != leader.dfn)
+				return;
+		}
+
+		List<Subgoal> members = mStack.subList(leader.position, mStack.size());
+		List<Subgoal> component = new ArrayList<Subgoal>(members);
+		members.clear();
+
+		for (Subgoal subgoal : component)
+			subgoal.complete = true;
+
+		simplify(component);
+	}
+
+	private long countChanges(int from) {
+		long changes = 0;
+
+		for (int i = from; i < mStack.size(); ++i)
+			changes += mStack.get(i).changes;
+
+		return changes;
+	}
+
+	/**
+	 * Resolves a subgoal against the facts and rules.
+	 * 
+	 * @param subgoal the subgoal
+	 * @throws EvaluationException on failure
+	 */
+	private void evaluate(Subgoal subgoal) throws EvaluationException {
+		mGovernor.checkIteration();
+
+		ITuple pattern = subgoal.atom.getTuple();
+		Set<Delay> none = Collections.emptySet();
+
+		for (ITuple fact : getFacts(subgoal.atom)) {
+			if (match(pattern, fact, new HashMap<IVariable, ITerm>()))
+				addAnswer(subgoal, fact, none);
+		}
+
+		List<IRule> rules = mRules.get(subgoal.atom.getPredicate());
+		if (rules == null)
+			return;
+
+		for (IRule rule : rules) {
+			ITuple head = rule.getHead().get(0).getAtom().getTuple();
+
+			// Only the ground arguments of the subgoal are bound to the head.
+			// Shared variables are checked for every derived answer.
+			Map<IVariable, ITerm> bindings = new HashMap<IVariable, ITerm>();
+			boolean matches = head.size() == pattern.size();
+			for (int i = 0; matches && i < pattern.size(); ++i) {
+				ITerm term = pattern.get(i);
+				if (term.isGround())
+					matches = TermMatchingAndSubstitution.match(head.get(i),
+							term, bindings);
+			}
+
+			if (matches)
+				proceed(subgoal, head, rule.getBody(), bindings, none);
+		}
+	}
+
+	/**
+	 * Resolves the literals of a goal one after another.
+	 * 
+	 * @param goal the subgoal, whose answers are derived
+	 * @param template the answer, if all literals are resolved
+	 * @param literals the literals, that are still to resolve
+	 * @param delays the delayed literals of the derivation so far
+	 * @throws EvaluationException on failure
+	 */
+	private void resolve(Subgoal goal, ITuple template,
+			List<ILiteral> literals, Set<Delay> delays)
+			throws EvaluationException {
+		if (literals.isEmpty()) {
+			if (goal.atom == null
+					|| match(goal.atom.getTuple(), template,
+							new HashMap<IVariable, ITerm>()))
+				addAnswer(goal, template, delays);
+			return;
+		}
+
+		ILiteral selected = mLiteralSelector.select(literals);
+		if (selected == null)
+			selected = literals.get(0);
+
+		List<ILiteral> rest = new LinkedList<ILiteral>(literals);
+		rest.remove(selected);
+
+		IAtom atom = selected.getAtom();
+		Map<IVariable, ITerm> none = Collections.emptyMap();
+
+		if (atom instanceof IBuiltinAtom) {
+			Map<IVariable, ITerm> bindings = evaluateBuiltin((IBuiltinAtom) atom);
+			if ((bindings != null) == selected.isPositive())
+				proceed(goal, template, rest, bindings == null ? none
+						: bindings, delays);
+		} else if (selected.isPositive()) {
+			Subgoal subgoal = call(atom, false, goal);
+			ITuple pattern = atom.getTuple();
+
+			for (int i = 0; i < subgoal.answers.size(); ++i) {
+				Map<IVariable, ITerm> bindings = new HashMap<IVariable, ITerm>();
+				if (match(pattern, subgoal.answers.get(i), bindings))
+					proceed(goal, template, rest, bindings, delays);
+			}
+
+			for (Map.Entry<ITuple, Set<Set<Delay>>> answer : new ArrayList<Map.Entry<ITuple, Set<Set<Delay>>>>(
+					subgoal.conditional.entrySet())) {
+				Map<IVariable, ITerm> bindings = new HashMap<IVariable, ITerm>();
+				if (!match(pattern, answer.getKey(), bindings))
+					continue;
+
+				if (subgoal.tabled) {
+					Set<Delay> extended = new HashSet<Delay>(delays);
+					extended.add(new Delay(subgoal, answer.getKey()));
+					proceed(goal, template, rest, bindings, extended);
+				} else {
+					// The conditions of a subgoal, which is not tabled, are
+					// inherited directly.
+					for (Set<Delay> conditions : new ArrayList<Set<Delay>>(
+							answer.getValue())) {
+						Set<Delay> extended = new HashSet<Delay>(delays);
+						extended.addAll(conditions);
+						proceed(goal, template, rest, bindings, extended);
+					}
+				}
+			}
+		} else {
+			// Negated subgoals are always tabled, so that a delayed literal
+			// refers to the final answers of the subgoal.
+			Subgoal subgoal = call(atom, true, goal);
+
+			if (subgoal.answers.size() > 0)
+				return;
+
+			if (subgoal.complete && subgoal.conditional.isEmpty()) {
+				proceed(goal, template, rest, none, delays);
+			} else {
+				Set<Delay> extended = new HashSet<Delay>(delays);
+				extended.add(new Delay(subgoal, null));
+				proceed(goal, template, rest, none, extended);
+			}
+		}
+	}
+
+	private void proceed(Subgoal goal, ITuple template,
+			List<ILiteral> literals, Map<IVariable, ITerm> bindings,
+			Set<Delay> delays) throws EvaluationException {
+		if (bindings.isEmpty()) {
+			resolve(goal, template, literals, delays);
+			return;
+		}
+
+		List<ILiteral> substituted = new ArrayList<ILiteral>(literals.size());
+		for (ILiteral literal : literals)
+			substituted.add(substitute(literal, bindings));
+
+		resolve(goal, TermMatchingAndSubstitution.substituteVariablesInToTuple(
+				template, bindings), substituted, delays);
+	}
+
+	private static ILiteral substitute(ILiteral literal,
+			Map<IVariable, ITerm> bindings) {
+		IAtom atom = literal.getAtom();
+
+		if (atom instanceof IBuiltinAtom) {
+			// Only the variables are replaced, since constants are replaced
+			// by equality, which also holds for different numeric types.
+			for (IVariable variable : atom.getTuple().getVariables()) {
+				ITerm term = bindings.get(variable);
+				if (term != null)
+					atom = rm.replace(atom, variable, term);
+			}
+		} else {
+			atom = Factory.BASIC.createAtom(atom.getPredicate(),
+					TermMatchingAndSubstitution.substituteVariablesInToTuple(
+							atom.getTuple(), bindings));
+		}
+
+		return Factory.BASIC.createLiteral(literal.isPositive(), atom);
+	}
+
+	/**
+	 * Evaluates a builtin atom.
+	 * 
+	 * @param builtin the builtin atom
+	 * @return the bindings computed by the builtin, or <code>null</code> if
+	 *         the builtin is false
+	 * @throws EvaluationException if the builtin can not be evaluated
+	 */
+	private Map<IVariable, ITerm> evaluateBuiltin(IBuiltinAtom builtin)
+			throws EvaluationException {
+		ITuple tuple = builtin.getTuple();
+		Map<IVariable, ITerm> bindings = new HashMap<IVariable, ITerm>();
+
+		if ((builtin instanceof EqualBuiltin || builtin instanceof ExactEqualBuiltin)
+				&& !tuple.get(0).isGround() && !tuple.get(1).isGround()) {
+			return TermMatchingAndSubstitution.unify(tuple.get(0),
+					tuple.get(1), bindings) ? bindings : null;
+		}
+
+		ITuple result;
+		try {
+			result = builtin.evaluate(tuple);
+		} catch (IllegalArgumentException e) {
+			throw new EvaluationException("The builtin " + builtin
+					+ " can not be evaluated: " + e.getMessage());
+		}
+
+		if (result == null)
+			return null;
+
+		// At most one argument is computed by the builtin.
+		for (ITerm term : tuple) {
+			if (!term.isGround()) {
+				if (result.isEmpty()
+						|| !TermMatchingAndSubstitution.match(term, result
+								.get(0), bindings))
+					return null;
+				break;
+			}
+		}
+
+		return bindings;
+	}
+
+	/**
+	 * Adds an answer to a subgoal.
+	 * 
+	 * @param subgoal the subgoal
+	 * @param answer the answer
+	 * @param delays the delayed literals, the answer depends on
+	 * @throws EvaluationException if a resource limit has been exceeded
+	 */
+	private void addAnswer(Subgoal subgoal, ITuple answer, Set<Delay> delays)
+			throws EvaluationException {
+		if (delays.isEmpty()) {
+			if (subgoal.answers.add(answer)) {
+				subgoal.conditional.remove(answer);
+				subgoal.changes++;
+				mGovernor.checkTuple(answer);
+			}
+		} else if (!subgoal.answers.contains(answer)) {
+			Set<Set<Delay>> conditions = subgoal.conditional.get(answer);
+			if (conditions == null) {
+				conditions = new HashSet<Set<Delay>>();
+				subgoal.conditional.put(answer, conditions);
+			}
+			if (conditions.add(delays))
+				subgoal.changes++;
+		}
+	}
+
+	/**
+	 * Simplifies the conditional answers of a completed component, until
+	 * they either became unconditional, were removed, or depend on literals,
+	 * that are undefined.
+	 * 
+	 * @param component the completed subgoals
+	 */
+	private void simplify(List<Subgoal> component) {
+		boolean changed = true;
+
+		while (changed) {
+			changed = false;
+			for (Subgoal subgoal : component)
+				changed |= simplify(subgoal);
+			if (!changed)
+				changed = removeUnfounded(component);
+		}
+	}
+
+	private boolean simplify(Subgoal subgoal) {
+		boolean changed = false;
+
+		for (Map.Entry<ITuple, Set<Set<Delay>>> answer : new ArrayList<Map.Entry<ITuple, Set<Set<Delay>>>>(
+				subgoal.conditional.entrySet())) {
+			Set<Set<Delay>> remaining = new HashSet<Set<Delay>>();
+			boolean unconditional = false;
+
+			for (Set<Delay> conditions : answer.getValue()) {
+				Set<Delay> unknown = new HashSet<Delay>();
+				boolean holds = true;
+
+				for (Delay delay : conditions) {
+					int status = delay.getStatus();
+					if (status == FALSE) {
+						holds = false;
+						break;
+					}
+					if (status == UNKNOWN)
+						unknown.add(delay);
+				}
+
+				if (holds && unknown.isEmpty()) {
+					unconditional = true;
+					break;
+				}
+				if (holds)
+					remaining.add(unknown);
+			}
+
+			if (unconditional) {
+				subgoal.conditional.remove(answer.getKey());
+				subgoal.answers.add(answer.getKey());
+				changed = true;
+			} else if (remaining.isEmpty()) {
+				subgoal.conditional.remove(answer.getKey());
+				changed = true;
+			} else if (!remaining.equals(answer.getValue())) {
+				answer.setValue(remaining);
+				changed = true;
+			}
+		}
+
+		return changed;
+	}
+
+	/**
+	 * Removes the conditional answers of a component, that only depend on
+	 * each other positively (unfounded sets), since they are false under the
+	 * well-founded semantics.
+	 * 
+	 * @param component the completed subgoals
+	 * @return <code>true</code> if an answer was removed
+	 */
+	private boolean removeUnfounded(List<Subgoal> component) {
+		Set<Subgoal> members = new HashSet<Subgoal>(component);
+		Set<Delay> supported = new HashSet<Delay>();
+
+		boolean grown = true;
+		while (grown) {
+			grown = false;
+			for (Subgoal subgoal : component) {
+				for (Map.Entry<ITuple, Set<Set<Delay>>> answer : subgoal.conditional
+						.entrySet()) {
+					Delay self = new Delay(subgoal, answer.getKey());
+					if (supported.contains(self))
+						continue;
+
+					for (Set<Delay> conditions : answer.getValue()) {
+						if (isSupported(conditions, members, supported)) {
+							supported.add(self);
+							grown = true;
+							break;
+						}
+					}
+				}
+			}
+		}
+
+		boolean removed = false;
+		for (Subgoal subgoal : component) {
+			for (ITuple answer : new ArrayList<ITuple>(subgoal.conditional
+					.keySet())) {
+				if (!supported.contains(new Delay(subgoal, answer))) {
+					subgoal.conditional.remove(answer);
+					removed = true;
+				}
+			}
+		}
+
+		return removed;
+	}
+
+	private static boolean isSupported(Set<Delay> conditions,
+			Set<Subgoal> members, Set<Delay> supported) {
+		for (Delay delay : conditions) {
+			if (delay.answer != null && members.contains(delay.subgoal)
+					&& !supported.contains(delay))
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns the facts, that might match an atom. The facts are looked up
+	 * in an index on the ground arguments of the atom.
+	 * 
+	 * @param atom the atom
+	 * @return the candidate facts
+	 */
+	private List<ITuple> getFacts(IAtom atom) {
+		IPredicate predicate = atom.getPredicate();
+
+		if (!mFacts.getPredicates().contains(predicate))
+			return Collections.emptyList();
+
+		ITuple pattern = atom.getTuple();
+		List<Integer> positions = new ArrayList<Integer>();
+		List<ITerm> key = new ArrayList<ITerm>();
+		for (int i = 0; i < pattern.size(); ++i) {
+			if (pattern.get(i).isGround()) {
+				positions.add(i);
+				key.add(pattern.get(i));
+			}
+		}
+
+		Map<List<Integer>, IIndex> indexes = mIndexes.get(predicate);
+		if (indexes == null) {
+			indexes = new HashMap<List<Integer>, IIndex>();
+			mIndexes.put(predicate, indexes);
+		}
+
+		IIndex index = indexes.get(positions);
+		if (index == null) {
+			int[] indices = new int[positions.size()];
+			for (int i = 0; i < indices.length; ++i)
+				indices[i] = positions.get(i);
+
+			index = mConfiguration.indexFactory.createIndex(mFacts
+					.get(predicate), indices);
+			indexes.put(positions, index);
+		}
+
+		return index.get(key);
+	}
+
+	private static boolean match(ITuple pattern, ITuple tuple,
+			Map<IVariable, ITerm> bindings) {
+		if (pattern.size() != tuple.size())
+			return false;
+
+		for (int i = 0; i < pattern.size(); ++i) {
+			if (!TermMatchingAndSubstitution.match(pattern.get(i), tuple
+					.get(i), bindings))
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * A call of an atom together with its answers.
+	 */
+	private static class Subgoal {
+		/** The called atom, <code>null</code> for the query. */
+		final IAtom atom;
+
+		/** Whether the subgoal is in the table. */
+		final boolean tabled;
+
+		/** The unconditional answers. */
+		final IRelation answers = srf.createRelation();
+
+		/** The conditional answers with their alternative sets of delays. */
+		final Map<ITuple, Set<Set<Delay>>> conditional = new LinkedHashMap<ITuple, Set<Set<Delay>>>();
+
+		/** The depth first number. */
+		int dfn = Integer.MAX_VALUE;
+
+		/** The lowest depth first number of the incomplete subgoals called. */
+		int lowlink = Integer.MAX_VALUE;
+
+		/** The position on the stack of incomplete subgoals. */
+		int position;
+
+		/** Whether the evaluation called an incomplete subgoal. */
+		boolean recursive;
+
+		/** Whether all answers have been derived. */
+		boolean complete;
+
+		/** The number of changes to the answers. */
+		long changes;
+
+		Subgoal(IAtom atom, boolean tabled) {
+			this.atom = atom;
+			this.tabled = tabled;
+		}
+
+		@Override
+		public String toString() {
+			return atom + " " + answers + " " + conditional.keySet();
+		}
+	}
+
+	/**
+	 * A delayed literal. It is either a negated subgoal, or a conditional
+	 * answer of a subgoal.
+	 */
+	private static class Delay {
+		final Subgoal subgoal;
+
+		/** The answer, <code>null</code> for a negated subgoal. */
+		final ITuple answer;
+
+		Delay(Subgoal subgoal, ITuple answer) {
+			this.subgoal = subgoal;
+			this.answer = answer;
+		}
+
+		/**
+		 * Returns the status of this literal. Must only be called if the
+		 * subgoal is complete.
+		 */
+		int getStatus() {
+			if (answer == null) {
+				if (subgoal.answers.size() > 0)
+					return FALSE;
+				return subgoal.conditional.isEmpty() ? TRUE : UNKNOWN;
+			}
+
+			if (subgoal.answers.contains(answer))
+				return TRUE;
+			return subgoal.conditional.containsKey(answer) ? UNKNOWN : FALSE;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Delay))
+				return false;
+			Delay delay = (Delay) o;
+			return subgoal == delay.subgoal
+					&& (answer == null ? delay.answer == null : answer
+							.equals(delay.answer));
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(subgoal) * 31
+					+ (answer == null ? 0 : answer.hashCode());
+		}
+	}
+}
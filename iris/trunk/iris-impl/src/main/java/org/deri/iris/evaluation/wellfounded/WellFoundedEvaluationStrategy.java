@@ -27,11 +27,13 @@ import java.util.List;
 
 import org.deri.iris.Configuration;
 import org.deri.iris.EvaluationException;
+import org.deri.iris.api.IResultConsumer;
 import org.deri.iris.api.basics.IPredicate;
 import org.deri.iris.api.basics.IQuery;
 import org.deri.iris.api.basics.IRule;
 import org.deri.iris.api.terms.IVariable;
-import org.deri.iris.evaluation.IEvaluationStrategy;
+import org.deri.iris.evaluation.IStreamingEvaluationStrategy;
+import org.deri.iris.evaluation.ResourceGovernor;
 import org.deri.iris.evaluation.stratifiedbottomup.EvaluationUtilities;
 import org.deri.iris.evaluation.stratifiedbottomup.IRuleEvaluator;
 import org.deri.iris.evaluation.stratifiedbottomup.naive.NaiveEvaluator;
@@ -49,7 +51,7 @@ import org.deri.iris.utils.equivalence.IEquivalentTerms;
  * TODO This is a first implementation and needs to be significantly improved, particularly
  * in the area of rule-compilation (should only be done once - requires a reset() method on ICompiledRule)
  */
-public class WellFoundedEvaluationStrategy implements IEvaluationStrategy
+public class WellFoundedEvaluationStrategy implements IStreamingEvaluationStrategy
 {
 
 	/**
@@ -86,7 +88,16 @@ public class WellFoundedEvaluationStrategy implements IEvaluationStrategy
 		// Rule optimisation
 //		List<IRule> optimisedRules = utils.optimiseRules( reorderedRules );
 
-		mFacts = calculateWellFoundedModel( reorderedRules, facts );
+		ResourceGovernor governor = ResourceGovernor.enter( mConfiguration );
+		
+		try
+		{
+			mFacts = calculateWellFoundedModel( reorderedRules, facts, governor );
+		}
+		finally
+		{
+			governor.exit();
+		}
 
 	}
 	
@@ -118,10 +129,12 @@ public class WellFoundedEvaluationStrategy implements IEvaluationStrategy
 	 * program does not grow.
 	 * @param rules The rules from the original program.
 	 * @param startingFacts The facts from the original program.
+	 * @param governor The resource governor for this evaluation.
 	 * @return The well-founded model for the original program.
 	 * @throws EvaluationException If a rule can not be compiled (e.g. if a rule is unsafe)
+	 * or a resource limit is exceeded.
 	 */
-	private final IFacts calculateWellFoundedModel( List<IRule> rules, IFacts startingFacts )
+	private final IFacts calculateWellFoundedModel( List<IRule> rules, IFacts startingFacts, ResourceGovernor governor )
 	                throws EvaluationException
 	{
 		assert rules != null;
@@ -171,6 +184,8 @@ public class WellFoundedEvaluationStrategy implements IEvaluationStrategy
 
 		for( ;; )
 		{
+			governor.checkIteration();
+			
 			// Do negative evaluation
 
 			// simpleFacts = doubler.extractPositiveFacts( simpleFacts );
@@ -264,6 +279,27 @@ public class WellFoundedEvaluationStrategy implements IEvaluationStrategy
 		return result;
 	}
 
+	public boolean evaluateQuery( IQuery query, List<IVariable> outputVariables, IResultConsumer consumer ) throws EvaluationException
+	{
+		if( query == null )
+			throw new IllegalArgumentException( "WellFoundedEvaluationStrategy.evaluateQuery() - query must not be null." ); 
+
+		if( outputVariables == null )
+			throw new IllegalArgumentException( "WellFoundedEvaluationStrategy.evaluateQuery() - outputVariables must not be null." ); 
+
+		if( consumer == null )
+			throw new IllegalArgumentException( "WellFoundedEvaluationStrategy.evaluateQuery() - consumer must not be null." ); 
+
+		RuleCompiler compiler = new RuleCompiler( mFacts, mEquivalentTerms, mConfiguration );
+
+		ICompiledRule compiledQuery = compiler.compile( query );
+
+		outputVariables.clear();
+		outputVariables.addAll( compiledQuery.getVariablesBindings() );
+
+		return compiledQuery.evaluate( consumer );
+	}
+
 	/** The equivalent terms. */
 	private IEquivalentTerms mEquivalentTerms;
 	
@@ -34,7 +34,6 @@ import org.deri.iris.api.terms.ITerm;
 import org.deri.iris.api.terms.IVariable;
 import org.deri.iris.factory.Factory;
 import org.deri.iris.storage.IRelation;
-import org.deri.iris.storage.simple.SimpleRelationFactory;
 
 /**
  * Definition: Unsafe negation
@@ -55,6 +54,9 @@ import org.deri.iris.storage.simple.SimpleRelationFactory;
  * 
  * For both:
  * 	6.	Add $UNIVERSE$(?variable) sub-goals for each free variable in each rule
+ *
+ * The terms of the starting facts are only extracted when the $UNIVERSE$ relation
+ * is used (see {@link UniverseRelation}).
  */
 public class FiniteUniverseFacts implements IFacts
 {
@@ -74,8 +76,7 @@ public class FiniteUniverseFacts implements IFacts
 		
 		mFacts = facts;
 		
-//		mUniverse = mFacts.get( UNIVERSE );
-		mUniverse = new SimpleRelationFactory().createRelation();
+		mUniverse = new UniverseRelation();
 		
 		// Extract all possible ground values from starting facts and rules.
 		extractGroundTerms( rules );
@@ -85,7 +86,7 @@ public class FiniteUniverseFacts implements IFacts
 		for( IPredicate predicate : startPredicates )
 		{
 			IRelation relation = mFacts.get( predicate );
-			addToUniverse( relation );
+			mUniverse.addSource( relation );
 		}
 	}
 	
@@ -239,14 +240,6 @@ public class FiniteUniverseFacts implements IFacts
 		return mFacts.getPredicates();
 	}
 	
-	private void addToUniverse( IRelation relation )
-	{
-		assert relation != null;
-
-		for( int t = 0; t < relation.size(); ++t )
-			addToUniverse( relation.get( t ) );
-	}
-	
 	/**
 	 * Add all the terms of a tuple to the universe relation.
 	 * @param tuple The tuple whose terms are to be added.
@@ -254,9 +247,9 @@ public class FiniteUniverseFacts implements IFacts
 	private void addToUniverse( ITuple tuple )
 	{
 		assert tuple != null;
+		assert mUniverse != null;
 
-		for( ITerm term : tuple )
-			addToUniverse( term );
+		mUniverse.add( tuple );
 	}
 
 	/**
@@ -265,19 +258,9 @@ public class FiniteUniverseFacts implements IFacts
 	 */
 	private void addToUniverse( ITerm term )
 	{
-		assert !( term instanceof IVariable );
 		assert mUniverse != null;
-		
-		if( term instanceof IConstructedTerm )
-		{
-			IConstructedTerm constructed = (IConstructedTerm) term;
-			for( ITerm param : constructed.getValue() )
-				addToUniverse( param );
-		}
 
-		// NOTE
-		// If term = f(g(h(1))) then 1, h(1), g(h(1)) and f(g(h(1))) will get added to the universe.
-		mUniverse.add( Factory.BASIC.createTuple( term ) );
+		mUniverse.add( term );
 	}
 
 	@Override
@@ -291,7 +274,7 @@ public class FiniteUniverseFacts implements IFacts
 	private final IFacts mFacts;
 	
 	/** The predicate name that identifies the universe relation. */
-	private final IRelation mUniverse;
+	private final UniverseRelation mUniverse;
 	
 	/** The suffix to append to variables in rules in order to give them a 'unique' value. */
 	private static final String UNIQUE_VARIABLE_SUFFIX = "_$UNIQUE$";
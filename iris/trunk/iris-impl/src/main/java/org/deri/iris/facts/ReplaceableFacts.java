@@ -0,0 +1,104 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.facts;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.deri.iris.api.basics.IPredicate;
+import org.deri.iris.api.basics.ITuple;
+import org.deri.iris.storage.IRelation;
+
+/**
+ * A facts adaptor that allows the relation of a predicate to be replaced by
+ * another relation. This is used to remove tuples, which relations do not
+ * support.
+ */
+public class ReplaceableFacts implements IFacts
+{
+	/**
+	 * Constructor.
+	 * Decorate the given facts object.
+	 * @param facts The facts to decorate.
+	 */
+	public ReplaceableFacts( IFacts facts )
+	{
+		mFacts = facts;
+	}
+
+	/**
+	 * Replace the relation of a predicate.
+	 * Anything compiled against the old relation must be compiled again.
+	 * @param predicate The predicate.
+	 * @param relation The new relation for the predicate.
+	 */
+	public void replace( IPredicate predicate, IRelation relation )
+	{
+		mReplacedRelations.put( predicate, relation );
+	}
+
+	public IRelation get( IPredicate predicate )
+	{
+		IRelation relation = mReplacedRelations.get( predicate );
+		
+		if( relation == null )
+			relation = mFacts.get( predicate );
+		
+		return relation;
+	}
+
+	public Set<IPredicate> getPredicates()
+	{
+		Set<IPredicate> result = new HashSet<IPredicate>( mFacts.getPredicates() );
+		result.addAll( mReplacedRelations.keySet() );
+		return result;
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder result = new StringBuilder();
+		
+		for( IPredicate predicate : getPredicates() )
+		{
+			IRelation relation = get( predicate );
+			for( int t = 0; t < relation.size(); ++t )
+			{
+				ITuple tuple = relation.get( t );
+				result.append( predicate.getPredicateSymbol() );
+				result.append( tuple );
+				result.append( '.' );
+			}
+		}
+
+		return result.toString();
+	}
+
+	/** The replaced relations. */
+	private final Map<IPredicate, IRelation> mReplacedRelations = new HashMap<IPredicate, IRelation>();
+
+	/** The decorated facts. */
+	private final IFacts mFacts;
+}
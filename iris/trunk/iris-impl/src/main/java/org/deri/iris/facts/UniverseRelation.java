@@ -0,0 +1,205 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.facts;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.deri.iris.api.basics.ITuple;
+import org.deri.iris.api.terms.IConstructedTerm;
+import org.deri.iris.api.terms.ITerm;
+import org.deri.iris.api.terms.IVariable;
+import org.deri.iris.factory.Factory;
+import org.deri.iris.storage.IRelation;
+
+/**
+ * The unary $UNIVERSE$ relation of a finite universe.
+ * 
+ * Every distinct term is stored once (not wrapped in a tuple) and membership
+ * is answered with a single hash lookup, so that a $UNIVERSE$ sub-goal whose
+ * variable is already bound is a cheap filter.
+ * 
+ * The terms of the source relations are only extracted when the universe is
+ * accessed for the first time. Only the tuples that were in a source relation
+ * when it was registered are extracted, i.e. a source relation must keep the
+ * order of its tuples. As long as no unsafe rule is evaluated, the universe
+ * is never enumerated at all.
+ */
+public class UniverseRelation implements IRelation
+{
+	/**
+	 * Register a relation, whose terms belong to the universe.
+	 * The terms are extracted when the universe is accessed for the first time.
+	 * @param relation The relation.
+	 */
+	public synchronized void addSource( IRelation relation )
+	{
+		assert relation != null;
+
+		if( mSources == null )
+			addAll( relation );
+		else
+		{
+			mSources.add( relation );
+			mSourceSizes.add( relation.size() );
+		}
+	}
+
+	/**
+	 * Add a term (recursively in the case of constructed terms) to the universe.
+	 * @param term The term to add.
+	 * @return true, if the universe did not contain the term before.
+	 */
+	public boolean add( ITerm term )
+	{
+		assert !( term instanceof IVariable );
+
+		boolean added = false;
+
+		if( term instanceof IConstructedTerm )
+		{
+			IConstructedTerm constructed = (IConstructedTerm) term;
+			for( ITerm param : constructed.getValue() )
+				added |= add( param );
+		}
+
+		// NOTE
+		// If term = f(g(h(1))) then 1, h(1), g(h(1)) and f(g(h(1))) will get added to the universe.
+		if( mTermSet.add( term ) )
+		{
+			mTerms.add( term );
+			added = true;
+		}
+
+		return added;
+	}
+
+	/**
+	 * Check if a term is in the universe.
+	 * @param term The term.
+	 * @return true, if the universe contains the term.
+	 */
+	public boolean contains( ITerm term )
+	{
+		if( mSources != null )
+			extractSources();
+
+		return mTermSet.contains( term );
+	}
+
+	public boolean add( ITuple tuple )
+	{
+		assert tuple != null;
+
+		boolean added = false;
+
+		for( ITerm term : tuple )
+			added |= add( term );
+
+		return added;
+	}
+
+	public boolean addAll( IRelation relation )
+	{
+		assert relation != null;
+
+		boolean added = false;
+
+		for( int t = 0; t < relation.size(); ++t )
+			added |= add( relation.get( t ) );
+
+		return added;
+	}
+
+	public ITuple get( int index )
+	{
+		if( mSources != null )
+			extractSources();
+
+		return Factory.BASIC.createTuple( mTerms.get( index ) );
+	}
+
+	public int size()
+	{
+		if( mSources != null )
+			extractSources();
+
+		return mTerms.size();
+	}
+
+	public boolean contains( ITuple tuple )
+	{
+		assert tuple != null;
+
+		return tuple.size() == 1 && contains( tuple.get( 0 ) );
+	}
+
+	/**
+	 * Extract the terms of the registered source relations, if this has not
+	 * been done yet. The sources are only cleared once all terms have been
+	 * extracted, so that a reader that finds no sources without locking sees
+	 * all terms.
+	 */
+	private synchronized void extractSources()
+	{
+		if( mSources == null )
+			return;
+
+		List<IRelation> sources = mSources;
+
+		for( int r = 0; r < sources.size(); ++r )
+		{
+			IRelation relation = sources.get( r );
+			int size = mSourceSizes.get( r );
+
+			for( int t = 0; t < size; ++t )
+				add( relation.get( t ) );
+		}
+
+		mSourceSizes = null;
+		mSources = null;
+	}
+
+	@Override
+	public String toString()
+	{
+		if( mSources != null )
+			extractSources();
+
+		return mTerms.toString();
+	}
+
+	/** The distinct terms in the order in which they were added. */
+	private final List<ITerm> mTerms = new ArrayList<ITerm>();
+
+	/** The distinct terms. */
+	private final Set<ITerm> mTermSet = new HashSet<ITerm>();
+
+	/** The relations, whose terms have not been extracted yet, or null if all have been. */
+	private volatile List<IRelation> mSources = new ArrayList<IRelation>();
+
+	/** The sizes of the source relations when they were registered. */
+	private List<Integer> mSourceSizes = new ArrayList<Integer>();
+}
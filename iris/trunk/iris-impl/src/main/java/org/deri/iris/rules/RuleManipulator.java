@@ -38,7 +38,6 @@ import org.deri.iris.api.builtins.IBuiltinAtom;
 import org.deri.iris.api.terms.IConstructedTerm;
 import org.deri.iris.api.terms.ITerm;
 import org.deri.iris.api.terms.IVariable;
-import org.deri.iris.basics.Tuple;
 import org.deri.iris.builtins.EqualBuiltin;
 import org.deri.iris.builtins.ExactEqualBuiltin;
 import org.deri.iris.builtins.NotEqualBuiltin;
@@ -157,7 +156,7 @@ public class RuleManipulator
 				{
 					if( literal.getAtom() instanceof EqualBuiltin )
 					{
-						Tuple tuple = (Tuple) literal.getAtom().getTuple();
+						ITuple tuple = literal.getAtom().getTuple();
 						
 						IVariable v1 = null;
 						IVariable v2 = null;
@@ -231,7 +230,7 @@ public class RuleManipulator
 				
 				if( canReplace )
 				{
-					Tuple tuple = (Tuple) literal.getAtom().getTuple();
+					ITuple tuple = literal.getAtom().getTuple();
 					
 					assert tuple.size() == 2;
 					
@@ -289,7 +288,7 @@ public class RuleManipulator
 			
 			if( canReplace )
 			{
-				Tuple tuple = (Tuple) literal.getAtom().getTuple();
+				ITuple tuple = literal.getAtom().getTuple();
 				
 				assert tuple.size() == 2;
 				
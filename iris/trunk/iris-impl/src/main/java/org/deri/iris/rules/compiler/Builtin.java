@@ -29,6 +29,7 @@ import java.util.Set;
 
 import org.deri.iris.Configuration;
 import org.deri.iris.EvaluationException;
+import org.deri.iris.api.IResultConsumer;
 import org.deri.iris.api.basics.ITuple;
 import org.deri.iris.api.builtins.IBuiltinAtom;
 import org.deri.iris.api.terms.ITerm;
@@ -60,6 +61,7 @@ public class Builtin extends RuleElement
 		mPositive = positive;
 		mEquivalentTerms = equivalentTerms;
 		mConfiguration = configuration;
+		mPartitioner = new Partitioner( mConfiguration );
 		
 		// TODO Properly calculate output variables and indices for negative literals
 		
@@ -130,47 +132,53 @@ public class Builtin extends RuleElement
 	{
 		assert leftRelation != null;
 		
-		IRelation result = mConfiguration.relationFactory.createRelation();
+		return mPartitioner.process( leftRelation, this );
+	}
+
+	/**
+	 * Evaluate the built-in atom for one input tuple.
+	 * @param input The input tuple.
+	 * @param consumer The consumer of the output tuples.
+	 * @throws EvaluationException If the built-in atom can not be evaluated.
+	 */
+	@Override
+	public boolean process( ITuple input, IResultConsumer consumer ) throws EvaluationException
+	{
+		// Make the tuple for input to the built-in predicate
+		ITerm[] terms = new ITerm[ mIndicesFromInputRelationToMakeInputTuple.length ];
 		
-		for( int i = 0; i < leftRelation.size(); ++i )
+		for( int t = 0; t < mIndicesFromInputRelationToMakeInputTuple.length; ++t )
 		{
-			ITuple input = leftRelation.get( i );
-			
-			// Make the tuple for input to the built-in predicate
-			ITerm[] terms = new ITerm[ mIndicesFromInputRelationToMakeInputTuple.length ];
-			
-			for( int t = 0; t < mIndicesFromInputRelationToMakeInputTuple.length; ++t )
-			{
-				int index = mIndicesFromInputRelationToMakeInputTuple[ t ];
-				terms[ t ] = index == -1 ? mBuiltinAtom.getTuple().get( t ) : input.get( index );
-			}
-			
-			ITuple builtinInputTuple = Factory.BASIC.createTuple( terms );
+			int index = mIndicesFromInputRelationToMakeInputTuple[ t ];
+			terms[ t ] = index == -1 ? mBuiltinAtom.getTuple().get( t ) : input.get( index );
+		}
+		
+		ITuple builtinInputTuple = Factory.BASIC.createTuple( terms );
 
-			// FIXME Check if this is still necessary.
-			List<ITuple> combinationsForBuiltin = Utils.createAllCombinations(
-					builtinInputTuple, mEquivalentTerms);
+		// FIXME Check if this is still necessary.
+		List<ITuple> combinationsForBuiltin = Utils.createAllCombinations(
+				builtinInputTuple, mEquivalentTerms);
+		
+		for (ITuple combinationForBuiltin : combinationsForBuiltin) {
+			ITuple builtinOutputTuple = mBuiltinAtom.evaluate( combinationForBuiltin );
 			
-			for (ITuple combinationForBuiltin : combinationsForBuiltin) {
-				ITuple builtinOutputTuple = mBuiltinAtom.evaluate( combinationForBuiltin );
-				
-				if( mPositive )
-				{
-					if( builtinOutputTuple != null ) {
-						ITuple concatenated = makeResultTuple(input, builtinOutputTuple);
-						result.add(concatenated);
-					}
-				}
-				else
-				{
-					if( builtinOutputTuple == null ) {
-						result.add( input );
-					}
+			if( mPositive )
+			{
+				if( builtinOutputTuple != null ) {
+					ITuple concatenated = makeResultTuple(input, builtinOutputTuple);
+					if( ! consumer.consume( concatenated ) )
+						return false;
 				}
 			}
+			else
+			{
+				// The input tuple is only passed on once.
+				if( builtinOutputTuple == null )
+					return consumer.consume( input );
+			}
 		}
-			
-		return result;
+		
+		return true;
 	}
 
 	/**
@@ -217,4 +225,7 @@ public class Builtin extends RuleElement
 	
 	/** The knowledge-base-wide configuration object. */
 	private final Configuration mConfiguration;
+	
+	/** Processes the input relation, possibly in concurrent partitions. */
+	private final Partitioner mPartitioner;
 }
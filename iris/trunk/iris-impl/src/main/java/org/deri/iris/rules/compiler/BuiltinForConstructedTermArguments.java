@@ -30,6 +30,7 @@ import java.util.Map;
 import org.deri.iris.Configuration;
 import org.deri.iris.EvaluationException;
 import org.deri.iris.RuleUnsafeException;
+import org.deri.iris.api.IResultConsumer;
 import org.deri.iris.api.basics.ITuple;
 import org.deri.iris.api.builtins.IBuiltinAtom;
 import org.deri.iris.api.terms.ITerm;
@@ -135,74 +136,79 @@ public class BuiltinForConstructedTermArguments extends RuleElement
 	}
 
 	@Override
-	public IRelation process( IRelation leftRelation )
+	public IRelation process( IRelation leftRelation ) throws EvaluationException
 	{
 		assert leftRelation != null;
 
 		IRelation result = mConfiguration.relationFactory.createRelation();
+		RelationAppender appender = new RelationAppender( result );
 		
 		// For each input tuple
 		for( int i = 0; i < leftRelation.size(); ++i )
-		{
-			ITuple inputTuple = leftRelation.get( i );
-			
-			// Substitute variable bindings from previous tuples
-			ITuple builtinInputTuple =
-				TermMatchingAndSubstitution.substituteVariablesInToTuple(
-								mBuiltinAtom.getTuple(), inputTuple, mIndicesOfBuiltinVariablesFromInputRelation );
+			process( leftRelation.get( i ), appender );
+		
+		return result;
+	}
+	
+	@Override
+	public boolean process( ITuple inputTuple, IResultConsumer consumer ) throws EvaluationException
+	{
+		// Substitute variable bindings from previous tuples
+		ITuple builtinInputTuple =
+			TermMatchingAndSubstitution.substituteVariablesInToTuple(
+							mBuiltinAtom.getTuple(), inputTuple, mIndicesOfBuiltinVariablesFromInputRelation );
 	
-			ITerm t1 = builtinInputTuple.get( 0 );
-			ITerm t2 = builtinInputTuple.get( 1 );
+		ITerm t1 = builtinInputTuple.get( 0 );
+		ITerm t2 = builtinInputTuple.get( 1 );
 
-			if( mType == TYPE.INEQUALITY )
+		if( mType == TYPE.INEQUALITY )
+		{
+			if( mPositive )
 			{
-				if( mPositive )
-				{
-					if( ! t1.equals( t2 ) && !mEquivalentTerms.areEquivalent(t1, t2) )
-						result.add( inputTuple );
-				}
-				else
-				{
-					if( t1.equals( t2 ) || mEquivalentTerms.areEquivalent(t1, t2) )
-						result.add( inputTuple );
-				}
+				if( ! t1.equals( t2 ) && !mEquivalentTerms.areEquivalent(t1, t2) )
+					return consumer.consume( inputTuple );
 			}
 			else
 			{
-				Map<IVariable, ITerm> variableMap = new HashMap<IVariable, ITerm>();
-				
-				boolean unified = TermMatchingAndSubstitution.unify( t1, t2, variableMap, mEquivalentTerms );
-				
-				if( mPositive )
+				if( t1.equals( t2 ) || mEquivalentTerms.areEquivalent(t1, t2) )
+					return consumer.consume( inputTuple );
+			}
+		}
+		else
+		{
+			Map<IVariable, ITerm> variableMap = new HashMap<IVariable, ITerm>();
+			
+			boolean unified = TermMatchingAndSubstitution.unify( t1, t2, variableMap, mEquivalentTerms );
+			
+			if( mPositive )
+			{
+				if( unified )
 				{
-					if( unified )
+					List<ITerm> rightTerms = new ArrayList<ITerm>(mUniqueUnboundVariables.size());
+					
+					for( IVariable variable : mUniqueUnboundVariables )
 					{
-						List<ITerm> rightTerms = new ArrayList<ITerm>(mUniqueUnboundVariables.size());
-						
-						for( IVariable variable : mUniqueUnboundVariables )
-						{
-							rightTerms.add(variableMap.get( variable ));
-						}
-						
-						ITuple rightTuple = Factory.BASIC.createTuple(rightTerms);
-						List<ITerm> concatenatedTerms = new ArrayList<ITerm>(inputTuple.size() + rightTuple.size());
-
-						concatenatedTerms.addAll(inputTuple);
-						concatenatedTerms.addAll(rightTuple);
-						
-						ITuple concatenated = Factory.BASIC.createTuple(concatenatedTerms);
-						result.add(concatenated);
+						rightTerms.add(variableMap.get( variable ));
 					}
-				}
-				else
-				{
-					if( ! unified )
-						result.add( inputTuple );
+					
+					ITuple rightTuple = Factory.BASIC.createTuple(rightTerms);
+					List<ITerm> concatenatedTerms = new ArrayList<ITerm>(inputTuple.size() + rightTuple.size());
+
+					concatenatedTerms.addAll(inputTuple);
+					concatenatedTerms.addAll(rightTuple);
+					
+					ITuple concatenated = Factory.BASIC.createTuple(concatenatedTerms);
+					return consumer.consume(concatenated);
 				}
 			}
+			else
+			{
+				if( ! unified )
+					return consumer.consume( inputTuple );
+			}
 		}
 		
-		return result;
+		return true;
 	}
 	
 	private final List<IVariable> mUniqueUnboundVariables;
@@ -23,16 +23,24 @@
 package org.deri.iris.rules.compiler;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.deri.iris.Configuration;
 import org.deri.iris.EvaluationException;
+import org.deri.iris.api.IResultConsumer;
 import org.deri.iris.api.basics.IPredicate;
+import org.deri.iris.api.basics.ITuple;
 import org.deri.iris.api.terms.IVariable;
+import org.deri.iris.evaluation.QueryResults;
+import org.deri.iris.evaluation.ResourceGovernor;
 import org.deri.iris.factory.Factory;
 import org.deri.iris.facts.IFacts;
 import org.deri.iris.storage.IRelation;
 import org.deri.iris.storage.simple.SimpleRelationFactory;
+import org.deri.iris.utils.equivalence.IEquivalentTerms;
+import org.deri.iris.utils.equivalence.IgnoreTermEquivalence;
 
 /**
  * A compiled rule.
@@ -45,12 +53,26 @@ public class CompiledRule implements ICompiledRule
 	 * @param headPredicate The head predicate of the original rule.
 	 */
 	public CompiledRule( List<RuleElement> elements, IPredicate headPredicate, Configuration configuration )
+	{
+		this( elements, headPredicate, new IgnoreTermEquivalence(), configuration );
+	}
+	
+	/**
+	 * Constructor.
+	 * @param elements The rule elements produced by the rule compiler.
+	 * @param headPredicate The head predicate of the original rule.
+	 * @param equivalentTerms The equivalent terms used by the rule elements.
+	 */
+	public CompiledRule( List<RuleElement> elements, IPredicate headPredicate, IEquivalentTerms equivalentTerms, Configuration configuration )
 	{
 		assert elements.size() > 0;
+		assert equivalentTerms != null;
 		assert configuration != null;
 		
 		mConfiguration = configuration;
 		
+		mEquivalentTerms = equivalentTerms;
+		
 		mHeadPredicate = headPredicate;
 		
 		mElements = elements;
@@ -64,11 +86,25 @@ public class CompiledRule implements ICompiledRule
 	 */
 	public IRelation evaluate() throws EvaluationException
 	{
+		if( isPipelined() )
+		{
+			IRelation result = mConfiguration.relationFactory.createRelation();
+			
+			evaluatePipelined( new RelationAppender( result ) );
+			
+			return result;
+		}
+		
 		// The first literal receives the starting relation (which has one zero length tuple in it). */
 		IRelation output = mStartingRelation;
 		
+		ResourceGovernor governor = ResourceGovernor.current();
+		
 		for( RuleElement element : mElements )
 		{
+			if( governor != null )
+				governor.checkTime();
+			
 			output = element.process( output );
 			
 			// Must always get some output relation, even if it is empty.
@@ -83,6 +119,144 @@ public class CompiledRule implements ICompiledRule
 		return output;
 	}
 	
+	/**
+	 * Evaluate the rule, and pass the output tuples of the last rule element to
+	 * the consumer as they are produced. 
+	 * @throws EvaluationException 
+	 */
+	public boolean evaluate( IResultConsumer consumer ) throws EvaluationException
+	{
+		// Equivalent input tuples produce the same combinations of equivalent terms,
+		// which would be passed to the consumer more than once.
+		if( mEquivalentTerms.getVersion() != 0 )
+			consumer = new DistinctConsumer( consumer );
+		
+		if( isPipelined() )
+			return evaluatePipelined( consumer );
+		
+		IRelation output = mStartingRelation;
+		
+		ResourceGovernor governor = ResourceGovernor.current();
+		
+		int last = mElements.size() - 1;
+		
+		for( int e = 0; e < last; ++e )
+		{
+			if( governor != null )
+				governor.checkTime();
+			
+			output = mElements.get( e ).process( output );
+			
+			assert output != null;
+			
+			if( output.size() == 0 )
+				return true;
+		}
+		
+		if( governor != null )
+			governor.checkTime();
+		
+		return mElements.get( last ).process( output, consumer );
+	}
+	
+	/**
+	 * Evaluate the rule elements as a pipeline. Each tuple produced by a rule element
+	 * is passed straight on to the next rule element, so intermediate tuples are neither
+	 * stored nor checked for duplicates. Only the input of rule elements that can not be
+	 * pipelined is collected in a relation.
+	 * @param consumer The consumer of the output tuples of the last rule element.
+	 * @return true if all output tuples have been passed to the consumer,
+	 * false if the consumer stopped the evaluation.
+	 * @throws EvaluationException 
+	 */
+	private boolean evaluatePipelined( IResultConsumer consumer ) throws EvaluationException
+	{
+		ResourceGovernor governor = ResourceGovernor.current();
+		
+		IRelation input = mStartingRelation;
+		
+		int from = 0;
+		
+		for( int e = 0; e < mElements.size(); ++e )
+		{
+			RuleElement element = mElements.get( e );
+			
+			if( element.isPipelined() )
+				continue;
+			
+			// Collect the input of the element that can not be pipelined.
+			if( e > from )
+			{
+				IRelation collected = mConfiguration.relationFactory.createRelation();
+				
+				pipeline( input, from, e, new RelationAppender( collected ), governor );
+				
+				input = collected;
+				
+				if( input.size() == 0 )
+					return true;
+			}
+			
+			if( governor != null )
+				governor.checkTime();
+			
+			input = element.process( input );
+			
+			if( input.size() == 0 )
+				return true;
+			
+			from = e + 1;
+		}
+		
+		if( from == mElements.size() )
+			return QueryResults.consumeAll( input, consumer );
+
+		return pipeline( input, from, mElements.size(), consumer, governor );
+	}
+	
+	/**
+	 * Pass the input tuples through a chain of rule elements.
+	 * @param input The input relation of the first rule element in the chain.
+	 * @param from The index of the first rule element in the chain.
+	 * @param to The index after the last rule element in the chain.
+	 * @param consumer The consumer of the output tuples of the last rule element.
+	 * @param governor The resource governor, if any.
+	 * @return true if all output tuples have been passed to the consumer,
+	 * false if the consumer stopped the evaluation.
+	 * @throws EvaluationException
+	 */
+	private boolean pipeline( IRelation input, int from, int to, IResultConsumer consumer, ResourceGovernor governor ) throws EvaluationException
+	{
+		IResultConsumer chain = consumer;
+		
+		for( int e = to - 1; e > from; --e )
+			chain = new Stage( mElements.get( e ), chain, governor );
+		
+		RuleElement first = mElements.get( from );
+		
+		for( int t = 0; t < input.size(); ++t )
+		{
+			if( governor != null )
+				governor.checkTime();
+			
+			if( ! first.process( input.get( t ), chain ) )
+				return false;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Indicates if the rule elements are evaluated as a pipeline.
+	 * Rule elements processing their input in concurrent partitions need the
+	 * whole input relation, so pipelining is not used with a rule element executor.
+	 * @return true if the rule is evaluated as a pipeline.
+	 */
+	private boolean isPipelined()
+	{
+		return mConfiguration.ruleElementPipelining && mConfiguration.ruleElementExecutor == null;
+	}
+	
 	public IRelation evaluateIteratively( IFacts deltas ) throws EvaluationException
 	{
 		IRelation union = mConfiguration.relationFactory.createRelation();
@@ -140,6 +314,75 @@ public class CompiledRule implements ICompiledRule
 		mStartingRelation.add( Factory.BASIC.createTuple() );
 	}
 	
+	/**
+	 * A link in a pipelined chain of rule elements, which passes each tuple it receives
+	 * to its rule element and the output of the rule element on to the next link.
+	 */
+	private static class Stage implements IResultConsumer
+	{
+		/**
+		 * Constructor.
+		 * @param element The rule element.
+		 * @param next The consumer of the output tuples of the rule element.
+		 * @param governor The resource governor, if any.
+		 */
+		Stage( RuleElement element, IResultConsumer next, ResourceGovernor governor )
+		{
+			mElement = element;
+			mNext = next;
+			mGovernor = governor;
+		}
+		
+		public boolean consume( ITuple tuple ) throws EvaluationException
+		{
+			// Checking the time for every tuple would be too expensive.
+			if( mGovernor != null && ( ++mCount & CHECK_TIME_MASK ) == 0 )
+				mGovernor.checkTime();
+			
+			return mElement.process( tuple, mNext );
+		}
+		
+		private final RuleElement mElement;
+		
+		private final IResultConsumer mNext;
+		
+		private final ResourceGovernor mGovernor;
+		
+		/** The number of tuples received. */
+		private int mCount;
+	}
+	
+	/**
+	 * A consumer that passes each distinct tuple it receives on only once.
+	 */
+	private static class DistinctConsumer implements IResultConsumer
+	{
+		/**
+		 * Constructor.
+		 * @param next The consumer of the distinct tuples.
+		 */
+		DistinctConsumer( IResultConsumer next )
+		{
+			mNext = next;
+		}
+		
+		public boolean consume( ITuple tuple ) throws EvaluationException
+		{
+			if( ! mPassed.add( tuple ) )
+				return true;
+			
+			return mNext.consume( tuple );
+		}
+		
+		private final IResultConsumer mNext;
+		
+		/** The tuples passed on so far. */
+		private final Set<ITuple> mPassed = new HashSet<ITuple>();
+	}
+	
+	/** The time limit is checked once every so many tuples passed through a pipeline stage. */
+	private static final int CHECK_TIME_MASK = 1023;
+	
 	/** The rule elements in order. */
 	private final List<RuleElement> mElements;
 	
@@ -147,4 +390,7 @@ public class CompiledRule implements ICompiledRule
 	private final IPredicate mHeadPredicate;
 	
 	private final Configuration mConfiguration;
+	
+	/** The equivalent terms used by the rule elements. */
+	private final IEquivalentTerms mEquivalentTerms;
 }
@@ -26,6 +26,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.deri.iris.Configuration;
+import org.deri.iris.EvaluationException;
+import org.deri.iris.api.IResultConsumer;
 import org.deri.iris.api.basics.ITuple;
 import org.deri.iris.api.terms.IVariable;
 import org.deri.iris.storage.IIndex;
@@ -56,6 +58,8 @@ public class Differ extends RuleElement
 		
 		mConfiguration = configuration;
 		
+		mPartitioner = new Partitioner( mConfiguration );
+		
 		mView = new View( thisLiteralsRelation, viewCriteria, equivalentTerms, mConfiguration.relationFactory );
 		
 		// Find the indices of the variables used in the natural join
@@ -96,7 +100,7 @@ public class Differ extends RuleElement
 	}
 
 	@Override
-    public IRelation process( IRelation leftRelation )
+    public IRelation process( IRelation leftRelation ) throws EvaluationException
     {
 		assert leftRelation != null;
 
@@ -116,20 +120,24 @@ public class Differ extends RuleElement
 //				return mConfiguration.relationFactory.createRelation();
 //		}
 		
-		IRelation result = mConfiguration.relationFactory.createRelation();
-		for( int left = 0; left < leftRelation.size(); ++left )
-		{
-			ITuple leftTuple = leftRelation.get( left );
-			
-			List<ITuple> matchingRightTuples = mIndex2.get( Utils.makeKey( leftTuple, mJoinIndices1 ) );
+		return mPartitioner.process( leftRelation, this );
+	}
+	
+	/**
+	 * Keep the input tuple if it does not match any tuple of this literal's relation.
+	 * @param leftTuple The input tuple.
+	 * @param consumer The consumer of the kept tuple.
+	 */
+	@Override
+	public boolean process( ITuple leftTuple, IResultConsumer consumer ) throws EvaluationException
+	{
+		List<ITuple> matchingRightTuples = mIndex2.get( Utils.makeKey( leftTuple, mJoinIndices1 ) );
 
-			// Only add those tuples, which do not match with the left tuple.
-			if( matchingRightTuples.size() == 0 ) {
-				result.add(leftTuple);
-			}
-		}
+		// Only pass on those tuples, which do not match with the left tuple.
+		if( matchingRightTuples.size() == 0 )
+			return consumer.consume( leftTuple );
 		
-		return result;
+		return true;
 	}
 	
 	/** The equivalent terms. */
@@ -148,4 +156,7 @@ public class Differ extends RuleElement
 	private final IIndex mIndex2;
 	
 	private final Configuration mConfiguration;
+	
+	/** Processes the input relation, possibly in concurrent partitions. */
+	private final Partitioner mPartitioner;
 }
@@ -27,6 +27,7 @@ import java.util.List;
 
 import org.deri.iris.Configuration;
 import org.deri.iris.EvaluationException;
+import org.deri.iris.api.IResultConsumer;
 import org.deri.iris.api.basics.ITuple;
 import org.deri.iris.api.terms.IVariable;
 import org.deri.iris.storage.IRelation;
@@ -75,4 +76,36 @@ public class EquivalenceResolver extends RuleElement {
 		return relation;
 	}
 
+	@Override
+	public boolean process(IRelation input, IResultConsumer consumer)
+			throws EvaluationException {
+		// The combinations are passed on without collecting them in a
+		// relation. Different input tuples can have the same combinations, but
+		// the compiled rule only passes distinct tuples to its consumer.
+		for (int i = 0; i < input.size(); i++) {
+			if (!process(input.get(i), consumer)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public boolean process(ITuple tuple, IResultConsumer consumer)
+			throws EvaluationException {
+		if (equivalentTerms.getVersion() == 0) {
+			return consumer.consume(tuple);
+		}
+
+		for (ITuple combination : Utils.createAllCombinations(tuple,
+				equivalentTerms)) {
+			if (!consumer.consume(combination)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
 }
@@ -25,6 +25,8 @@ package org.deri.iris.rules.compiler;
 import java.util.List;
 
 import org.deri.iris.Configuration;
+import org.deri.iris.EvaluationException;
+import org.deri.iris.api.IResultConsumer;
 import org.deri.iris.api.basics.IPredicate;
 import org.deri.iris.api.basics.ITuple;
 import org.deri.iris.api.terms.IVariable;
@@ -100,6 +102,20 @@ public class FirstSubgoal extends RuleElement
 		return mView;
 	}
 	
+	@Override
+	public boolean process( ITuple input, IResultConsumer consumer ) throws EvaluationException
+	{
+		assert input.size() == 0;	// i.e. there is no left tuple, just a starting point.
+		
+		for( int t = 0; t < mView.size(); ++t )
+		{
+			if( ! consumer.consume( mView.get( t ) ) )
+				return false;
+		}
+		
+		return true;
+	}
+	
 	@Override
     public RuleElement getDeltaSubstitution( IFacts deltas )
     {
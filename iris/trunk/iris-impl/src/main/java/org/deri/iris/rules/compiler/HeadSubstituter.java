@@ -27,6 +27,7 @@ import java.util.List;
 import org.deri.iris.Configuration;
 import org.deri.iris.EvaluationException;
 import org.deri.iris.RuleUnsafeException;
+import org.deri.iris.api.IResultConsumer;
 import org.deri.iris.api.basics.ITuple;
 import org.deri.iris.api.terms.IVariable;
 import org.deri.iris.storage.IRelation;
@@ -85,6 +86,12 @@ public class HeadSubstituter extends RuleElement
 		
 		return result;
 	}
+	
+	@Override
+	public boolean process( ITuple inputTuple, IResultConsumer consumer ) throws EvaluationException
+	{
+		return consumer.consume( TermMatchingAndSubstitution.substituteVariablesInToTuple( mHeadTuple, inputTuple, mIndices ) );
+	}
 
 	/** The rule head tuple. */
 	protected final ITuple mHeadTuple;
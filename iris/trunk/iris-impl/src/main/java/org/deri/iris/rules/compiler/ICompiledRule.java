@@ -25,6 +25,7 @@ package org.deri.iris.rules.compiler;
 import java.util.List;
 
 import org.deri.iris.EvaluationException;
+import org.deri.iris.api.IResultConsumer;
 import org.deri.iris.api.basics.IPredicate;
 import org.deri.iris.api.terms.IVariable;
 import org.deri.iris.facts.IFacts;
@@ -42,6 +43,15 @@ public interface ICompiledRule
 	 */
 	IRelation evaluate() throws EvaluationException;
 
+	/**
+	 * Evaluate rule with all known facts, and pass the result tuples to a consumer.
+	 * @param consumer The consumer of the result tuples.
+	 * @return true if all result tuples have been passed to the consumer,
+	 * false if the consumer stopped the evaluation.
+	 * @throws EvaluationException 
+	 */
+	boolean evaluate( IResultConsumer consumer ) throws EvaluationException;
+
 	/**
 	 * Evaluate the rule using deltas (see semi-naive evaluation) to more intelligently seek out
 	 * tuples that have not already been computed.
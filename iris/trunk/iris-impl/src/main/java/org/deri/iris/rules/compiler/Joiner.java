@@ -25,6 +25,9 @@ package org.deri.iris.rules.compiler;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.deri.iris.Configuration;
+import org.deri.iris.EvaluationException;
+import org.deri.iris.api.IResultConsumer;
 import org.deri.iris.api.basics.IPredicate;
 import org.deri.iris.api.basics.ITuple;
 import org.deri.iris.api.terms.ITerm;
@@ -51,19 +54,20 @@ class Joiner extends RuleElement {
 	 * @param viewCriteria The view criteria (tuple in the sub-goal instance in
 	 *            the rule).
 	 * @param equivalentTerms The equivalent terms.
+	 * @param configuration The knowledge-base configuration.
 	 */
 	public Joiner(List<IVariable> inputVariables, IPredicate predicate,
 			IRelation thisLiteralsRelation, ITuple viewCriteria,
-			IEquivalentTerms equivalentTerms, IIndexFactory indexFactory,
-			IRelationFactory relationFactory) {
+			IEquivalentTerms equivalentTerms, Configuration configuration) {
 		assert inputVariables != null;
 		assert predicate != null;
 		assert thisLiteralsRelation != null;
-		assert indexFactory != null;
-		assert relationFactory != null;
+		assert configuration != null;
 
-		mIndexFactory = indexFactory;
-		mRelationFactory = relationFactory;
+		mConfiguration = configuration;
+		mIndexFactory = configuration.indexFactory;
+		mRelationFactory = configuration.relationFactory;
+		mPartitioner = new Partitioner(configuration);
 
 		mPredicate = predicate;
 		mViewCriteria = viewCriteria;
@@ -149,20 +153,23 @@ class Joiner extends RuleElement {
 	 *            joining.
 	 * @param outputVariables The output variable bindings for this literal.
 	 * @param equivalentTerms The equivalent terms.
+	 * @param configuration The knowledge-base configuration.
 	 */
 	public Joiner(IPredicate predicate, IRelation thisLiteralsRelation,
 			ITuple viewCriteria, List<IVariable> viewVariables, boolean simple,
 			int[] joinIndicesInput, int[] joinIndicesThisLiteral,
 			int[] remainderIndicesInput, int[] remainderIndicesThisLiteral,
 			List<IVariable> outputVariables, IEquivalentTerms equivalentTerms,
-			IIndexFactory indexFactory, IRelationFactory relationFactory) {
+			Configuration configuration) {
 		mPredicate = predicate;
 
 		mViewCriteria = viewCriteria;
 		mViewVariables = viewVariables;
 
-		mIndexFactory = indexFactory;
-		mRelationFactory = relationFactory;
+		mConfiguration = configuration;
+		mIndexFactory = configuration.indexFactory;
+		mRelationFactory = configuration.relationFactory;
+		mPartitioner = new Partitioner(configuration);
 		mEquivalentTerms = equivalentTerms;
 
 		mView = new View(thisLiteralsRelation, viewCriteria, viewVariables,
@@ -181,25 +188,35 @@ class Joiner extends RuleElement {
 	}
 
 	@Override
-	public IRelation process(IRelation leftRelation) {
+	public IRelation process(IRelation leftRelation)
+			throws EvaluationException {
 		assert leftRelation != null;
 
-		IRelation result = mRelationFactory.createRelation();
-		
-		for (int f = 0; f < leftRelation.size(); ++f) {
-			ITuple leftTuple = leftRelation.get(f);
+		return mPartitioner.process(leftRelation, this);
+	}
+
+	/**
+	 * Join one input tuple with the matching tuples of this literal's
+	 * relation.
+	 * 
+	 * @param leftTuple The input tuple.
+	 * @param consumer The consumer of the joined tuples.
+	 */
+	@Override
+	public boolean process(ITuple leftTuple, IResultConsumer consumer)
+			throws EvaluationException {
+		List<ITerm> key = Utils.makeKey(leftTuple, mJoinIndicesInput);
+		List<ITuple> matchingRightTuples = mIndexThisLiteral.get(key);
 
-			List<ITerm> key = Utils.makeKey(leftTuple, mJoinIndicesInput);
-			List<ITuple> matchingRightTuples = mIndexThisLiteral.get(key);
+		// Must match because that's what the index does
+		for (ITuple matchingRightTuple : matchingRightTuples) {
+			ITuple concatenated = concatenate(leftTuple, matchingRightTuple);
 
-			// Must match because that's what the index does
-			for (ITuple matchingRightTuple : matchingRightTuples) {
-				ITuple concatenated = concatenate(leftTuple, matchingRightTuple);
-				result.add(concatenated);
-			}
+			if (!consumer.consume(concatenated))
+				return false;
 		}
 
-		return result;
+		return true;
 	}
 
 	/**
@@ -244,8 +261,7 @@ class Joiner extends RuleElement {
 		return new Joiner(mPredicate, delta, mViewCriteria, mView.variables(),
 				mView.isSimple(), mJoinIndicesInput, mJoinIndicesThisLiteral,
 				mRemainderIndicesInput, mRemainderIndicesThisLiteral,
-				mOutputVariables, mEquivalentTerms, mIndexFactory,
-				mRelationFactory);
+				mOutputVariables, mEquivalentTerms, mConfiguration);
 	}
 
 	/** The predicate for this literal. */
@@ -279,6 +295,11 @@ class Joiner extends RuleElement {
 
 	private final IRelationFactory mRelationFactory;
 
+	private final Configuration mConfiguration;
+
+	/** Processes the input relation, possibly in concurrent partitions. */
+	private final Partitioner mPartitioner;
+
 	/** The equivalent terms. */
 	private IEquivalentTerms mEquivalentTerms;
 }
@@ -0,0 +1,300 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.rules.compiler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.deri.iris.Configuration;
+import org.deri.iris.ConfigurationThreadLocalStorage;
+import org.deri.iris.EvaluationException;
+import org.deri.iris.api.IResultConsumer;
+import org.deri.iris.api.basics.ITuple;
+import org.deri.iris.evaluation.ResourceGovernor;
+import org.deri.iris.storage.IRelation;
+
+/**
+ * Applies the per-tuple operation of a rule element (see
+ * {@link RuleElement#process(ITuple, IResultConsumer)}) to
+ * all tuples of an input relation. If the configuration provides a rule element executor and the
+ * input is large enough, the input is split in to partitions that are
+ * processed concurrently, each in to its own output relation. The partition
+ * outputs are then concatenated in input order, so the result is the same as
+ * for sequential processing.
+ * <p>
+ * The first partition is always processed by the calling thread before any
+ * other partition is started. This brings any lazily maintained views and
+ * indexes used by the tuple processor up to date, so that the concurrent
+ * partitions only read them. The calling thread also takes part in
+ * processing the remaining partitions, so evaluation can not dead-lock when
+ * the executor is saturated (e.g. when it is shared with a parallel rule
+ * evaluator).
+ * </p>
+ */
+class Partitioner {
+	/**
+	 * Constructor.
+	 * 
+	 * @param configuration The knowledge-base configuration.
+	 */
+	Partitioner(Configuration configuration) {
+		assert configuration != null;
+
+		mConfiguration = configuration;
+	}
+
+	/**
+	 * Process all tuples of the input relation.
+	 * 
+	 * @param input The input relation.
+	 * @param processor The rule element that processes each input tuple.
+	 * @return The relation containing the output tuples of all input tuples.
+	 * @throws EvaluationException If any tuple can not be processed.
+	 */
+	IRelation process(IRelation input, RuleElement processor)
+			throws EvaluationException {
+		assert input != null;
+		assert processor != null;
+
+		IRelation result = mConfiguration.relationFactory.createRelation();
+
+		int size = input.size();
+		int partitionSize = partitionSize(size);
+
+		if (partitionSize >= size) {
+			processRange(input, 0, size, processor, result);
+			return result;
+		}
+
+		// Process the first partition here, which also prepares the indexes
+		// for concurrent (read-only) access.
+		processRange(input, 0, partitionSize, processor, result);
+
+		int partitions = (size + partitionSize - 1) / partitionSize;
+		Job job = new Job(input, partitionSize, partitions, processor,
+				ResourceGovernor.current());
+
+		int workers = Math.min(partitions - 1, Math.max(1, PROCESSORS - 1));
+		List<Future<?>> futures = new ArrayList<Future<?>>(workers);
+
+		try {
+			for (int w = 0; w < workers; ++w) {
+				futures.add(mConfiguration.ruleElementExecutor.submit(job));
+			}
+		} catch (RejectedExecutionException e) {
+			// Not a problem, the calling thread processes the remainder.
+		}
+
+		job.run();
+		job.close();
+
+		for (Future<?> future : futures) {
+			future.cancel(false);
+		}
+
+		job.rethrow();
+
+		for (IRelation output : job.mOutputs) {
+			if (output != null) {
+				result.addAll(output);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Compute the size of the partitions for an input relation.
+	 * 
+	 * @param size The number of input tuples.
+	 * @return The partition size, which is at least the input size if the
+	 *         input must be processed sequentially.
+	 */
+	private int partitionSize(int size) {
+		if (mConfiguration.ruleElementExecutor == null)
+			return size;
+
+		int minimum = Math.max(1, mConfiguration.ruleElementPartitionSize);
+
+		if (size < 2 * minimum)
+			return size;
+
+		// Aim for a few partitions per processor to balance uneven partitions.
+		return Math.max(minimum, size / (Math.max(2, PROCESSORS) * 4));
+	}
+
+	/**
+	 * Process a range of the input relation.
+	 */
+	private static void processRange(IRelation input, int from, int to,
+			RuleElement processor, IRelation output)
+			throws EvaluationException {
+		RelationAppender appender = new RelationAppender(output);
+
+		for (int i = from; i < to; ++i) {
+			processor.process(input.get(i), appender);
+		}
+	}
+
+	/**
+	 * The concurrently processed partitions of one input relation. Every
+	 * thread running a job claims partitions until none are left.
+	 */
+	private class Job implements Runnable {
+		Job(IRelation input, int partitionSize, int partitions,
+				RuleElement processor, ResourceGovernor governor) {
+			mInput = input;
+			mPartitionSize = partitionSize;
+			mProcessor = processor;
+			mGovernor = governor;
+			mOutputs = new IRelation[partitions];
+
+			// The first partition has already been processed.
+			mNext = 1;
+		}
+
+		public void run() {
+			if (!enter())
+				return;
+
+			Configuration previous = ConfigurationThreadLocalStorage
+					.getConfiguration();
+			ConfigurationThreadLocalStorage.setConfiguration(mConfiguration);
+
+			try {
+				int partition;
+
+				while ((partition = claim()) >= 0) {
+					if (mGovernor != null)
+						mGovernor.checkTime();
+
+					int from = partition * mPartitionSize;
+					int to = Math.min(from + mPartitionSize, mInput.size());
+
+					IRelation output = mConfiguration.relationFactory
+							.createRelation();
+					processRange(mInput, from, to, mProcessor, output);
+
+					mOutputs[partition] = output;
+				}
+			} catch (Throwable t) {
+				fail(t);
+			} finally {
+				ConfigurationThreadLocalStorage.setConfiguration(previous);
+				leave();
+			}
+		}
+
+		/**
+		 * Wait until all threads running this job have finished and prevent
+		 * any further threads from starting it.
+		 */
+		synchronized void close() {
+			mClosed = true;
+
+			boolean interrupted = false;
+
+			while (mActive > 0) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+
+		/**
+		 * Re-throw the first failure of any thread that ran this job.
+		 */
+		synchronized void rethrow() throws EvaluationException {
+			if (mFailure instanceof EvaluationException)
+				throw (EvaluationException) mFailure;
+			if (mFailure instanceof RuntimeException)
+				throw (RuntimeException) mFailure;
+			if (mFailure instanceof Error)
+				throw (Error) mFailure;
+		}
+
+		private synchronized boolean enter() {
+			if (mClosed)
+				return false;
+
+			++mActive;
+			return true;
+		}
+
+		private synchronized void leave() {
+			--mActive;
+			notifyAll();
+		}
+
+		private synchronized int claim() {
+			if (mFailure != null || mNext >= mOutputs.length)
+				return -1;
+
+			return mNext++;
+		}
+
+		private synchronized void fail(Throwable t) {
+			if (mFailure == null)
+				mFailure = t;
+		}
+
+		private final IRelation mInput;
+
+		private final int mPartitionSize;
+
+		private final RuleElement mProcessor;
+
+		/** The resource governor of the evaluating thread, if any. */
+		private final ResourceGovernor mGovernor;
+
+		/** The output relation of each partition. */
+		private final IRelation[] mOutputs;
+
+		/** The next partition to claim. */
+		private int mNext;
+
+		/** The number of threads currently running this job. */
+		private int mActive;
+
+		/** Indicates that no further threads may run this job. */
+		private boolean mClosed;
+
+		/** The first failure of any thread running this job. */
+		private Throwable mFailure;
+	}
+
+	/** The number of available processors. */
+	private static final int PROCESSORS = Runtime.getRuntime()
+			.availableProcessors();
+
+	/** The knowledge-base configuration. */
+	private final Configuration mConfiguration;
+}
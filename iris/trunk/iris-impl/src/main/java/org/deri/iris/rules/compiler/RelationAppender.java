@@ -0,0 +1,53 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.rules.compiler;
+
+import org.deri.iris.api.IResultConsumer;
+import org.deri.iris.api.basics.ITuple;
+import org.deri.iris.storage.IRelation;
+
+/**
+ * A consumer that adds all tuples it receives to a relation. This is where the
+ * tuples flowing through a pipelined chain of rule elements are collected.
+ */
+class RelationAppender implements IResultConsumer {
+	/**
+	 * Constructor.
+	 * 
+	 * @param relation The relation to add the tuples to.
+	 */
+	RelationAppender(IRelation relation) {
+		assert relation != null;
+
+		mRelation = relation;
+	}
+
+	public boolean consume(ITuple tuple) {
+		mRelation.add(tuple);
+
+		return true;
+	}
+
+	/** The relation to add the tuples to. */
+	private final IRelation mRelation;
+}
@@ -39,6 +39,7 @@ import org.deri.iris.api.terms.IConstructedTerm;
 import org.deri.iris.api.terms.ITerm;
 import org.deri.iris.api.terms.IVariable;
 import org.deri.iris.facts.IFacts;
+import org.deri.iris.facts.UniverseRelation;
 import org.deri.iris.rules.RuleHeadEquality;
 import org.deri.iris.storage.IRelation;
 import org.deri.iris.utils.equivalence.IEquivalentTerms;
@@ -112,7 +113,7 @@ public class RuleCompiler {
 		elements.add(substituter);
 
 		return new CompiledRule(elements, headAtom.getPredicate(),
-				mConfiguration);
+				mEquivalentTerms, mConfiguration);
 	}
 
 	/**
@@ -126,7 +127,8 @@ public class RuleCompiler {
 	public ICompiledRule compile(IQuery query) throws EvaluationException {
 		List<RuleElement> elements = compileBody(query.getLiterals());
 
-		return new CompiledRule(elements, null, mConfiguration);
+		return new CompiledRule(elements, null, mEquivalentTerms,
+				mConfiguration);
 	}
 
 	/**
@@ -190,7 +192,17 @@ public class RuleCompiler {
 						ITuple viewCriteria = atom.getTuple();
 
 						if (positive) {
-							if (previousVariables.size() == 0) {
+							if (relation instanceof UniverseRelation
+									&& previousVariables.containsAll(viewCriteria
+											.getVariables())
+									&& viewCriteria.get(0) instanceof IVariable) {
+								// The variable is bound, so only its membership
+								// in the universe needs to be checked.
+								element = new UniverseFilter(previousVariables,
+										(UniverseRelation) relation,
+										(IVariable) viewCriteria.get(0),
+										mEquivalentTerms, mConfiguration);
+							} else if (previousVariables.size() == 0) {
 								// First sub-goal
 								element = new FirstSubgoal(predicate, relation,
 										viewCriteria, mEquivalentTerms,
@@ -198,9 +210,7 @@ public class RuleCompiler {
 							} else {
 								element = new Joiner(previousVariables,
 										predicate, relation, viewCriteria,
-										mEquivalentTerms,
-										mConfiguration.indexFactory,
-										mConfiguration.relationFactory);
+										mEquivalentTerms, mConfiguration);
 							}
 						} else {
 							// This *is* allowed to be the first literal for
@@ -25,9 +25,12 @@ package org.deri.iris.rules.compiler;
 import java.util.List;
 
 import org.deri.iris.EvaluationException;
+import org.deri.iris.api.IResultConsumer;
+import org.deri.iris.api.basics.ITuple;
 import org.deri.iris.api.terms.IVariable;
 import org.deri.iris.facts.IFacts;
 import org.deri.iris.storage.IRelation;
+import org.deri.iris.storage.simple.SimpleRelationFactory;
 
 /**
  * A base class for all compiled rule elements.
@@ -50,6 +53,61 @@ public abstract class RuleElement
 	 */
 	public abstract IRelation process( IRelation input ) throws EvaluationException;
 	
+	/**
+	 * Called to process tuples from previous literals, when this is the last rule element.
+	 * Each output tuple is passed to the consumer instead of being added to an output relation.
+	 * This default implementation passes the tuples of the output relation.
+	 * @param input The relation of tuples from the previous rule element.
+	 * @param consumer The consumer of the output tuples.
+	 * @return true if all output tuples have been passed to the consumer,
+	 * false if the consumer stopped the evaluation.
+	 * @throws EvaluationException 
+	 */
+	public boolean process( IRelation input, IResultConsumer consumer ) throws EvaluationException
+	{
+		IRelation output = process( input );
+		
+		for( int t = 0; t < output.size(); ++t )
+		{
+			if( ! consumer.consume( output.get( t ) ) )
+				return false;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Called to process a single tuple from previous literals, when the rule elements
+	 * are evaluated as a pipeline. Each output tuple is passed straight on to the consumer,
+	 * which is usually the next rule element, so no intermediate relation is built.
+	 * This default implementation processes a relation containing only the input tuple.
+	 * @param input The tuple from the previous rule element.
+	 * This is the empty tuple if this element represents the first literal.
+	 * @param consumer The consumer of the output tuples.
+	 * @return true if all output tuples have been passed to the consumer,
+	 * false if the consumer stopped the evaluation.
+	 * @throws EvaluationException 
+	 */
+	public boolean process( ITuple input, IResultConsumer consumer ) throws EvaluationException
+	{
+		IRelation relation = new SimpleRelationFactory().createRelation();
+		relation.add( input );
+		
+		return process( relation, consumer );
+	}
+	
+	/**
+	 * Indicates if this rule element can be evaluated as part of a pipeline,
+	 * i.e. one input tuple at a time, interleaved with the following rule elements.
+	 * Elements with side effects that must only happen after all previous
+	 * literals have been evaluated return false.
+	 * @return true if the element can be pipelined.
+	 */
+	public boolean isPipelined()
+	{
+		return true;
+	}
+	
 	/**
 	 * Create a substitute rule element that will use the corresponding delta if it exists.
 	 * @param deltas The Deltas from the last round of iterative evaluation.
@@ -107,4 +107,14 @@ public class RuleHeadEqualitySubstituter extends HeadSubstituter {
 
 		return result;
 	}
+
+	/**
+	 * The equivalences must only be changed after all body literals have been
+	 * evaluated, because the views and indexes of the body literals depend on
+	 * them.
+	 */
+	@Override
+	public boolean isPipelined() {
+		return false;
+	}
 }
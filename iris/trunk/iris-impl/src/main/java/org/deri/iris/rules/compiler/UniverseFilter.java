@@ -0,0 +1,107 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.rules.compiler;
+
+import java.util.List;
+
+import org.deri.iris.Configuration;
+import org.deri.iris.EvaluationException;
+import org.deri.iris.api.IResultConsumer;
+import org.deri.iris.api.basics.ITuple;
+import org.deri.iris.api.terms.ITerm;
+import org.deri.iris.api.terms.IVariable;
+import org.deri.iris.facts.UniverseRelation;
+import org.deri.iris.storage.IRelation;
+import org.deri.iris.utils.equivalence.IEquivalentTerms;
+
+/**
+ * A compiled rule element representing a $UNIVERSE$ sub-goal, whose variable
+ * is bound by a previous rule element. Instead of joining with the whole
+ * universe, the input tuples are filtered by looking up the bound term.
+ */
+public class UniverseFilter extends RuleElement
+{
+	/**
+	 * Constructor.
+	 * @param inputVariables The variable bindings from previous rule elements.
+	 * @param universe The universe relation.
+	 * @param variable The bound variable of the sub-goal.
+	 * @param equivalentTerms The equivalent terms.
+	 * @param configuration The knowledge-base configuration.
+	 */
+	public UniverseFilter( List<IVariable> inputVariables, UniverseRelation universe, IVariable variable, IEquivalentTerms equivalentTerms, Configuration configuration )
+	{
+		assert inputVariables != null;
+		assert inputVariables.contains( variable );
+		assert universe != null;
+
+		mUniverse = universe;
+		mIndex = inputVariables.indexOf( variable );
+		mEquivalentTerms = equivalentTerms;
+		mPartitioner = new Partitioner( configuration );
+
+		mOutputVariables = inputVariables;
+	}
+
+	@Override
+	public IRelation process( IRelation leftRelation ) throws EvaluationException
+	{
+		assert leftRelation != null;
+
+		return mPartitioner.process( leftRelation, this );
+	}
+
+	/**
+	 * Keep the input tuple if the bound term (or an equivalent term) is in the universe.
+	 * @param leftTuple The input tuple.
+	 * @param consumer The consumer of the kept tuple.
+	 */
+	@Override
+	public boolean process( ITuple leftTuple, IResultConsumer consumer ) throws EvaluationException
+	{
+		ITerm term = leftTuple.get( mIndex );
+
+		if( mUniverse.contains( term ) )
+			return consumer.consume( leftTuple );
+
+		for( ITerm equivalent : mEquivalentTerms.getEquivalent( term ) )
+		{
+			if( mUniverse.contains( equivalent ) )
+				return consumer.consume( leftTuple );
+		}
+		
+		return true;
+	}
+
+	/** The universe relation. */
+	private final UniverseRelation mUniverse;
+
+	/** The index of the bound variable in the input tuples. */
+	private final int mIndex;
+
+	/** The equivalent terms. */
+	private final IEquivalentTerms mEquivalentTerms;
+
+	/** Processes the input relation, possibly in concurrent partitions. */
+	private final Partitioner mPartitioner;
+}
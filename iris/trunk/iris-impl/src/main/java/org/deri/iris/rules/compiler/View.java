@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.Set;
 
 import org.deri.iris.api.basics.ITuple;
+import org.deri.iris.api.terms.IConstructedTerm;
 import org.deri.iris.api.terms.ITerm;
 import org.deri.iris.api.terms.IVariable;
 import org.deri.iris.storage.IRelation;
@@ -242,14 +243,18 @@ public class View implements IRelation
 	private void update()
 	{
 		// The matching tuples may increase due to a change in the equivalence relation,
-		// therefore we have to check all tuples again if any change to the term
-		// equivalence relation has been done.
-		int hashCode = mEquivalentTerms.hashCode();
+		// therefore we have to check the already seen tuples again, which contain
+		// terms of merged equivalence classes.
+		long version = mEquivalentTerms.getVersion();
 		
-		if (hashCode != mPreviousHashCode) {
-			mLastIndex = 0;
+		if( version != mVersion )
+		{
+			Set<ITerm> merged = mEquivalentTerms.getMergedRepresentatives( mVersion );
+			
+			if( merged == null || ! merged.isEmpty() )
+				rematch( merged );
 			
-			mPreviousHashCode = hashCode;
+			mVersion = version;
 		}
 		
 		for( ; mLastIndex < mInputRelation.size(); ++mLastIndex )
@@ -266,6 +271,58 @@ public class View implements IRelation
 		}
 	}
 	
+	/**
+	 * Match the already seen tuples of the underlying relation again, if they
+	 * contain a term of a merged equivalence class.
+	 * @param merged The former representatives of the merged equivalence classes,
+	 * or null, if all tuples must be matched again.
+	 */
+	private void rematch( Set<ITerm> merged )
+	{
+		Set<ITerm> representatives = null;
+		
+		if( merged != null )
+		{
+			representatives = new HashSet<ITerm>();
+			for( ITerm term : merged )
+				representatives.add( mEquivalentTerms.findRepresentative( term ) );
+		}
+		
+		for( int i = 0; i < mLastIndex; ++i )
+		{
+			ITuple tuple = mInputRelation.get( i );
+			
+			if( representatives == null || isAffected( tuple, representatives ) )
+			{
+				ITuple viewTuple = TermMatchingAndSubstitution.matchTuple( mViewCriteria, 
+						tuple, mEquivalentTerms );
+				
+				if( viewTuple != null ) {
+					mViewTuples.add( viewTuple );
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Checks if any term of the tuple (or of its constructed terms) is in
+	 * one of the given equivalence classes.
+	 */
+	private boolean isAffected( List<ITerm> terms, Set<ITerm> representatives )
+	{
+		for( ITerm term : terms )
+		{
+			if( representatives.contains( mEquivalentTerms.findRepresentative( term ) ) )
+				return true;
+			
+			if( term instanceof IConstructedTerm &&
+					isAffected( ( (IConstructedTerm) term ).getParameters(), representatives ) )
+				return true;
+		}
+		
+		return false;
+	}
+	
 	@Override
     public String toString()
     {
@@ -275,8 +332,8 @@ public class View implements IRelation
 	/** The equivalent terms. */
 	private IEquivalentTerms mEquivalentTerms;
 	
-	/** The hash code of the previous equivalent terms. */
-	private int mPreviousHashCode = 0;
+	/** The version of the equivalent terms last seen by this view. */
+	private long mVersion = 0;
 	
 	/** The filtered view of the relation. */
 	private final IRelation mViewTuples;
@@ -0,0 +1,61 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.rules.optimisation;
+
+import org.deri.iris.api.basics.IRule;
+import org.deri.iris.facts.IFacts;
+import org.deri.iris.rules.IFactsAwareRuleOptimiser;
+
+/**
+ * Re-order literals using the cardinalities of the relations and the
+ * estimated number of distinct values of their columns.
+ * 
+ * The sub-goals are placed in the same way as by the ReOrderLiteralsOptimiser,
+ * except that whenever a positive ordinary literal is chosen, the one that is
+ * expected to produce the fewest tuples for the variables bound so far is taken.
+ *
+ * e.g. with 1,000,000 tuples in big and 10 tuples in tiny
+ * p(x,z) :- big(x,y), tiny(y,z)
+ * ==>> p(x,z) :- tiny(y,z), big(x,y)
+ * 
+ * If no facts are available, the literals are re-ordered exactly like by the
+ * ReOrderLiteralsOptimiser.
+ */
+public class CostBasedReOrderLiteralsOptimiser extends ReOrderLiteralsOptimiser implements IFactsAwareRuleOptimiser
+{
+	public IRule optimise( IRule rule, IFacts facts )
+	{
+		return optimise( rule, new RelationStatistics( facts ) );
+	}
+
+	/**
+	 * Optimise the rule using existing statistics, whose samples are reused.
+	 * @param rule The rule to optimise.
+	 * @param statistics The statistics of the facts the rule is evaluated against.
+	 * @return The optimised rule.
+	 */
+	public IRule optimise( IRule rule, RelationStatistics statistics )
+	{
+		return reOrder( rule, statistics );
+	}
+}
@@ -33,6 +33,7 @@ import org.deri.iris.api.basics.IRule;
 import org.deri.iris.api.builtins.IBuiltinAtom;
 import org.deri.iris.api.terms.IVariable;
 import org.deri.iris.factory.Factory;
+import org.deri.iris.facts.FiniteUniverseFacts;
 import org.deri.iris.rules.IRuleOptimiser;
 
 /**
@@ -55,6 +56,18 @@ public class ReOrderLiteralsOptimiser implements IRuleOptimiser
 	 * This might interfere with magic sets, which orders sub-goals appropriately.
 	 */
 	public IRule optimise( IRule rule )
+	{
+		return reOrder( rule, null );
+	}
+
+	/**
+	 * Re-order the literals of a rule.
+	 * @param rule The rule to re-order.
+	 * @param statistics The statistics used to choose the next positive ordinary
+	 * literal, or null to choose them in the order in which they appear in the rule.
+	 * @return The re-ordered rule.
+	 */
+	protected IRule reOrder( IRule rule, RelationStatistics statistics )
 	{
 		List<ILiteral> positiveNoVariables = new ArrayList<ILiteral>();
 		List<ILiteral> builtinNoVariables = new ArrayList<ILiteral>();
@@ -150,44 +163,48 @@ public class ReOrderLiteralsOptimiser implements IRuleOptimiser
 				continue;
 			
 			// Try and add a positive ordinary with one or more bound variables
+			List<ILiteral> connected = new ArrayList<ILiteral>();
 			for( ILiteral literal : positive )
 			{
 				Set<IVariable> literalVariables = literal.getAtom().getTuple().getVariables();
 				
-				boolean add = false;
 				for( IVariable literalVariable : literalVariables )
 				{
 					if( boundVariables.contains( literalVariable ) )
 					{
-						add = true;
+						connected.add( literal );
 						break;
 					}
 				}
-				if( add )
-				{
-					positive.remove( literal );
-					newBody.add( literal );
-					boundVariables.addAll( literalVariables );
-					somethingAdded = true;
-					break;
-				}
 			}
-			if( somethingAdded )
+			if( connected.size() > 0 )
+			{
+				ILiteral literal = cheapest( connected, boundVariables, statistics );
+				Set<IVariable> literalVariables = literal.getAtom().getTuple().getVariables();
+
+				positive.remove( literal );
+				newBody.add( literal );
+				boundVariables.addAll( literalVariables );
 				continue;
+			}
 
-			// Try and add any positive ordinary
-			if( positive.size() > 0 )
+			// Try and add any positive ordinary, that does not enumerate the universe
+			List<ILiteral> enumerable = new ArrayList<ILiteral>();
+			for( ILiteral literal : positive )
 			{
-				ILiteral literal = positive.get( 0 );
+				if( ! literal.getAtom().getPredicate().equals( FiniteUniverseFacts.UNIVERSE ) )
+					enumerable.add( literal );
+			}
+			if( enumerable.size() > 0 )
+			{
+				ILiteral literal = cheapest( enumerable, boundVariables, statistics );
 				Set<IVariable> literalVariables = literal.getAtom().getTuple().getVariables();
 				
 				positive.remove( literal );
 				newBody.add( literal );
 				boundVariables.addAll( literalVariables );
-				somethingAdded = true;
-			}
-			if( somethingAdded )
 				continue;
+			}
 
 			// Try and add a built-in with enough variables bound
 			for( ILiteral literal : builtin )
@@ -213,6 +230,21 @@ public class ReOrderLiteralsOptimiser implements IRuleOptimiser
 					}
 				}
 			}
+			if( somethingAdded )
+				continue;
+
+			// Enumerate the universe only for variables, that can not be bound otherwise
+			// (the universe sub-goal becomes a cheap membership test once its variable is bound).
+			if( positive.size() > 0 )
+			{
+				ILiteral literal = cheapest( positive, boundVariables, statistics );
+				Set<IVariable> literalVariables = literal.getAtom().getTuple().getVariables();
+				
+				positive.remove( literal );
+				newBody.add( literal );
+				boundVariables.addAll( literalVariables );
+				somethingAdded = true;
+			}
 			
 			if( ! somethingAdded )
 			{
@@ -227,6 +259,35 @@ public class ReOrderLiteralsOptimiser implements IRuleOptimiser
 
 		return Factory.BASIC.createRule( rule.getHead(), newBody );
 	}
+
+	/**
+	 * Choose the positive ordinary literal, that is expected to produce the fewest
+	 * tuples for each combination of bindings of the already bound variables.
+	 * Ties are resolved in favour of the literal that appears first.
+	 */
+	private ILiteral cheapest( List<ILiteral> candidates, Set<IVariable> boundVariables, RelationStatistics statistics )
+	{
+		ILiteral cheapest = candidates.get( 0 );
+
+		if( statistics == null )
+			return cheapest;
+
+		double lowestCost = statistics.estimateMatches( cheapest.getAtom(), boundVariables );
+
+		for( int c = 1; c < candidates.size(); ++c )
+		{
+			ILiteral candidate = candidates.get( c );
+			double cost = statistics.estimateMatches( candidate.getAtom(), boundVariables );
+
+			if( cost < lowestCost )
+			{
+				cheapest = candidate;
+				lowestCost = cost;
+			}
+		}
+
+		return cheapest;
+	}
 	
 	private <E,F> Set<E> difference( Collection<E> first, Collection<F> second )
 	{
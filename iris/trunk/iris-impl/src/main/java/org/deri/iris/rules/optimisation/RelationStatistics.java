@@ -0,0 +1,228 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.rules.optimisation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.deri.iris.api.basics.IAtom;
+import org.deri.iris.api.basics.IPredicate;
+import org.deri.iris.api.basics.ITuple;
+import org.deri.iris.api.terms.ITerm;
+import org.deri.iris.api.terms.IVariable;
+import org.deri.iris.facts.IFacts;
+import org.deri.iris.storage.IRelation;
+
+/**
+ * Statistics about the relations of a collection of facts, used to estimate
+ * the cost of evaluating an ordinary literal.
+ * 
+ * The cardinality of a relation is always read from the relation itself.
+ * The number of distinct values of each column is estimated from an evenly
+ * spread sample of the tuples of the relation (see Charikar et al., "Towards
+ * Estimation Error Guarantees for Distinct Values", PODS 2000), and is
+ * estimated again once the cardinality of the relation has changed by more
+ * than a factor of two.
+ * 
+ * One instance is shared by all rules of an evaluation, which may be
+ * optimised concurrently.
+ */
+public class RelationStatistics
+{
+	/** The default maximum number of tuples sampled from a relation. */
+	public static final int DEFAULT_SAMPLE_SIZE = 1000;
+
+	/**
+	 * Constructor.
+	 * @param facts The facts to collect statistics about.
+	 */
+	public RelationStatistics( IFacts facts )
+	{
+		this( facts, DEFAULT_SAMPLE_SIZE );
+	}
+
+	/**
+	 * Constructor.
+	 * @param facts The facts to collect statistics about.
+	 * @param sampleSize The maximum number of tuples sampled from a relation.
+	 */
+	public RelationStatistics( IFacts facts, int sampleSize )
+	{
+		if( sampleSize < 1 )
+			throw new IllegalArgumentException( "The sample size must be positive" );
+
+		mFacts = facts;
+		mSampleSize = sampleSize;
+	}
+
+	/**
+	 * Get the facts these statistics are collected about.
+	 * @return The facts.
+	 */
+	public IFacts getFacts()
+	{
+		return mFacts;
+	}
+
+	/**
+	 * Get the number of tuples of a relation.
+	 * @param predicate The predicate identifying the relation.
+	 * @return The number of tuples.
+	 */
+	public int cardinality( IPredicate predicate )
+	{
+		return mFacts.get( predicate ).size();
+	}
+
+	/**
+	 * Get the estimated number of distinct values in a column of a relation.
+	 * @param predicate The predicate identifying the relation.
+	 * @param column The index of the column.
+	 * @return The estimated number of distinct values, at least 1 for a
+	 * non-empty relation.
+	 */
+	public synchronized double distinctValues( IPredicate predicate, int column )
+	{
+		IRelation relation = mFacts.get( predicate );
+		int size = relation.size();
+
+		Sample sample = mSamples.get( predicate );
+
+		if( sample == null || size > 2 * sample.size || 2 * size < sample.size )
+		{
+			sample = sample( relation, predicate.getArity() );
+			mSamples.put( predicate, sample );
+		}
+
+		return column < sample.distinctValues.length ? sample.distinctValues[ column ] : 1;
+	}
+
+	/**
+	 * Estimate the number of tuples matching an atom for each combination of
+	 * bindings of the bound variables. Every constant and every bound variable
+	 * in the atom is assumed to select an equal share of the tuples of
+	 * the relation, according to the number of distinct values of its column.
+	 * @param atom The ordinary atom.
+	 * @param boundVariables The variables bound by the preceding literals.
+	 * @return The estimated number of matching tuples.
+	 */
+	public double estimateMatches( IAtom atom, Set<IVariable> boundVariables )
+	{
+		IPredicate predicate = atom.getPredicate();
+		ITuple tuple = atom.getTuple();
+
+		double matches = cardinality( predicate );
+
+		for( int t = 0; t < tuple.size() && matches > 0; ++t )
+		{
+			ITerm term = tuple.get( t );
+
+			boolean bound = term instanceof IVariable ? boundVariables.contains( term ) : term.isGround();
+
+			if( bound )
+				matches /= distinctValues( predicate, t );
+		}
+
+		return matches;
+	}
+
+	private Sample sample( IRelation relation, int arity )
+	{
+		int size = relation.size();
+		int stride = Math.max( 1, size / mSampleSize );
+
+		List<Map<ITerm, Integer>> frequencies = new ArrayList<Map<ITerm, Integer>>( arity );
+		for( int c = 0; c < arity; ++c )
+			frequencies.add( new HashMap<ITerm, Integer>() );
+
+		int sampled = 0;
+		for( int t = 0; t < size; t += stride )
+		{
+			ITuple tuple = relation.get( t );
+
+			for( int c = 0; c < arity && c < tuple.size(); ++c )
+			{
+				Map<ITerm, Integer> columnFrequencies = frequencies.get( c );
+				Integer frequency = columnFrequencies.get( tuple.get( c ) );
+				columnFrequencies.put( tuple.get( c ), frequency == null ? 1 : frequency + 1 );
+			}
+
+			++sampled;
+		}
+
+		double[] distinctValues = new double[ arity ];
+
+		for( int c = 0; c < arity; ++c )
+		{
+			Map<ITerm, Integer> columnFrequencies = frequencies.get( c );
+
+			if( sampled == size )
+			{
+				distinctValues[ c ] = Math.max( 1, columnFrequencies.size() );
+				continue;
+			}
+
+			// Values seen only once in the sample hint at values, that have
+			// not been sampled at all, so they are scaled up.
+			int once = 0;
+			for( int frequency : columnFrequencies.values() )
+			{
+				if( frequency == 1 )
+					++once;
+			}
+
+			double estimate = Math.sqrt( (double) size / sampled ) * once + columnFrequencies.size() - once;
+			distinctValues[ c ] = Math.max( 1, Math.min( size, estimate ) );
+		}
+
+		return new Sample( size, distinctValues );
+	}
+
+	/** The distinct value estimates of a relation. */
+	private static class Sample
+	{
+		Sample( int size, double[] distinctValues )
+		{
+			this.size = size;
+			this.distinctValues = distinctValues;
+		}
+
+		/** The cardinality of the relation when it was sampled. */
+		final int size;
+
+		/** The estimated number of distinct values of each column. */
+		final double[] distinctValues;
+	}
+
+	/** The facts. */
+	private final IFacts mFacts;
+
+	/** The maximum number of tuples sampled from a relation. */
+	private final int mSampleSize;
+
+	/** The samples of each relation. */
+	private final Map<IPredicate, Sample> mSamples = new HashMap<IPredicate, Sample>();
+}
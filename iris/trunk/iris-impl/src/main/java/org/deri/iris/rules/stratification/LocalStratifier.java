@@ -36,7 +36,6 @@ import org.deri.iris.api.terms.IVariable;
 import org.deri.iris.api.terms.concrete.IDoubleTerm;
 import org.deri.iris.api.terms.concrete.IFloatTerm;
 import org.deri.iris.api.terms.concrete.IIntegerTerm;
-import org.deri.iris.basics.Tuple;
 import org.deri.iris.builtins.EqualBuiltin;
 import org.deri.iris.builtins.ExactEqualBuiltin;
 import org.deri.iris.builtins.GreaterBuiltin;
@@ -401,7 +400,7 @@ public class LocalStratifier implements IRuleStratifier
 		List<Adornment> adornments = new ArrayList<Adornment>();
 
 		// TODO For the time being, this is only for rules with a single head predicate
-		Tuple tuple = (Tuple) r.getHead().get( 0 ).getAtom().getTuple();
+		ITuple tuple = r.getHead().get( 0 ).getAtom().getTuple();
 		for( ITerm term : tuple )
 		{
 			Adornment adornment = new Adornment();
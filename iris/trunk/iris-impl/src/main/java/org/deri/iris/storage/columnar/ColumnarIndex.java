@@ -0,0 +1,342 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.storage.columnar;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.deri.iris.api.basics.ITuple;
+import org.deri.iris.api.terms.ITerm;
+import org.deri.iris.storage.IIndex;
+import org.deri.iris.storage.IRelation;
+import org.deri.iris.utils.equivalence.IEquivalentTerms;
+
+/**
+ * An in-memory, hash-based index, which keys on term identifiers of a
+ * {@link TermDictionary} and stores tuple positions instead of tuples.
+ */
+public class ColumnarIndex implements IIndex {
+
+	/**
+	 * Creates an index on the given relation, on the specified term indices.
+	 * 
+	 * @param relation The relation to index.
+	 * @param dictionary The dictionary used to encode the keys.
+	 * @param equivalentTerms The equivalent terms.
+	 * @param indices The term indices using zero-based indexing. Each index
+	 *            value must be greater than or equal to zero and less than the
+	 *            arity if the relation.
+	 */
+	ColumnarIndex(IRelation relation, TermDictionary dictionary,
+			IEquivalentTerms equivalentTerms, int... indices) {
+		mRelation = relation;
+		mDictionary = dictionary;
+
+		// The term identifiers of a relation using the same dictionary are
+		// read directly, instead of materialising its tuples.
+		if (relation instanceof ColumnarRelation
+				&& ((ColumnarRelation) relation).getDictionary() == dictionary) {
+			mColumnarRelation = (ColumnarRelation) relation;
+		} else {
+			mColumnarRelation = null;
+		}
+		mEquivalentTerms = equivalentTerms;
+		mIndices = indices;
+	}
+
+	public List<ITuple> get(List<ITerm> key) {
+		assert key.size() == mIndices.length;
+
+		update();
+
+		int[] ids = new int[key.size()];
+		for (int i = 0; i < ids.length; ++i) {
+			ITerm representative = mEquivalentTerms.findRepresentative(key.get(i));
+			ids[i] = mDictionary.lookup(representative);
+
+			// No indexed tuple can contain a term unknown to the dictionary.
+			if (ids[i] < 0) {
+				return mEmptyTupleList;
+			}
+		}
+
+		Positions result = mBag.get(new Key(ids));
+
+		if (result == null) {
+			return mEmptyTupleList;
+		}
+
+		return result;
+	}
+
+	/**
+	 * Update this index by reading any tuples not yet seen from the relation.
+	 */
+	private void update() {
+		// The representatives of the indexed terms may change due to a change
+		// in the equivalence relation, in which case the affected keys are
+		// replaced.
+		long version = mEquivalentTerms.getVersion();
+
+		if (version != mVersion) {
+			Set<ITerm> merged = mEquivalentTerms.getMergedRepresentatives(mVersion);
+
+			if (merged == null) {
+				// The changes are unknown, so re-index all tuples.
+				mBag.clear();
+				mLastIndexOfView = 0;
+			} else if (!merged.isEmpty()) {
+				updateKeys(merged);
+			}
+
+			mVersion = version;
+		}
+
+		for (; mLastIndexOfView < mRelation.size(); ++mLastIndexOfView) {
+			Key key = mColumnarRelation != null ? makeKey(mLastIndexOfView)
+					: makeKey(mRelation.get(mLastIndexOfView));
+
+			Positions positions = mBag.get(key);
+			if (positions == null) {
+				positions = new Positions();
+				mBag.put(key, positions);
+			}
+			positions.add(mLastIndexOfView);
+		}
+	}
+
+	/**
+	 * Replaces the keys, which contain any of the specified (former)
+	 * representatives, with the keys of the current representatives.
+	 * 
+	 * @param merged The representatives of merged equivalence classes.
+	 */
+	private void updateKeys(Set<ITerm> merged) {
+		Set<Integer> mergedIds = new HashSet<Integer>();
+		for (ITerm term : merged) {
+			int id = mDictionary.lookup(term);
+			if (id >= 0) {
+				mergedIds.add(id);
+			}
+		}
+
+		List<Key> changedKeys = new ArrayList<Key>();
+		for (Key key : mBag.keySet()) {
+			for (int id : key.mIds) {
+				if (mergedIds.contains(id)) {
+					changedKeys.add(key);
+					break;
+				}
+			}
+		}
+
+		for (Key oldKey : changedKeys) {
+			int[] ids = new int[oldKey.mIds.length];
+			for (int i = 0; i < ids.length; ++i) {
+				ITerm term = mDictionary.getTerm(oldKey.mIds[i]);
+				ids[i] = mDictionary.intern(mEquivalentTerms.findRepresentative(term));
+			}
+			Key newKey = new Key(ids);
+
+			if (!oldKey.equals(newKey)) {
+				Positions positions = mBag.remove(oldKey);
+				Positions existing = mBag.get(newKey);
+
+				// Tuples of two keys, which are now equivalent, are merged.
+				if (existing == null) {
+					mBag.put(newKey, positions);
+				} else {
+					existing.addAll(positions);
+				}
+			}
+		}
+	}
+
+	private Key makeKey(ITuple tuple) {
+		int[] ids = new int[mIndices.length];
+
+		for (int i = 0; i < mIndices.length; ++i) {
+			ITerm term = tuple.get(mIndices[i]);
+			ids[i] = mDictionary.intern(mEquivalentTerms.findRepresentative(term));
+		}
+
+		return new Key(ids);
+	}
+
+	/**
+	 * Creates the key of a tuple of the indexed columnar relation from its
+	 * term identifiers.
+	 * 
+	 * @param position The position of the tuple.
+	 * @return The key.
+	 */
+	private Key makeKey(int position) {
+		int[] ids = new int[mIndices.length];
+
+		for (int i = 0; i < mIndices.length; ++i) {
+			int id = mColumnarRelation.getTermId(position, mIndices[i]);
+
+			// Without any equivalent terms, every term is its own
+			// representative.
+			if (mVersion != 0) {
+				ITerm term = mDictionary.getTerm(id);
+				id = mDictionary.intern(mEquivalentTerms.findRepresentative(term));
+			}
+
+			ids[i] = id;
+		}
+
+		return new Key(ids);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder();
+
+		result.append("Indices: ");
+		result.append(Arrays.toString(mIndices));
+		result.append(", Values: ");
+		result.append(mBag.values());
+
+		return result.toString();
+	}
+
+	/**
+	 * A key of term identifiers with a precomputed hash code.
+	 */
+	private static final class Key {
+
+		Key(int[] ids) {
+			mIds = ids;
+			mHashCode = Arrays.hashCode(ids);
+		}
+
+		@Override
+		public int hashCode() {
+			return mHashCode;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) o;
+			return mHashCode == other.mHashCode
+					&& Arrays.equals(mIds, other.mIds);
+		}
+
+		private final int[] mIds;
+
+		private final int mHashCode;
+	}
+
+	/**
+	 * The positions of the tuples matching one key, presented as a list of
+	 * tuples that are materialised from the relation on first access. Later
+	 * lookups of the same key reuse the materialised tuples.
+	 */
+	private final class Positions extends AbstractList<ITuple> {
+
+		void addAll(Positions positions) {
+			for (int i = 0; i < positions.mSize; ++i) {
+				add(positions.mPositions[i]);
+				mTuples[mSize - 1] = positions.mTuples[i];
+			}
+		}
+
+		void add(int position) {
+			if (mSize == mPositions.length) {
+				mPositions = Arrays.copyOf(mPositions, mSize * 2);
+				mTuples = Arrays.copyOf(mTuples, mSize * 2);
+			}
+			mPositions[mSize++] = position;
+		}
+
+		@Override
+		public ITuple get(int index) {
+			if (index >= mSize) {
+				throw new IndexOutOfBoundsException("Index: " + index
+						+ ", Size: " + mSize);
+			}
+
+			ITuple tuple = mTuples[index];
+
+			if (tuple == null) {
+				tuple = mRelation.get(mPositions[index]);
+				mTuples[index] = tuple;
+			}
+
+			return tuple;
+		}
+
+		@Override
+		public int size() {
+			return mSize;
+		}
+
+		private int[] mPositions = new int[2];
+
+		/** The materialised tuples, null if not accessed yet. */
+		private ITuple[] mTuples = new ITuple[2];
+
+		private int mSize = 0;
+	}
+
+	/** The index of the last last known tuple from the relation. */
+	private int mLastIndexOfView = 0;
+
+	/** The maps of unique key values to the positions of matching tuples. */
+	private final Map<Key, Positions> mBag = new HashMap<Key, Positions>();
+
+	/** The term indices to index the relation on. */
+	private final int[] mIndices;
+
+	/** The relation being indexed. */
+	private final IRelation mRelation;
+
+	/**
+	 * The relation being indexed, if it is a columnar relation using the
+	 * dictionary of this index, null otherwise.
+	 */
+	private final ColumnarRelation mColumnarRelation;
+
+	/** The dictionary used to encode the keys. */
+	private final TermDictionary mDictionary;
+
+	/** The equivalent terms. */
+	private final IEquivalentTerms mEquivalentTerms;
+
+	/** The version of the equivalent terms last seen by this index. */
+	private long mVersion;
+
+	private static final List<ITuple> mEmptyTupleList = Collections
+			.emptyList();
+}
@@ -0,0 +1,74 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.storage.columnar;
+
+import org.deri.iris.storage.IIndex;
+import org.deri.iris.storage.IIndexFactory;
+import org.deri.iris.storage.IRelation;
+import org.deri.iris.utils.equivalence.IEquivalentTerms;
+import org.deri.iris.utils.equivalence.IgnoreTermEquivalence;
+
+/**
+ * Factory for columnar indexes. To share term identifiers with the indexed
+ * relations, create it with the dictionary of the
+ * {@link ColumnarRelationFactory} in use.
+ */
+public class ColumnarIndexFactory implements IIndexFactory {
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param dictionary The dictionary used to encode index keys.
+	 * @throws IllegalArgumentException if the dictionary is <code>null</code>
+	 */
+	public ColumnarIndexFactory(TermDictionary dictionary) {
+		if (dictionary == null) {
+			throw new IllegalArgumentException("The dictionary must not be null");
+		}
+
+		mDictionary = dictionary;
+	}
+
+	/**
+	 * Constructor, which uses the dictionary of the given relation factory.
+	 * 
+	 * @param relationFactory The relation factory.
+	 */
+	public ColumnarIndexFactory(ColumnarRelationFactory relationFactory) {
+		this(relationFactory.getDictionary());
+	}
+
+	public IIndex createIndex(IRelation relation, int... indices) {
+		return new ColumnarIndex(relation, mDictionary,
+				new IgnoreTermEquivalence(), indices);
+	}
+
+	public IIndex createIndex(IRelation relation,
+			IEquivalentTerms equivalentTerms, int... indices) {
+		return new ColumnarIndex(relation, mDictionary, equivalentTerms,
+				indices);
+	}
+
+	/** The dictionary used to encode index keys. */
+	private final TermDictionary mDictionary;
+}
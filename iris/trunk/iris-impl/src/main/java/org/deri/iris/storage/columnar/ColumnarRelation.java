@@ -0,0 +1,304 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.storage.columnar;
+
+import org.deri.iris.api.basics.ITuple;
+import org.deri.iris.api.terms.ITerm;
+import org.deri.iris.factory.Factory;
+import org.deri.iris.storage.IRelation;
+
+/**
+ * <p>
+ * An in-memory relation, which stores its tuples as primitive int columns of
+ * term identifiers taken from a shared {@link TermDictionary}.
+ * </p>
+ * <p>
+ * Uniqueness is enforced by an open-addressing hash table of row positions,
+ * so no per-tuple objects are kept at all. {@link ITuple} instances are only
+ * materialised when a tuple is requested via {@link #get(int)}.
+ * </p>
+ */
+public class ColumnarRelation implements IRelation {
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param dictionary The dictionary used to intern the terms of the tuples.
+	 */
+	ColumnarRelation(TermDictionary dictionary) {
+		assert dictionary != null;
+
+		mDictionary = dictionary;
+	}
+
+	public boolean add(ITuple tuple) {
+		assert mArity < 0 || mArity == tuple.size();
+
+		int[] row = new int[tuple.size()];
+		for (int i = 0; i < row.length; ++i) {
+			row[i] = mDictionary.intern(tuple.get(i));
+		}
+
+		return addRow(row);
+	}
+
+	public boolean addAll(IRelation relation) {
+		boolean added = false;
+
+		if (relation instanceof ColumnarRelation
+				&& ((ColumnarRelation) relation).mDictionary == mDictionary) {
+			// Same dictionary, so the term identifiers can be copied directly.
+			ColumnarRelation other = (ColumnarRelation) relation;
+
+			for (int i = 0; i < other.mSize; ++i) {
+				if (addRow(other.getRow(i))) {
+					added = true;
+				}
+			}
+		} else {
+			for (int i = 0; i < relation.size(); ++i) {
+				if (add(relation.get(i))) {
+					added = true;
+				}
+			}
+		}
+
+		return added;
+	}
+
+	public int size() {
+		return mSize;
+	}
+
+	public ITuple get(int index) {
+		if (index < 0 || index >= mSize) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: "
+					+ mSize);
+		}
+
+		ITerm[] terms = new ITerm[mArity];
+		for (int c = 0; c < mArity; ++c) {
+			terms[c] = mDictionary.getTerm(mColumns[c][index]);
+		}
+
+		return Factory.BASIC.createTuple(terms);
+	}
+
+	public boolean contains(ITuple tuple) {
+		if (mSize == 0 || tuple.size() != mArity) {
+			return false;
+		}
+
+		int[] row = new int[mArity];
+		for (int i = 0; i < row.length; ++i) {
+			row[i] = mDictionary.lookup(tuple.get(i));
+
+			// A term never seen by the dictionary can not be in this relation.
+			if (row[i] < 0) {
+				return false;
+			}
+		}
+
+		return findSlot(row, hash(row)) >= 0;
+	}
+
+	/**
+	 * Returns the identifier of the term at the given row and column.
+	 * 
+	 * @param row The tuple position, 0 <= row < size().
+	 * @param column The term position, 0 <= column < arity.
+	 * @return The term identifier in the dictionary of this relation.
+	 */
+	public int getTermId(int row, int column) {
+		assert row >= 0 && row < mSize;
+
+		return mColumns[column][row];
+	}
+
+	/**
+	 * Returns the dictionary used by this relation.
+	 * 
+	 * @return The term dictionary.
+	 */
+	public TermDictionary getDictionary() {
+		return mDictionary;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder();
+
+		result.append('[');
+		for (int i = 0; i < mSize; ++i) {
+			if (i > 0) {
+				result.append(", ");
+			}
+			result.append(get(i));
+		}
+		result.append(']');
+
+		return result.toString();
+	}
+
+	/**
+	 * Adds a row of term identifiers, if an equal row is not already stored.
+	 * 
+	 * @param row The term identifiers.
+	 * @return true, if the row was added.
+	 */
+	private boolean addRow(int[] row) {
+		if (mArity < 0) {
+			initialise(row.length);
+		}
+
+		int hash = hash(row);
+
+		if (findSlot(row, hash) >= 0) {
+			return false;
+		}
+
+		if (mSize == mCapacity) {
+			growColumns();
+		}
+
+		for (int c = 0; c < mArity; ++c) {
+			mColumns[c][mSize] = row[c];
+		}
+
+		// Keep the load factor of the hash table at or below 0.5.
+		if ((mSize + 1) * 2 > mSlots.length) {
+			growSlots();
+		}
+
+		insertSlot(mSize, hash);
+		++mSize;
+
+		return true;
+	}
+
+	private int[] getRow(int index) {
+		int[] row = new int[mArity];
+		for (int c = 0; c < mArity; ++c) {
+			row[c] = mColumns[c][index];
+		}
+		return row;
+	}
+
+	private void initialise(int arity) {
+		mArity = arity;
+		mCapacity = INITIAL_CAPACITY;
+		mColumns = new int[arity][INITIAL_CAPACITY];
+		mSlots = new int[INITIAL_CAPACITY * 2];
+	}
+
+	private void growColumns() {
+		mCapacity *= 2;
+
+		for (int c = 0; c < mArity; ++c) {
+			int[] column = new int[mCapacity];
+			System.arraycopy(mColumns[c], 0, column, 0, mSize);
+			mColumns[c] = column;
+		}
+	}
+
+	private void growSlots() {
+		mSlots = new int[mSlots.length * 2];
+
+		for (int i = 0; i < mSize; ++i) {
+			insertSlot(i, hash(getRow(i)));
+		}
+	}
+
+	/**
+	 * Finds the row equal to the given one.
+	 * 
+	 * @return The position of the equal row, or -1 if there is none.
+	 */
+	private int findSlot(int[] row, int hash) {
+		int mask = mSlots.length - 1;
+
+		for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+			int entry = mSlots[slot];
+
+			if (entry == 0) {
+				return -1;
+			}
+
+			if (rowEquals(entry - 1, row)) {
+				return entry - 1;
+			}
+		}
+	}
+
+	private void insertSlot(int index, int hash) {
+		int mask = mSlots.length - 1;
+
+		int slot = hash & mask;
+		while (mSlots[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+
+		// Slots store the row position plus one, zero marks an empty slot.
+		mSlots[slot] = index + 1;
+	}
+
+	private boolean rowEquals(int index, int[] row) {
+		for (int c = 0; c < mArity; ++c) {
+			if (mColumns[c][index] != row[c]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int hash(int[] row) {
+		int hash = 1;
+		for (int id : row) {
+			hash = 31 * hash + id;
+		}
+
+		// Spread the bits, since the table size is a power of two.
+		hash *= 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+	/** The dictionary used to intern terms. */
+	private final TermDictionary mDictionary;
+
+	/** The arity of the tuples, or -1 if no tuple has been added yet. */
+	private int mArity = -1;
+
+	/** The term identifiers, one array per column. */
+	private int[][] mColumns;
+
+	/** The number of rows the columns can hold. */
+	private int mCapacity;
+
+	/** The number of tuples in the relation. */
+	private int mSize = 0;
+
+	/** The open-addressing hash table of row positions (plus one). */
+	private int[] mSlots;
+
+	private static final int INITIAL_CAPACITY = 16;
+}
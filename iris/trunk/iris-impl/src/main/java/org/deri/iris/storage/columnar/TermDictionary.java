@@ -0,0 +1,148 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.storage.columnar;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.deri.iris.api.terms.ITerm;
+
+/**
+ * <p>
+ * A dictionary, which assigns a unique, dense integer identifier to every
+ * term it has seen. Identifiers are never reused and stay valid for the
+ * lifetime of the dictionary, so relations sharing a dictionary can store and
+ * compare their tuples as primitive int values.
+ * </p>
+ * <p>
+ * This class is thread-safe. Looking up known terms and identifiers does not
+ * lock, only assigning a new identifier does.
+ * </p>
+ */
+public class TermDictionary {
+
+	/**
+	 * Returns the identifier of the given term, assigning a new one if the
+	 * term has not been seen before.
+	 * 
+	 * @param term The term to intern.
+	 * @return The identifier of the term.
+	 * @throws IllegalArgumentException if the term is <code>null</code>
+	 */
+	public int intern(ITerm term) {
+		if (term == null) {
+			throw new IllegalArgumentException("The term must not be null");
+		}
+
+		Integer id = mIds.get(term);
+
+		if (id != null) {
+			return id;
+		}
+
+		synchronized (mIds) {
+			id = mIds.get(term);
+
+			if (id != null) {
+				return id;
+			}
+
+			int newId = mSize;
+
+			if (newId == mTerms.length) {
+				ITerm[] terms = new ITerm[mTerms.length * 2];
+				System.arraycopy(mTerms, 0, terms, 0, newId);
+				mTerms = terms;
+			}
+
+			// The term is stored before the identifier is published, so
+			// every reader of the identifier also sees the term.
+			mTerms[newId] = term;
+			mSize = newId + 1;
+			mIds.put(term, newId);
+
+			return newId;
+		}
+	}
+
+	/**
+	 * Returns the identifier of the given term without interning it.
+	 * 
+	 * @param term The term to look up.
+	 * @return The identifier of the term, or <code>-1</code> if the term is
+	 *         not known to this dictionary.
+	 */
+	public int lookup(ITerm term) {
+		if (term == null) {
+			return -1;
+		}
+
+		Integer id = mIds.get(term);
+
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Returns the term with the given identifier.
+	 * 
+	 * @param id The identifier of the term.
+	 * @return The term.
+	 * @throws IndexOutOfBoundsException if no term has the given identifier
+	 */
+	public ITerm getTerm(int id) {
+		// The size is read before the terms, see intern(ITerm).
+		if (id < 0 || id >= mSize) {
+			throw new IndexOutOfBoundsException("Unknown term identifier " + id);
+		}
+
+		return mTerms[id];
+	}
+
+	/**
+	 * Returns the number of distinct terms in this dictionary.
+	 * 
+	 * @return The number of terms.
+	 */
+	public int size() {
+		return mSize;
+	}
+
+	@Override
+	public String toString() {
+		return "TermDictionary(" + mSize + " terms)";
+	}
+
+	/** The terms indexed by their identifiers. */
+	private volatile ITerm[] mTerms = new ITerm[INITIAL_CAPACITY];
+
+	/** The number of terms in the dictionary. */
+	private volatile int mSize = 0;
+
+	/**
+	 * The mapping from terms to their identifiers, which is also locked to
+	 * assign new identifiers.
+	 */
+	private final Map<ITerm, Integer> mIds = new ConcurrentHashMap<ITerm, Integer>();
+
+	private static final int INITIAL_CAPACITY = 1024;
+}
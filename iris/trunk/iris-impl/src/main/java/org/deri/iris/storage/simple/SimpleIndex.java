@@ -26,9 +26,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.deri.iris.api.basics.ITuple;
 import org.deri.iris.api.terms.ITerm;
@@ -93,20 +93,23 @@ public class SimpleIndex implements IIndex {
 	 */
 	private void update() {
 		// The representatives of the terms of a key in the map (mBag) may
-		// change due to a change in the equivalence relation, therefore we have
-		// to check all keys and update them if any change to the term
-		// equivalence relation has been applied.
-		int hashCode = mEquivalentTerms.hashCode();
-		
-		if (hashCode != mPreviousHashCode) {
-			// Update the keys in the map.
-			updateKeys();
-			
-			// Reset the index of the last checked tuple.
-			mLastIndexOfView = 0;
-
-			// Store the current hash code of the equivalent terms.
-			mPreviousHashCode = hashCode;
+		// change due to a change in the equivalence relation, therefore we
+		// have to update the keys containing representatives of merged
+		// equivalence classes.
+		long version = mEquivalentTerms.getVersion();
+
+		if (version != mVersion) {
+			Set<ITerm> merged = mEquivalentTerms.getMergedRepresentatives(mVersion);
+
+			if (merged == null) {
+				// The changes are unknown, so re-index all tuples.
+				mBag.clear();
+				mLastIndexOfView = 0;
+			} else if (!merged.isEmpty()) {
+				updateKeys(merged);
+			}
+
+			mVersion = version;
 		}
 
 		for (; mLastIndexOfView < mRelation.size(); ++mLastIndexOfView) {
@@ -122,26 +125,39 @@ public class SimpleIndex implements IIndex {
 		}
 	}
 
-	private void updateKeys() {
-		Map<List<ITerm>, List<ITuple>> toAdd = new HashMap<List<ITerm>, List<ITuple>>();
-		Iterator<List<ITerm>> keyIterator = mBag.keySet().iterator();
+	/**
+	 * Replaces the keys, which contain any of the specified (former)
+	 * representatives, with the keys of the current representatives.
+	 * 
+	 * @param merged The representatives of merged equivalence classes.
+	 */
+	private void updateKeys(Set<ITerm> merged) {
+		List<List<ITerm>> changedKeys = new ArrayList<List<ITerm>>();
+
+		for (List<ITerm> key : mBag.keySet()) {
+			for (ITerm term : key) {
+				if (merged.contains(term)) {
+					changedKeys.add(key);
+					break;
+				}
+			}
+		}
 
-		while (keyIterator.hasNext()) {
-			List<ITerm> oldKey = keyIterator.next();
+		for (List<ITerm> oldKey : changedKeys) {
 			List<ITerm> newKey = changeKey(oldKey);
 
 			if (!oldKey.equals(newKey)) {
-				// Add mapped values of the old key to a temporary map.
-				toAdd.put(newKey, mBag.get(oldKey));
-
-				// Remove the key and the corresponding mapped list of
-				// tuples from the map.
-				keyIterator.remove();
+				List<ITuple> values = mBag.remove(oldKey);
+				List<ITuple> existing = mBag.get(newKey);
+
+				// Tuples of two keys, which are now equivalent, are merged.
+				if (existing == null) {
+					mBag.put(newKey, values);
+				} else {
+					existing.addAll(values);
+				}
 			}
 		}
-
-		// Add the temporary map.
-		mBag.putAll(toAdd);
 	}
 
 	/**
@@ -213,8 +229,8 @@ public class SimpleIndex implements IIndex {
 	/** The equivalent terms. */
 	private IEquivalentTerms mEquivalentTerms;
 
-	/** The previous hash code of the equivalent terms. */
-	private int mPreviousHashCode;
+	/** The version of the equivalent terms last seen by this index. */
+	private long mVersion;
 
 	private static final List<ITuple> mEmptyTupleList = Collections
 			.unmodifiableList(new ArrayList<ITuple>());
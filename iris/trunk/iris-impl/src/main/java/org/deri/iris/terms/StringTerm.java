@@ -68,6 +68,9 @@ public class StringTerm implements IStringTerm {
 	}
 
 	public boolean equals(final Object o) {
+		if (o == this) {
+			return true;
+		}
 		if (!(o instanceof IStringTerm)) {
 			return false;
 		}
@@ -52,7 +52,7 @@ public class TermFactory implements ITermFactory {
 	}
 
 	public IStringTerm createString(String arg) {
-		return new StringTerm(arg);
+		return TermInterner.intern(new StringTerm(arg));
 	}
 
 	public IVariable createVariable(String name) {
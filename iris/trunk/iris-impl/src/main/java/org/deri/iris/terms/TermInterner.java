@@ -0,0 +1,138 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.terms;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.deri.iris.api.terms.ITerm;
+
+/**
+ * <p>
+ * An optional table of canonical instances of ground terms. If interning is
+ * enabled, the term factories return the same instance for equal terms of the
+ * same class, so that terms repeated across many tuples are stored only once,
+ * and comparing them for equality mostly comes down to a reference check.
+ * </p>
+ * <p>
+ * The table only holds weak references, so canonical instances that are not
+ * used anymore are garbage collected. Interning is disabled by default. It is
+ * enabled by setting the system property {@value #ENABLED_PROPERTY} to
+ * <code>true</code>, or by calling {@link #setEnabled(boolean)}.
+ * </p>
+ * <p>
+ * Only terms, whose equality implies an identical representation, should be
+ * interned. Decimal terms, for example, are not interned, since
+ * <code>1.0</code> and <code>1.00</code> are equal.
+ * </p>
+ */
+public final class TermInterner {
+
+	/** The system property, which enables interning if set to true. */
+	public static final String ENABLED_PROPERTY = "org.deri.iris.terms.intern";
+
+	private static volatile boolean enabled = Boolean
+			.getBoolean(ENABLED_PROPERTY);
+
+	/** The canonical instances, by the class of the term. */
+	private static final Map<Class<?>, Map<ITerm, WeakReference<ITerm>>> tables = new HashMap<Class<?>, Map<ITerm, WeakReference<ITerm>>>();
+
+	private TermInterner() {
+		// this is a utility class
+	}
+
+	/**
+	 * Enables or disables interning. Disabling interning discards all
+	 * canonical instances.
+	 * 
+	 * @param enable <code>true</code> to enable interning
+	 */
+	public static void setEnabled(final boolean enable) {
+		enabled = enable;
+
+		if (!enable) {
+			synchronized (tables) {
+				tables.clear();
+			}
+		}
+	}
+
+	/**
+	 * Returns whether interning is enabled.
+	 * 
+	 * @return <code>true</code> if interning is enabled
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Returns the canonical instance of a term. If there is no canonical
+	 * instance yet, the given term becomes the canonical instance. If
+	 * interning is disabled, the given term is returned.
+	 * 
+	 * @param term the term to intern
+	 * @return the canonical instance of the term
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends ITerm> T intern(final T term) {
+		if (!enabled || term == null) {
+			return term;
+		}
+
+		final Map<ITerm, WeakReference<ITerm>> table = getTable(term
+				.getClass());
+
+		synchronized (table) {
+			final WeakReference<ITerm> reference = table.get(term);
+
+			if (reference != null) {
+				final ITerm canonical = reference.get();
+
+				if (canonical != null) {
+					return (T) canonical;
+				}
+			}
+
+			table.put(term, new WeakReference<ITerm>(term));
+		}
+
+		return term;
+	}
+
+	private static Map<ITerm, WeakReference<ITerm>> getTable(
+			final Class<?> type) {
+		synchronized (tables) {
+			Map<ITerm, WeakReference<ITerm>> table = tables.get(type);
+
+			if (table == null) {
+				table = new WeakHashMap<ITerm, WeakReference<ITerm>>();
+				tables.put(type, table);
+			}
+
+			return table;
+		}
+	}
+}
@@ -30,12 +30,19 @@ import org.deri.iris.api.terms.ITerm;
  */
 public abstract class AbstractNumericTerm implements INumericTerm {
 
+	/** The cached hash code, 0 if not computed yet. */
+	private int hash;
+
 	public boolean isGround() {
 		return true;
 	}
 
 	@Override
 	public boolean equals(Object thatObject) {
+		if (thatObject == this) {
+			return true;
+		}
+
 		if (thatObject == null || !(thatObject instanceof INumericTerm)) {
 			return false;
 		}
@@ -104,7 +111,10 @@ public abstract class AbstractNumericTerm implements INumericTerm {
 
 	@Override
 	public int hashCode() {
-		return getValue().hashCode();
+		if (hash == 0) {
+			hash = getValue().hashCode();
+		}
+		return hash;
 	}
 
 	@Override
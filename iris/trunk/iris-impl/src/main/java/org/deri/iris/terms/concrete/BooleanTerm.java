@@ -97,6 +97,9 @@ public class BooleanTerm implements IBooleanTerm {
 	}
 
 	public boolean equals(final Object obj) {
+		if (obj == this) {
+			return true;
+		}
 		if (!(obj instanceof IBooleanTerm)) {
 			return false;
 		}
@@ -76,6 +76,7 @@ import org.deri.iris.api.terms.concrete.IUnsignedLong;
 import org.deri.iris.api.terms.concrete.IUnsignedShort;
 import org.deri.iris.api.terms.concrete.IXMLLiteral;
 import org.deri.iris.api.terms.concrete.IYearMonthDuration;
+import org.deri.iris.terms.TermInterner;
 
 /**
  * <p>
@@ -99,11 +100,11 @@ public class ConcreteFactory implements IConcreteFactory {
 	}
 
 	public IBooleanTerm createBoolean(final boolean b) {
-		return new BooleanTerm(b);
+		return TermInterner.intern(new BooleanTerm(b));
 	}
 
 	public IBooleanTerm createBoolean(final String value) {
-		return new BooleanTerm(value);
+		return TermInterner.intern(new BooleanTerm(value));
 	}
 
 	public IDateTerm createDate(final int year, final int month, final int day) {
@@ -146,7 +147,7 @@ public class ConcreteFactory implements IConcreteFactory {
 	}
 
 	public IDoubleTerm createDouble(final double d) {
-		return new DoubleTerm(d);
+		return TermInterner.intern(new DoubleTerm(d));
 	}
 
 	public IDuration createDuration(boolean positive, int year, int month,
@@ -193,15 +194,19 @@ public class ConcreteFactory implements IConcreteFactory {
 	}
 
 	public IIntegerTerm createInteger(int i) {
-		return new IntegerTerm(i);
+		return TermInterner.intern(new IntegerTerm(i));
 	}
 	
+	public IIntegerTerm createInteger(long i) {
+		return TermInterner.intern(new IntegerTerm(i));
+	}
+
 	public IIntegerTerm createInteger(BigInteger i) {
-		return new IntegerTerm(i);
+		return TermInterner.intern(new IntegerTerm(i));
 	}
 
 	public IIri createIri(final String s) {
-		return new Iri(s);
+		return TermInterner.intern(new Iri(s));
 	}
 
 	public ISqName createSqName(final String s) {
@@ -282,7 +287,7 @@ public class ConcreteFactory implements IConcreteFactory {
 	}
 	
 	public ILongTerm createLong(long value) {
-		return new LongTerm(value);
+		return TermInterner.intern(new LongTerm(value));
 	}
 
 	public INCName createNCName(String name) {
@@ -346,7 +351,7 @@ public class ConcreteFactory implements IConcreteFactory {
 	}
 
 	public IIntTerm createInt(int value) {
-		return new IntTerm(value);
+		return TermInterner.intern(new IntTerm(value));
 	}
 
 	public IDateTime createDateTimeStamp(int year, int month, int day,
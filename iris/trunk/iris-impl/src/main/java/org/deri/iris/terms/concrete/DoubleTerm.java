@@ -25,6 +25,7 @@ package org.deri.iris.terms.concrete;
 import java.math.BigDecimal;
 import java.net.URI;
 
+import org.deri.iris.api.terms.ITerm;
 import org.deri.iris.api.terms.concrete.IDoubleTerm;
 import org.deri.iris.api.terms.concrete.XmlSchemaDatatype;
 
@@ -32,21 +33,35 @@ import org.deri.iris.api.terms.concrete.XmlSchemaDatatype;
  * <p>
  * Simple implementation of the IDoubleTerm.
  * </p>
+ * <p>
+ * The value is stored as a primitive, and the <code>BigDecimal</code> is only
+ * created when it is requested. Comparisons between two double terms do not
+ * allocate at all.
+ * </p>
  */
 public class DoubleTerm extends AbstractNumericTerm implements IDoubleTerm {
 
-	private final Double value;
+	private final double value;
 
 	private BigDecimal decimalValue;
 
 	DoubleTerm(float value) {
-		this(Double.valueOf(Float.toString(value)));
+		this(Double.parseDouble(Float.toString(value)));
 	}
 
 	DoubleTerm(double value) {
 		this.value = value;
 	}
 
+	/**
+	 * Returns the value of this term as <code>double</code>.
+	 * 
+	 * @return the value of this term
+	 */
+	public double doubleValue() {
+		return value;
+	}
+
 	public BigDecimal getValue() {
 		if (isNotANumber() || isPositiveInfinity() || isNegativeInfinity()) {
 			return null;
@@ -60,20 +75,37 @@ public class DoubleTerm extends AbstractNumericTerm implements IDoubleTerm {
 	}
 
 	public boolean isNotANumber() {
-		return value.equals(Double.NaN);
+		return Double.isNaN(value);
 	}
 
 	public boolean isPositiveInfinity() {
-		return value.equals(Double.POSITIVE_INFINITY);
+		return value == Double.POSITIVE_INFINITY;
 	}
 
 	public boolean isNegativeInfinity() {
-		return value.equals(Double.NEGATIVE_INFINITY);
+		return value == Double.NEGATIVE_INFINITY;
+	}
+
+	@Override
+	public int compareTo(ITerm thatObject) {
+		if (thatObject instanceof DoubleTerm) {
+			double thatValue = ((DoubleTerm) thatObject).value;
+
+			// NaN is handled by the general comparison. Comparing the
+			// primitives orders the values like their decimal
+			// representations, and treats 0.0 and -0.0 as equal.
+			if (!Double.isNaN(value) && !Double.isNaN(thatValue)) {
+				return value < thatValue ? -1 : (value > thatValue ? 1 : 0);
+			}
+		}
+
+		return super.compareTo(thatObject);
 	}
 
 	@Override
 	public int hashCode() {
-		return value.hashCode();
+		long bits = Double.doubleToLongBits(value);
+		return (int) (bits ^ (bits >>> 32));
 	}
 
 	public URI getDatatypeIRI() {
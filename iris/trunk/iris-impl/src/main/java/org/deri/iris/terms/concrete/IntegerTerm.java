@@ -26,6 +26,7 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.URI;
 
+import org.deri.iris.api.terms.ITerm;
 import org.deri.iris.api.terms.concrete.IIntegerTerm;
 import org.deri.iris.api.terms.concrete.XmlSchemaDatatype;
 
@@ -33,15 +34,109 @@ import org.deri.iris.api.terms.concrete.XmlSchemaDatatype;
  * <p>
  * Simple implementation of the IIntegerTerm.
  * </p>
+ * <p>
+ * Values that fit into a <code>long</code> are stored as a primitive, and the
+ * <code>BigDecimal</code> is only created when it is requested. Comparisons
+ * between two such terms do not allocate at all.
+ * </p>
  */
 public class IntegerTerm extends DecimalTerm implements IIntegerTerm {
 
+	/** The value, if it fits into a long. */
+	private final long longValue;
+
+	/** Whether the value fits into a long. */
+	private final boolean compact;
+
+	/** The lazily created decimal value of a compact term. */
+	private BigDecimal decimalValue;
+
 	IntegerTerm(int value) {
-		this(BigInteger.valueOf(value));
+		this((long) value);
+	}
+
+	IntegerTerm(long value) {
+		super((BigDecimal) null);
+
+		this.longValue = value;
+		this.compact = true;
 	}
-	
+
 	IntegerTerm(BigInteger value) {
-		super(new BigDecimal(value));
+		super(value.bitLength() < Long.SIZE ? null : new BigDecimal(value));
+
+		this.compact = value.bitLength() < Long.SIZE;
+		this.longValue = compact ? value.longValue() : 0;
+	}
+
+	/**
+	 * Returns whether the value of this term fits into a <code>long</code>.
+	 * 
+	 * @return <code>true</code> if the value fits into a <code>long</code>,
+	 *         <code>false</code> otherwise
+	 */
+	public boolean isLong() {
+		return compact;
+	}
+
+	/**
+	 * Returns the value of this term as <code>long</code>. Only meaningful if
+	 * {@link #isLong()} returns <code>true</code>.
+	 * 
+	 * @return the value of this term
+	 */
+	public long longValue() {
+		return longValue;
+	}
+
+	@Override
+	public BigDecimal getValue() {
+		if (!compact) {
+			return value;
+		}
+
+		if (decimalValue == null) {
+			decimalValue = BigDecimal.valueOf(longValue);
+		}
+
+		return decimalValue;
+	}
+
+	@Override
+	public int compareTo(ITerm thatObject) {
+		if (compact && thatObject instanceof IntegerTerm) {
+			IntegerTerm that = (IntegerTerm) thatObject;
+
+			if (that.compact) {
+				return longValue < that.longValue ? -1
+						: (longValue == that.longValue ? 0 : 1);
+			}
+		}
+
+		return super.compareTo(thatObject);
+	}
+
+	/**
+	 * Returns the hash code of the decimal value, without creating it for a
+	 * compact term.
+	 */
+	@Override
+	public int hashCode() {
+		// BigDecimal.valueOf(Long.MIN_VALUE) is not compact itself.
+		if (!compact || longValue == Long.MIN_VALUE) {
+			return super.hashCode();
+		}
+
+		// The same as BigDecimal.hashCode() for a compact value of scale 0.
+		long magnitude = longValue < 0 ? -longValue : longValue;
+		int hash = (int) (((int) (magnitude >>> 32)) * 31
+				+ (magnitude & 0xffffffffL));
+		return 31 * (longValue < 0 ? -hash : hash);
+	}
+
+	@Override
+	public String toCanonicalString() {
+		return compact ? Long.toString(longValue) : super.toCanonicalString();
 	}
 
 	@Override
@@ -22,7 +22,6 @@
  */
 package org.deri.iris.terms.concrete;
 
-import java.math.BigInteger;
 import java.net.URI;
 
 import org.deri.iris.api.terms.concrete.ILongTerm;
@@ -43,7 +42,7 @@ public class LongTerm extends IntegerTerm implements ILongTerm {
 	 * @param value The Long value.
 	 */
 	public LongTerm(long value) {
-		super(BigInteger.valueOf(value));
+		super(value);
 	}
 
 	@Override
@@ -22,9 +22,11 @@
  */
 package org.deri.iris.utils;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -52,12 +54,41 @@ import java.util.Set;
  */
 public class DisjointSets<T> {
 
+	/**
+	 * The maximum number of merges kept in the history. If the history grows
+	 * beyond this size, the older half of it is discarded.
+	 */
+	static final int MAX_MERGES = 1024;
+
 	/**
 	 * Map of the elements in the domain to their actual representation in the
 	 * classes.
 	 */
 	private Map<T, Node<T>> elements;
 
+	/**
+	 * The modification version, which is incremented whenever the
+	 * representative of any element changes.
+	 */
+	private long version = 0;
+
+	/**
+	 * The version at which an element has last been removed, since the
+	 * changes caused by a removal are not recorded in the merge history.
+	 */
+	private long removalVersion = 0;
+
+	/**
+	 * The version of the last merge, which has been discarded from the merge
+	 * history.
+	 */
+	private long discardedVersion = 0;
+
+	/**
+	 * The recent history of merges in the order they have been applied.
+	 */
+	private final List<Merge<T>> merges = new ArrayList<Merge<T>>();
+
 	/**
 	 * Creates a new empty equivalence relation.
 	 */
@@ -94,7 +125,12 @@ public class DisjointSets<T> {
 	 *          element, <code>false</code> otherwise.
 	 */
 	public boolean remove(T element) {
-		return (elements.remove(element) != null);
+		if (elements.remove(element) != null) {
+			removalVersion = ++version;
+			return true;
+		}
+
+		return false;
 	}
 
 	/**
@@ -136,6 +172,10 @@ public class DisjointSets<T> {
 		Node<T> rootX = findRoot(x);
 		Node<T> rootY = findRoot(y);
 
+		if (rootX == rootY) {
+			return rootX.object;
+		}
+
 		if (rootX.rank > rootY.rank) {
 			Node<T> temp = rootX;
 			rootX = rootY;
@@ -146,9 +186,63 @@ public class DisjointSets<T> {
 
 		rootX.parent = rootY;
 
+		merges.add(new Merge<T>(++version, rootX.object, rootY.object));
+
+		if (merges.size() > MAX_MERGES) {
+			List<Merge<T>> discarded = merges.subList(0, merges.size() / 2);
+			discardedVersion = discarded.get(discarded.size() - 1).version;
+			discarded.clear();
+		}
+
 		return rootY.object;
 	}
 
+	/**
+	 * Returns the modification version of this disjoint-set. The version
+	 * increases monotonically whenever the representative of any element
+	 * changes, i.e. when two sets are merged or an element is removed. Adding
+	 * a new singleton set does not change the version.
+	 * 
+	 * @return The current modification version.
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns the elements that have been representatives of sets, which were
+	 * merged with another set after the specified version. An element, whose
+	 * representative at the specified version is not in the returned set, has
+	 * not changed its representative since.
+	 * 
+	 * @param sinceVersion The version to compare with.
+	 * @return The representatives of the merged sets (possibly empty), or
+	 *         <code>null</code> if the changes can not be determined because
+	 *         an element has been removed after the specified version, or
+	 *         the specified version is older than the retained history of
+	 *         merges.
+	 */
+	public Set<T> getMergedRepresentatives(long sinceVersion) {
+		if (sinceVersion < removalVersion || sinceVersion < discardedVersion) {
+			return null;
+		}
+
+		Set<T> representatives = new HashSet<T>();
+
+		for (int i = merges.size() - 1; i >= 0; i--) {
+			Merge<T> merge = merges.get(i);
+
+			if (merge.version <= sinceVersion) {
+				break;
+			}
+
+			representatives.add(merge.first);
+			representatives.add(merge.second);
+		}
+
+		return representatives;
+	}
+
 	/**
 	 * Retrieves the representative element of the set in which the given
 	 * element resides.
@@ -255,6 +349,20 @@ public class DisjointSets<T> {
 		return getSets().toString();
 	}
 
+	private static class Merge<S> {
+		private final long version;
+
+		private final S first;
+
+		private final S second;
+
+		private Merge(long version, S first, S second) {
+			this.version = version;
+			this.first = first;
+			this.second = second;
+		}
+	}
+
 	private static class Node<S> {
 		private S object;
 
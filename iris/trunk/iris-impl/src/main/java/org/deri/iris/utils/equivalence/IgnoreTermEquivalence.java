@@ -39,6 +39,7 @@ import org.deri.iris.api.terms.ITerm;
  * <li><code>getEquivalent</code> returns a singleton set containing the term
  * itself.</li>
  * <li><code>setEquivalent</code> does nothing.</li>
+ * <li><code>getVersion</code> always returns zero.</li>
  * </ul>
  * 
  * @author Adrian Marte
@@ -61,4 +62,12 @@ public class IgnoreTermEquivalence implements IEquivalentTerms {
 		// Do nothing.
 	}
 
+	public long getVersion() {
+		return 0;
+	}
+
+	public Set<ITerm> getMergedRepresentatives(long sinceVersion) {
+		return Collections.emptySet();
+	}
+
 }
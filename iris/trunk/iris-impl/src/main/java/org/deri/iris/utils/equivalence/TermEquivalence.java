@@ -80,6 +80,14 @@ public class TermEquivalence implements IEquivalentTerms {
 		return set;
 	}
 
+	public long getVersion() {
+		return disjointSets.getVersion();
+	}
+
+	public Set<ITerm> getMergedRepresentatives(long sinceVersion) {
+		return disjointSets.getMergedRepresentatives(sinceVersion);
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		if (obj == this) {
@@ -101,4 +101,35 @@ public class TupleTest extends TestCase {
 		
 		assertEquals(variables, BASIC.createTuple(terms).getVariables());
 	}
+
+	/**
+	 * Checks that tuples of all arities behave the same, regardless whether
+	 * they were created from an array, a list or by appending terms.
+	 */
+	public void testArities() {
+		List<ITerm> terms = new ArrayList<ITerm>();
+		ITuple empty = BASIC.createTuple();
+
+		for (int arity = 0; arity <= 6; arity++) {
+			ITuple fromList = BASIC.createTuple(terms);
+			ITuple fromArray = BASIC.createTuple(terms.toArray(new ITerm[arity]));
+			ITuple appended = empty.append(terms);
+
+			assertEquals(arity, fromList.size());
+			assertEquals(terms, fromList);
+			assertEquals(fromList, fromArray);
+			assertEquals(fromArray, appended);
+			assertEquals(terms.hashCode(), fromList.hashCode());
+			assertEquals(fromList.hashCode(), appended.hashCode());
+
+			try {
+				fromList.get(arity);
+				fail("The get method must not accept an index beyond the size");
+			} catch (IllegalArgumentException e) {
+			}
+
+			terms.add(TERM.createString("t" + arity));
+			assertFalse(fromList.equals(BASIC.createTuple(terms)));
+		}
+	}
 }
@@ -25,6 +25,7 @@ package org.deri.iris.builtins;
 import static org.deri.iris.factory.Factory.CONCRETE;
 import static org.deri.iris.factory.Factory.TERM;
 
+import java.math.BigInteger;
 import java.util.Arrays;
 
 import junit.framework.Test;
@@ -335,6 +336,34 @@ public class BuiltinHelperTest extends TestCase {
 		assertEquals(D_11, BuiltinHelper.multiply(D_2, D_55));
 	}
 
+	/**
+	 * Tests that integer arithmetic is promoted to arbitrary precision if
+	 * the result does not fit into a long.
+	 */
+	public void testLongOverflow() {
+		final INumericTerm MAX = CONCRETE.createLong(Long.MAX_VALUE);
+		final INumericTerm MIN = CONCRETE.createLong(Long.MIN_VALUE);
+		final INumericTerm I_1 = CONCRETE.createInteger(1);
+		final INumericTerm I_M1 = CONCRETE.createInteger(-1);
+
+		final BigInteger max = BigInteger.valueOf(Long.MAX_VALUE);
+		final BigInteger min = BigInteger.valueOf(Long.MIN_VALUE);
+
+		assertEquals(CONCRETE.createInteger(max.add(BigInteger.ONE)),
+				BuiltinHelper.add(MAX, I_1));
+		assertEquals(CONCRETE.createInteger(min.subtract(BigInteger.ONE)),
+				BuiltinHelper.subtract(MIN, I_1));
+		assertEquals(CONCRETE.createInteger(max.multiply(max)),
+				BuiltinHelper.multiply(MAX, MAX));
+		assertEquals(CONCRETE.createInteger(min.negate()),
+				BuiltinHelper.multiply(MIN, I_M1));
+
+		assertEquals(CONCRETE.createInteger(Long.MAX_VALUE - 1),
+				BuiltinHelper.add(MAX, I_M1));
+		assertTrue(BuiltinHelper.less(MIN, MAX));
+		assertTrue(BuiltinHelper.less(MAX, BuiltinHelper.add(MAX, I_1)));
+	}
+
 	/**
 	 * Tests the <code>divide</code> method.
 	 * @throws Exception 
@@ -22,6 +22,8 @@
  */
 package org.deri.iris.builtins.string;
 
+import java.util.regex.PatternSyntaxException;
+
 import junit.framework.TestCase;
 
 import org.deri.iris.EvaluationException;
@@ -51,6 +53,53 @@ public class StringMatchesBuiltinTest extends TestCase {
 		check(false, "abracadabra", "^bra");
 	}
 
+	public void testMatchesConstantPattern() throws EvaluationException {
+		ITerm pattern = Factory.TERM.createString("^a.*a$");
+		IBuiltinAtom matches = new StringMatchesWithoutFlagsBuiltin(X, pattern);
+
+		assertNotNull(matches.evaluate(Factory.BASIC.createTuple(Factory.TERM
+				.createString("abracadabra"), pattern)));
+		assertNull(matches.evaluate(Factory.BASIC.createTuple(Factory.TERM
+				.createString("bracadabra"), pattern)));
+	}
+
+	public void testInvalidConstantPattern() throws EvaluationException {
+		ITerm pattern = Factory.TERM.createString("a[");
+		IBuiltinAtom matches = new StringMatchesWithoutFlagsBuiltin(X, pattern);
+
+		try {
+			matches.evaluate(Factory.BASIC.createTuple(Factory.TERM
+					.createString("abracadabra"), pattern));
+			fail("The invalid pattern must be reported on evaluation");
+		} catch (PatternSyntaxException e) {
+		}
+	}
+
+	public void testMatchesWithFlags() throws EvaluationException {
+		checkWithFlags(true, "hello world", "hello world", "");
+		checkWithFlags(false, "hello world", "hello world", "x");
+		checkWithFlags(true, "helloworld", "hello world", "x");
+		checkWithFlags(true, "hello world", "hello[ ]world", "x");
+		checkWithFlags(true, "a\nb", "a.b", "s");
+		checkWithFlags(false, "a\nb", "a.b", "");
+	}
+
+	private void checkWithFlags(boolean expected, String string,
+			String pattern, String flags) throws EvaluationException {
+		String value = string.replace("\\n", "\n");
+		IBuiltinAtom matches = new StringMatchesBuiltin(X, Y, Z);
+
+		ITuple result = matches.evaluate(Factory.BASIC.createTuple(Factory.TERM
+				.createString(value), Factory.TERM.createString(pattern),
+				Factory.TERM.createString(flags)));
+
+		if (expected) {
+			assertNotNull(result);
+		} else {
+			assertNull(result);
+		}
+	}
+
 	private void check(boolean expected, String string, String pattern)
 			throws EvaluationException {
 		IBuiltinAtom matches = new StringMatchesWithoutFlagsBuiltin(X, Y);
@@ -68,6 +68,23 @@ public class StringReplaceBuiltinTest extends TestCase {
 		check("foobar", "hello world", "hello\\ sworld", "foobar", "x");
 	}
 
+	public void testReplaceBoundPattern() throws EvaluationException {
+		IBuiltinAtom replace = new StringReplaceBuiltin(W, X, Y, Z, R);
+
+		for (int i = 0; i < 3; ++i) {
+			assertEquals(Factory.BASIC.createTuple(Factory.TERM
+					.createString("a*cada*")), replace.evaluate(Factory.BASIC
+					.createTuple(TERM.createString("abracadabra"), TERM
+							.createString("b r a"), TERM.createString("*"),
+							TERM.createString("x"), R)));
+			assertEquals(Factory.BASIC.createTuple(Factory.TERM
+					.createString("*")), replace.evaluate(Factory.BASIC
+					.createTuple(TERM.createString("abracadabra"), TERM
+							.createString("a.*a"), TERM.createString("*"),
+							TERM.createString(""), R)));
+		}
+	}
+
 	private void check(String expected, String string, String regex,
 			String replacement) throws EvaluationException {
 		IBuiltinAtom replace = new StringReplaceWithoutFlagsBuiltin(TERM
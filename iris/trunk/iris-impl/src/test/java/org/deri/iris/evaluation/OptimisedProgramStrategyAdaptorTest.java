@@ -37,10 +37,12 @@ import org.deri.iris.api.basics.ILiteral;
 import org.deri.iris.api.basics.IQuery;
 import org.deri.iris.api.basics.IRule;
 import org.deri.iris.api.terms.IVariable;
+import org.deri.iris.compiler.Parser;
 import org.deri.iris.factory.Factory;
 import org.deri.iris.facts.Facts;
 import org.deri.iris.facts.IFacts;
 import org.deri.iris.facts.OriginalFactsPreservingFacts;
+import org.deri.iris.optimisations.magicsets.MagicSets;
 import org.deri.iris.storage.IRelation;
 import org.deri.iris.storage.simple.SimpleRelationFactory;
 
@@ -242,4 +244,123 @@ public class OptimisedProgramStrategyAdaptorTest extends TestCase
 		assertTrue( oN.rulesOutput == factory.mStrategy.mGivenRules );	// Same object
 		assertTrue( oN.queryOutput == factory.mStrategy.mGivenQuery );	// Same object
 	}
+
+	class CountingStrategyFactory extends StrategyFactory {
+
+		public IEvaluationStrategy createEvaluator( IFacts facts, List<IRule> rules, Configuration configuration ) throws EvaluationException
+        {
+			++mCount;
+			return super.createEvaluator( facts, rules, configuration );
+        }
+		
+		int mCount;
+	}
+
+	class CountingOptimiser implements IProgramOptimisation {
+
+		CountingOptimiser( IProgramOptimisation optimiser ) {
+			mOptimiser = optimiser;
+		}
+		
+		public Result optimise( Collection<IRule> rules, IQuery query ) {
+			++mCount;
+	        return mOptimiser.optimise( rules, query );
+        }
+		
+		final IProgramOptimisation mOptimiser;
+		int mCount;
+	}
+
+	public void testEvaluationReused() throws Exception {
+		
+		Configuration configuration = new Configuration();
+		
+		CountingStrategyFactory factory = new CountingStrategyFactory();
+		
+		configuration.evaluationStrategyFactory = factory;
+
+		configuration.programOptmimisers.clear();
+		CountingOptimiser optimiser = new CountingOptimiser( new Optimiser1() );
+		configuration.programOptmimisers.add( optimiser );
+
+		IFacts facts = createFacts();
+		IQuery query = createQuery();
+
+		OptimisedProgramStrategyAdaptor adaptor = new OptimisedProgramStrategyAdaptor( facts, createRules(), configuration );
+		
+		adaptor.evaluateQuery( query, null );
+		adaptor.evaluateQuery( query, null );
+		
+		assertEquals( 1, optimiser.mCount );
+		assertEquals( 1, factory.mCount );
+		
+		// New facts require a new evaluation of the optimised program, but not a new optimisation.
+		facts.get( Factory.BASIC.createPredicate( "p", 1 ) ).add( Factory.BASIC.createTuple( Factory.TERM.createString( "a" ) ) );
+		adaptor.evaluateQuery( query, null );
+		
+		assertEquals( 1, optimiser.mCount );
+		assertEquals( 2, factory.mCount );
+	}
+	
+	public void testNoCache() throws Exception {
+		
+		Configuration configuration = new Configuration();
+		
+		CountingStrategyFactory factory = new CountingStrategyFactory();
+		
+		configuration.evaluationStrategyFactory = factory;
+		configuration.optimisedProgramCacheSize = 0;
+
+		configuration.programOptmimisers.clear();
+		CountingOptimiser optimiser = new CountingOptimiser( new Optimiser1() );
+		configuration.programOptmimisers.add( optimiser );
+
+		OptimisedProgramStrategyAdaptor adaptor = new OptimisedProgramStrategyAdaptor( createFacts(), createRules(), configuration );
+		
+		adaptor.evaluateQuery( createQuery(), null );
+		adaptor.evaluateQuery( createQuery(), null );
+		
+		assertEquals( 2, optimiser.mCount );
+		assertEquals( 2, factory.mCount );
+	}
+	
+	public void testProgramReusedForOtherConstants() throws Exception {
+		
+		Parser parser = new Parser();
+		parser.parse(
+			"edge('a', 'b'). edge('b', 'c'). edge('c', 'd'). edge('x', 'y')." +
+			"path(?X, ?Y) :- edge(?X, ?Y)." +
+			"path(?X, ?Z) :- path(?X, ?Y), edge(?Y, ?Z)." +
+			"connected(?X) :- path('x', ?X)." );
+
+		Configuration configuration = new Configuration();
+		
+		configuration.programOptmimisers.clear();
+		CountingOptimiser optimiser = new CountingOptimiser( new MagicSets() );
+		configuration.programOptmimisers.add( optimiser );
+
+		IFacts facts = new Facts( parser.getFacts(), new SimpleRelationFactory() );
+		
+		OptimisedProgramStrategyAdaptor adaptor = new OptimisedProgramStrategyAdaptor( facts, parser.getRules(), configuration );
+		
+		assertEquals( 3, evaluate( adaptor, "?- path('a', ?Y)." ).size() );
+		assertEquals( 2, evaluate( adaptor, "?- path('b', ?Y)." ).size() );
+		assertEquals( 0, evaluate( adaptor, "?- path('d', ?Y)." ).size() );
+		assertEquals( 1, optimiser.mCount );
+		
+		// 'x' occurs in the rules, so the program can not be reused.
+		assertEquals( 1, evaluate( adaptor, "?- path('x', ?Y)." ).size() );
+		assertEquals( 2, optimiser.mCount );
+		
+		// A different pattern of bound arguments requires a new optimisation.
+		assertEquals( 1, evaluate( adaptor, "?- path(?X, 'b')." ).size() );
+		assertEquals( 3, optimiser.mCount );
+	}
+	
+	private IRelation evaluate( IEvaluationStrategy strategy, String query ) throws Exception {
+		Parser parser = new Parser();
+		parser.parse( query );
+		
+		return strategy.evaluateQuery( parser.getQueries().get( 0 ), new ArrayList<IVariable>() );
+	}
 }
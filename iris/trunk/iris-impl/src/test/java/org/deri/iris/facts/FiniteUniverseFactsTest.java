@@ -101,6 +101,28 @@ public class FiniteUniverseFactsTest extends TestCase
 		checkContains( testTerms, fuf.get( FiniteUniverseFacts.UNIVERSE ) );
 	}
 	
+	public void testTermsOfLaterFactsAreNotExtracted()
+	{
+		IFacts facts = new Facts( new SimpleRelationFactory() );
+		
+		IRelation relation = facts.get( BASIC.createPredicate( "q", 1 ) );
+		
+		ITerm before = CONCRETE.createInteger( 1 );
+		relation.add( BASIC.createTuple( before ) );
+
+		FiniteUniverseFacts fuf = new FiniteUniverseFacts( facts, new ArrayList<IRule>() );
+
+		// The facts are only extracted when the universe is accessed.
+		ITerm after = CONCRETE.createInteger( 2 );
+		relation.add( BASIC.createTuple( after ) );
+
+		IRelation universe = fuf.get( FiniteUniverseFacts.UNIVERSE );
+		
+		assertEquals( 1, universe.size() );
+		assertTrue( universe.contains( BASIC.createTuple( before ) ) );
+		assertFalse( universe.contains( BASIC.createTuple( after ) ) );
+	}
+	
 	private void checkContains( List<ITerm> groundTerms, IRelation universe )
 	{
 		for( ITerm term : groundTerms )
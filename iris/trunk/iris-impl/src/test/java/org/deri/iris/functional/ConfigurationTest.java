@@ -22,11 +22,16 @@
  */
 package org.deri.iris.functional;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import junit.framework.TestCase;
 
 import org.deri.iris.Configuration;
 import org.deri.iris.EvaluationException;
 import org.deri.iris.KnowledgeBaseFactory;
+import org.deri.iris.storage.columnar.ColumnarIndexFactory;
+import org.deri.iris.storage.columnar.ColumnarRelationFactory;
 
 public class ConfigurationTest extends TestCase
 {
@@ -65,4 +70,135 @@ public class ConfigurationTest extends TestCase
 			
 		}
 	}
+
+	public void testColumnarStorage() throws Exception
+	{
+		String program =
+			"e(1,2)." +
+			"e(2,3)." +
+			"e(3,4)." +
+			"e(3,'a')." +
+			"tc(?X,?Y) :- e(?X,?Y)." +
+			"tc(?X,?Z) :- tc(?X,?Y), e(?Y,?Z)." +
+			"?-tc(1,?X).";
+
+		Configuration configuration = KnowledgeBaseFactory.getDefaultConfiguration();
+		ColumnarRelationFactory relationFactory = new ColumnarRelationFactory();
+		configuration.relationFactory = relationFactory;
+		configuration.indexFactory = new ColumnarIndexFactory( relationFactory );
+
+		Helper.executeAndCheckResults( program, "tc(2). tc(3). tc(4). tc('a').", configuration, "Columnar storage" );
+	}
+
+	public void testRuleElementPipelining() throws Exception
+	{
+		Configuration configuration = KnowledgeBaseFactory.getDefaultConfiguration();
+		configuration.ruleElementPipelining = true;
+		
+		Helper.executeAndCheckResults( longRuleProgram(), longRuleResults(), configuration, "Pipelined rule elements" );
+	}
+
+	public void testRuleElementMaterialisation() throws Exception
+	{
+		Configuration configuration = KnowledgeBaseFactory.getDefaultConfiguration();
+		configuration.ruleElementPipelining = false;
+		
+		Helper.executeAndCheckResults( longRuleProgram(), longRuleResults(), configuration, "Materialised rule elements" );
+	}
+
+	/**
+	 * A rule with a long body, a built-in and a negated literal,
+	 * whose body produces many duplicate head tuples.
+	 */
+	private static String longRuleProgram()
+	{
+		StringBuilder program = new StringBuilder();
+		
+		for( int i = 1; i <= 20; ++i )
+		{
+			program.append( "e(" + i + "," + ( i + 1 ) + ")." );
+			program.append( "f(" + i + ",'a'). f(" + i + ",'b')." );
+			if( i % 2 == 1 )
+				program.append( "odd(" + i + ")." );
+		}
+		
+		program.append( "r(?A,?H) :- e(?A,?B), f(?B,?U), e(?B,?C), e(?C,?D), f(?D,?V), e(?D,?E), e(?E,?F), e(?F,?G), e(?G,?H), ?A > 5, not odd(?A)." );
+		program.append( "?-r(?X,?Y)." );
+		
+		return program.toString();
+	}
+
+	private static String longRuleResults()
+	{
+		return "r(6,13). r(8,15). r(10,17). r(12,19). r(14,21).";
+	}
+
+	public void testRuleElementExecutor() throws Exception
+	{
+		StringBuilder program = new StringBuilder();
+		StringBuilder expected = new StringBuilder();
+		
+		for( int i = 1; i <= 40; ++i )
+		{
+			program.append( "e(" + i + "," + ( i + 1 ) + ")." );
+			if( i % 2 == 1 )
+				program.append( "odd(" + i + ")." );
+			else if( i > 10 )
+				expected.append( "r(" + i + ")." );
+		}
+		
+		program.append( "odd(41)." );
+		program.append( "tc(?X,?Y) :- e(?X,?Y)." );
+		program.append( "tc(?X,?Z) :- tc(?X,?Y), e(?Y,?Z)." );
+		program.append( "r(?Y) :- tc(?X,?Y), ?X = 1, ?Y > 10, not odd(?Y)." );
+		program.append( "?-r(?X)." );
+		
+		ExecutorService executor = Executors.newFixedThreadPool( 4 );
+		
+		try
+		{
+			Configuration configuration = KnowledgeBaseFactory.getDefaultConfiguration();
+			configuration.ruleElementExecutor = executor;
+			configuration.ruleElementPartitionSize = 1;
+			
+			Helper.executeAndCheckResults( program.toString(), expected.toString(), configuration, "Partitioned rule elements" );
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	public void testRuleElementExecutorDivideByZeroStop() throws Exception
+	{
+		StringBuilder program = new StringBuilder();
+		
+		for( int i = 0; i < 100; ++i )
+			program.append( "a(" + i + ")." );
+		
+		program.append( "b(0)." );
+		program.append( "d(?Z) :- a(?X), b(?Y), ?X / ?Y = ?Z." );
+		program.append( "?-d(?X)." );
+		
+		ExecutorService executor = Executors.newFixedThreadPool( 4 );
+		
+		try
+		{
+			Configuration configuration = KnowledgeBaseFactory.getDefaultConfiguration();
+			configuration.evaluationDivideByZeroBehaviour = Configuration.DivideByZeroBehaviour.STOP;
+			configuration.ruleElementExecutor = executor;
+			configuration.ruleElementPartitionSize = 1;
+			
+			Helper.executeAndCheckResults( program.toString(), "", configuration, "Divide by zero in partitions" );
+			
+			fail( "Divide by zero did not stop the evaluation" );
+		}
+		catch( EvaluationException e )
+		{
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
 }
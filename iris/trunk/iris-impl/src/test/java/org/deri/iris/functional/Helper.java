@@ -39,8 +39,10 @@ import org.deri.iris.api.basics.ITuple;
 import org.deri.iris.compiler.Parser;
 import org.deri.iris.evaluation.stratifiedbottomup.StratifiedBottomUpEvaluationStrategyFactory;
 import org.deri.iris.evaluation.stratifiedbottomup.naive.NaiveEvaluatorFactory;
+import org.deri.iris.evaluation.stratifiedbottomup.seminaive.ParallelSemiNaiveEvaluatorFactory;
 import org.deri.iris.evaluation.topdown.oldt.OLDTEvaluationStrategyFactory;
 import org.deri.iris.evaluation.topdown.sldnf.SLDNFEvaluationStrategyFactory;
+import org.deri.iris.evaluation.topdown.slg.SLGEvaluationStrategyFactory;
 import org.deri.iris.evaluation.wellfounded.WellFoundedEvaluationStrategyFactory;
 import org.deri.iris.optimisations.magicsets.MagicSets;
 import org.deri.iris.optimisations.rulefilter.RuleFilter;
@@ -51,6 +53,9 @@ public class Helper
 {
 	public static final boolean PRINT_RESULTS = false;
 	public static final boolean PRINT_TIMINGS = false;
+
+	/** The parallel evaluator factory shared by all tests (and hence its thread pool). */
+	private static final ParallelSemiNaiveEvaluatorFactory PARALLEL_SEMI_NAIVE = new ParallelSemiNaiveEvaluatorFactory( 4 );
 	
 	static class Timer
 	{
@@ -83,6 +88,7 @@ public class Helper
 //		evaluateNotOptimised( program, expectedResults );
 		evaluateNaive( program, expectedResults );
 		evaluateSemiNaive( program, expectedResults );
+		evaluateParallelSemiNaive( program, expectedResults );
 		evaluateUnsafeRules( program, expectedResults );
 		evaluateWellFounded( program, expectedResults );
 		evaluateSemiNaiveAndOptimisations( program, expectedResults );
@@ -119,6 +125,15 @@ public class Helper
 		executeAndCheckResults( program, expectedResults, configuration, "Semi-Naive" );
 	}
 	
+	public static void evaluateParallelSemiNaive( String program, String expectedResults ) throws Exception
+	{
+		Configuration configuration = KnowledgeBaseFactory.getDefaultConfiguration();
+		
+		configuration.evaluationStrategyFactory = new StratifiedBottomUpEvaluationStrategyFactory( PARALLEL_SEMI_NAIVE );
+		
+		executeAndCheckResults( program, expectedResults, configuration, "Parallel Semi-Naive" );
+	}
+	
 	public static void evaluateUnsafeRules( String program, String expectedResults ) throws Exception
 	{
 		Configuration configuration = KnowledgeBaseFactory.getDefaultConfiguration();
@@ -165,6 +180,14 @@ public class Helper
 		executeAndCheckResults( program, expectedResults, configuration, "OLDT" );
 	}
 	
+	public static void evaluateSLG( String program, String expectedResults ) throws Exception
+	{
+		Configuration configuration = KnowledgeBaseFactory.getDefaultConfiguration();
+		configuration.evaluationStrategyFactory = new SLGEvaluationStrategyFactory();
+
+		executeAndCheckResults( program, expectedResults, configuration, "SLG" );
+	}
+	
 	public static void executeAndCheckResults( String program, String expected, Configuration configuration, String evaluationName ) throws Exception
 	{
 		Parser parser = new Parser();
@@ -0,0 +1,310 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.functional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.deri.iris.Configuration;
+import org.deri.iris.KnowledgeBaseFactory;
+import org.deri.iris.api.IIncrementalKnowledgeBase;
+import org.deri.iris.api.IKnowledgeBase;
+import org.deri.iris.api.basics.IPredicate;
+import org.deri.iris.api.basics.IQuery;
+import org.deri.iris.api.basics.IRule;
+import org.deri.iris.api.basics.ITuple;
+import org.deri.iris.compiler.Parser;
+import org.deri.iris.evaluation.IEvaluationStrategyFactory;
+import org.deri.iris.evaluation.stratifiedbottomup.StratifiedBottomUpEvaluationStrategyFactory;
+import org.deri.iris.evaluation.stratifiedbottomup.naive.NaiveEvaluatorFactory;
+import org.deri.iris.evaluation.stratifiedbottomup.seminaive.ParallelSemiNaiveEvaluatorFactory;
+import org.deri.iris.evaluation.stratifiedbottomup.seminaive.SemiNaiveEvaluatorFactory;
+import org.deri.iris.evaluation.topdown.oldt.OLDTEvaluationStrategyFactory;
+import org.deri.iris.storage.IRelation;
+import org.deri.iris.storage.simple.SimpleRelationFactory;
+
+/**
+ * Tests for adding and removing facts of an evaluated knowledge-base.
+ * Every update is checked against a knowledge-base evaluated from scratch.
+ */
+public class IncrementalUpdateTest extends TestCase
+{
+	private static final String TRANSITIVE_CLOSURE =
+		"tc(?X, ?Y) :- edge(?X, ?Y)." +
+		"tc(?X, ?Z) :- tc(?X, ?Y), edge(?Y, ?Z).";
+
+	public void testAddFacts() throws Exception
+	{
+		Program program = new Program( TRANSITIVE_CLOSURE + "edge(1, 2).", "?- tc(?X, ?Y)." );
+
+		program.add( "edge(2, 3). edge(3, 4)." );
+		program.add( "edge(0, 1)." );
+		program.add( "edge(0, 1)." );
+	}
+
+	public void testRemoveFactsFromCycle() throws Exception
+	{
+		Program program = new Program( TRANSITIVE_CLOSURE + "edge(1, 2). edge(2, 3). edge(3, 1). edge(3, 4).", "?- tc(?X, ?Y)." );
+
+		program.remove( "edge(3, 1)." );
+		program.add( "edge(4, 1)." );
+		program.remove( "edge(2, 3)." );
+		program.remove( "edge(5, 6)." );
+	}
+
+	public void testExplicitFactsOfDerivedPredicates() throws Exception
+	{
+		Program program = new Program( "p(?X) :- q(?X). r(?X) :- p(?X). p(1). q(1). q(2).", "?- r(?X)." );
+
+		program.remove( "p(1)." );
+		program.add( "p(1)." );
+		program.remove( "q(1)." );
+		program.remove( "p(1)." );
+		program.add( "p(3)." );
+	}
+
+	public void testNegation() throws Exception
+	{
+		Program program = new Program(
+						"q(?X) :- a(?X), not b(?X)." +
+						"r(?X) :- q(?X)." +
+						"s(?X) :- a(?X), not r(?X)." +
+						"a(1). a(2). a(3). b(2).", "?- s(?X)." );
+
+		program.add( "b(1)." );
+		program.remove( "b(2)." );
+		program.remove( "a(3)." );
+		program.add( "a(4). b(4)." );
+	}
+
+	public void testBuiltins() throws Exception
+	{
+		Program program = new Program(
+						"dist(?X, ?Y, 1) :- edge(?X, ?Y)." +
+						"dist(?X, ?Z, ?E) :- dist(?X, ?Y, ?D), edge(?Y, ?Z), ?D + 1 = ?E, ?E < 5." +
+						"edge(1, 2). edge(2, 3).", "?- dist(?X, ?Y, ?D)." );
+
+		program.add( "edge(3, 4). edge(4, 5). edge(5, 6)." );
+		program.remove( "edge(2, 3)." );
+	}
+
+	public void testRandomUpdates() throws Exception
+	{
+		String rules = TRANSITIVE_CLOSURE +
+			"node(?X) :- edge(?X, ?Y)." +
+			"node(?Y) :- edge(?X, ?Y)." +
+			"unreachable(?X, ?Y) :- node(?X), node(?Y), not tc(?X, ?Y).";
+
+		for( IEvaluationStrategyFactory factory : strategies() )
+		{
+			Random random = new Random( 17 );
+			Program program = new Program( rules, "?- unreachable(?X, ?Y).", factory );
+
+			for( int i = 0; i < 40; ++i )
+			{
+				String edge = "edge(" + random.nextInt( 8 ) + ", " + random.nextInt( 8 ) + ").";
+
+				if( random.nextInt( 3 ) == 0 )
+					program.remove( edge );
+				else
+					program.add( edge );
+			}
+		}
+	}
+
+	public void testUnsupportedStrategy() throws Exception
+	{
+		Configuration configuration = KnowledgeBaseFactory.getDefaultConfiguration();
+		configuration.evaluationStrategyFactory = new OLDTEvaluationStrategyFactory();
+
+		IIncrementalKnowledgeBase knowledgeBase = (IIncrementalKnowledgeBase) KnowledgeBaseFactory.createKnowledgeBase( parse( "edge(1, 2)." ).getFacts(), new ArrayList<IRule>(), configuration );
+
+		try
+		{
+			knowledgeBase.addFacts( parse( "edge(2, 3)." ).getFacts() );
+			fail( "UnsupportedOperationException expected" );
+		}
+		catch( UnsupportedOperationException e )
+		{
+		}
+	}
+
+	private static List<IEvaluationStrategyFactory> strategies()
+	{
+		List<IEvaluationStrategyFactory> factories = new ArrayList<IEvaluationStrategyFactory>();
+		factories.add( new StratifiedBottomUpEvaluationStrategyFactory( new SemiNaiveEvaluatorFactory() ) );
+		factories.add( new StratifiedBottomUpEvaluationStrategyFactory( new NaiveEvaluatorFactory() ) );
+		factories.add( new StratifiedBottomUpEvaluationStrategyFactory( new ParallelSemiNaiveEvaluatorFactory() ) );
+		return factories;
+	}
+
+	private static Parser parse( String program ) throws Exception
+	{
+		Parser parser = new Parser();
+		parser.parse( program );
+		return parser;
+	}
+
+	/**
+	 * A knowledge-base, which is updated incrementally, together with its
+	 * explicit facts, which are used to evaluate the expected model.
+	 */
+	private static class Program
+	{
+		Program( String program, String query ) throws Exception
+		{
+			this( program, query, new StratifiedBottomUpEvaluationStrategyFactory( new SemiNaiveEvaluatorFactory() ) );
+		}
+
+		Program( String program, String query, IEvaluationStrategyFactory factory ) throws Exception
+		{
+			Parser parser = parse( program + query );
+
+			mRules = parser.getRules();
+			mQuery = parser.getQueries().get( 0 );
+			mFactory = factory;
+
+			for( Map.Entry<IPredicate, IRelation> entry : parser.getFacts().entrySet() )
+				explicit( entry.getKey() ).addAll( tuples( entry.getValue() ) );
+
+			mKnowledgeBase = (IIncrementalKnowledgeBase) KnowledgeBaseFactory.createKnowledgeBase( relations(), mRules, configuration() );
+
+			check();
+		}
+
+		void add( String facts ) throws Exception
+		{
+			Map<IPredicate, IRelation> added = parse( facts ).getFacts();
+
+			for( Map.Entry<IPredicate, IRelation> entry : added.entrySet() )
+				explicit( entry.getKey() ).addAll( tuples( entry.getValue() ) );
+
+			mKnowledgeBase.addFacts( added );
+
+			check();
+		}
+
+		void remove( String facts ) throws Exception
+		{
+			Map<IPredicate, IRelation> removed = parse( facts ).getFacts();
+
+			for( Map.Entry<IPredicate, IRelation> entry : removed.entrySet() )
+				explicit( entry.getKey() ).removeAll( tuples( entry.getValue() ) );
+
+			mKnowledgeBase.removeFacts( removed );
+
+			check();
+		}
+
+		private void check() throws Exception
+		{
+			IKnowledgeBase expected = KnowledgeBaseFactory.createKnowledgeBase( relations(), mRules, configuration() );
+
+			for( IRule rule : mRules )
+			{
+				IPredicate predicate = rule.getHead().get( 0 ).getAtom().getPredicate();
+				IQuery query = parse( "?- " + predicate.getPredicateSymbol() + "(" + variables( predicate.getArity() ) + ")." ).getQueries().get( 0 );
+
+				assertEquals( predicate.toString(), tuples( expected.execute( query ) ), tuples( mKnowledgeBase.execute( query ) ) );
+			}
+
+			assertEquals( tuples( expected.execute( mQuery ) ), tuples( mKnowledgeBase.execute( mQuery ) ) );
+		}
+
+		private Configuration configuration()
+		{
+			Configuration configuration = KnowledgeBaseFactory.getDefaultConfiguration();
+			configuration.evaluationStrategyFactory = mFactory;
+			return configuration;
+		}
+
+		private Map<IPredicate, IRelation> relations()
+		{
+			Map<IPredicate, IRelation> result = new HashMap<IPredicate, IRelation>();
+
+			for( Map.Entry<IPredicate, Set<ITuple>> entry : mExplicitFacts.entrySet() )
+			{
+				IRelation relation = new SimpleRelationFactory().createRelation();
+				for( ITuple tuple : entry.getValue() )
+					relation.add( tuple );
+				result.put( entry.getKey(), relation );
+			}
+
+			return result;
+		}
+
+		private Set<ITuple> explicit( IPredicate predicate )
+		{
+			Set<ITuple> tuples = mExplicitFacts.get( predicate );
+
+			if( tuples == null )
+			{
+				tuples = new HashSet<ITuple>();
+				mExplicitFacts.put( predicate, tuples );
+			}
+
+			return tuples;
+		}
+
+		private static String variables( int arity )
+		{
+			StringBuilder result = new StringBuilder();
+
+			for( int i = 0; i < arity; ++i )
+			{
+				if( i > 0 )
+					result.append( ", " );
+				result.append( "?X" ).append( i );
+			}
+
+			return result.toString();
+		}
+
+		private static Set<ITuple> tuples( IRelation relation )
+		{
+			Set<ITuple> result = new HashSet<ITuple>();
+
+			for( int i = 0; i < relation.size(); ++i )
+				result.add( relation.get( i ) );
+
+			return result;
+		}
+
+		private final List<IRule> mRules;
+
+		private final IQuery mQuery;
+
+		private final IEvaluationStrategyFactory mFactory;
+
+		private final Map<IPredicate, Set<ITuple>> mExplicitFacts = new HashMap<IPredicate, Set<ITuple>>();
+
+		private final IIncrementalKnowledgeBase mKnowledgeBase;
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.functional;
+
+import junit.framework.TestCase;
+
+import org.deri.iris.Configuration;
+import org.deri.iris.EvaluationLimitExceededException;
+import org.deri.iris.KnowledgeBaseFactory;
+import org.deri.iris.compiler.Parser;
+import org.deri.iris.evaluation.IEvaluationStrategyFactory;
+import org.deri.iris.evaluation.stratifiedbottomup.StratifiedBottomUpEvaluationStrategyFactory;
+import org.deri.iris.evaluation.stratifiedbottomup.naive.NaiveEvaluatorFactory;
+import org.deri.iris.evaluation.stratifiedbottomup.seminaive.ParallelSemiNaiveEvaluatorFactory;
+import org.deri.iris.evaluation.stratifiedbottomup.seminaive.SemiNaiveEvaluatorFactory;
+import org.deri.iris.evaluation.topdown.oldt.OLDTEvaluationStrategyFactory;
+import org.deri.iris.evaluation.topdown.sldnf.SLDNFEvaluationStrategyFactory;
+import org.deri.iris.evaluation.wellfounded.WellFoundedEvaluationStrategyFactory;
+
+/**
+ * Tests for the evaluation resource limits of the configuration.
+ */
+public class ResourceLimitsTest extends TestCase
+{
+	/** A program that never stops generating new tuples. */
+	private static final String RUNAWAY =
+		"p(1)." +
+		"p(?Y) :- p(?X), ?X + 1 = ?Y." +
+		"?-p(?X).";
+
+	public void testTimeout() throws Exception
+	{
+		for( IEvaluationStrategyFactory factory : bottomUpStrategies() )
+		{
+			Configuration configuration = KnowledgeBaseFactory.getDefaultConfiguration();
+			configuration.evaluationStrategyFactory = factory;
+			configuration.evaluationTimeoutMilliseconds = 200;
+
+			EvaluationLimitExceededException e = checkLimitExceeded( RUNAWAY, configuration );
+
+			assertEquals( EvaluationLimitExceededException.Limit.TIME, e.getLimit() );
+			assertTrue( e.getElapsedMilliseconds() >= 200 );
+			assertTrue( e.getTuples() > 0 );
+			assertTrue( e.getIterations() > 0 );
+		}
+	}
+
+	public void testMaxTuples() throws Exception
+	{
+		for( IEvaluationStrategyFactory factory : bottomUpStrategies() )
+		{
+			Configuration configuration = KnowledgeBaseFactory.getDefaultConfiguration();
+			configuration.evaluationStrategyFactory = factory;
+			configuration.evaluationMaxTuples = 100;
+
+			EvaluationLimitExceededException e = checkLimitExceeded( RUNAWAY, configuration );
+
+			assertEquals( EvaluationLimitExceededException.Limit.TUPLES, e.getLimit() );
+			assertTrue( e.getTuples() > 100 );
+		}
+	}
+
+	public void testMaxComplexity() throws Exception
+	{
+		String program =
+			"p('a')." +
+			"p(f(?X)) :- p(?X)." +
+			"?-p(?X).";
+
+		for( IEvaluationStrategyFactory factory : bottomUpStrategies() )
+		{
+			Configuration configuration = KnowledgeBaseFactory.getDefaultConfiguration();
+			configuration.evaluationStrategyFactory = factory;
+			configuration.evaluationMaxComplexity = 5;
+
+			EvaluationLimitExceededException e = checkLimitExceeded( program, configuration );
+
+			assertEquals( EvaluationLimitExceededException.Limit.COMPLEXITY, e.getLimit() );
+			assertEquals( 5, e.getTuples() );
+		}
+	}
+
+	public void testMaxTuplesTopDown() throws Exception
+	{
+		StringBuilder program = new StringBuilder();
+
+		for( int i = 0; i < 40; ++i )
+			program.append( "p(" + i + ")." );
+
+		program.append( "q(?X) :- p(?X)." );
+		program.append( "?-q(?X)." );
+
+		IEvaluationStrategyFactory[] factories = {
+			new SLDNFEvaluationStrategyFactory(),
+			new OLDTEvaluationStrategyFactory()
+		};
+
+		for( IEvaluationStrategyFactory factory : factories )
+		{
+			Configuration configuration = KnowledgeBaseFactory.getDefaultConfiguration();
+			configuration.evaluationStrategyFactory = factory;
+			configuration.evaluationMaxTuples = 20;
+
+			EvaluationLimitExceededException e = checkLimitExceeded( program.toString(), configuration );
+
+			assertEquals( EvaluationLimitExceededException.Limit.TUPLES, e.getLimit() );
+		}
+	}
+
+	public void testLimitsNotExceeded() throws Exception
+	{
+		String program =
+			"p(1)." +
+			"p(?Y) :- p(?X), ?X + 1 = ?Y, ?Y < 10." +
+			"?-p(?X).";
+
+		for( IEvaluationStrategyFactory factory : bottomUpStrategies() )
+		{
+			Configuration configuration = KnowledgeBaseFactory.getDefaultConfiguration();
+			configuration.evaluationStrategyFactory = factory;
+			configuration.evaluationTimeoutMilliseconds = 60000;
+			configuration.evaluationMaxTuples = 100;
+			configuration.evaluationMaxComplexity = 1;
+
+			Helper.executeAndCheckResults( program, "p(1). p(2). p(3). p(4). p(5). p(6). p(7). p(8). p(9).", configuration, "Limits not exceeded" );
+		}
+	}
+
+	private static IEvaluationStrategyFactory[] bottomUpStrategies()
+	{
+		return new IEvaluationStrategyFactory[] {
+			new StratifiedBottomUpEvaluationStrategyFactory( new NaiveEvaluatorFactory() ),
+			new StratifiedBottomUpEvaluationStrategyFactory( new SemiNaiveEvaluatorFactory() ),
+			new StratifiedBottomUpEvaluationStrategyFactory( new ParallelSemiNaiveEvaluatorFactory( 2 ) ),
+			new WellFoundedEvaluationStrategyFactory()
+		};
+	}
+
+	/**
+	 * Evaluate a program and expect it to exceed a resource limit.
+	 * @param program The logic program.
+	 * @param configuration The configuration with the resource limits.
+	 * @return The exception thrown.
+	 */
+	private static EvaluationLimitExceededException checkLimitExceeded( String program, Configuration configuration ) throws Exception
+	{
+		Parser parser = new Parser();
+		parser.parse( program );
+
+		try
+		{
+			KnowledgeBaseFactory.createKnowledgeBase( parser.getFacts(), parser.getRules(), configuration )
+				.execute( parser.getQueries().get( 0 ) );
+
+			fail( "Evaluation did not exceed the limit with " + configuration.evaluationStrategyFactory );
+		}
+		catch( EvaluationLimitExceededException e )
+		{
+			return e;
+		}
+
+		return null;
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.functional;
+
+import junit.framework.TestCase;
+
+import org.deri.iris.Configuration;
+import org.deri.iris.KnowledgeBaseFactory;
+import org.deri.iris.evaluation.topdown.sldnf.SLDNFEvaluationStrategyFactory;
+
+/**
+ * Tests the tabled (SLG) top-down evaluation.
+ */
+public class SLGEvaluationTest extends TestCase
+{
+	public void testLeftRecursion() throws Exception
+	{
+		String program =
+			"r(1, 2)." +
+			"r(1, 3)." +
+			"r(2, 1)." +
+			"r(2, 4)." +
+			
+			"s(?X, ?Y) :- s(?X, ?Z), r(?Z, ?Y)." +
+			"s(?X, ?Y) :- r(?X, ?Y)." +
+			"?- s(1, ?Y).";
+		
+		Helper.evaluateSLG( program, "dummy(1). dummy(2). dummy(3). dummy(4)." );
+	}
+	
+	public void testCyclicTransitiveClosure() throws Exception
+	{
+		String program =
+			"e('a', 'b')." +
+			"e('b', 'c')." +
+			"e('c', 'a')." +
+			"e('c', 'd')." +
+			
+			"path(?X, ?Y) :- e(?X, ?Y)." +
+			"path(?X, ?Y) :- path(?X, ?Z), path(?Z, ?Y)." +
+			"?- path('d', ?Y), path(?Y, 'a').";
+		
+		Helper.evaluateSLG( program, "" );
+		Helper.evaluateSLG( program.replace( "path('d', ?Y)", "path('b', ?Y)" ),
+			"dummy('a'). dummy('b'). dummy('c')." );
+	}
+	
+	public void testSharedVariables() throws Exception
+	{
+		String program =
+			"e(1, 2)." +
+			"e(2, 1)." +
+			"e(2, 3)." +
+			
+			"path(?X, ?Y) :- e(?X, ?Y)." +
+			"path(?X, ?Y) :- e(?X, ?Z), path(?Z, ?Y)." +
+			"?- path(?X, ?X).";
+		
+		Helper.evaluateSLG( program, "dummy(1). dummy(2)." );
+	}
+	
+	public void testBuiltins() throws Exception
+	{
+		String program =
+			"n(0)." +
+			
+			"n(?Y) :- n(?X), ?X < 5, ?X + 1 = ?Y." +
+			"?- n(?X), ?X > 3.";
+		
+		Helper.evaluateSLG( program, "dummy(4). dummy(5)." );
+	}
+	
+	public void testStratifiedNegation() throws Exception
+	{
+		String program =
+			"s('a')." +
+			"s('b')." +
+			"s('c')." +
+			"e('a', 'b')." +
+			"e('b', 'a')." +
+			
+			"reach(?X, ?Y) :- e(?X, ?Y)." +
+			"reach(?X, ?Y) :- reach(?X, ?Z), e(?Z, ?Y)." +
+			"alone(?X) :- s(?X), not reach(?X, ?X)." +
+			"?- alone(?X).";
+		
+		Helper.evaluateSLG( program, "dummy('c')." );
+	}
+	
+	public void testWellFoundedNegation() throws Exception
+	{
+		String program =
+			"p(?x) :- t(?x, ?y, ?z), not p(?y), not p(?z)." +
+			"p('b') :- not r('a')." +
+			"t( 'a', 'a', 'b')." +
+			"t( 'a', 'b', 'a')." +
+			"?- p(?x).";
+		
+		Helper.evaluateSLG( program, "dummy('b')." );
+	}
+	
+	public void testUndefinedAnswers() throws Exception
+	{
+		String program =
+			"p('a') :- q('a'), not r('a')." +
+			"q('a') :- not p('a')." +
+			"r('a')." +
+			"s('a') :- not s('a')." +
+			"u('a') :- not v('a')." +
+			"v('a') :- not u('a')." +
+			"w('a') :- w('a').";
+		
+		Helper.evaluateSLG( program + "?- p(?x).", "" );
+		Helper.evaluateSLG( program + "?- q(?x).", "dummy('a')." );
+		Helper.evaluateSLG( program + "?- s(?x).", "" );
+		Helper.evaluateSLG( program + "?- u(?x).", "" );
+		Helper.evaluateSLG( program + "?- w(?x).", "" );
+		Helper.evaluateSLG( program + "?- q('a'), not w('a').", "dummy()." );
+	}
+	
+	public void testTablingWithSLDNFFactory() throws Exception
+	{
+		String program =
+			"e(1, 2)." +
+			"e(2, 1)." +
+			
+			"path(?X, ?Y) :- path(?X, ?Z), e(?Z, ?Y)." +
+			"path(?X, ?Y) :- e(?X, ?Y)." +
+			"?- path(1, ?Y).";
+		
+		Configuration configuration = KnowledgeBaseFactory.getDefaultConfiguration();
+		configuration.evaluationStrategyFactory = new SLDNFEvaluationStrategyFactory( true );
+		
+		Helper.executeAndCheckResults( program, "dummy(1). dummy(2).", configuration, "SLDNF with tabling" );
+	}
+}
@@ -0,0 +1,208 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.functional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.deri.iris.Configuration;
+import org.deri.iris.KnowledgeBaseFactory;
+import org.deri.iris.api.IKnowledgeBase;
+import org.deri.iris.api.IResultConsumer;
+import org.deri.iris.api.basics.IQuery;
+import org.deri.iris.api.basics.ITuple;
+import org.deri.iris.api.terms.IVariable;
+import org.deri.iris.compiler.Parser;
+import org.deri.iris.evaluation.topdown.oldt.OLDTEvaluationStrategyFactory;
+import org.deri.iris.evaluation.wellfounded.WellFoundedEvaluationStrategyFactory;
+import org.deri.iris.optimisations.magicsets.MagicSets;
+import org.deri.iris.storage.IRelation;
+
+/**
+ * Tests for streaming the results of a query to an IResultConsumer.
+ */
+public class StreamingQueryTest extends TestCase
+{
+	private static final String PROGRAM =
+		"edge(1, 2). edge(2, 3). edge(3, 4). edge(4, 5). edge(5, 1). edge(6, 7)." +
+		"tc(?X, ?Y) :- edge(?X, ?Y)." +
+		"tc(?X, ?Z) :- tc(?X, ?Y), edge(?Y, ?Z).";
+
+	public void testStratifiedBottomUp() throws Exception
+	{
+		checkStreamedResults( KnowledgeBaseFactory.getDefaultConfiguration() );
+	}
+
+	public void testWellFounded() throws Exception
+	{
+		Configuration configuration = KnowledgeBaseFactory.getDefaultConfiguration();
+		configuration.evaluationStrategyFactory = new WellFoundedEvaluationStrategyFactory();
+
+		checkStreamedResults( configuration );
+	}
+
+	public void testMagicSets() throws Exception
+	{
+		Configuration configuration = KnowledgeBaseFactory.getDefaultConfiguration();
+		configuration.programOptmimisers.add( new MagicSets() );
+
+		checkStreamedResults( configuration );
+	}
+
+	public void testNonStreamingStrategy() throws Exception
+	{
+		Configuration configuration = KnowledgeBaseFactory.getDefaultConfiguration();
+		configuration.evaluationStrategyFactory = new OLDTEvaluationStrategyFactory();
+
+		checkStreamedResults( configuration );
+	}
+
+	public void testEarlyTermination() throws Exception
+	{
+		Parser parser = parse( PROGRAM + "?- tc(?X, ?Y)." );
+		IKnowledgeBase knowledgeBase = KnowledgeBaseFactory.createKnowledgeBase( parser.getFacts(), parser.getRules() );
+
+		Collector collector = new Collector( 3 );
+		assertFalse( knowledgeBase.execute( parser.getQueries().get( 0 ), null, collector ) );
+		assertEquals( 3, collector.mTuples.size() );
+	}
+
+	public void testNoResults() throws Exception
+	{
+		Parser parser = parse( PROGRAM + "?- tc(7, ?Y)." );
+		IKnowledgeBase knowledgeBase = KnowledgeBaseFactory.createKnowledgeBase( parser.getFacts(), parser.getRules() );
+
+		Collector collector = new Collector( Integer.MAX_VALUE );
+		assertTrue( knowledgeBase.execute( parser.getQueries().get( 0 ), null, collector ) );
+		assertTrue( collector.mTuples.isEmpty() );
+	}
+
+	public void testRuleHeadEqualityPipelined() throws Exception
+	{
+		Configuration configuration = KnowledgeBaseFactory.getDefaultConfiguration();
+		configuration.ruleElementPipelining = true;
+
+		checkRuleHeadEquality( configuration );
+	}
+
+	public void testRuleHeadEqualityMaterialised() throws Exception
+	{
+		Configuration configuration = KnowledgeBaseFactory.getDefaultConfiguration();
+		configuration.ruleElementPipelining = false;
+
+		checkRuleHeadEquality( configuration );
+	}
+
+	/**
+	 * Check that equivalent tuples, which produce the same combinations of
+	 * equivalent terms, are streamed only once.
+	 */
+	private static void checkRuleHeadEquality( Configuration configuration ) throws Exception
+	{
+		Parser parser = parse( "p('a'). p('b'). same('a', 'b')." +
+				"?X = ?Y :- same(?X, ?Y)." +
+				"?- p(?X)." );
+		IQuery q = parser.getQueries().get( 0 );
+
+		IKnowledgeBase knowledgeBase = KnowledgeBaseFactory.createKnowledgeBase( parser.getFacts(), parser.getRules(), configuration );
+		IRelation expected = knowledgeBase.execute( q, new ArrayList<IVariable>() );
+
+		Collector collector = new Collector( Integer.MAX_VALUE );
+		assertTrue( knowledgeBase.execute( q, new ArrayList<IVariable>(), collector ) );
+
+		assertEquals( 2, expected.size() );
+		assertEquals( tuples( expected ), new HashSet<ITuple>( collector.mTuples ) );
+		assertEquals( expected.size(), collector.mTuples.size() );
+	}
+
+	/**
+	 * Check that the streamed results of several queries are the same as the
+	 * results of the materialising execute().
+	 */
+	private static void checkStreamedResults( Configuration configuration ) throws Exception
+	{
+		String[] queries = { "?- tc(?X, ?Y).", "?- tc(1, ?Y).", "?- tc(?X, 3).", "?- tc(6, 7).", "?- tc(7, ?Y)." };
+
+		for( String query : queries )
+		{
+			Parser parser = parse( PROGRAM + query );
+			IQuery q = parser.getQueries().get( 0 );
+
+			IKnowledgeBase expectedKnowledgeBase = KnowledgeBaseFactory.createKnowledgeBase( parser.getFacts(), parser.getRules(), configuration );
+			List<IVariable> expectedBindings = new ArrayList<IVariable>();
+			IRelation expected = expectedKnowledgeBase.execute( q, expectedBindings );
+
+			IKnowledgeBase knowledgeBase = KnowledgeBaseFactory.createKnowledgeBase( parser.getFacts(), parser.getRules(), configuration );
+			List<IVariable> bindings = new ArrayList<IVariable>();
+			Collector collector = new Collector( Integer.MAX_VALUE );
+
+			assertTrue( knowledgeBase.execute( q, bindings, collector ) );
+			assertEquals( query, expectedBindings, bindings );
+			assertEquals( query, tuples( expected ), new HashSet<ITuple>( collector.mTuples ) );
+			assertEquals( query, expected.size(), collector.mTuples.size() );
+		}
+	}
+
+	private static Set<ITuple> tuples( IRelation relation )
+	{
+		Set<ITuple> tuples = new HashSet<ITuple>();
+
+		for( int i = 0; i < relation.size(); ++i )
+			tuples.add( relation.get( i ) );
+
+		return tuples;
+	}
+
+	private static Parser parse( String program ) throws Exception
+	{
+		Parser parser = new Parser();
+		parser.parse( program );
+		return parser;
+	}
+
+	/**
+	 * Collects the streamed tuples, up to a limit.
+	 */
+	private static class Collector implements IResultConsumer
+	{
+		Collector( int limit )
+		{
+			mLimit = limit;
+		}
+
+		public boolean consume( ITuple tuple )
+		{
+			mTuples.add( tuple );
+
+			return mTuples.size() < mLimit;
+		}
+
+		private final int mLimit;
+
+		final List<ITuple> mTuples = new ArrayList<ITuple>();
+	}
+}
@@ -37,4 +37,19 @@ public class UnsafeRulesTest extends TestCase
 		
 		Helper.evaluateUnsafeRules( program, "dummy(1)." );
 	}
+
+	/**
+	 * The second variable is bound by the built-in, so the universe is only
+	 * enumerated for the first one. The bound sum must still be in the universe.
+	 */
+	public void testBuiltinBindsUnlimitedVariable() throws Exception
+	{
+		String program =
+			"n(1). n(2). n(3). n(4)." +
+			"sum( ?x, ?y ) :- ?x + ?y = 5." +
+	
+			"?- sum(?x, ?y).";
+		
+		Helper.evaluateUnsafeRules( program, "dummy(1, 4). dummy(2, 3). dummy(3, 2). dummy(4, 1)." );
+	}
 }
@@ -0,0 +1,172 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.rules.optimisation;
+
+import static org.deri.iris.factory.Factory.BASIC;
+import static org.deri.iris.factory.Factory.CONCRETE;
+import static org.deri.iris.factory.Factory.TERM;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import junit.framework.TestCase;
+
+import org.deri.iris.Configuration;
+import org.deri.iris.api.basics.IAtom;
+import org.deri.iris.api.basics.ILiteral;
+import org.deri.iris.api.basics.IPredicate;
+import org.deri.iris.api.basics.IRule;
+import org.deri.iris.api.terms.IVariable;
+import org.deri.iris.compiler.Parser;
+import org.deri.iris.evaluation.stratifiedbottomup.EvaluationUtilities;
+import org.deri.iris.facts.Facts;
+import org.deri.iris.facts.IFacts;
+import org.deri.iris.storage.IRelation;
+import org.deri.iris.storage.simple.SimpleRelationFactory;
+
+public class CostBasedReOrderLiteralsOptimiserTest extends TestCase
+{
+	private IFacts mFacts;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		mFacts = new Facts( new SimpleRelationFactory() );
+
+		// big( i, i mod 100 ) for 1000 tuples
+		IRelation big = mFacts.get( BASIC.createPredicate( "big", 2 ) );
+		for( int i = 0; i < 1000; ++i )
+			big.add( BASIC.createTuple( CONCRETE.createInteger( i ), CONCRETE.createInteger( i % 100 ) ) );
+
+		IRelation tiny = mFacts.get( BASIC.createPredicate( "tiny", 2 ) );
+		tiny.add( BASIC.createTuple( CONCRETE.createInteger( 1 ), CONCRETE.createInteger( 2 ) ) );
+		tiny.add( BASIC.createTuple( CONCRETE.createInteger( 3 ), CONCRETE.createInteger( 4 ) ) );
+	}
+
+	private IRule parseRule( String program ) throws Exception
+	{
+		Parser parser = new Parser();
+		parser.parse( program );
+		return parser.getRules().get( 0 );
+	}
+
+	private String body( IRule rule )
+	{
+		StringBuilder result = new StringBuilder();
+
+		for( ILiteral literal : rule.getBody() )
+		{
+			if( result.length() > 0 )
+				result.append( ", " );
+			result.append( literal );
+		}
+
+		return result.toString();
+	}
+
+	public void testSmallRelationFirst() throws Exception
+	{
+		IRule rule = parseRule( "p(?X, ?Z) :- big(?X, ?Y), tiny(?Y, ?Z)." );
+
+		IRule optimised = new CostBasedReOrderLiteralsOptimiser().optimise( rule, mFacts );
+
+		assertEquals( "tiny(?Y, ?Z), big(?X, ?Y)", body( optimised ) );
+	}
+
+	public void testConstantsAreSelective() throws Exception
+	{
+		// Only one tuple of big matches the constant, fewer than the two tuples of tiny.
+		IRule rule = parseRule( "p(?Y, ?Z) :- tiny(?Y, ?Z), big(5, ?Y)." );
+
+		IRule optimised = new CostBasedReOrderLiteralsOptimiser().optimise( rule, mFacts );
+
+		assertEquals( "big(5, ?Y), tiny(?Y, ?Z)", body( optimised ) );
+	}
+
+	public void testConnectedLiteralsBeforeCrossProducts() throws Exception
+	{
+		IRule rule = parseRule( "p(?X, ?Z, ?A) :- big(?X, ?Y), tiny(?A, ?B), big(?Y, ?Z)." );
+
+		IRule optimised = new CostBasedReOrderLiteralsOptimiser().optimise( rule, mFacts );
+
+		// The first join with big is connected, so it comes before the second one.
+		assertEquals( "tiny(?A, ?B), big(?X, ?Y), big(?Y, ?Z)", body( optimised ) );
+	}
+
+	public void testBuiltinsAndNegationStaySafe() throws Exception
+	{
+		IRule rule = parseRule( "p(?X, ?Z) :- ?X > 5, not q(?Z), big(?X, ?Y), tiny(?Y, ?Z)." );
+
+		IRule optimised = new CostBasedReOrderLiteralsOptimiser().optimise( rule, mFacts );
+
+		assertEquals( "tiny(?Y, ?Z), !q(?Z), big(?X, ?Y), GREATER(?X, 5)", body( optimised ) );
+	}
+
+	public void testWithoutFactsLikeReOrderLiteralsOptimiser() throws Exception
+	{
+		IRule rule = parseRule( "p(?X, ?Z) :- ?X > 5, big(?X, ?Y), tiny(?Y, ?Z), not q(?Z)." );
+
+		assertEquals( new ReOrderLiteralsOptimiser().optimise( rule ),
+						new CostBasedReOrderLiteralsOptimiser().optimise( rule ) );
+	}
+
+	public void testDistinctValues()
+	{
+		IPredicate big = BASIC.createPredicate( "big", 2 );
+
+		RelationStatistics exact = new RelationStatistics( mFacts );
+		assertEquals( 1000, exact.cardinality( big ) );
+		assertEquals( 1000.0, exact.distinctValues( big, 0 ) );
+		assertEquals( 100.0, exact.distinctValues( big, 1 ) );
+
+		// A sample of 100 tuples sees every 10th tuple.
+		RelationStatistics sampled = new RelationStatistics( mFacts, 100 );
+		assertTrue( sampled.distinctValues( big, 0 ) > 100 );
+		assertTrue( sampled.distinctValues( big, 1 ) <= 100 );
+	}
+
+	public void testEstimateMatches()
+	{
+		IVariable x = TERM.createVariable( "X" );
+		IVariable y = TERM.createVariable( "Y" );
+		IAtom atom = BASIC.createAtom( BASIC.createPredicate( "big", 2 ), BASIC.createTuple( x, y ) );
+
+		RelationStatistics statistics = new RelationStatistics( mFacts );
+
+		assertEquals( 1000.0, statistics.estimateMatches( atom, Collections.<IVariable>emptySet() ) );
+		assertEquals( 10.0, statistics.estimateMatches( atom, new HashSet<IVariable>( Arrays.asList( y ) ) ) );
+	}
+
+	public void testStatisticsSharedPerEvaluation()
+	{
+		EvaluationUtilities utils = new EvaluationUtilities( new Configuration() );
+
+		RelationStatistics statistics = utils.getRelationStatistics( mFacts );
+		assertSame( statistics, utils.getRelationStatistics( mFacts ) );
+		assertSame( mFacts, statistics.getFacts() );
+
+		IFacts otherFacts = new Facts( new SimpleRelationFactory() );
+		assertSame( otherFacts, utils.getRelationStatistics( otherFacts ).getFacts() );
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.storage.columnar;
+
+import junit.framework.TestCase;
+
+import org.deri.iris.api.basics.ITuple;
+import org.deri.iris.rules.compiler.Helper;
+import org.deri.iris.storage.IRelation;
+import org.deri.iris.storage.simple.SimpleRelationFactory;
+
+public class TestColumnarRelation extends TestCase
+{
+	ColumnarRelationFactory mFactory;
+
+	IRelation mRelation;
+	
+	protected void setUp() throws Exception
+	{
+		mFactory = new ColumnarRelationFactory();
+		mRelation = mFactory.createRelation();
+	}
+	
+	public void testAll()
+	{
+		// Ensure the relation is empty
+		assertEquals( mRelation.size(), 0 );
+		
+		// Insert a new tuple
+		ITuple t1 = Helper.createTuple( 2, 1 );
+		mRelation.add( t1 );
+		assertEquals( mRelation.size(), 1 );
+		assertEquals( mRelation.get( 0 ), t1 );
+
+		// Try adding same tuple again and it should not accept it
+		assertFalse( mRelation.add( t1 ) );
+		assertEquals( mRelation.size(), 1 );
+		assertEquals( mRelation.get( 0 ), t1 );
+
+		// Add a new tuple
+		ITuple t2 = Helper.createTuple( 2, 2 );
+		mRelation.add( t2 );
+		assertEquals( mRelation.size(), 2 );
+		assertEquals( mRelation.get( 0 ), t1 );
+		assertEquals( mRelation.get( 1 ), t2 );
+
+		assertTrue( mRelation.contains( t1 ) );
+		assertFalse( mRelation.contains( Helper.createTuple( 1, 2 ) ) );
+		assertFalse( mRelation.contains( Helper.createTuple( 2, 3 ) ) );
+
+		// Create a new relation and check that addAll() works.
+		IRelation r2 = mFactory.createRelation();
+		r2.addAll( mRelation );
+		assertEquals( r2.size(), 2 );
+		assertEquals( r2.get( 0 ), t1 );
+		assertEquals( r2.get( 1 ), t2 );
+		
+		// Now check that it is not possible to add t1 and t2 to the new relation.
+		r2.add( t1 );
+		r2.add( t2 );
+		assertEquals( r2.size(), 2 );
+	}
+
+	public void testAddAllFromOtherRelationTypes()
+	{
+		IRelation simple = new SimpleRelationFactory().createRelation();
+		simple.add( Helper.createTuple( 1, "a" ) );
+		simple.add( Helper.createTuple( 2, "b" ) );
+
+		mRelation.add( Helper.createTuple( 1, "a" ) );
+
+		assertTrue( mRelation.addAll( simple ) );
+		assertEquals( 2, mRelation.size() );
+		assertFalse( mRelation.addAll( simple ) );
+
+		// Relations with their own dictionary are copied term by term.
+		IRelation other = new ColumnarRelationFactory().createRelation();
+		other.addAll( mRelation );
+		assertEquals( 2, other.size() );
+		assertTrue( other.contains( Helper.createTuple( 2, "b" ) ) );
+	}
+
+	public void testGrowth()
+	{
+		final int count = 10000;
+
+		for( int i = 0; i < count; ++i )
+			assertTrue( mRelation.add( Helper.createTuple( i, i % 7, "x" ) ) );
+
+		for( int i = 0; i < count; ++i )
+			assertFalse( mRelation.add( Helper.createTuple( i, i % 7, "x" ) ) );
+
+		assertEquals( count, mRelation.size() );
+		assertEquals( Helper.createTuple( 1234, 1234 % 7, "x" ), mRelation.get( 1234 ) );
+		assertTrue( mRelation.contains( Helper.createTuple( count - 1, ( count - 1 ) % 7, "x" ) ) );
+		assertFalse( mRelation.contains( Helper.createTuple( count, count % 7, "x" ) ) );
+
+		// Terms are interned only once.
+		assertEquals( count + 1, mFactory.getDictionary().size() );
+	}
+
+	public void testEmptyTuple()
+	{
+		assertTrue( mRelation.add( Helper.createTuple() ) );
+		assertFalse( mRelation.add( Helper.createTuple() ) );
+		assertEquals( 1, mRelation.size() );
+		assertEquals( 0, mRelation.get( 0 ).size() );
+		assertTrue( mRelation.contains( Helper.createTuple() ) );
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.storage.columnar;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.deri.iris.api.terms.ITerm;
+import org.deri.iris.rules.compiler.Helper;
+
+public class TestTermDictionary extends TestCase
+{
+	public void testIntern()
+	{
+		TermDictionary dictionary = new TermDictionary();
+
+		ITerm a = Helper.createTerm( 1 );
+		ITerm b = Helper.createTerm( 2 );
+
+		int id = dictionary.intern( a );
+
+		assertEquals( id, dictionary.intern( Helper.createTerm( 1 ) ) );
+		assertEquals( id, dictionary.lookup( a ) );
+		assertEquals( -1, dictionary.lookup( b ) );
+		assertEquals( a, dictionary.getTerm( id ) );
+		assertEquals( 1, dictionary.size() );
+	}
+
+	public void testConcurrentIntern() throws Exception
+	{
+		final TermDictionary dictionary = new TermDictionary();
+		final int terms = 5000;
+
+		List<Thread> threads = new ArrayList<Thread>();
+		final List<Throwable> failures = new ArrayList<Throwable>();
+
+		for( int t = 0; t < 4; ++t )
+		{
+			Thread thread = new Thread()
+			{
+				public void run()
+				{
+					try
+					{
+						for( int i = 0; i < terms; ++i )
+						{
+							ITerm term = Helper.createTerm( i );
+							int id = dictionary.intern( term );
+
+							if( ! term.equals( dictionary.getTerm( id ) ) )
+								throw new AssertionError( "Wrong term for id " + id );
+						}
+					}
+					catch( Throwable e )
+					{
+						synchronized( failures )
+						{
+							failures.add( e );
+						}
+					}
+				}
+			};
+			threads.add( thread );
+			thread.start();
+		}
+
+		for( Thread thread : threads )
+			thread.join();
+
+		assertEquals( "[]", failures.toString() );
+
+		// Every term got exactly one identifier.
+		assertEquals( terms, dictionary.size() );
+		for( int i = 0; i < terms; ++i )
+			assertEquals( Helper.createTerm( i ), dictionary.getTerm( dictionary.lookup( Helper.createTerm( i ) ) ) );
+	}
+}
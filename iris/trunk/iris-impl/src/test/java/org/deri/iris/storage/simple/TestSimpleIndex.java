@@ -33,6 +33,8 @@ import org.deri.iris.rules.compiler.Helper;
 import org.deri.iris.rules.compiler.Utils;
 import org.deri.iris.rules.compiler.View;
 import org.deri.iris.storage.IRelation;
+import org.deri.iris.utils.equivalence.IEquivalentTerms;
+import org.deri.iris.utils.equivalence.TermEquivalence;
 
 public class TestSimpleIndex extends TestCase
 {
@@ -91,4 +93,26 @@ public class TestSimpleIndex extends TestCase
 		
 		assertEquals( 0, matchingTuples.size() );
 	}
+
+	public void testEquivalentTerms()
+	{
+		IEquivalentTerms equivalentTerms = new TermEquivalence();
+		SimpleIndex index = new SimpleIndex( mRelation, equivalentTerms, 0, 1 );
+
+		assertEquals( 3, index.get( makeKey( 1, 1 ) ).size() );
+		assertEquals( 1, index.get( makeKey( 1, 2 ) ).size() );
+
+		// Merging the keys (1, 1) and (1, 2) merges their tuples.
+		equivalentTerms.setEquivalent( Helper.createTerm( 1 ), Helper.createTerm( 2 ) );
+
+		assertEquals( 5, index.get( makeKey( 1, 1 ) ).size() );
+		assertEquals( 5, index.get( makeKey( 2, 1 ) ).size() );
+
+		// New tuples are indexed using the current representatives.
+		mRelation.add( Helper.createTuple( 3, 2, 3 ) );
+		equivalentTerms.setEquivalent( Helper.createTerm( 3 ), Helper.createTerm( 4 ) );
+
+		assertEquals( 1, index.get( makeKey( 4, 1 ) ).size() );
+		assertEquals( 5, index.get( makeKey( 2, 2 ) ).size() );
+	}
 }
@@ -0,0 +1,95 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.terms;
+
+import java.math.BigDecimal;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.deri.iris.api.terms.ITerm;
+import org.deri.iris.factory.Factory;
+
+/**
+ * <p>
+ * Tests the interning of terms created by the term factories.
+ * </p>
+ */
+public class TermInternerTest extends TestCase {
+
+	public static Test suite() {
+		return new TestSuite(TermInternerTest.class, TermInternerTest.class
+				.getSimpleName());
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		TermInterner.setEnabled(true);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		TermInterner.setEnabled(false);
+	}
+
+	public void testCanonicalInstances() {
+		assertSame("Strings must be interned", Factory.TERM
+				.createString("a"), Factory.TERM.createString("a"));
+		assertSame("Iris must be interned", Factory.CONCRETE
+				.createIri("http://www.example.org/a"), Factory.CONCRETE
+				.createIri("http://www.example.org/a"));
+		assertSame("Integers must be interned", Factory.CONCRETE
+				.createInteger(42), Factory.CONCRETE.createInteger(42L));
+		assertNotSame("Different values must not be merged", Factory.TERM
+				.createString("a"), Factory.TERM.createString("b"));
+	}
+
+	public void testTypesAreKept() {
+		final ITerm integer = Factory.CONCRETE.createInteger(1);
+		final ITerm decimal = Factory.CONCRETE.createDecimal(1);
+		final ITerm lng = Factory.CONCRETE.createLong(1);
+
+		assertEquals("The terms must be equal", integer, decimal);
+		assertSame("The integer must keep its type", integer.getClass(),
+				Factory.CONCRETE.createInteger(1).getClass());
+		assertSame("The long must keep its type", lng.getClass(),
+				Factory.CONCRETE.createLong(1).getClass());
+	}
+
+	public void testDecimalsAreNotInterned() {
+		final ITerm one = Factory.CONCRETE.createDecimal(new BigDecimal("1.0"));
+		final ITerm other = Factory.CONCRETE
+				.createDecimal(new BigDecimal("1.00"));
+
+		assertEquals("The decimals must be equal", one, other);
+		assertEquals("The representation must be kept", "1.00", other
+				.toString());
+	}
+
+	public void testDisabled() {
+		TermInterner.setEnabled(false);
+		assertNotSame("Terms must not be interned", Factory.TERM
+				.createString("a"), Factory.TERM.createString("a"));
+	}
+}
@@ -22,6 +22,9 @@
  */
 package org.deri.iris.terms.concrete;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
 import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
@@ -74,6 +77,31 @@ public class IntegerTest extends TestCase {
 				BASIC));
 	}
 
+	public void testCompactHashCode() {
+		long[] values = { 0, 1, -1, 42, -42, Integer.MAX_VALUE,
+				Integer.MIN_VALUE, 1L << 32, -(1L << 32) - 7, Long.MAX_VALUE,
+				Long.MIN_VALUE + 1, Long.MIN_VALUE };
+
+		for (long value : values) {
+			assertEquals(Long.toString(value), BigDecimal.valueOf(value)
+					.hashCode(), new IntegerTerm(value).hashCode());
+			assertEquals(Long.toString(value),
+					new IntegerTerm(BigInteger.valueOf(value)).getValue()
+							.hashCode(), new IntegerTerm(value).hashCode());
+		}
+	}
+
+	public void testBigValues() {
+		BigInteger big = BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE);
+
+		ObjectTests.runTestEquals(new IntegerTerm(big), new IntegerTerm(big),
+				new IntegerTerm(Long.MAX_VALUE));
+		ObjectTests.runTestCompareTo(new IntegerTerm(Long.MAX_VALUE),
+				new IntegerTerm(BigInteger.valueOf(Long.MAX_VALUE)),
+				new IntegerTerm(big), new IntegerTerm(big.add(big)));
+		assertEquals(big.toString(), new IntegerTerm(big).toCanonicalString());
+	}
+
 	public void testGetMinValue() {
 		TermTests.runTestGetMinValue(new IntegerTerm(Integer.MIN_VALUE + 1));
 	}
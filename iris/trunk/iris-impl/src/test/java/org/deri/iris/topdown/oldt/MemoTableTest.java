@@ -157,4 +157,48 @@ public class MemoTableTest extends TestCase {
 		assertEquals(expectedHashMap.toString(), table.toString());
 	}
 
+	public void testMemoTableSubsumption() {
+
+		MemoTable table = new MemoTable();
+		// p(?X, ?Y)
+		IAtom pxy = Factory.BASIC.createAtom(
+				Factory.BASIC.createPredicate("p", 2),
+				Factory.BASIC.createTuple(
+						Factory.TERM.createVariable("X"),
+						Factory.TERM.createVariable("Y")));
+		// p(?Z, ?Z)
+		IAtom pzz = Factory.BASIC.createAtom(
+				Factory.BASIC.createPredicate("p", 2),
+				Factory.BASIC.createTuple(
+						Factory.TERM.createVariable("Z"),
+						Factory.TERM.createVariable("Z")));
+		// p('a', ?Z)
+		IAtom paz = Factory.BASIC.createAtom(
+				Factory.BASIC.createPredicate("p", 2),
+				Factory.BASIC.createTuple(
+						Factory.TERM.createString("a"),
+						Factory.TERM.createVariable("Z")));
+		
+		assertFalse(table.containsKey(pxy));
+		
+		table.add(pxy, null);
+		
+		// A variable shared between arguments is subsumed ...
+		assertTrue(table.containsKey(pzz));
+		// ... while a constant argument is not.
+		assertFalse(table.containsKey(paz));
+		
+		table.add(pzz, a);
+		table.add(paz, b);
+		
+		assertEquals(2, table.size());
+		assertEquals(a, table.get(pxy, 0));
+		assertEquals(a, table.get(pzz, 0));
+		assertEquals(b, table.get(paz, 0));
+		
+		table.remove(pxy);
+		assertFalse(table.containsKey(pzz));
+		assertTrue(table.containsKey(paz));
+	}
+
 }
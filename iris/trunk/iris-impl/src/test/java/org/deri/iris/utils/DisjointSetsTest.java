@@ -262,4 +262,86 @@ public class DisjointSetsTest extends TestCase {
 		assertEquals(1, relation.getNumberOfSets());
 	}
 
+	/**
+	 * Test method for {@link org.deri.iris.utils.DisjointSets#getVersion()}.
+	 */
+	public void testVersion() {
+		long version = relation.getVersion();
+
+		// Neither new singleton sets nor redundant merges change the version.
+		relation.add(element3);
+		relation.putInSameSet(element1, element1Equiv4);
+		assertEquals(version, relation.getVersion());
+
+		relation.putInSameSet(element1, element3);
+		assertTrue(relation.getVersion() > version);
+
+		version = relation.getVersion();
+		relation.remove(element3Equiv1);
+		assertEquals(version, relation.getVersion());
+
+		relation.remove(element3);
+		assertTrue(relation.getVersion() > version);
+	}
+
+	/**
+	 * Test method for
+	 * {@link org.deri.iris.utils.DisjointSets#getMergedRepresentatives(long)}.
+	 */
+	public void testGetMergedRepresentatives() {
+		long version = relation.getVersion();
+		assertTrue(relation.getMergedRepresentatives(version).isEmpty());
+
+		String representative1 = relation.find(element1);
+		String representative2 = relation.find(element2);
+
+		relation.putInSameSet(element1, element2);
+		Set<String> merged = relation.getMergedRepresentatives(version);
+		assertEquals(2, merged.size());
+		assertTrue(merged.contains(representative1));
+		assertTrue(merged.contains(representative2));
+
+		long merge1Version = relation.getVersion();
+		relation.putInSameSet(element3, element3Equiv1);
+		merged = relation.getMergedRepresentatives(merge1Version);
+		assertEquals(2, merged.size());
+		assertTrue(merged.contains(element3));
+		assertTrue(merged.contains(element3Equiv1));
+		assertEquals(4, relation.getMergedRepresentatives(version).size());
+
+		// Removals can not be tracked.
+		relation.remove(element3);
+		assertNull(relation.getMergedRepresentatives(merge1Version));
+		assertTrue(relation.getMergedRepresentatives(relation.getVersion()).isEmpty());
+	}
+
+	/**
+	 * Test method for
+	 * {@link org.deri.iris.utils.DisjointSets#getMergedRepresentatives(long)}
+	 * with more merges than the history retains.
+	 */
+	public void testGetMergedRepresentativesDiscardedHistory() {
+		DisjointSets<Integer> sets = new DisjointSets<Integer>();
+		long version = sets.getVersion();
+
+		for (int i = 1; i <= DisjointSets.MAX_MERGES; i++) {
+			sets.putInSameSet(0, i);
+		}
+
+		assertNotNull(sets.getMergedRepresentatives(version));
+
+		for (int i = 1; i <= DisjointSets.MAX_MERGES; i++) {
+			sets.putInSameSet(-i, DisjointSets.MAX_MERGES + i);
+		}
+
+		// The oldest merges have been discarded, the recent ones are kept.
+		assertNull(sets.getMergedRepresentatives(version));
+		assertNotNull(sets.getMergedRepresentatives(sets.getVersion()
+				- DisjointSets.MAX_MERGES / 2));
+
+		long lastVersion = sets.getVersion();
+		sets.putInSameSet(-1, 0);
+		assertEquals(2, sets.getMergedRepresentatives(lastVersion).size());
+	}
+
 }
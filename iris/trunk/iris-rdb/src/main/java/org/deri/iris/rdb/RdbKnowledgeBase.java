@@ -35,10 +35,13 @@ import org.deri.iris.EvaluationException;
 import org.deri.iris.ProgramNotStratifiedException;
 import org.deri.iris.RuleUnsafeException;
 import org.deri.iris.api.IKnowledgeBase;
+import org.deri.iris.api.IResultConsumer;
 import org.deri.iris.api.basics.IQuery;
 import org.deri.iris.api.basics.IRule;
+import org.deri.iris.api.basics.ITuple;
 import org.deri.iris.api.terms.IVariable;
 import org.deri.iris.evaluation.IEvaluationStrategy;
+import org.deri.iris.evaluation.QueryResults;
 import org.deri.iris.evaluation.stratifiedbottomup.IRuleEvaluatorFactory;
 import org.deri.iris.facts.IFacts;
 import org.deri.iris.rdb.evaluation.RdbOptimizedProgramStrategyAdaptor;
@@ -46,6 +49,8 @@ import org.deri.iris.rdb.evaluation.RdbSemiNaiveEvaluatorFactory;
 import org.deri.iris.rdb.evaluation.RdbStratifiedBottomUpEvaluationStrategyFactory;
 import org.deri.iris.rdb.facts.IRdbFacts;
 import org.deri.iris.rdb.facts.RdbFacts;
+import org.deri.iris.rdb.storage.CloseableIterator;
+import org.deri.iris.rdb.storage.IRdbRelation;
 import org.deri.iris.rdb.utils.RdbUtils;
 import org.deri.iris.rules.RuleManipulator;
 import org.deri.iris.rules.safety.AugmentingRuleSafetyProcessor;
@@ -345,6 +350,41 @@ public class RdbKnowledgeBase implements IKnowledgeBase {
 		return result;
 	}
 
+	/**
+	 * Streams the answers to the query from the database. If the result is a
+	 * relation in the database, the tuples are read through a cursor, that is
+	 * closed as soon as the consumer stops accepting tuples.
+	 */
+	@Override
+	public boolean execute(IQuery query, List<IVariable> variableBindings,
+			IResultConsumer consumer) throws ProgramNotStratifiedException,
+			RuleUnsafeException, EvaluationException {
+		if (consumer == null) {
+			throw new IllegalArgumentException("Consumer must not be null");
+		}
+
+		IRelation result = execute(query, variableBindings);
+
+		if (!(result instanceof IRdbRelation)) {
+			return QueryResults.consumeAll(result, consumer);
+		}
+
+		CloseableIterator<ITuple> iterator = ((IRdbRelation) result)
+				.iterator();
+
+		try {
+			while (iterator.hasNext()) {
+				if (!consumer.consume(iterator.next())) {
+					return false;
+				}
+			}
+		} finally {
+			iterator.close();
+		}
+
+		return true;
+	}
+
 	@Override
 	public List<IRule> getRules() {
 		return rules;
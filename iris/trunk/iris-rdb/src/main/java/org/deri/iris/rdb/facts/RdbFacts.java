@@ -33,9 +33,11 @@ import org.deri.iris.factory.Factory;
 import org.deri.iris.facts.FiniteUniverseFacts;
 import org.deri.iris.facts.IFacts;
 import org.deri.iris.rdb.storage.IRdbRelation;
+import org.deri.iris.rdb.storage.RdbChangeTracker;
 import org.deri.iris.rdb.storage.RdbEqualityRelation;
 import org.deri.iris.rdb.storage.RdbRelation;
 import org.deri.iris.rdb.storage.RdbTrueRelation;
+import org.deri.iris.rdb.storage.RdbUniverseRelation;
 import org.deri.iris.rdb.storage.RdbUniverseView;
 import org.deri.iris.rules.RuleHeadEqualityRewriter;
 import org.deri.iris.storage.IRelation;
@@ -109,16 +111,77 @@ public class RdbFacts implements IRdbFacts {
 		return relation;
 	}
 
+	/**
+	 * Adds all facts of the source to the database. The facts are added in a
+	 * single transaction, instead of committing every inserted row on its
+	 * own. If the connection is not in auto-commit mode, the facts are added
+	 * to the transaction of the caller.
+	 */
 	@Override
 	public void addAll(IFacts source) {
-		for (IPredicate predicate : source.getPredicates()) {
-			IRdbRelation targetRelation = get(predicate);
-			IRelation sourceRelation = source.get(predicate);
+		// Whether a transaction has been started for adding the facts.
+		boolean transaction = false;
 
-			if (targetRelation != null && sourceRelation != null) {
-				targetRelation.addAll(sourceRelation);
+		try {
+			if (connection.getAutoCommit()) {
+				connection.setAutoCommit(false);
+				transaction = true;
 			}
+		} catch (SQLException e) {
+			logger.warn("Failed to start a transaction, "
+					+ "adding facts in auto-commit mode", e);
 		}
+
+		boolean committed = false;
+
+		try {
+			for (IPredicate predicate : source.getPredicates()) {
+				IRdbRelation targetRelation = get(predicate);
+				IRelation sourceRelation = source.get(predicate);
+
+				if (targetRelation != null && sourceRelation != null) {
+					targetRelation.addAll(sourceRelation);
+				}
+			}
+
+			if (transaction) {
+				connection.commit();
+			}
+
+			committed = true;
+		} catch (SQLException e) {
+			logger.error("Failed to commit the added facts", e);
+		} finally {
+			if (transaction) {
+				if (!committed) {
+					rollback();
+				}
+
+				try {
+					connection.setAutoCommit(true);
+				} catch (SQLException e) {
+					logger.error("Failed to restore the auto-commit mode", e);
+				}
+			}
+		}
+	}
+
+	private void rollback() {
+		try {
+			connection.rollback();
+		} catch (SQLException e) {
+			logger.error("Failed to roll back the added facts", e);
+		}
+
+		// The IDs of terms added in the rolled back transaction are invalid.
+		try {
+			RdbUniverseRelation.getInstance(connection).clearCache();
+		} catch (SQLException e) {
+			logger.error("Failed to clear the term cache", e);
+		}
+
+		// The cached sizes and pages of the relations are stale as well.
+		RdbChangeTracker.getInstance(connection).changed();
 	}
 
 	@Override
@@ -28,11 +28,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.deri.iris.EvaluationException;
+import org.deri.iris.api.IResultConsumer;
 import org.deri.iris.api.basics.IPredicate;
 import org.deri.iris.api.basics.ITuple;
 import org.deri.iris.api.terms.IVariable;
 import org.deri.iris.factory.Factory;
 import org.deri.iris.facts.IFacts;
+import org.deri.iris.rdb.storage.CloseableIterator;
 import org.deri.iris.rdb.storage.IRdbRelation;
 import org.deri.iris.rdb.storage.RdbEmptyTupleRelation;
 import org.deri.iris.rdb.storage.RdbUnionRelation;
@@ -90,6 +92,28 @@ public class RdbCompiledRule implements IRdbCompiledRule {
 		return output;
 	}
 
+	/**
+	 * Evaluates the SQL statement of the rule and reads the resulting tuples
+	 * through a cursor, that is closed as soon as the consumer stops.
+	 */
+	@Override
+	public boolean evaluate(IResultConsumer consumer)
+			throws EvaluationException {
+		CloseableIterator<ITuple> iterator = evaluate().iterator();
+
+		try {
+			while (iterator.hasNext()) {
+				if (!consumer.consume(iterator.next())) {
+					return false;
+				}
+			}
+		} finally {
+			iterator.close();
+		}
+
+		return true;
+	}
+
 	@Override
 	public IRdbRelation evaluateIteratively(IFacts deltas)
 			throws EvaluationException {
@@ -38,6 +38,8 @@ import org.deri.iris.api.basics.ITuple;
 import org.deri.iris.api.builtins.IBuiltinAtom;
 import org.deri.iris.api.terms.IConstructedTerm;
 import org.deri.iris.api.terms.ITerm;
+import org.deri.iris.api.terms.IVariable;
+import org.deri.iris.facts.FiniteUniverseFacts;
 import org.deri.iris.facts.IFacts;
 import org.deri.iris.rdb.storage.IRdbRelation;
 import org.deri.iris.rdb.utils.EquivalentTermsAdapter;
@@ -130,7 +132,7 @@ public class RdbRuleCompiler {
 
 		ITuple previousTuple = null;
 
-		while (elements.size() < bodyLiterals.size()) {
+		while (!literals.isEmpty()) {
 			SQLException lastSqlException = null;
 			EvaluationException lastEvalException = null;
 
@@ -142,6 +144,12 @@ public class RdbRuleCompiler {
 
 				RdbRuleElement element = null;
 
+				if (isBoundUniverse(literal, previousTuple)) {
+					literals.remove(l);
+					added = true;
+					break;
+				}
+
 				try {
 					if (atom instanceof IBuiltinAtom) {
 						IBuiltinAtom builtinAtom = (IBuiltinAtom) atom;
@@ -225,4 +233,35 @@ public class RdbRuleCompiler {
 		return elements;
 	}
 
+	/**
+	 * Checks if the literal is a positive $UNIVERSE$ sub-goal, whose variables
+	 * are all bound by the preceding literals. Every term stored in a relation
+	 * of the database is stored in the universe as well, so such a sub-goal is
+	 * always true and does not need to be joined with the universe.
+	 * 
+	 * @param literal
+	 *            The literal.
+	 * @param previousTuple
+	 *            The output tuple of the preceding literals, or
+	 *            <code>null</code> if there are none.
+	 * @return <code>true</code> if the literal can be skipped,
+	 *         <code>false</code> otherwise.
+	 */
+	private boolean isBoundUniverse(ILiteral literal, ITuple previousTuple) {
+		IAtom atom = literal.getAtom();
+
+		if (!literal.isPositive() || previousTuple == null
+				|| !atom.getPredicate().equals(FiniteUniverseFacts.UNIVERSE)) {
+			return false;
+		}
+
+		for (ITerm term : atom.getTuple()) {
+			if (!(term instanceof IVariable) || !previousTuple.contains(term)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
 }
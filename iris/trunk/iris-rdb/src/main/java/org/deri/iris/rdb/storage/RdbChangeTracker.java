@@ -0,0 +1,82 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2011 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.rdb.storage;
+
+import java.sql.Connection;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Counts the modifications of the relations stored in a database. Relations
+ * that cache tuples read from the database compare the current version against
+ * the version they read their tuples at, in order to detect that a table (or a
+ * table a view depends on) has changed since. There is exactly one instance
+ * per connection.
+ */
+public class RdbChangeTracker {
+
+	private static final Map<Connection, RdbChangeTracker> trackers = new WeakHashMap<Connection, RdbChangeTracker>();
+
+	private long version;
+
+	private RdbChangeTracker() {
+	}
+
+	/**
+	 * Returns the change tracker for the database represented by the specified
+	 * connection.
+	 * 
+	 * @param connection
+	 *            The connection to the database.
+	 * @return The change tracker for the database.
+	 */
+	public static synchronized RdbChangeTracker getInstance(
+			Connection connection) {
+		RdbChangeTracker tracker = trackers.get(connection);
+
+		if (tracker == null) {
+			tracker = new RdbChangeTracker();
+			trackers.put(connection, tracker);
+		}
+
+		return tracker;
+	}
+
+	/**
+	 * Returns the current version of the database. The version changes every
+	 * time a relation in the database is modified.
+	 * 
+	 * @return The current version of the database.
+	 */
+	public synchronized long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Records that a relation in the database has been modified.
+	 */
+	public synchronized void changed() {
+		version++;
+	}
+
+}
@@ -212,6 +212,8 @@ public class RdbRelation extends AbstractRdbRelation {
 			RdbUtils.closeStatement(statement);
 		}
 
+		RdbChangeTracker.getInstance(connection).changed();
+
 		// Drop the index if it exists.
 		sqlFormat = "DROP INDEX IF EXISTS %s";
 		sql = String.format(sqlFormat, getIndexName());
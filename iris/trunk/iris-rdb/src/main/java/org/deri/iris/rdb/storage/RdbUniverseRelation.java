@@ -27,6 +27,13 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.WeakHashMap;
 
@@ -42,7 +49,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * <p>
  * This relation does not return duplicate tuples.
+ * </p>
+ * <p>
+ * The IDs of recently used terms are kept in a bounded in-process cache (in
+ * both directions), so that repeated lookups of the same term do not hit the
+ * database. As terms are never removed from the universe, cached entries only
+ * become stale if a transaction is rolled back, in which case
+ * {@link #clearCache()} has to be called.
+ * </p>
  */
 public class RdbUniverseRelation implements IRelation {
 
@@ -65,6 +81,17 @@ public class RdbUniverseRelation implements IRelation {
 
 	public static final String TYPE_NAME = "type";
 
+	/**
+	 * The maximum number of terms kept in each direction of the term cache.
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 100000;
+
+	/**
+	 * The maximum number of terms, that are resolved by a single query when
+	 * adding terms in bulk.
+	 */
+	private static final int BULK_SIZE = 500;
+
 	private static final Map<Connection, RdbUniverseRelation> universes;
 
 	private PreparedStatement insertStatement;
@@ -75,6 +102,12 @@ public class RdbUniverseRelation implements IRelation {
 
 	private PreparedStatement sizeStatement;
 
+	private PreparedStatement batchInsertStatement;
+
+	private final Map<TermKey, Integer> termIds;
+
+	private final Map<Integer, ITerm> idTerms;
+
 	private static final TermNormalizer termNormalizer;
 
 	private static final TermDenormalizer termDenormalizer;
@@ -89,6 +122,8 @@ public class RdbUniverseRelation implements IRelation {
 
 	private RdbUniverseRelation(Connection connection) throws SQLException {
 		this.connection = connection;
+		this.termIds = createCache(DEFAULT_CACHE_SIZE);
+		this.idTerms = createCache(DEFAULT_CACHE_SIZE);
 		createTable();
 	}
 
@@ -108,6 +143,11 @@ public class RdbUniverseRelation implements IRelation {
 
 		IConcreteTerm constant = (IConcreteTerm) term;
 
+		// A cached term is known to be in the universe already.
+		if (termIds.containsKey(new TermKey(constant))) {
+			return false;
+		}
+
 		String common = termNormalizer.createString(constant);
 		String canonical = constant.toCanonicalString();
 		String type = constant.getDatatypeIRI().toString();
@@ -125,7 +165,13 @@ public class RdbUniverseRelation implements IRelation {
 			}
 
 			logger.debug("Executing " + insertStatement);
-			return insertStatement.executeUpdate() > 0;
+			if (insertStatement.executeUpdate() > 0) {
+				cacheGeneratedId(insertStatement, constant);
+
+				// Views on the universe relation change as well.
+				RdbChangeTracker.getInstance(connection).changed();
+				return true;
+			}
 		} catch (SQLException e) {
 			// If the INSERT fails due to a unique index violation, we can
 			// ignore the exception.
@@ -164,8 +210,192 @@ public class RdbUniverseRelation implements IRelation {
 						COMMON_NAME, CANONICAL_NAME, TYPE_NAME);
 			}
 
-			insertStatement = connection.prepareStatement(querySql);
+			insertStatement = connection.prepareStatement(querySql,
+					Statement.RETURN_GENERATED_KEYS);
+		}
+	}
+
+	private void cacheGeneratedId(Statement statement, IConcreteTerm term)
+			throws SQLException {
+		ResultSet resultSet = statement.getGeneratedKeys();
+
+		try {
+			if (resultSet.next()) {
+				cache(term, resultSet.getInt(1));
+			}
+		} finally {
+			RdbUtils.closeResultSet(resultSet);
+		}
+	}
+
+	/**
+	 * <p>
+	 * Adds the specified terms to the universe. This is considerably faster
+	 * than adding the terms one by one, since the terms that are not in the
+	 * universe yet are inserted in batches, and the IDs of up to
+	 * {@value #BULK_SIZE} terms are resolved with a single query.
+	 * </p>
+	 * <p>
+	 * The IDs of all added terms are put into the term cache, such that
+	 * subsequent calls of {@link #getId(ITerm)} for these terms are usually
+	 * answered without querying the database.
+	 * </p>
+	 * 
+	 * @param terms The terms to add, terms that are not ground and concrete
+	 *            are ignored.
+	 * @return <code>true</code> if at least one term has been added to the
+	 *         universe, <code>false</code> otherwise.
+	 */
+	public boolean addAll(Collection<? extends ITerm> terms) {
+		// Collect the distinct terms, whose ID is not known yet.
+		Map<TermKey, IConcreteTerm> uncached = new LinkedHashMap<TermKey, IConcreteTerm>();
+
+		for (ITerm term : terms) {
+			if (term.isGround() && term instanceof IConcreteTerm) {
+				TermKey key = new TermKey((IConcreteTerm) term);
+
+				if (!termIds.containsKey(key)) {
+					uncached.put(key, (IConcreteTerm) term);
+				}
+			}
+		}
+
+		List<IConcreteTerm> constants = new ArrayList<IConcreteTerm>(
+				uncached.values());
+
+		boolean added = false;
+
+		for (int from = 0; from < constants.size(); from += BULK_SIZE) {
+			int to = Math.min(from + BULK_SIZE, constants.size());
+			List<IConcreteTerm> chunk = constants.subList(from, to);
+
+			try {
+				List<IConcreteTerm> missing = resolveIds(chunk);
+
+				if (!missing.isEmpty()) {
+					insertBatch(missing);
+					resolveIds(missing);
+					added = true;
+				}
+			} catch (SQLException e) {
+				logger.debug("Failed to add terms in bulk, "
+						+ "adding them one by one", e);
+
+				for (IConcreteTerm constant : chunk) {
+					added |= add(constant);
+				}
+			}
+		}
+
+		if (added) {
+			// Views on the universe relation change as well.
+			RdbChangeTracker.getInstance(connection).changed();
+		}
+
+		return added;
+	}
+
+	/**
+	 * Looks up the IDs of the specified terms and puts them into the term
+	 * cache.
+	 * 
+	 * @return The terms that are not in the universe.
+	 */
+	private List<IConcreteTerm> resolveIds(List<IConcreteTerm> constants)
+			throws SQLException {
+		Map<List<String>, IConcreteTerm> pending = new HashMap<List<String>, IConcreteTerm>();
+
+		List<String> questionMarkList = new ArrayList<String>();
+
+		for (IConcreteTerm constant : constants) {
+			pending.put(createKey(constant), constant);
+			questionMarkList.add("?");
+		}
+
+		String sqlFormat = "SELECT %s, %s, %s FROM %s WHERE %s IN (%s)";
+		String sql = String.format(sqlFormat, ID_NAME, CANONICAL_NAME,
+				TYPE_NAME, UNIVERSE_NAME, CANONICAL_NAME,
+				RdbUtils.join(questionMarkList, ", "));
+
+		PreparedStatement statement = null;
+		ResultSet resultSet = null;
+
+		try {
+			statement = connection.prepareStatement(sql);
+
+			int i = 1;
+			for (IConcreteTerm constant : constants) {
+				statement.setString(i++, constant.toCanonicalString());
+			}
+
+			logger.debug("Executing " + statement);
+			resultSet = statement.executeQuery();
+
+			while (resultSet.next()) {
+				List<String> key = Arrays.asList(resultSet.getString(2),
+						resultSet.getString(3));
+				IConcreteTerm constant = pending.remove(key);
+
+				if (constant != null) {
+					cache(constant, resultSet.getInt(1));
+				}
+			}
+		} finally {
+			RdbUtils.closeResultSet(resultSet);
+			RdbUtils.closeStatement(statement);
+		}
+
+		List<IConcreteTerm> missing = new ArrayList<IConcreteTerm>();
+
+		for (IConcreteTerm constant : constants) {
+			if (pending.containsKey(createKey(constant))) {
+				missing.add(constant);
+			}
+		}
+
+		return missing;
+	}
+
+	private void insertBatch(List<IConcreteTerm> constants)
+			throws SQLException {
+		if (batchInsertStatement == null) {
+			String queryFormat = "INSERT INTO %s(%s, %s, %s) VALUES (?, ?, ?)";
+			String querySql = String.format(queryFormat, UNIVERSE_NAME,
+					COMMON_NAME, CANONICAL_NAME, TYPE_NAME);
+
+			batchInsertStatement = connection.prepareStatement(querySql);
+		}
+
+		for (IConcreteTerm constant : constants) {
+			batchInsertStatement.setString(1,
+					termNormalizer.createString(constant));
+			batchInsertStatement.setString(2, constant.toCanonicalString());
+			batchInsertStatement.setString(3, constant.getDatatypeIRI()
+					.toString());
+			batchInsertStatement.addBatch();
 		}
+
+		logger.debug("Executing batch " + batchInsertStatement);
+		batchInsertStatement.executeBatch();
+	}
+
+	private static List<String> createKey(IConcreteTerm constant) {
+		return Arrays.asList(constant.toCanonicalString(), constant
+				.getDatatypeIRI().toString());
+	}
+
+	private void cache(IConcreteTerm term, int id) {
+		termIds.put(new TermKey(term), id);
+		idTerms.put(id, term);
+	}
+
+	/**
+	 * Discards all cached term IDs. This has to be called if terms have been
+	 * removed from the universe, e.g. because a transaction was rolled back.
+	 */
+	public void clearCache() {
+		termIds.clear();
+		idTerms.clear();
 	}
 
 	public int getId(ITerm term) {
@@ -175,6 +405,12 @@ public class RdbUniverseRelation implements IRelation {
 
 		IConcreteTerm constant = (IConcreteTerm) term;
 
+		Integer cachedId = termIds.get(new TermKey(constant));
+
+		if (cachedId != null) {
+			return cachedId;
+		}
+
 		String canonical = constant.toCanonicalString();
 		String type = constant.getDatatypeIRI().toString();
 
@@ -190,6 +426,7 @@ public class RdbUniverseRelation implements IRelation {
 
 			if (resultSet.next()) {
 				int termId = resultSet.getInt(1);
+				cache(constant, termId);
 				return termId;
 			}
 		} catch (SQLException e) {
@@ -215,6 +452,20 @@ public class RdbUniverseRelation implements IRelation {
 	public boolean addAll(IRelation relation) {
 		boolean addedAll = false;
 
+		if (relation instanceof IRdbRelation) {
+			// Avoid random access, which is expensive for database relations.
+			CloseableIterator<ITuple> iterator = ((IRdbRelation) relation)
+					.iterator();
+
+			while (iterator.hasNext()) {
+				addedAll |= add(iterator.next());
+			}
+
+			iterator.close();
+
+			return addedAll;
+		}
+
 		int size = relation.size();
 		for (int i = 0; i < size; i++) {
 			ITuple tuple = relation.get(i);
@@ -246,6 +497,12 @@ public class RdbUniverseRelation implements IRelation {
 	}
 
 	public ITerm getTerm(int id) {
+		ITerm cachedTerm = idTerms.get(id);
+
+		if (cachedTerm != null) {
+			return cachedTerm;
+		}
+
 		ResultSet resultSet = null;
 
 		try {
@@ -261,7 +518,13 @@ public class RdbUniverseRelation implements IRelation {
 				String type = resultSet.getString("type");
 
 				if (canonical != null && type != null) {
-					return termDenormalizer.createTerm(canonical, type);
+					ITerm term = termDenormalizer.createTerm(canonical, type);
+
+					if (term instanceof IConcreteTerm) {
+						cache((IConcreteTerm) term, id);
+					}
+
+					return term;
 				}
 			}
 		} catch (SQLException e) {
@@ -368,6 +631,9 @@ public class RdbUniverseRelation implements IRelation {
 
 		RdbUtils.closeStatement(sizeStatement);
 		sizeStatement = null;
+
+		RdbUtils.closeStatement(batchInsertStatement);
+		batchInsertStatement = null;
 	}
 
 	public static RdbUniverseRelation getInstance(Connection connection)
@@ -382,4 +648,49 @@ public class RdbUniverseRelation implements IRelation {
 		return universe;
 	}
 
+	private static <K, V> Map<K, V> createCache(final int capacity) {
+		return new LinkedHashMap<K, V>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				return size() > capacity;
+			}
+
+		};
+	}
+
+	/**
+	 * The key of a term in the term cache. Terms of different types may be
+	 * equal to each other (e.g. numeric terms), but are stored as different
+	 * terms in the universe, so the class of the term is part of the key.
+	 */
+	private static final class TermKey {
+
+		private final IConcreteTerm term;
+
+		TermKey(IConcreteTerm term) {
+			this.term = term;
+		}
+
+		@Override
+		public int hashCode() {
+			return term.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof TermKey)) {
+				return false;
+			}
+
+			TermKey other = (TermKey) obj;
+
+			return term.getClass() == other.term.getClass()
+					&& term.equals(other.term);
+		}
+
+	}
+
 }
@@ -27,8 +27,11 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.deri.iris.api.basics.ITuple;
 import org.deri.iris.api.terms.IConcreteTerm;
@@ -38,12 +41,35 @@ import org.deri.iris.rdb.utils.RdbUtils;
 import org.deri.iris.storage.IRelation;
 
 /**
+ * <p>
  * This relation may return duplicate tuples.
+ * </p>
+ * <p>
+ * Random access by {@link #get(int)} is served from pages of tuples, which are
+ * read with a single forward-only cursor over the table or view. A loop over
+ * all indices therefore reads the relation once, instead of executing one
+ * query per tuple. A bounded number of recently used pages is cached. The
+ * cached pages and the cached size are discarded as soon as the
+ * {@link RdbChangeTracker} of the database reports a modification.
+ * </p>
+ * <p>
+ * Tuples of relations that are not stored in the database are added in
+ * batches of <code>fetchSize</code> tuples: the terms of a batch are added to
+ * the universe in bulk, and the tuples are written with a single batched
+ * <code>INSERT ... SELECT ... WHERE NOT EXISTS</code> statement, which skips
+ * the tuples that are already contained in the relation.
+ * </p>
  */
 public class SimpleRdbRelation extends AbstractRdbRelation {
 
 	public static final String LEFT_TABLE_ALIAS = "rightTable";
 
+	/** The default number of tuples per page. */
+	public static final int DEFAULT_FETCH_SIZE = 1000;
+
+	/** The default maximum number of cached pages. */
+	public static final int DEFAULT_CACHED_PAGES = 16;
+
 	private String tableName;
 
 	private int arity;
@@ -52,20 +78,79 @@ public class SimpleRdbRelation extends AbstractRdbRelation {
 
 	private PreparedStatement insertStatement;
 
-	private PreparedStatement getTupleStatement;
+	private PreparedStatement batchInsertStatement;
 
 	private PreparedStatement sizeStatement;
 
 	private PreparedStatement containsStatement;
 
+	private PreparedStatement cursorStatement;
+
+	private ResultSet cursor;
+
+	/** The number of rows the cursor has already moved past. */
+	private int cursorRow;
+
+	private final int fetchSize;
+
+	private final Map<Integer, List<ITuple>> pages;
+
+	private final RdbChangeTracker changeTracker;
+
+	/** The version of the database the cached pages and size belong to. */
+	private long cachedVersion = -1;
+
+	private int cachedSize = -1;
+
 	public SimpleRdbRelation(Connection connection, String tableName, int arity)
 			throws SQLException {
+		this(connection, tableName, arity, DEFAULT_FETCH_SIZE,
+				DEFAULT_CACHED_PAGES);
+	}
+
+	/**
+	 * Creates a new relation for the specified table or view.
+	 * 
+	 * @param connection
+	 *            The connection to the database.
+	 * @param tableName
+	 *            The name of the table or view.
+	 * @param arity
+	 *            The arity of the relation.
+	 * @param fetchSize
+	 *            The number of tuples read from the database at once.
+	 * @param cachedPages
+	 *            The maximum number of pages of <code>fetchSize</code> tuples
+	 *            kept in memory.
+	 * @throws SQLException
+	 *             If the universe relation can not be created.
+	 */
+	public SimpleRdbRelation(Connection connection, String tableName,
+			int arity, int fetchSize, final int cachedPages)
+			throws SQLException {
 		super(connection);
 
+		if (fetchSize < 1 || cachedPages < 1) {
+			throw new IllegalArgumentException(
+					"The fetch size and the number of cached pages must be positive");
+		}
+
 		this.tableName = tableName;
 		this.arity = arity;
+		this.fetchSize = fetchSize;
+
+		this.pages = new LinkedHashMap<Integer, List<ITuple>>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					Map.Entry<Integer, List<ITuple>> eldest) {
+				return size() > cachedPages;
+			}
+		};
 
 		this.universe = RdbUniverseRelation.getInstance(connection);
+		this.changeTracker = RdbChangeTracker.getInstance(connection);
 	}
 
 	@Override
@@ -103,7 +188,10 @@ public class SimpleRdbRelation extends AbstractRdbRelation {
 				insertStatement.addBatch();
 			} else {
 				logger.debug("Executing " + insertStatement);
-				return insertStatement.executeUpdate() > 0;
+				if (insertStatement.executeUpdate() > 0) {
+					changeTracker.changed();
+					return true;
+				}
 			}
 		} catch (SQLException e) {
 			// If the INSERT fails due to a unique index violation, we can
@@ -174,6 +262,15 @@ public class SimpleRdbRelation extends AbstractRdbRelation {
 			return addAllOneByOne(otherRelation);
 		}
 
+		if (getArity() > 0) {
+			try {
+				return addAllInBatches(relation);
+			} catch (SQLException e) {
+				logger.error("Failed to add tuples in batches to "
+						+ getTableName(), e);
+			}
+		}
+
 		logger.debug("Adding tuples one by one");
 
 		boolean allAdded = false;
@@ -186,6 +283,98 @@ public class SimpleRdbRelation extends AbstractRdbRelation {
 		return allAdded;
 	}
 
+	private boolean addAllInBatches(IRelation relation) throws SQLException {
+		logger.debug("Adding tuples in batches of " + fetchSize);
+
+		boolean allAdded = false;
+
+		int size = relation.size();
+		for (int from = 0; from < size; from += fetchSize) {
+			int to = Math.min(from + fetchSize, size);
+
+			List<ITuple> tuples = new ArrayList<ITuple>(to - from);
+			List<ITerm> terms = new ArrayList<ITerm>((to - from) * getArity());
+
+			for (int i = from; i < to; i++) {
+				ITuple tuple = relation.get(i);
+
+				if (tuple.size() == getArity()) {
+					tuples.add(tuple);
+					terms.addAll(tuple);
+				}
+			}
+
+			if (tuples.isEmpty()) {
+				continue;
+			}
+
+			// Resolves the IDs of all terms of the batch at once, afterwards
+			// the IDs are served from the term cache of the universe.
+			universe.addAll(terms);
+
+			createBatchInsertStatement();
+
+			for (ITuple tuple : tuples) {
+				int i = 1;
+				for (ITerm term : tuple) {
+					int id = addToUniverse(term);
+					batchInsertStatement.setInt(i, id);
+					batchInsertStatement.setInt(i + getArity(), id);
+					i++;
+				}
+
+				batchInsertStatement.addBatch();
+			}
+
+			logger.debug("Executing batch " + batchInsertStatement);
+			int[] updateCounts = batchInsertStatement.executeBatch();
+
+			boolean added = false;
+			for (int updateCount : updateCounts) {
+				// Without an update count the tuple may have been added.
+				if (updateCount > 0
+						|| updateCount == Statement.SUCCESS_NO_INFO) {
+					added = true;
+					break;
+				}
+			}
+
+			if (added) {
+				changeTracker.changed();
+				allAdded = true;
+			}
+		}
+
+		return allAdded;
+	}
+
+	private void createBatchInsertStatement() throws SQLException {
+		if (batchInsertStatement == null) {
+			List<String> questionMarkList = new ArrayList<String>();
+			List<String> conditionList = new ArrayList<String>();
+
+			for (String attribute : getAttributes()) {
+				questionMarkList.add("?");
+				conditionList.add(attribute + " = ?");
+			}
+
+			String attributes = RdbUtils.join(getAttributes(), ", ");
+			String questionMarks = RdbUtils.join(questionMarkList, ", ");
+			String conditions = RdbUtils.join(conditionList, " AND ");
+
+			// Only tuples that are not contained in the relation yet are
+			// inserted, so the whole batch can be executed at once and the
+			// update count of each tuple tells whether it has been added.
+			String sqlFormat = "INSERT INTO %s(%s) SELECT %s FROM DUAL "
+					+ "WHERE NOT EXISTS (SELECT 1 FROM %s WHERE %s)";
+			String sql = String.format(sqlFormat, getTableName(), attributes,
+					questionMarks, getTableName(), conditions);
+
+			Connection connection = getConnection();
+			batchInsertStatement = connection.prepareStatement(sql);
+		}
+	}
+
 	public boolean addAll(IRdbRelation otherRelation) throws SQLException {
 		if (otherRelation instanceof RdbUniverseRelation) {
 			logger.warn("Attempted to copy universe relation");
@@ -225,12 +414,19 @@ public class SimpleRdbRelation extends AbstractRdbRelation {
 			logger.debug("Executing " + call);
 			int rowCount = call.executeUpdate();
 
-			return rowCount > 0;
+			if (rowCount > 0) {
+				changeTracker.changed();
+				return true;
+			}
+
+			return false;
 		} catch (SQLException e) {
 			logger.error(
 					"Failed to add tuples from " + otherRelation.getTableName()
 							+ " to " + getTableName(), e);
 			throw e;
+		} finally {
+			RdbUtils.closeStatement(call);
 		}
 	}
 
@@ -296,6 +492,12 @@ public class SimpleRdbRelation extends AbstractRdbRelation {
 
 	@Override
 	public int size() {
+		validateCache();
+
+		if (cachedSize >= 0) {
+			return cachedSize;
+		}
+
 		ResultSet resultSet = null;
 
 		try {
@@ -305,7 +507,8 @@ public class SimpleRdbRelation extends AbstractRdbRelation {
 			resultSet = sizeStatement.executeQuery();
 
 			if (resultSet.next()) {
-				return resultSet.getInt("size");
+				cachedSize = resultSet.getInt("size");
+				return cachedSize;
 			}
 		} catch (SQLException e) {
 			logger.error("Failed to execute query", e);
@@ -339,60 +542,132 @@ public class SimpleRdbRelation extends AbstractRdbRelation {
 
 	@Override
 	public ITuple get(int index) {
-		ResultSet resultSet = null;
+		if (index < 0) {
+			return null;
+		}
 
-		try {
-			createGetTupleStatement();
+		validateCache();
 
-			// In H2 the first row has the row number 1.
-			getTupleStatement.setInt(1, index + 1);
+		int page = index / fetchSize;
+		List<ITuple> tuples = pages.get(page);
 
-			logger.debug("Executing " + getTupleStatement);
-			resultSet = getTupleStatement.executeQuery();
+		if (tuples == null) {
+			try {
+				tuples = fetchPage(page);
+			} catch (SQLException e) {
+				logger.error("Failed to read tuples from " + getTableName(), e);
+				closeCursor();
+				return null;
+			}
 
-			List<Integer> termIds = new ArrayList<Integer>();
+			pages.put(page, tuples);
+		}
 
-			if (resultSet.next()) {
-				List<ITerm> terms = new ArrayList<ITerm>();
-
-				for (String attribute : getAttributes()) {
-					int termId = resultSet.getInt(attribute);
-					termIds.add(termId);
-					ITerm term = universe.getTerm(termId);
-
-					if (term != null) {
-						terms.add(term);
-					} else {
-						return null;
-					}
-				}
+		int offset = index % fetchSize;
 
-				return Factory.BASIC.createTuple(terms);
-			}
-		} catch (SQLException e) {
-			logger.error("Failed to execute query " + insertStatement, e);
-		} finally {
-			RdbUtils.closeResultSet(resultSet);
+		if (offset < tuples.size()) {
+			return tuples.get(offset);
 		}
 
 		return null;
 	}
 
-	private void createGetTupleStatement() throws SQLException {
-		if (getTupleStatement == null) {
-			String sqlFormat = "SELECT * FROM "
-					+ "(SELECT *, ROWNUM AS num FROM %s) WHERE num = ?";
+	/**
+	 * Discards the cached pages, the cached size and the cursor, if the
+	 * database has been modified since they were read.
+	 */
+	private void validateCache() {
+		long version = changeTracker.getVersion();
+
+		if (version != cachedVersion) {
+			pages.clear();
+			closeCursor();
+			cachedSize = -1;
+			cachedVersion = version;
+		}
+	}
+
+	/**
+	 * Reads the tuples of the specified page. The cursor is reused if it has
+	 * not moved past the beginning of the page yet, otherwise the query is
+	 * executed again.
+	 */
+	private List<ITuple> fetchPage(int page) throws SQLException {
+		int first = page * fetchSize;
+
+		if (cursor == null || cursorRow > first) {
+			openCursor();
+		}
+
+		List<ITuple> tuples = new ArrayList<ITuple>();
+
+		while (cursorRow < first) {
+			if (!cursor.next()) {
+				closeCursor();
+				return tuples;
+			}
+
+			cursorRow++;
+		}
+
+		while (tuples.size() < fetchSize && cursor.next()) {
+			cursorRow++;
+			tuples.add(createTuple(cursor));
+		}
+
+		if (tuples.size() < fetchSize) {
+			// The end of the relation has been reached.
+			closeCursor();
+		}
+
+		return tuples;
+	}
+
+	private ITuple createTuple(ResultSet resultSet) throws SQLException {
+		List<ITerm> terms = new ArrayList<ITerm>();
+
+		for (String attribute : getAttributes()) {
+			int termId = resultSet.getInt(attribute);
+			ITerm term = universe.getTerm(termId);
+
+			if (term != null) {
+				terms.add(term);
+			} else {
+				return null;
+			}
+		}
+
+		return Factory.BASIC.createTuple(terms);
+	}
+
+	private void openCursor() throws SQLException {
+		closeCursor();
+
+		if (cursorStatement == null) {
+			String sqlFormat = "SELECT * FROM %s";
 			String sql = String.format(sqlFormat, getTableName());
 
 			Connection connection = getConnection();
 
 			try {
-				getTupleStatement = connection.prepareStatement(sql);
+				cursorStatement = connection.prepareStatement(sql,
+						ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+				cursorStatement.setFetchSize(fetchSize);
 			} catch (SQLException e) {
 				logger.error("Failed to prepare statement for query " + sql, e);
 				throw e;
 			}
 		}
+
+		logger.debug("Executing " + cursorStatement);
+		cursor = cursorStatement.executeQuery();
+		cursorRow = 0;
+	}
+
+	private void closeCursor() {
+		RdbUtils.closeResultSet(cursor);
+		cursor = null;
+		cursorRow = 0;
 	}
 
 	@Override
@@ -470,12 +745,20 @@ public class SimpleRdbRelation extends AbstractRdbRelation {
 
 	@Override
 	public void close() {
-		RdbUtils.closeStatement(getTupleStatement);
-		getTupleStatement = null;
+		closeCursor();
+		pages.clear();
+		cachedSize = -1;
+		cachedVersion = -1;
+
+		RdbUtils.closeStatement(cursorStatement);
+		cursorStatement = null;
 
 		RdbUtils.closeStatement(insertStatement);
 		insertStatement = null;
 
+		RdbUtils.closeStatement(batchInsertStatement);
+		batchInsertStatement = null;
+
 		RdbUtils.closeStatement(sizeStatement);
 		sizeStatement = null;
 
@@ -488,7 +771,7 @@ public class SimpleRdbRelation extends AbstractRdbRelation {
 	@Override
 	public CloseableIterator<ITuple> iterator() {
 		try {
-			return new TupleIterator(getConnection(), this);
+			return new TupleIterator(getConnection(), this, fetchSize);
 		} catch (SQLException e) {
 			return null;
 		}
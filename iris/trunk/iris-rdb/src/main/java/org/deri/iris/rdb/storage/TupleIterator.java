@@ -49,6 +49,8 @@ public class TupleIterator implements CloseableIterator<ITuple> {
 
 	private Connection connection;
 
+	private CallableStatement statement;
+
 	private ResultSet resultSet;
 
 	private boolean isClosed;
@@ -70,6 +72,26 @@ public class TupleIterator implements CloseableIterator<ITuple> {
 	 */
 	public TupleIterator(Connection connection, IRdbRelation relation)
 			throws SQLException {
+		this(connection, relation, 0);
+	}
+
+	/**
+	 * Creates a new {@link TupleIterator} for the specified relation, which is
+	 * stored in the database represented by the specified connection, and
+	 * reads the rows from the database in chunks of the specified size.
+	 * 
+	 * @param connection
+	 *            The connection to the database.
+	 * @param relation
+	 *            The relation over which should be iterated.
+	 * @param fetchSize
+	 *            The number of rows to fetch from the database at once, or 0
+	 *            to use the default of the driver.
+	 * @throws SQLException
+	 *             If the tuples of the relation can not be retrieved.
+	 */
+	public TupleIterator(Connection connection, IRdbRelation relation,
+			int fetchSize) throws SQLException {
 		this.connection = connection;
 		this.relation = relation;
 
@@ -88,7 +110,9 @@ public class TupleIterator implements CloseableIterator<ITuple> {
 		String sql = String.format(sqlFormat, attributes,
 				relation.getTableName());
 
-		CallableStatement statement = connection.prepareCall(sql);
+		statement = connection.prepareCall(sql, ResultSet.TYPE_FORWARD_ONLY,
+				ResultSet.CONCUR_READ_ONLY);
+		statement.setFetchSize(fetchSize);
 		resultSet = statement.executeQuery();
 	}
 
@@ -174,6 +198,9 @@ public class TupleIterator implements CloseableIterator<ITuple> {
 			}
 		}
 
+		RdbUtils.closeStatement(statement);
+		statement = null;
+
 		isClosed = true;
 	}
 
@@ -60,6 +60,16 @@ public class EquivalentTermsAdapter implements IEquivalentTerms {
 		return null;
 	}
 	
+	@Override
+	public long getVersion() {
+		return 0;
+	}
+
+	@Override
+	public Set<ITerm> getMergedRepresentatives(long sinceVersion) {
+		return null;
+	}
+
 	@Override
 	public String toString() {
 		return equivalenceRelation.toString();
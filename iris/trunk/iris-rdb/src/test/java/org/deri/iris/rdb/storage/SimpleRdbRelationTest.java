@@ -0,0 +1,125 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2011 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package org.deri.iris.rdb.storage;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import junit.framework.Assert;
+
+import org.deri.iris.api.terms.ITerm;
+import org.deri.iris.factory.Factory;
+import org.deri.iris.storage.IRelation;
+import org.deri.iris.storage.simple.SimpleRelationFactory;
+import org.junit.Test;
+
+public class SimpleRdbRelationTest extends AbstractRdbRelationTest {
+
+	@Test
+	public void testGetAcrossPages() throws SQLException {
+		relation1.add(tuple1);
+		relation1.add(tuple2);
+		relation1.add(tuple3);
+
+		SimpleRdbRelation relation = new SimpleRdbRelation(connection,
+				relation1.getTableName(), 2, 2, 1);
+
+		Assert.assertEquals(3, relation.size());
+		Assert.assertEquals(tuple1, relation.get(0));
+		Assert.assertEquals(tuple2, relation.get(1));
+		Assert.assertEquals(tuple3, relation.get(2));
+		Assert.assertNull(relation.get(3));
+
+		// Going back requires the first page to be read again.
+		Assert.assertEquals(tuple1, relation.get(0));
+		Assert.assertEquals(tuple3, relation.get(2));
+
+		relation.close();
+	}
+
+	@Test
+	public void testModificationInvalidatesPages() throws SQLException {
+		relation1.add(tuple1);
+
+		SimpleRdbRelation relation = new SimpleRdbRelation(connection,
+				relation1.getTableName(), 2, 2, 4);
+
+		Assert.assertEquals(1, relation.size());
+		Assert.assertNull(relation.get(1));
+
+		// Modify the table through a different relation object.
+		relation1.add(tuple2);
+
+		Assert.assertEquals(2, relation.size());
+		Assert.assertEquals(tuple2, relation.get(1));
+
+		relation.close();
+	}
+
+	@Test
+	public void testAddAllInBatches() throws SQLException {
+		relation1.add(tuple1);
+
+		IRelation source = new SimpleRelationFactory().createRelation();
+		source.add(tuple1);
+		source.add(tuple2);
+		source.add(tuple3);
+		source.add(tuple4);
+
+		// Batches of two tuples, the first one contains an existing tuple.
+		SimpleRdbRelation relation = new SimpleRdbRelation(connection,
+				relation1.getTableName(), 2, 2, 1);
+
+		Assert.assertTrue(relation.addAll(source));
+		Assert.assertEquals(4, relation.size());
+		Assert.assertTrue(relation.contains(tuple2));
+		Assert.assertTrue(relation.contains(tuple4));
+
+		Assert.assertFalse(relation.addAll(source));
+		Assert.assertEquals(4, relation.size());
+
+		relation.close();
+	}
+
+	@Test
+	public void testUniverseCachesIds() throws SQLException {
+		RdbUniverseRelation universe = RdbUniverseRelation
+				.getInstance(connection);
+
+		ITerm newTerm = Factory.TERM.createString("new");
+
+		Assert.assertTrue(universe.addAll(Arrays.asList(stringTerm, intTerm,
+				newTerm, stringTerm)));
+		Assert.assertFalse(universe.addAll(Arrays.asList(stringTerm,
+				newTerm)));
+
+		int id = universe.getId(newTerm);
+		Assert.assertTrue(id >= 0);
+		Assert.assertEquals(newTerm, universe.getTerm(id));
+
+		// The cache must return the same IDs as the database.
+		universe.clearCache();
+		Assert.assertEquals(id, universe.getId(newTerm));
+	}
+
+}
@@ -25,7 +25,7 @@ import at.sti2.streamingiris.rules.stratification.LocalStratifier;
 import at.sti2.streamingiris.storage.IIndexFactory;
 import at.sti2.streamingiris.storage.IRelationFactory;
 import at.sti2.streamingiris.storage.simple.SimpleIndexFactory;
-import at.sti2.streamingiris.storage.simple.SimpleRelationFactory;
+import at.sti2.streamingiris.storage.window.WindowRelationFactory;
 import at.sti2.streamingiris.utils.equivalence.IEquivalentTermsFactory;
 import at.sti2.streamingiris.utils.equivalence.TermEquivalenceFactory;
 
@@ -40,6 +40,18 @@ public class Configuration {
 	/** The port number of the socket where IRIS is listening for new data. */
 	public int inputPort = 8080;
 
+	/**
+	 * The maximum number of facts that are received, before they are added to
+	 * the knowledge base together.
+	 */
+	public int inputBatchSize = 1000;
+
+	/**
+	 * The maximum time in milliseconds a received fact waits for further facts,
+	 * before it is added to the knowledge base. Default is 100 milliseconds.
+	 */
+	public long inputBatchLatencyMilliseconds = 100;
+
 	/** The evaluation timeout in milliseconds. Zero means no timeout. */
 	public int evaluationTimeoutMilliseconds = 0;
 
@@ -55,6 +67,32 @@ public class Configuration {
 	 */
 	public long executionIntervallMilliseconds = 10000;
 
+	/**
+	 * Send only the changes of the answers of registered queries to their
+	 * listeners, instead of the complete answers. Each changed answer is sent
+	 * as a line "+ timestamp fact." for a new answer or "- timestamp fact." for
+	 * an expired answer, where the timestamp is the time of the window the
+	 * change was detected in. A query is only evaluated again if any predicate
+	 * it depends on has received new or expired facts. If changes for a
+	 * listener have been lost, it is sent a line "= timestamp" followed by the
+	 * complete current answers of its queries as new answers.
+	 */
+	public boolean incrementalQueryResults = false;
+
+	/**
+	 * The maximum number of results that are queued for a listener, before
+	 * further results for this listener are discarded. Results are written to
+	 * each listener by a background thread over a persistent connection, so
+	 * that a slow listener never blocks the evaluation.
+	 */
+	public int outputQueueCapacity = 1024;
+
+	/**
+	 * The time in milliseconds to wait before reconnecting to a listener after
+	 * its connection failed. Default is 1 second.
+	 */
+	public long outputReconnectDelayMilliseconds = 1000;
+
 	/**
 	 * The maximum number of tuples that are allowed to be generated during
 	 * evaluation before evaluation is terminated. Zero means that there is no
@@ -81,7 +119,7 @@ public class Configuration {
 	public DivideByZeroBehaviour evaluationDivideByZeroBehaviour = DivideByZeroBehaviour.DISCARD_AND_IGNORE;
 
 	/** The factory for creating relations required during evaluation. */
-	public IRelationFactory relationFactory = new SimpleRelationFactory();
+	public IRelationFactory relationFactory = new WindowRelationFactory();
 
 	/** The factory for creating indexes required during evaluation. */
 	public IIndexFactory indexFactory = new SimpleIndexFactory();
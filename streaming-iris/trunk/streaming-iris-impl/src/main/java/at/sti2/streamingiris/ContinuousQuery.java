@@ -0,0 +1,197 @@
+package at.sti2.streamingiris;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import at.sti2.streamingiris.api.basics.ILiteral;
+import at.sti2.streamingiris.api.basics.IPredicate;
+import at.sti2.streamingiris.api.basics.IQuery;
+import at.sti2.streamingiris.api.basics.IRule;
+import at.sti2.streamingiris.api.basics.ITuple;
+import at.sti2.streamingiris.api.terms.IVariable;
+import at.sti2.streamingiris.storage.IRelation;
+
+/**
+ * The state of a registered query in the incremental continuous-query mode
+ * (see {@link Configuration#incrementalQueryResults}).
+ *
+ * <p>
+ * A continuous query keeps its previous answer, so that only the answers that
+ * have been newly derived or that have expired since the previous evaluation
+ * are sent to the listeners. It also knows all predicates its answer depends
+ * on, either directly or through the rules, so that it is only evaluated again
+ * if one of these predicates received new or expired facts.
+ * </p>
+ */
+class ContinuousQuery {
+
+	/** The query. */
+	private final IQuery query;
+
+	/** The predicates the answer of the query depends on. */
+	private final Set<IPredicate> dependencies;
+
+	/** The answer of the previous evaluation, null if not evaluated yet. */
+	private Set<ITuple> answer;
+
+	/** The variable bindings of the answer tuples. */
+	private List<IVariable> variableBindings;
+
+	/** The answers added by the last update. */
+	private List<ITuple> added = new ArrayList<ITuple>();
+
+	/** The answers removed by the last update. */
+	private List<ITuple> removed = new ArrayList<ITuple>();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param query
+	 *            The query.
+	 * @param rules
+	 *            The rules of the knowledge-base.
+	 */
+	ContinuousQuery(IQuery query, List<IRule> rules) {
+		this.query = query;
+		this.dependencies = dependencies(query, rules);
+	}
+
+	/**
+	 * Computes the predicates of the query literals and, transitively, the
+	 * predicates of the bodies of all rules deriving any of these predicates.
+	 */
+	private static Set<IPredicate> dependencies(IQuery query, List<IRule> rules) {
+		Set<IPredicate> dependencies = new HashSet<IPredicate>();
+		List<IPredicate> open = new ArrayList<IPredicate>();
+
+		for (ILiteral literal : query.getLiterals()) {
+			if (dependencies.add(literal.getAtom().getPredicate()))
+				open.add(literal.getAtom().getPredicate());
+		}
+
+		while (!open.isEmpty()) {
+			IPredicate predicate = open.remove(open.size() - 1);
+
+			for (IRule rule : rules) {
+				if (!derives(rule, predicate))
+					continue;
+
+				for (ILiteral literal : rule.getBody()) {
+					IPredicate body = literal.getAtom().getPredicate();
+					if (dependencies.add(body))
+						open.add(body);
+				}
+			}
+		}
+
+		return dependencies;
+	}
+
+	private static boolean derives(IRule rule, IPredicate predicate) {
+		for (ILiteral literal : rule.getHead()) {
+			if (literal.getAtom().getPredicate().equals(predicate))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the query.
+	 */
+	IQuery getQuery() {
+		return query;
+	}
+
+	/**
+	 * Indicates if the query must be evaluated, because it has not been
+	 * evaluated yet or because any of the predicates it depends on has
+	 * changed.
+	 *
+	 * @param changedPredicates
+	 *            The predicates that received new or expired facts since the
+	 *            previous evaluation.
+	 * @return true if the query must be evaluated.
+	 */
+	boolean needsEvaluation(Collection<IPredicate> changedPredicates) {
+		if (answer == null)
+			return true;
+
+		for (IPredicate predicate : changedPredicates) {
+			if (dependencies.contains(predicate))
+				return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Replaces the previous answer with the result of a new evaluation and
+	 * computes the added and removed answers.
+	 *
+	 * @param bindings
+	 *            The variable bindings of the result tuples.
+	 * @param result
+	 *            The result of the evaluation.
+	 * @return true if the answer has changed.
+	 */
+	boolean update(List<IVariable> bindings, IRelation result) {
+		Set<ITuple> previous = answer;
+		Set<ITuple> current = new LinkedHashSet<ITuple>();
+
+		for (int i = 0; i < result.size(); i++)
+			current.add(result.get(i));
+
+		added = new ArrayList<ITuple>();
+		removed = new ArrayList<ITuple>();
+
+		for (ITuple tuple : current) {
+			if (previous == null || !previous.contains(tuple))
+				added.add(tuple);
+		}
+
+		if (previous != null) {
+			for (ITuple tuple : previous) {
+				if (!current.contains(tuple))
+					removed.add(tuple);
+			}
+		}
+
+		answer = current;
+		variableBindings = bindings;
+
+		return !added.isEmpty() || !removed.isEmpty();
+	}
+
+	/**
+	 * Returns the current answer, an empty set if the query has not been
+	 * evaluated yet.
+	 */
+	Set<ITuple> getAnswer() {
+		return answer == null ? new HashSet<ITuple>() : answer;
+	}
+
+	/**
+	 * Returns the variable bindings of the answer tuples.
+	 */
+	List<IVariable> getVariableBindings() {
+		return variableBindings;
+	}
+
+	/**
+	 * Returns the answers added by the last update.
+	 */
+	List<ITuple> getAdded() {
+		return added;
+	}
+
+	/**
+	 * Returns the answers removed by the last update.
+	 */
+	List<ITuple> getRemoved() {
+		return removed;
+	}
+}
@@ -10,6 +10,23 @@ public interface IIrisOutputStreamer {
 	 */
 	public abstract void stream(String output);
 
+	/**
+	 * Checks whether output has been lost since the last resynchronisation,
+	 * e.g. because the listener did not keep up or the connection failed.
+	 * 
+	 * @return true if the listener is out of sync.
+	 */
+	public abstract boolean isOutOfSync();
+
+	/**
+	 * Replaces all output that has not been streamed yet by the given output,
+	 * which must be complete by itself, and marks the listener as in sync.
+	 * 
+	 * @param output
+	 *            The output to be streamed.
+	 */
+	public abstract void resynchronise(String output);
+
 	/**
 	 * Shutdown the output streamer.
 	 */
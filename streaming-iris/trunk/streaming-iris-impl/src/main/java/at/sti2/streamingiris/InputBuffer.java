@@ -55,11 +55,33 @@ public class InputBuffer {
 			});
 		} else {
 			synchronized (factMap) {
-				factMap.put(new Long(currentTimeMillis), facts);
+				Map<IPredicate, IRelation> bufferedFacts = factMap
+						.get(currentTimeMillis);
+
+				// Several batches may arrive within the same millisecond.
+				if (bufferedFacts == null)
+					factMap.put(new Long(currentTimeMillis), facts);
+				else
+					merge(bufferedFacts, facts);
 			}
 		}
 	}
 
+	/**
+	 * Adds the facts to the facts buffered for the same time.
+	 */
+	private void merge(Map<IPredicate, IRelation> bufferedFacts,
+			Map<IPredicate, IRelation> facts) {
+		for (Entry<IPredicate, IRelation> entry : facts.entrySet()) {
+			IRelation relation = bufferedFacts.get(entry.getKey());
+
+			if (relation == null)
+				bufferedFacts.put(entry.getKey(), entry.getValue());
+			else
+				relation.addAll(entry.getValue());
+		}
+	}
+
 	public synchronized void setKbReady() {
 		synchronized (factMap) {
 			this.kbReady = true;
@@ -1,22 +1,85 @@
 package at.sti2.streamingiris;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.io.StringReader;
-import java.net.Socket;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.log4j.Logger;
 
+/**
+ * Streams results to a listener over a single persistent connection.
+ * 
+ * <p>
+ * Results are put into a bounded queue and written by a background thread, so
+ * that {@link #stream(String)} never blocks the evaluation. The writer drains
+ * all queued results at once and sends them with a single write. If the
+ * connection fails, the unwritten results are kept and the writer reconnects
+ * after a delay. If the listener does not keep up and the queue is full,
+ * further results are discarded until there is room again.
+ * </p>
+ * 
+ * <p>
+ * Whenever results are discarded or may have been lost with a failed
+ * connection, the listener is marked as out of sync until it is
+ * {@link #resynchronise(String) resynchronised}.
+ * </p>
+ * 
+ * <p>
+ * On {@link #shutdown()}, the queued results are still written, waiting at
+ * most the reconnect delay. The results that could not be written by then are
+ * dropped, and their number is logged.
+ * </p>
+ */
 public class IrisOutputStreamer implements IIrisOutputStreamer {
 
 	static Logger logger = Logger.getLogger(IrisOutputStreamer.class);
 
-	private String host = null;
-	private int port = 0;
-	private Socket socket = null;
+	/** The default maximum number of queued results. */
+	public static final int DEFAULT_QUEUE_CAPACITY = 1024;
 
-	private PrintWriter streamWriter;
+	/** The default delay in milliseconds before reconnecting. */
+	public static final long DEFAULT_RECONNECT_DELAY = 1000;
+
+	/** The minimum time in milliseconds between two warnings. */
+	private static final long WARNING_INTERVAL = 10000;
+
+	private final String host;
+	private final int port;
+	private final long reconnectDelay;
+
+	/** The results that have not been written yet. */
+	private final BlockingQueue<String> queue;
+
+	/** The background thread writing the queued results. */
+	private final Thread writer;
+
+	/** The connection to the listener, null if not connected. */
+	private volatile SocketChannel channel;
+
+	private volatile boolean running = true;
+
+	/** The number of results discarded because the queue was full. */
+	private final AtomicLong discarded = new AtomicLong();
+
+	/** The time of the last warning about discarded results. */
+	private final AtomicLong lastWarning = new AtomicLong();
+
+	/** Set if results have been lost since the last resynchronisation. */
+	private final AtomicBoolean outOfSync = new AtomicBoolean();
+
+	/**
+	 * Wakes up the writer waiting for results. Empty results are never
+	 * streamed, so it adds nothing to the output.
+	 */
+	private static final String WAKE_UP = "";
 
 	/**
 	 * Constructor.
@@ -27,8 +90,33 @@ public class IrisOutputStreamer implements IIrisOutputStreamer {
 	 *            The port where the results are sent.
 	 */
 	public IrisOutputStreamer(String host, int port) {
+		this(host, port, DEFAULT_QUEUE_CAPACITY, DEFAULT_RECONNECT_DELAY);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param host
+	 *            The host where the results are sent.
+	 * @param port
+	 *            The port where the results are sent.
+	 * @param queueCapacity
+	 *            The maximum number of queued results.
+	 * @param reconnectDelay
+	 *            The delay in milliseconds before reconnecting after the
+	 *            connection failed.
+	 */
+	public IrisOutputStreamer(String host, int port, int queueCapacity,
+			long reconnectDelay) {
 		this.host = host;
 		this.port = port;
+		this.reconnectDelay = reconnectDelay;
+		this.queue = new LinkedBlockingQueue<String>(queueCapacity);
+
+		writer = new Thread(new Writer(), "IrisOutputStreamer " + host + ":"
+				+ port);
+		writer.setDaemon(true);
+		writer.start();
 	}
 
 	/*
@@ -38,25 +126,57 @@ public class IrisOutputStreamer implements IIrisOutputStreamer {
 	 */
 	@Override
 	public void stream(String output) {
-		try {
-			socket = new Socket(host, port);
-			streamWriter = new PrintWriter(socket.getOutputStream());
-			BufferedReader bufferedReader = new BufferedReader(
-					new StringReader(output));
-			String factLine = null;
-
-			while ((factLine = bufferedReader.readLine()) != null) {
-				streamWriter.println(factLine);
-			}
+		if (!running || output.length() == 0)
+			return;
 
-			streamWriter.flush();
-			streamWriter.close();
+		if (!queue.offer(output))
+			discard();
+	}
 
-			bufferedReader.close();
-			socket.close();
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see at.sti2.streamingiris.IIrisOutputStreamer#isOutOfSync()
+	 */
+	@Override
+	public boolean isOutOfSync() {
+		return outOfSync.get();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * at.sti2.streamingiris.IIrisOutputStreamer#resynchronise(java.lang.String)
+	 */
+	@Override
+	public void resynchronise(String output) {
+		if (!running)
+			return;
+
+		outOfSync.set(false);
+		queue.clear();
+
+		if (!queue.offer(output))
+			discard();
+	}
+
+	/**
+	 * Counts a discarded result and marks the listener as out of sync. The
+	 * warning is logged at most once per interval.
+	 */
+	private void discard() {
+		outOfSync.set(true);
+		long count = discarded.incrementAndGet();
+
+		long now = System.currentTimeMillis();
+		long last = lastWarning.get();
+
+		if (now - last >= WARNING_INTERVAL
+				&& lastWarning.compareAndSet(last, now))
+			logger.warn("Listener [" + host + ", " + port
+					+ "] does not keep up, " + count
+					+ " results discarded so far");
 	}
 
 	/*
@@ -66,18 +186,191 @@ public class IrisOutputStreamer implements IIrisOutputStreamer {
 	 */
 	@Override
 	public boolean shutdown() {
-		boolean result;
+		running = false;
+		queue.offer(WAKE_UP);
+
+		try {
+			// Give the writer some time to write the queued results.
+			writer.join(reconnectDelay);
+
+			if (writer.isAlive()) {
+				writer.interrupt();
+				writer.join(reconnectDelay);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		disconnect();
+		return true;
+	}
+
+	/**
+	 * Opens the connection to the listener.
+	 */
+	private void connect() throws IOException {
+		SocketChannel socketChannel = SocketChannel
+				.open(new InetSocketAddress(host, port));
+
 		try {
-			if (streamWriter != null)
-				streamWriter.close();
-			if (socket != null)
-				socket.close();
+			socketChannel.socket().setTcpNoDelay(true);
 		} catch (IOException e) {
-			logger.error("IO exception occured!", e);
-			e.printStackTrace();
-		} finally {
-			result = true;
+			socketChannel.close();
+			throw e;
+		}
+
+		channel = socketChannel;
+		logger.info("Connected to listener [" + host + ", " + port + "]");
+	}
+
+	/**
+	 * Closes the connection to the listener, if open.
+	 */
+	private void disconnect() {
+		SocketChannel socketChannel = channel;
+		channel = null;
+
+		if (socketChannel != null) {
+			try {
+				socketChannel.close();
+			} catch (IOException e) {
+				logger.error("IO exception occured!", e);
+			}
+		}
+	}
+
+	/**
+	 * Writes the queued results to the listener, until the streamer is shut
+	 * down and all queued results are written.
+	 */
+	private class Writer implements Runnable {
+
+		private final Charset charset = Charset.defaultCharset();
+
+		private final List<String> batch = new ArrayList<String>();
+
+		/** Set if anything was written over the current connection. */
+		private boolean written;
+
+		/** The number of results in the pending buffer. */
+		private int pendingResults;
+
+		@Override
+		public void run() {
+			ByteBuffer pending = null;
+
+			try {
+				while (true) {
+					if (pending == null)
+						pending = nextBatch();
+
+					// Shut down and all results written.
+					if (pending == null)
+						break;
+
+					if (pendingResults == 0) {
+						pending = null;
+						continue;
+					}
+
+					try {
+						if (channel == null) {
+							connect();
+							written = false;
+						}
+
+						while (pending.hasRemaining()) {
+							channel.write(pending);
+							written = true;
+						}
+
+						pending = null;
+						pendingResults = 0;
+					} catch (IOException e) {
+						// Results written before may not have arrived, and
+						// the rest of a partly written line is useless.
+						if (written) {
+							outOfSync.set(true);
+							skipPartialLine(pending);
+							written = false;
+						}
+
+						disconnect();
+						logger.warn("Connection to listener [" + host + ", "
+								+ port + "] failed: " + e.getMessage());
+
+						if (!running)
+							break;
+
+						Thread.sleep(reconnectDelay);
+					}
+				}
+			} catch (InterruptedException e) {
+				// Shut down.
+			} finally {
+				disconnect();
+				logDropped();
+			}
+		}
+
+		/**
+		 * Waits for the next result and combines it with all other queued
+		 * results. Once the streamer is shut down, it does not wait.
+		 * 
+		 * @return The results, or null if the streamer is shut down and there
+		 *         are no more results.
+		 */
+		private ByteBuffer nextBatch() throws InterruptedException {
+			String result = running ? queue.take() : queue.poll();
+			if (result == null)
+				return null;
+
+			batch.add(result);
+			queue.drainTo(batch);
+
+			StringBuilder output = new StringBuilder();
+			for (String next : batch) {
+				if (next.length() > 0)
+					pendingResults++;
+				output.append(next);
+			}
+			batch.clear();
+
+			return charset.encode(output.toString());
+		}
+
+		/**
+		 * Logs the number of results that were not written before the
+		 * streamer was shut down.
+		 */
+		private void logDropped() {
+			queue.drainTo(batch);
+
+			int dropped = pendingResults;
+			for (String result : batch) {
+				if (result.length() > 0)
+					dropped++;
+			}
+			batch.clear();
+
+			if (dropped > 0)
+				logger.warn("Listener [" + host + ", " + port + "] shut down, "
+						+ dropped + " results dropped");
+		}
+
+		/**
+		 * Moves the position of the buffer to the start of the next line, if
+		 * it is in the middle of a line.
+		 */
+		private void skipPartialLine(ByteBuffer buffer) {
+			if (buffer.position() == 0
+					|| buffer.get(buffer.position() - 1) == '\n')
+				return;
+
+			while (buffer.hasRemaining()) {
+				if (buffer.get() == '\n')
+					return;
+			}
 		}
-		return result;
 	}
 }
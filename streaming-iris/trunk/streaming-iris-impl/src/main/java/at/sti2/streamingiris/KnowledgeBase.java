@@ -2,9 +2,11 @@ package at.sti2.streamingiris;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,6 +59,18 @@ public class KnowledgeBase implements IKnowledgeBase {
 	/** Buffers the input until the evaluation is finished. */
 	private InputBuffer inputBuffer;
 
+	/** The state of the registered queries in the incremental mode. */
+	private final Map<IQuery, ContinuousQuery> continuousQueries = new HashMap<IQuery, ContinuousQuery>();
+
+	/**
+	 * The predicates that received new or expired facts since the registered
+	 * queries have been executed.
+	 */
+	private final Set<IPredicate> changedPredicates = new HashSet<IPredicate>();
+
+	/** The time of the current window. */
+	private long windowTimestamp = System.currentTimeMillis();
+
 	/**
 	 * Constructor.
 	 * 
@@ -139,7 +153,8 @@ public class KnowledgeBase implements IKnowledgeBase {
 		inputBuffer = new InputBuffer(this);
 
 		inputServerThread = new KnowledgeBaseServer(inputBuffer,
-				configuration.inputPort);
+				configuration.inputPort, configuration.inputBatchSize,
+				configuration.inputBatchLatencyMilliseconds);
 		inputServerThread.start();
 	}
 
@@ -179,9 +194,15 @@ public class KnowledgeBase implements IKnowledgeBase {
 						+ configuration.timeWindowMilliseconds;
 				// logger.info("Timestamp: {}", timestamp);
 
+				Map<IPredicate, Integer> sizes = relationSizes();
+
 				facts.clean(currentTimeMillis);
+				sizes = recordChanges(sizes);
 
 				facts.addFacts(newFacts, timestamp);
+				recordChanges(sizes);
+
+				windowTimestamp = currentTimeMillis;
 
 				// FIXME Norbert: does only work with
 				// StratifiedBottomUpEvaluationStrategy
@@ -213,6 +234,8 @@ public class KnowledgeBase implements IKnowledgeBase {
 		inputBuffer.setKbWorking();
 		long timestamp;
 		synchronized (facts) {
+			Map<IPredicate, Integer> sizes = relationSizes();
+
 			for (Entry<Long, Map<IPredicate, IRelation>> entry : newFacts
 					.entrySet()) {
 				long time = entry.getKey();
@@ -220,7 +243,13 @@ public class KnowledgeBase implements IKnowledgeBase {
 				facts.addFacts(entry.getValue(), timestamp);
 			}
 
-			facts.clean(System.currentTimeMillis());
+			sizes = recordChanges(sizes);
+
+			long currentTimeMillis = System.currentTimeMillis();
+			facts.clean(currentTimeMillis);
+			recordChanges(sizes);
+
+			windowTimestamp = currentTimeMillis;
 
 			try {
 				// FIXME Norbert: does only work with
@@ -269,6 +298,11 @@ public class KnowledgeBase implements IKnowledgeBase {
 			ArrayList<IVariable> variableBindings;
 			synchronized (facts) {
 				for (IQuery query : queryListenerMap.keySet()) {
+					if (configuration.incrementalQueryResults) {
+						executeIncrementally(query);
+						continue;
+					}
+
 					variableBindings = new ArrayList<IVariable>();
 					IRelation result = evaluationStrategy.evaluateQuery(
 							RuleManipulator.removeDuplicateLiterals(query),
@@ -281,12 +315,117 @@ public class KnowledgeBase implements IKnowledgeBase {
 					// send results to listeners.
 					sendResults(query, results);
 				}
+
+				if (configuration.incrementalQueryResults)
+					resynchroniseListeners();
+
+				changedPredicates.clear();
 			}
 		} catch (Exception e) {
 			logger.error("Evaluation error occured: {}", e.toString());
 		}
 	}
 
+	/**
+	 * Executes a registered query in the incremental mode. The query is only
+	 * evaluated if it depends on any changed predicate, and only the changes
+	 * of its answer are sent to the listeners.
+	 * 
+	 * @param query
+	 *            The query.
+	 * @throws EvaluationException
+	 */
+	private void executeIncrementally(IQuery query) throws EvaluationException {
+		ContinuousQuery continuousQuery = continuousQueries.get(query);
+
+		if (continuousQuery == null) {
+			continuousQuery = new ContinuousQuery(query, rules);
+			continuousQueries.put(query, continuousQuery);
+		}
+
+		if (!continuousQuery.needsEvaluation(changedPredicates))
+			return;
+
+		List<IVariable> variableBindings = new ArrayList<IVariable>();
+		IRelation result = evaluationStrategy.evaluateQuery(
+				RuleManipulator.removeDuplicateLiterals(query),
+				variableBindings);
+
+		if (continuousQuery.update(variableBindings, result)) {
+			sendResults(query, ResultFormatter.formatDelta(query,
+					variableBindings, continuousQuery.getAdded(),
+					continuousQuery.getRemoved(), windowTimestamp));
+		}
+	}
+
+	/**
+	 * Sends the complete current answers of their queries to all listeners in
+	 * the incremental mode that have lost changes, e.g. because they did not
+	 * keep up or their connection failed.
+	 */
+	private void resynchroniseListeners() {
+		for (Entry<String, IIrisOutputStreamer> entry : irisOutputStreamers
+				.entrySet()) {
+			if (!entry.getValue().isOutOfSync())
+				continue;
+
+			StringBuilder snapshot = new StringBuilder(
+					ResultFormatter.formatReset(windowTimestamp));
+
+			for (Entry<IQuery, List<String>> listeners : queryListenerMap
+					.entrySet()) {
+				ContinuousQuery continuousQuery = continuousQueries
+						.get(listeners.getKey());
+
+				if (continuousQuery != null
+						&& listeners.getValue().contains(entry.getKey()))
+					snapshot.append(ResultFormatter.formatDelta(
+							listeners.getKey(),
+							continuousQuery.getVariableBindings(),
+							continuousQuery.getAnswer(),
+							new ArrayList<ITuple>(), windowTimestamp));
+			}
+
+			entry.getValue().resynchronise(snapshot.toString());
+			logger.info("Listener resynchronised: {}", entry.getKey());
+		}
+	}
+
+	/**
+	 * Returns the current size of every relation.
+	 */
+	private Map<IPredicate, Integer> relationSizes() {
+		Map<IPredicate, Integer> sizes = new HashMap<IPredicate, Integer>();
+
+		for (IPredicate predicate : facts.getPredicates())
+			sizes.put(predicate, facts.get(predicate).size());
+
+		return sizes;
+	}
+
+	/**
+	 * Records the predicates whose relations have changed in size, i.e. that
+	 * have received new facts or whose facts have expired. Refreshing the
+	 * timestamp of a fact does not change the answers of any query.
+	 * 
+	 * @param previous
+	 *            The previous size of every relation.
+	 * @return The current size of every relation.
+	 */
+	private Map<IPredicate, Integer> recordChanges(
+			Map<IPredicate, Integer> previous) {
+		Map<IPredicate, Integer> sizes = relationSizes();
+
+		for (Entry<IPredicate, Integer> entry : sizes.entrySet()) {
+			Integer size = previous.get(entry.getKey());
+
+			if (!entry.getValue().equals(size == null ? 0 : size))
+				changedPredicates.add(entry.getKey());
+		}
+
+		return sizes;
+	}
+
 	@Override
 	public void registerQueryListener(IQuery query, String host, int port)
 			throws EvaluationException {
@@ -301,7 +440,13 @@ public class KnowledgeBase implements IKnowledgeBase {
 				}
 
 				if (queryListenerMap.containsKey(query)) {
-					queryListenerMap.get(query).add(hostPortString);
+					List<String> listeners = queryListenerMap.get(query);
+
+					if (configuration.incrementalQueryResults
+							&& !listeners.contains(hostPortString))
+						sendCurrentAnswer(query, hostPortString);
+
+					listeners.add(hostPortString);
 				} else {
 					ArrayList<String> hostPortPairList = new ArrayList<String>();
 					hostPortPairList.add(hostPortString);
@@ -326,6 +471,10 @@ public class KnowledgeBase implements IKnowledgeBase {
 				}
 				if (list.size() == 0) {
 					queryListenerMap.remove(query);
+
+					synchronized (facts) {
+						continuousQueries.remove(query);
+					}
 				}
 				logger.info("Query deregistered: {}", query);
 			} else {
@@ -334,6 +483,31 @@ public class KnowledgeBase implements IKnowledgeBase {
 		}
 	}
 
+	/**
+	 * Sends the current answer of a query in the incremental mode to a new
+	 * listener, which receives only the changes afterwards.
+	 * 
+	 * @param query
+	 *            The query.
+	 * @param hostPortString
+	 *            The listener.
+	 */
+	private void sendCurrentAnswer(IQuery query, String hostPortString) {
+		synchronized (facts) {
+			ContinuousQuery continuousQuery = continuousQueries.get(query);
+
+			if (continuousQuery == null
+					|| continuousQuery.getAnswer().isEmpty())
+				return;
+
+			irisOutputStreamers.get(hostPortString).stream(
+					ResultFormatter.formatDelta(query,
+							continuousQuery.getVariableBindings(),
+							continuousQuery.getAnswer(),
+							new ArrayList<ITuple>(), windowTimestamp));
+		}
+	}
+
 	/**
 	 * This method writes the result of a query to the output sockets.
 	 * 
@@ -374,7 +548,8 @@ public class KnowledgeBase implements IKnowledgeBase {
 	private IIrisOutputStreamer createListener(String host, int port) {
 		// Start the knowledge base output thread
 		IIrisOutputStreamer irisOutputStreamer = new IrisOutputStreamer(host,
-				port);
+				port, configuration.outputQueueCapacity,
+				configuration.outputReconnectDelayMilliseconds);
 		logger.info("Added listener [{}, {}]", host, port);
 		return irisOutputStreamer;
 	}
@@ -385,7 +560,12 @@ public class KnowledgeBase implements IKnowledgeBase {
 			long currentTime = System.currentTimeMillis();
 			// logger.info("Current time: {}", currentTime);
 
+			Map<IPredicate, Integer> sizes = relationSizes();
+
 			facts.clean(currentTime);
+			recordChanges(sizes);
+
+			windowTimestamp = currentTime;
 
 			try {
 				// FIXME Norbert: does only work with
@@ -1,5 +1,6 @@
 package at.sti2.streamingiris;
 
+import java.util.Collection;
 import java.util.List;
 
 import at.sti2.streamingiris.api.basics.ILiteral;
@@ -24,30 +25,88 @@ public class ResultFormatter {
 	public static String format(IQuery query, List<IVariable> variableBindings,
 			IRelation result) {
 		StringBuilder results = new StringBuilder();
-		StringBuffer resultStringBuffer;
 
 		for (int i = 0; i < result.size(); i++) {
-			ITuple resultTuple = result.get(i);
-			for (ILiteral literal : query.getLiterals()) {
-				String literalString = literal.toString();
-				for (int j = 0; j < resultTuple.size(); j++) {
-					String resultString = resultTuple.get(j).toString();
-					if (!resultString.startsWith("'")) {
-						resultStringBuffer = new StringBuffer();
-						resultStringBuffer.append("'");
-						resultStringBuffer.append(resultString);
-						resultStringBuffer.append("'");
-						resultString = resultStringBuffer.toString();
-					}
-					literalString = literalString.replace(
-							variableBindings.get(j).toString(), resultString);
-				}
-				results.append(literalString);
-				results.append(".\n");
-			}
+			append(results, "", query, variableBindings, result.get(i));
 		}
 
 		String res = results.toString();
 		return res;
 	}
+
+	/**
+	 * Formats the changes of the results of a query of IRIS. Every added
+	 * result is formatted as "+ timestamp fact." and every removed result as
+	 * "- timestamp fact.".
+	 * 
+	 * @param query
+	 *            The query that has been executed.
+	 * @param variableBindings
+	 *            The variable bindings of the query.
+	 * @param added
+	 *            The new results.
+	 * @param removed
+	 *            The expired results.
+	 * @param timestamp
+	 *            The timestamp of the window the changes belong to.
+	 * @return The changes as datalog facts, tagged with the kind of change and
+	 *         the timestamp.
+	 */
+	public static String formatDelta(IQuery query,
+			List<IVariable> variableBindings, Collection<ITuple> added,
+			Collection<ITuple> removed, long timestamp) {
+		StringBuilder results = new StringBuilder();
+
+		for (ITuple resultTuple : added) {
+			append(results, "+ " + timestamp + " ", query, variableBindings,
+					resultTuple);
+		}
+
+		for (ITuple resultTuple : removed) {
+			append(results, "- " + timestamp + " ", query, variableBindings,
+					resultTuple);
+		}
+
+		return results.toString();
+	}
+
+	/**
+	 * Formats the line "= timestamp", which tells a listener of changes to
+	 * discard all results received so far, because the complete current
+	 * results follow as added results.
+	 * 
+	 * @param timestamp
+	 *            The timestamp of the window the results belong to.
+	 * @return The line.
+	 */
+	public static String formatReset(long timestamp) {
+		return "= " + timestamp + "\n";
+	}
+
+	/**
+	 * Appends the facts for one result tuple, one line per query literal.
+	 */
+	private static void append(StringBuilder results, String prefix,
+			IQuery query, List<IVariable> variableBindings, ITuple resultTuple) {
+		StringBuffer resultStringBuffer;
+
+		for (ILiteral literal : query.getLiterals()) {
+			String literalString = literal.toString();
+			for (int j = 0; j < resultTuple.size(); j++) {
+				String resultString = resultTuple.get(j).toString();
+				if (!resultString.startsWith("'")) {
+					resultStringBuffer = new StringBuffer();
+					resultStringBuffer.append("'");
+					resultStringBuffer.append(resultString);
+					resultStringBuffer.append("'");
+					resultString = resultStringBuffer.toString();
+				}
+				literalString = literalString.replace(variableBindings.get(j)
+						.toString(), resultString);
+			}
+			results.append(prefix);
+			results.append(literalString);
+			results.append(".\n");
+		}
+	}
 }
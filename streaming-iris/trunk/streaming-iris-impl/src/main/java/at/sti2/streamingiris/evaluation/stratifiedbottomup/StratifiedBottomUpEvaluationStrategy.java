@@ -5,8 +5,10 @@ import java.util.List;
 
 import at.sti2.streamingiris.Configuration;
 import at.sti2.streamingiris.EvaluationException;
+import at.sti2.streamingiris.api.basics.ILiteral;
 import at.sti2.streamingiris.api.basics.IQuery;
 import at.sti2.streamingiris.api.basics.IRule;
+import at.sti2.streamingiris.api.basics.ITuple;
 import at.sti2.streamingiris.api.terms.IVariable;
 import at.sti2.streamingiris.evaluation.IEvaluationStrategy;
 import at.sti2.streamingiris.evaluation.stratifiedbottomup.naive.NaiveEvaluator;
@@ -21,6 +23,12 @@ import at.sti2.streamingiris.utils.equivalence.IEquivalentTerms;
 
 /**
  * A strategy that uses bottom up evaluation on a stratified rule set.
+ * 
+ * The rules of each stratum are re-ordered, optimised and compiled only once.
+ * Between two evaluations the compiled rules are kept, unless tuples have been
+ * removed from a relation they read (e.g. by cleaning expired facts), in which
+ * case the rule is compiled again, because the views and indexes of the
+ * compiled rule only follow appended tuples.
  */
 public class StratifiedBottomUpEvaluationStrategy implements
 		IEvaluationStrategy {
@@ -48,6 +56,8 @@ public class StratifiedBottomUpEvaluationStrategy implements
 
 		rc = new RuleCompiler(facts, mEquivalentTerms, mConfiguration);
 
+		compiledFacts = facts;
+
 		int stratumNumber = 0;
 		for (List<IRule> stratum : stratifiedRules) {
 			// Re-order stratum
@@ -71,38 +81,27 @@ public class StratifiedBottomUpEvaluationStrategy implements
 
 			evaluator.evaluateRules(compiledRules, facts, configuration, 0);
 
+			strata.add(new CompiledStratum(optimisedRules, compiledRules,
+					evaluator));
+
 			stratumNumber++;
 		}
+
+		for (CompiledStratum stratum : strata)
+			stratum.snapshot();
 	}
 
 	public void evaluateRules(IFacts facts, long timestamp)
 			throws EvaluationException {
-		int stratumNumber = 0;
-		for (List<IRule> stratum : stratifiedRules) {
-			// Re-order stratum
-			List<IRule> reorderedRules = utils.reOrderRules(stratum);
-
-			// Rule optimization
-			List<IRule> optimisedRules = utils
-					.applyRuleOptimisers(reorderedRules);
-
-			List<ICompiledRule> compiledRules = new ArrayList<ICompiledRule>();
+		for (CompiledStratum stratum : strata) {
+			stratum.rebind();
 
-			for (IRule rule : optimisedRules) {
-				compiledRules.add(rc.compile(rule));
-			}
-
-			// TODO Enable rule head equality support for semi-naive evaluation.
-			// Choose the correct evaluation technique for the specified rules
-			// and stratum.
-			IRuleEvaluator evaluator = chooseEvaluator(stratumNumber,
-					optimisedRules, mRuleEvaluatorFactory);
-
-			evaluator.evaluateRules(compiledRules, facts, mConfiguration,
-					timestamp);
-
-			stratumNumber++;
+			stratum.evaluator.evaluateRules(stratum.compiledRules, facts,
+					mConfiguration, timestamp);
 		}
+
+		for (CompiledStratum stratum : strata)
+			stratum.snapshot();
 	}
 
 	private IRuleEvaluator chooseEvaluator(int stratum, List<IRule> rules,
@@ -150,8 +149,97 @@ public class StratifiedBottomUpEvaluationStrategy implements
 
 	protected final IRuleEvaluatorFactory mRuleEvaluatorFactory;
 
+	/**
+	 * The optimised and compiled rules of a stratum, together with the state
+	 * of the relations read by each rule at the end of the last evaluation.
+	 */
+	private class CompiledStratum {
+		CompiledStratum(List<IRule> rules, List<ICompiledRule> compiledRules,
+				IRuleEvaluator evaluator) {
+			this.rules = rules;
+			this.compiledRules = compiledRules;
+			this.evaluator = evaluator;
+
+			for (int r = 0; r < rules.size(); ++r)
+				snapshots.add(new ArrayList<RelationSnapshot>());
+		}
+
+		/**
+		 * Compile the rules again, which read a relation from which tuples have
+		 * been removed since the last evaluation.
+		 */
+		void rebind() throws EvaluationException {
+			for (int r = 0; r < rules.size(); ++r) {
+				for (RelationSnapshot snapshot : snapshots.get(r)) {
+					if (!snapshot.isAppendedOnly()) {
+						compiledRules.set(r, rc.compile(rules.get(r)));
+						break;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Record the current state of the relations read by the rules.
+		 */
+		void snapshot() {
+			for (int r = 0; r < rules.size(); ++r) {
+				List<RelationSnapshot> ruleSnapshots = snapshots.get(r);
+				ruleSnapshots.clear();
+
+				for (ILiteral literal : rules.get(r).getBody()) {
+					if (!literal.getAtom().isBuiltin())
+						ruleSnapshots.add(new RelationSnapshot(compiledFacts
+								.get(literal.getAtom().getPredicate())));
+				}
+			}
+		}
+
+		final List<IRule> rules;
+
+		final List<ICompiledRule> compiledRules;
+
+		final IRuleEvaluator evaluator;
+
+		/** The snapshots of the relations read by each rule. */
+		final List<List<RelationSnapshot>> snapshots = new ArrayList<List<RelationSnapshot>>();
+	}
+
+	/**
+	 * The size and the last tuple of a relation. Relations keep their tuples in
+	 * insertion order and are unique, therefore the relation had only tuples
+	 * appended, if it is not smaller and the last tuple is still at the same
+	 * position.
+	 */
+	private static class RelationSnapshot {
+		RelationSnapshot(IRelation relation) {
+			this.relation = relation;
+			size = relation.size();
+			last = size > 0 ? relation.get(size - 1) : null;
+		}
+
+		boolean isAppendedOnly() {
+			if (relation.size() < size)
+				return false;
+
+			return size == 0 || relation.get(size - 1) == last;
+		}
+
+		final IRelation relation;
+
+		final int size;
+
+		final ITuple last;
+	}
+
 	private RuleCompiler rc;
 
+	/** The facts the rules are compiled against. */
+	private IFacts compiledFacts;
+
+	/** The optimised and compiled strata, from the lowest to the highest. */
+	private final List<CompiledStratum> strata = new ArrayList<CompiledStratum>();
+
 	private List<List<IRule>> stratifiedRules;
 
 	private EvaluationUtilities utils;
@@ -9,7 +9,6 @@ import at.sti2.streamingiris.api.basics.IPredicate;
 import at.sti2.streamingiris.api.basics.ITuple;
 import at.sti2.streamingiris.storage.IRelation;
 import at.sti2.streamingiris.storage.IRelationFactory;
-import at.sti2.streamingiris.storage.simple.SimpleRelationFactory;
 
 /**
  * A manager for all facts stored in a knowledge-base.
@@ -95,7 +94,7 @@ public class Facts implements IFacts {
 			IRelation relation = entry.getValue();
 			if (!mPredicateRelationMap.containsKey(predicate)) {
 				mPredicateRelationMap.put(predicate,
-						new SimpleRelationFactory().createRelation());
+						mRelationFactory.createRelation());
 				mPredicateRelationMap.get(predicate)
 						.addAll(relation, timestamp);
 			} else {
@@ -0,0 +1,260 @@
+package at.sti2.streamingiris.storage.window;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import at.sti2.streamingiris.api.basics.ITuple;
+import at.sti2.streamingiris.storage.IRelation;
+
+/**
+ * An in-memory relation for windowed streams, that keeps its tuples in
+ * insertion order and additionally indexes them by their expiry time.
+ *
+ * <p>
+ * Tuples are appended to a slot array and never moved when their timestamp is
+ * refreshed. Every timestamp assignment files the tuple in the bucket of its
+ * expiry time, so that {@link #clean(long)} only visits the buckets that have
+ * expired instead of scanning the whole relation. Bucket entries that were
+ * superseded by a later timestamp are skipped when their bucket is drained.
+ * </p>
+ * <p>
+ * Expired tuples leave a hole in the slot array. Holes at the front of the
+ * array (the usual case for a sliding window, where tuples expire in the order
+ * they arrived) are skipped by advancing the start of the relation, so that
+ * expiry costs O(expired). Holes in the middle are compacted away in a single
+ * pass when the relation is next read. In both cases the surviving tuples keep
+ * their relative order.
+ * </p>
+ */
+public class WindowRelation implements IRelation {
+
+	/** The minimum number of leading holes, before the slot array is trimmed. */
+	private static final int MIN_TRIM = 64;
+
+	/** The bookkeeping of a stored tuple. */
+	private static class Entry {
+		/** The current timestamp, 0 for tuples that never expire. */
+		long timestamp;
+
+		/** The absolute position of the tuple in the slot array. */
+		long position;
+
+		Entry(long timestamp, long position) {
+			this.timestamp = timestamp;
+			this.position = position;
+		}
+	}
+
+	/** The tuples in insertion order, expired tuples are null. */
+	private final List<ITuple> slots = new ArrayList<ITuple>();
+
+	/** The absolute position of the first element of the slot array. */
+	private long base;
+
+	/** The index of the first slot that is not a leading hole. */
+	private int start;
+
+	/** The number of holes after <code>start</code>. */
+	private int holes;
+
+	/** The bookkeeping of every stored tuple. */
+	private final Map<ITuple, Entry> entries = new HashMap<ITuple, Entry>();
+
+	/** The tuples with a timestamp, bucketed by their timestamp. */
+	private final TreeMap<Long, List<ITuple>> expiries = new TreeMap<Long, List<ITuple>>();
+
+	WindowRelation() {
+	}
+
+	public boolean add(ITuple tuple) {
+		assert size() == 0 || get(0).size() == tuple.size();
+
+		Entry entry = entries.get(tuple);
+		if (entry == null) {
+			append(tuple, 0);
+			return true;
+		}
+		entry.timestamp = 0;
+		return false;
+	}
+
+	public boolean add(ITuple tuple, long timestamp) {
+		assert size() == 0 || get(0).size() == tuple.size();
+
+		Entry entry = entries.get(tuple);
+		if (entry == null) {
+			append(tuple, timestamp);
+			return true;
+		}
+		if (entry.timestamp != 0) {
+			stamp(tuple, entry, timestamp);
+		}
+		return false;
+	}
+
+	public boolean addAll(IRelation relation) {
+		boolean added = false;
+
+		for (int i = 0; i < relation.size(); ++i)
+			if (add(relation.get(i)))
+				added = true;
+
+		return added;
+	}
+
+	public boolean addAll(IRelation relation, long timestamp) {
+		boolean added = false;
+
+		for (int i = 0; i < relation.size(); ++i)
+			if (add(relation.get(i), timestamp))
+				added = true;
+
+		return added;
+	}
+
+	public ITuple get(int index) {
+		if (holes > 0)
+			compact();
+
+		return slots.get(start + index);
+	}
+
+	public int size() {
+		return slots.size() - start - holes;
+	}
+
+	public boolean contains(ITuple tuple) {
+		return entries.containsKey(tuple);
+	}
+
+	public long getTimestamp(ITuple tuple) {
+		Entry entry = entries.get(tuple);
+
+		return entry == null ? -1 : entry.timestamp;
+	}
+
+	public void setTimestamp(ITuple tuple, long timestamp) {
+		Entry entry = entries.get(tuple);
+
+		if (entry != null)
+			stamp(tuple, entry, timestamp);
+	}
+
+	/**
+	 * Removes all tuples with a timestamp other than 0 that is older than the
+	 * given timestamp. Only the buckets of expired timestamps are visited.
+	 */
+	public void clean(long timestamp) {
+		SortedMap<Long, List<ITuple>> expired = expiries.headMap(timestamp);
+
+		for (Iterator<Map.Entry<Long, List<ITuple>>> it = expired.entrySet()
+				.iterator(); it.hasNext();) {
+			Map.Entry<Long, List<ITuple>> bucket = it.next();
+			long bucketTimestamp = bucket.getKey();
+
+			for (ITuple tuple : bucket.getValue()) {
+				Entry entry = entries.get(tuple);
+
+				// The tuple might have been removed or re-stamped since.
+				if (entry != null && entry.timestamp == bucketTimestamp)
+					remove(tuple, entry);
+			}
+			it.remove();
+		}
+
+		if (start >= MIN_TRIM && start > slots.size() / 2)
+			trim();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder("[");
+
+		for (int i = 0; i < size(); ++i) {
+			if (i > 0)
+				result.append(", ");
+			result.append(get(i));
+		}
+
+		return result.append(']').toString();
+	}
+
+	private void append(ITuple tuple, long timestamp) {
+		Entry entry = new Entry(timestamp, base + slots.size());
+		slots.add(tuple);
+		entries.put(tuple, entry);
+
+		if (timestamp != 0)
+			file(tuple, timestamp);
+	}
+
+	private void stamp(ITuple tuple, Entry entry, long timestamp) {
+		if (entry.timestamp != timestamp && timestamp != 0)
+			file(tuple, timestamp);
+
+		entry.timestamp = timestamp;
+	}
+
+	private void file(ITuple tuple, long timestamp) {
+		List<ITuple> bucket = expiries.get(timestamp);
+
+		if (bucket == null) {
+			bucket = new ArrayList<ITuple>();
+			expiries.put(timestamp, bucket);
+		}
+		bucket.add(tuple);
+	}
+
+	private void remove(ITuple tuple, Entry entry) {
+		entries.remove(tuple);
+
+		int slot = (int) (entry.position - base);
+		slots.set(slot, null);
+
+		if (slot == start) {
+			start++;
+			while (start < slots.size() && slots.get(start) == null) {
+				start++;
+				holes--;
+			}
+		} else {
+			holes++;
+		}
+	}
+
+	/**
+	 * Drops the leading holes from the slot array.
+	 */
+	private void trim() {
+		slots.subList(0, start).clear();
+		base += start;
+		start = 0;
+	}
+
+	/**
+	 * Closes all holes in the slot array, keeping the order of the remaining
+	 * tuples.
+	 */
+	private void compact() {
+		int target = 0;
+
+		for (int i = start; i < slots.size(); ++i) {
+			ITuple tuple = slots.get(i);
+
+			if (tuple != null) {
+				entries.get(tuple).position = target;
+				slots.set(target++, tuple);
+			}
+		}
+
+		slots.subList(target, slots.size()).clear();
+		base = 0;
+		start = 0;
+		holes = 0;
+	}
+}
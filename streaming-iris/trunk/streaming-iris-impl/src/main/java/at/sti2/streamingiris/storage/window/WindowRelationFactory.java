@@ -0,0 +1,13 @@
+package at.sti2.streamingiris.storage.window;
+
+import at.sti2.streamingiris.storage.IRelation;
+import at.sti2.streamingiris.storage.IRelationFactory;
+
+/**
+ * Factory for window relations.
+ */
+public class WindowRelationFactory implements IRelationFactory {
+	public IRelation createRelation() {
+		return new WindowRelation();
+	}
+}
@@ -1,78 +1,314 @@
 package at.sti2.streamingiris.threads;
 
 import java.io.IOException;
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.util.ArrayList;
-import java.util.List;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import at.sti2.streamingiris.InputBuffer;
+import at.sti2.streamingiris.api.basics.IPredicate;
+import at.sti2.streamingiris.compiler.Parser;
+import at.sti2.streamingiris.compiler.ParserException;
+import at.sti2.streamingiris.facts.Facts;
+import at.sti2.streamingiris.facts.IFacts;
+import at.sti2.streamingiris.storage.IRelation;
+import at.sti2.streamingiris.storage.simple.SimpleRelationFactory;
 
 /**
- * This thread waits for a connection to a specified port and starts a new
- * thread as soon as the connection is established.
+ * This thread accepts connections on a specified port and reads the facts
+ * sent over all connections.
+ * 
+ * <p>
+ * All connections are served by this single thread through a selector. The
+ * input of every connection is parsed statement by statement as it arrives,
+ * so that producers may keep their connection open and send facts
+ * continuously. The parsed facts of all connections are collected and handed
+ * over to the input buffer in batches, as soon as a batch contains a given
+ * number of facts or its first fact has waited for a given time.
+ * </p>
  * 
  * @author norlan
  * 
  */
 public class KnowledgeBaseServer extends Thread {
 
+	/** The default maximum number of facts of a batch. */
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+
+	/** The default maximum time in milliseconds a fact waits in a batch. */
+	public static final long DEFAULT_BATCH_LATENCY = 100;
+
+	/**
+	 * The maximum length of a statement. A connection sending a longer
+	 * statement is closed.
+	 */
+	private static final int MAX_STATEMENT_LENGTH = 1 << 20;
+
 	private Logger logger = LoggerFactory.getLogger(getClass());
 	private InputBuffer inputBuffer;
 	private int port;
-	private ServerSocket server;
-	private List<KnowledgeBaseServerThread> inputThreads;
+	private int batchSize;
+	private long batchLatency;
+
+	private volatile boolean running = true;
+	private volatile Selector selector;
+
+	private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(16384);
+
+	/** The facts of the current batch. */
+	private IFacts batch;
+
+	/** The number of facts of the current batch. */
+	private int batchCount;
+
+	/** The time the first fact of the current batch was received. */
+	private long batchStart;
 
 	/**
 	 * Constructor.
 	 * 
-	 * @param knowledgeBase
-	 *            The knowledge base that processes the incoming data.
+	 * @param inputBuffer
+	 *            The input buffer that receives the incoming data.
 	 * @param port
 	 *            The port of the socket to listen on.
 	 */
 	public KnowledgeBaseServer(InputBuffer inputBuffer, int port) {
+		this(inputBuffer, port, DEFAULT_BATCH_SIZE, DEFAULT_BATCH_LATENCY);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param inputBuffer
+	 *            The input buffer that receives the incoming data.
+	 * @param port
+	 *            The port of the socket to listen on.
+	 * @param batchSize
+	 *            The maximum number of facts of a batch.
+	 * @param batchLatency
+	 *            The maximum time in milliseconds a fact waits in a batch.
+	 */
+	public KnowledgeBaseServer(InputBuffer inputBuffer, int port,
+			int batchSize, long batchLatency) {
+		super("KnowledgeBaseServer " + port);
 		this.inputBuffer = inputBuffer;
 		this.port = port;
-		this.inputThreads = new ArrayList<KnowledgeBaseServerThread>();
+		this.batchSize = batchSize;
+		this.batchLatency = batchLatency;
+		this.batch = newBatch();
 	}
 
 	public void run() {
+		ServerSocketChannel server = null;
+
 		try {
-			server = new ServerSocket(port);
+			selector = Selector.open();
+			if (!running)
+				return;
+
+			server = ServerSocketChannel.open();
+			server.socket().setReuseAddress(true);
+			server.socket().bind(new InetSocketAddress(port));
+			server.configureBlocking(false);
+			server.register(selector, SelectionKey.OP_ACCEPT);
 			logger.info("Server: " + server);
 
-			KnowledgeBaseServerThread inputThread;
-			while (!Thread.interrupted()) {
-				logger.info("Waiting for connection...");
-				Socket sock = server.accept();
-				inputThread = new KnowledgeBaseServerThread(inputBuffer, sock);
-				inputThread.start();
-				inputThreads.add(inputThread);
-				logger.info("Connected: " + sock);
+			while (running && !Thread.interrupted()) {
+				long timeout = 0;
+				if (batchCount > 0) {
+					timeout = Math.max(1, batchStart + batchLatency
+							- System.currentTimeMillis());
+				}
+
+				selector.select(timeout);
+
+				Iterator<SelectionKey> keys = selector.selectedKeys()
+						.iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+
+					if (!key.isValid())
+						continue;
+
+					if (key.isAcceptable())
+						accept(server);
+					else if (key.isReadable())
+						read(key);
+				}
+
+				if (batchCount > 0
+						&& System.currentTimeMillis() - batchStart >= batchLatency)
+					flush();
 			}
 		} catch (IOException e) {
-			// for (Thread thread : inputThreads) {
-			// thread.interrupt();
-			// }
-			// logger.info("KnowledgeBaseServer shut down!");
+			if (running)
+				logger.error("IO exception occured!", e);
+		} finally {
+			close(server);
 		}
 	}
 
 	public boolean shutdown() {
+		running = false;
+
+		Selector currentSelector = selector;
+		if (currentSelector != null)
+			currentSelector.wakeup();
+
+		logger.info("KnowledgeBaseServer shut down!");
+		return true;
+	}
+
+	/**
+	 * Accepts a new connection.
+	 */
+	private void accept(ServerSocketChannel server) throws IOException {
+		SocketChannel channel = server.accept();
+		if (channel == null)
+			return;
+
+		channel.configureBlocking(false);
+		channel.register(selector, SelectionKey.OP_READ, new StatementReader(
+				Charset.defaultCharset()));
+		logger.info("Connected: " + channel);
+	}
+
+	/**
+	 * Reads the available input of a connection and parses all complete
+	 * statements.
+	 */
+	private void read(SelectionKey key) {
+		SocketChannel channel = (SocketChannel) key.channel();
+		StatementReader reader = (StatementReader) key.attachment();
+
+		int read;
 		try {
-			if (server != null)
-				server.close();
-			for (Thread thread : inputThreads) {
-				thread.interrupt();
+			read = channel.read(readBuffer);
+		} catch (IOException e) {
+			logger.error("IO exception occured!", e);
+			read = -1;
+		}
+
+		readBuffer.flip();
+		reader.decode(readBuffer);
+		readBuffer.clear();
+
+		String statements = reader.next();
+		if (statements != null)
+			parse(statements, reader.getStatementCount());
+
+		if (read < 0) {
+			String rest = reader.finish();
+			if (rest != null)
+				parse(rest, 1);
+
+			close(key);
+		} else if (reader.getPendingLength() > MAX_STATEMENT_LENGTH) {
+			logger.error("Statement exceeds " + MAX_STATEMENT_LENGTH
+					+ " characters, closing " + channel);
+			close(key);
+		}
+	}
+
+	/**
+	 * Parses statements into the current batch. If the statements can not be
+	 * parsed at once, they are parsed one by one and only the malformed
+	 * statements are skipped.
+	 */
+	private void parse(String statements, int count) {
+		try {
+			new Parser(batch).parse(statements);
+		} catch (ParserException e) {
+			count = 0;
+
+			for (String statement : StatementReader.split(statements)) {
+				try {
+					new Parser(batch).parse(statement);
+					count++;
+				} catch (ParserException statementException) {
+					logger.error("Skipping malformed statement "
+							+ statement.trim() + ": "
+							+ statementException.getMessage());
+				}
 			}
-			logger.info("KnowledgeBaseServer shut down!");
-			return true;
+
+			if (count == 0)
+				return;
+		}
+
+		if (batchCount == 0)
+			batchStart = System.currentTimeMillis();
+		batchCount += count;
+
+		if (batchCount >= batchSize)
+			flush();
+	}
+
+	/**
+	 * Hands the current batch over to the input buffer and starts a new one.
+	 */
+	private void flush() {
+		Map<IPredicate, IRelation> newFacts = new HashMap<IPredicate, IRelation>();
+
+		for (IPredicate predicate : batch.getPredicates()) {
+			IRelation relation = batch.get(predicate);
+			if (relation.size() > 0)
+				newFacts.put(predicate, relation);
+		}
+
+		batch = newBatch();
+		batchCount = 0;
+
+		if (newFacts.size() != 0)
+			inputBuffer.addFacts(newFacts);
+	}
+
+	private static IFacts newBatch() {
+		return new Facts(new SimpleRelationFactory());
+	}
+
+	private void close(SelectionKey key) {
+		key.cancel();
+
+		try {
+			key.channel().close();
 		} catch (IOException e) {
-			return false;
+			logger.error("IO exception occured!", e);
+		}
+	}
+
+	/**
+	 * Closes the server and all connections.
+	 */
+	private void close(ServerSocketChannel server) {
+		if (selector != null) {
+			for (SelectionKey key : selector.keys())
+				close(key);
+
+			try {
+				selector.close();
+			} catch (IOException e) {
+				logger.error("IO exception occured!", e);
+			}
+		}
+
+		if (server != null) {
+			try {
+				server.close();
+			} catch (IOException e) {
+				logger.error("IO exception occured!", e);
+			}
 		}
 	}
 }
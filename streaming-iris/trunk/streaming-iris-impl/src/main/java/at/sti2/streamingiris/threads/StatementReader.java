@@ -0,0 +1,284 @@
+/*
+ * Integrated Rule Inference System (IRIS):
+ * An extensible rule inference system for datalog with extensions.
+ * 
+ * Copyright (C) 2008 Semantic Technology Institute (STI) Innsbruck, 
+ * University of Innsbruck, Technikerstrasse 21a, 6020 Innsbruck, Austria.
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, 
+ * MA  02110-1301, USA.
+ */
+package at.sti2.streamingiris.threads;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits the input of a connection into complete datalog statements, as the
+ * bytes arrive.
+ * 
+ * <p>
+ * A statement ends with a dot that is followed by white space and that is not
+ * part of a string or a comment. Incomplete statements are kept until the rest
+ * arrives, so that only complete statements are handed to the parser. Dots in
+ * decimals are never followed by white space and never end a statement.
+ * </p>
+ */
+class StatementReader {
+
+	/** Not within a string or a comment. */
+	private static final int CODE = 0;
+
+	/** Within a string. */
+	private static final int STRING = 1;
+
+	/** Within a comment up to the end of the line. */
+	private static final int LINE_COMMENT = 2;
+
+	/** Within a comment up to the closing star and slash. */
+	private static final int BLOCK_COMMENT = 3;
+
+	private final CharsetDecoder decoder;
+
+	private final CharBuffer chars = CharBuffer.allocate(8192);
+
+	/** The bytes of an incomplete character, null if there are none. */
+	private ByteBuffer remainder;
+
+	/** The characters that have not been returned yet. */
+	private final StringBuilder pending = new StringBuilder();
+
+	/** The number of pending characters that have been scanned. */
+	private int scanned;
+
+	/** The end of the last complete statement in the pending characters. */
+	private int statementEnd;
+
+	/** The number of complete statements in the pending characters. */
+	private int statements;
+
+	/** The number of statements returned by the last call to next(). */
+	private int statementCount;
+
+	private int state = CODE;
+
+	/** The quote character of the current string. */
+	private char quote;
+
+	/** The position of the first character after the opening of a comment. */
+	private int commentStart;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param charset
+	 *            The character set of the input.
+	 */
+	StatementReader(Charset charset) {
+		decoder = charset.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+	}
+
+	/**
+	 * Decodes the given bytes. The bytes of an incomplete character at the end
+	 * are kept until the rest of the character arrives.
+	 * 
+	 * @param bytes
+	 *            The bytes to decode, ready to be read. All bytes are
+	 *            consumed.
+	 */
+	void decode(ByteBuffer bytes) {
+		if (remainder != null) {
+			ByteBuffer combined = ByteBuffer.allocate(remainder.remaining()
+					+ bytes.remaining());
+			combined.put(remainder).put(bytes).flip();
+			bytes = combined;
+			remainder = null;
+		}
+
+		decode(bytes, false);
+
+		if (bytes.hasRemaining()) {
+			remainder = ByteBuffer.allocate(bytes.remaining());
+			remainder.put(bytes).flip();
+		}
+	}
+
+	private void decode(ByteBuffer bytes, boolean endOfInput) {
+		while (decoder.decode(bytes, chars, endOfInput).isOverflow())
+			drain();
+
+		drain();
+	}
+
+	/**
+	 * Appends the decoded characters to the pending characters.
+	 */
+	private void drain() {
+		chars.flip();
+		pending.append(chars);
+		chars.clear();
+	}
+
+	/**
+	 * Returns all complete statements received so far.
+	 * 
+	 * @return The complete statements, or null if there is none.
+	 */
+	String next() {
+		scan();
+
+		if (statementEnd == 0)
+			return null;
+
+		String result = pending.substring(0, statementEnd);
+
+		pending.delete(0, statementEnd);
+		scanned -= statementEnd;
+		commentStart -= statementEnd;
+		statementEnd = 0;
+		statementCount = statements;
+		statements = 0;
+
+		return result;
+	}
+
+	/**
+	 * Returns the number of statements returned by the last call to
+	 * {@link #next()}.
+	 */
+	int getStatementCount() {
+		return statementCount;
+	}
+
+	/**
+	 * Returns the rest of the input after the end of the stream.
+	 * 
+	 * @return The remaining characters, or null if there are only white
+	 *         spaces left.
+	 */
+	String finish() {
+		decode(remainder == null ? ByteBuffer.allocate(0) : remainder, true);
+		remainder = null;
+
+		while (decoder.flush(chars).isOverflow())
+			drain();
+		drain();
+
+		String result = pending.toString();
+		pending.setLength(0);
+		scanned = statementEnd = 0;
+
+		return result.trim().length() == 0 ? null : result;
+	}
+
+	/**
+	 * Splits complete input into single statements.
+	 * 
+	 * @param input
+	 *            The input.
+	 * @return The statements, the last one possibly incomplete.
+	 */
+	static List<String> split(String input) {
+		StatementReader reader = new StatementReader(Charset.defaultCharset());
+		List<String> statements = new ArrayList<String>();
+
+		for (int i = 0; i < input.length(); i++) {
+			reader.pending.append(input.charAt(i));
+
+			String statement = reader.next();
+			if (statement != null)
+				statements.add(statement);
+		}
+
+		String rest = reader.finish();
+		if (rest != null)
+			statements.add(rest);
+
+		return statements;
+	}
+
+	/**
+	 * Returns the number of characters that have not been returned yet.
+	 */
+	int getPendingLength() {
+		return pending.length();
+	}
+
+	/**
+	 * Scans the characters that have not been scanned yet for the ends of
+	 * statements.
+	 */
+	private void scan() {
+		int length = pending.length();
+		int i = scanned;
+
+		for (; i < length; i++) {
+			char c = pending.charAt(i);
+
+			switch (state) {
+			case STRING:
+				if (c == quote && pending.charAt(i - 1) != '\\')
+					state = CODE;
+				break;
+
+			case LINE_COMMENT:
+				if (c == '\n' || c == '\r')
+					state = CODE;
+				break;
+
+			case BLOCK_COMMENT:
+				if (c == '/' && i > commentStart
+						&& pending.charAt(i - 1) == '*')
+					state = CODE;
+				break;
+
+			default:
+				if (c == '\'' || c == '"') {
+					state = STRING;
+					quote = c;
+				} else if (c == '/' || c == '.') {
+					// The next character decides.
+					if (i + 1 == length) {
+						scanned = i;
+						return;
+					}
+
+					char next = pending.charAt(i + 1);
+
+					if (c == '.' && Character.isWhitespace(next)) {
+						statementEnd = i + 1;
+						statements++;
+					} else if (c == '/' && next == '/') {
+						state = LINE_COMMENT;
+						i++;
+					} else if (c == '/' && next == '*') {
+						state = BLOCK_COMMENT;
+						commentStart = i + 2;
+						i++;
+					}
+				}
+			}
+		}
+
+		scanned = i;
+	}
+}
@@ -0,0 +1,111 @@
+package at.sti2.streamingiris;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+import at.sti2.streamingiris.api.basics.IPredicate;
+import at.sti2.streamingiris.api.basics.IQuery;
+import at.sti2.streamingiris.api.basics.ITuple;
+import at.sti2.streamingiris.api.terms.IVariable;
+import at.sti2.streamingiris.compiler.Parser;
+import at.sti2.streamingiris.factory.Factory;
+import at.sti2.streamingiris.storage.IRelation;
+import at.sti2.streamingiris.storage.simple.SimpleRelationFactory;
+
+/**
+ * Tests the incremental evaluation state of a continuous query.
+ */
+public class ContinuousQueryTest extends TestCase {
+
+	private static final String PROGRAM = "path(?X, ?Y) :- edge(?X, ?Y)."
+			+ "path(?X, ?Z) :- path(?X, ?Y), edge(?Y, ?Z)."
+			+ "other(?X) :- unrelated(?X)." + "?- path(?X, ?Y).";
+
+	private ContinuousQuery continuousQuery;
+
+	private IQuery query;
+
+	private List<IVariable> variables;
+
+	@Override
+	protected void setUp() throws Exception {
+		Parser parser = new Parser();
+		parser.parse(PROGRAM);
+
+		query = parser.getQueries().get(0);
+		continuousQuery = new ContinuousQuery(query, parser.getRules());
+
+		variables = new ArrayList<IVariable>();
+		variables.add(Factory.TERM.createVariable("X"));
+		variables.add(Factory.TERM.createVariable("Y"));
+	}
+
+	public void testNeedsEvaluation() {
+		List<IPredicate> none = Collections.emptyList();
+
+		// Never evaluated yet.
+		assertTrue(continuousQuery.needsEvaluation(none));
+
+		continuousQuery.update(variables, relation());
+		assertFalse(continuousQuery.needsEvaluation(none));
+
+		// The query depends on edge through the rules, but not on unrelated.
+		assertTrue(continuousQuery.needsEvaluation(Arrays
+				.asList(predicate("edge"))));
+		assertFalse(continuousQuery.needsEvaluation(Arrays
+				.asList(predicate("unrelated"))));
+		assertFalse(continuousQuery.needsEvaluation(Arrays
+				.asList(predicate("other"))));
+	}
+
+	public void testUpdate() {
+		ITuple ab = tuple("a", "b");
+		ITuple bc = tuple("b", "c");
+		ITuple cd = tuple("c", "d");
+
+		assertTrue(continuousQuery.update(variables, relation(ab, bc)));
+		assertEquals(Arrays.asList(ab, bc), continuousQuery.getAdded());
+		assertTrue(continuousQuery.getRemoved().isEmpty());
+
+		assertTrue(continuousQuery.update(variables, relation(bc, cd)));
+		assertEquals(Arrays.asList(cd), continuousQuery.getAdded());
+		assertEquals(Arrays.asList(ab), continuousQuery.getRemoved());
+		assertEquals(2, continuousQuery.getAnswer().size());
+
+		// An unchanged answer produces no changes.
+		assertFalse(continuousQuery.update(variables, relation(cd, bc)));
+		assertTrue(continuousQuery.getAdded().isEmpty());
+		assertTrue(continuousQuery.getRemoved().isEmpty());
+	}
+
+	public void testFormatDelta() {
+		List<ITuple> added = Arrays.asList(tuple("a", "b"));
+		List<ITuple> removed = Arrays.asList(tuple("c", "d"));
+
+		String delta = ResultFormatter.formatDelta(query, variables, added,
+				removed, 42);
+
+		assertEquals("+ 42 path('a', 'b').\n- 42 path('c', 'd').\n", delta);
+	}
+
+	private static IPredicate predicate(String symbol) {
+		return Factory.BASIC.createPredicate(symbol, symbol.equals("edge") ? 2
+				: 1);
+	}
+
+	private static ITuple tuple(String... constants) {
+		return MiscHelper.createTuple(constants);
+	}
+
+	private static IRelation relation(ITuple... tuples) {
+		IRelation relation = new SimpleRelationFactory().createRelation();
+
+		for (ITuple tuple : tuples)
+			relation.add(tuple);
+
+		return relation;
+	}
+}
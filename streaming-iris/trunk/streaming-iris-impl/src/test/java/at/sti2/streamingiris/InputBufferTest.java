@@ -0,0 +1,66 @@
+package at.sti2.streamingiris;
+
+import java.net.ServerSocket;
+import java.util.Map;
+
+import junit.framework.TestCase;
+import at.sti2.streamingiris.api.basics.IPredicate;
+import at.sti2.streamingiris.api.basics.IQuery;
+import at.sti2.streamingiris.compiler.Parser;
+import at.sti2.streamingiris.storage.IRelation;
+
+/**
+ * Tests the buffering of facts while the knowledge base is busy.
+ */
+public class InputBufferTest extends TestCase {
+
+	private KnowledgeBase knowledgeBase;
+
+	private InputBuffer inputBuffer;
+
+	@Override
+	protected void setUp() throws Exception {
+		ServerSocket socket = new ServerSocket(0);
+		Configuration configuration = KnowledgeBaseFactory
+				.getDefaultConfiguration();
+		configuration.inputPort = socket.getLocalPort();
+		socket.close();
+
+		knowledgeBase = new KnowledgeBase(null, null, configuration);
+		inputBuffer = new InputBuffer(knowledgeBase);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		inputBuffer.shutdown();
+		knowledgeBase.shutdown();
+	}
+
+	public void testBatchesWhileWorking() throws Exception {
+		inputBuffer.setKbWorking();
+
+		// Many batches arrive within the same millisecond.
+		for (int i = 0; i < 100; i++)
+			inputBuffer.addFacts(parse("p(" + i + ")."));
+
+		inputBuffer.setKbReady();
+
+		Parser parser = new Parser();
+		parser.parse("?- p(?X).");
+		IQuery query = parser.getQueries().get(0);
+
+		int size = 0;
+		for (int i = 0; i < 100 && size < 100; i++) {
+			Thread.sleep(50);
+			size = knowledgeBase.execute(query).size();
+		}
+
+		assertEquals(100, size);
+	}
+
+	private Map<IPredicate, IRelation> parse(String facts) throws Exception {
+		Parser parser = new Parser();
+		parser.parse(facts);
+		return parser.getFacts();
+	}
+}
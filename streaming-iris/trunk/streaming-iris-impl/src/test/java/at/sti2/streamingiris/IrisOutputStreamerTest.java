@@ -0,0 +1,176 @@
+package at.sti2.streamingiris;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the persistent connections of the output streamer.
+ */
+public class IrisOutputStreamerTest extends TestCase {
+
+	private ServerSocket serverSocket;
+
+	private IrisOutputStreamer streamer;
+
+	@Override
+	protected void setUp() throws Exception {
+		serverSocket = new ServerSocket(0);
+		serverSocket.setSoTimeout(5000);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		if (streamer != null)
+			streamer.shutdown();
+		serverSocket.close();
+	}
+
+	public void testSingleConnection() throws Exception {
+		streamer = new IrisOutputStreamer("localhost",
+				serverSocket.getLocalPort(), 16, 50);
+
+		streamer.stream("p('a').\n");
+		streamer.stream("p('b').\nq('c').\n");
+
+		Socket socket = serverSocket.accept();
+		socket.setSoTimeout(5000);
+		BufferedReader reader = new BufferedReader(new InputStreamReader(
+				socket.getInputStream()));
+
+		assertEquals("p('a').", reader.readLine());
+		assertEquals("p('b').", reader.readLine());
+		assertEquals("q('c').", reader.readLine());
+
+		// Later results use the same connection.
+		streamer.stream("p('d').\n");
+		assertEquals("p('d').", reader.readLine());
+
+		socket.close();
+	}
+
+	public void testReconnect() throws Exception {
+		streamer = new IrisOutputStreamer("localhost",
+				serverSocket.getLocalPort(), 16, 50);
+
+		streamer.stream("p('a').\n");
+
+		Socket socket = serverSocket.accept();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(
+				socket.getInputStream()));
+		assertEquals("p('a').", reader.readLine());
+		socket.close();
+
+		// Results are written again after the listener is back.
+		for (int i = 0; i < 10; i++) {
+			streamer.stream("p('b').\n");
+			Thread.sleep(20);
+		}
+
+		socket = serverSocket.accept();
+		socket.setSoTimeout(5000);
+		reader = new BufferedReader(new InputStreamReader(
+				socket.getInputStream()));
+		assertEquals("p('b').", reader.readLine());
+
+		socket.close();
+	}
+
+	public void testSlowListenerDoesNotBlock() throws Exception {
+		// Nobody accepts the connection, so nothing is written.
+		streamer = new IrisOutputStreamer("localhost",
+				serverSocket.getLocalPort(), 4, 50);
+
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < 100000; i++)
+			streamer.stream("p('a').\n");
+
+		assertTrue(System.currentTimeMillis() - start < 5000);
+	}
+
+	public void testDiscardedResultsNeedResynchronisation() throws Exception {
+		streamer = new IrisOutputStreamer("localhost",
+				serverSocket.getLocalPort(), 4, 50);
+
+		assertFalse(streamer.isOutOfSync());
+
+		for (int i = 0; i < 100000; i++)
+			streamer.stream("p('a').\n");
+
+		assertTrue(streamer.isOutOfSync());
+
+		streamer.resynchronise("= 1\np('b').\n");
+		assertFalse(streamer.isOutOfSync());
+
+		// The complete output follows all results written before.
+		Socket socket = serverSocket.accept();
+		socket.setSoTimeout(5000);
+		BufferedReader reader = new BufferedReader(new InputStreamReader(
+				socket.getInputStream()));
+
+		String line = reader.readLine();
+		while (!"= 1".equals(line)) {
+			assertEquals("p('a').", line);
+			line = reader.readLine();
+		}
+		assertEquals("p('b').", reader.readLine());
+
+		socket.close();
+	}
+
+	public void testFailedConnectionNeedsResynchronisation() throws Exception {
+		streamer = new IrisOutputStreamer("localhost",
+				serverSocket.getLocalPort(), 16, 50);
+
+		streamer.stream("p('a').\n");
+
+		Socket socket = serverSocket.accept();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(
+				socket.getInputStream()));
+		assertEquals("p('a').", reader.readLine());
+		assertFalse(streamer.isOutOfSync());
+		socket.close();
+
+		for (int i = 0; i < 250 && !streamer.isOutOfSync(); i++) {
+			streamer.stream("p('b').\n");
+			Thread.sleep(20);
+		}
+
+		assertTrue(streamer.isOutOfSync());
+	}
+
+	public void testShutdownWritesQueuedResults() throws Exception {
+		streamer = new IrisOutputStreamer("localhost",
+				serverSocket.getLocalPort(), 16, 1000);
+
+		streamer.stream("p('a').\n");
+		streamer.stream("p('b').\n");
+		streamer.shutdown();
+
+		Socket socket = serverSocket.accept();
+		socket.setSoTimeout(5000);
+		BufferedReader reader = new BufferedReader(new InputStreamReader(
+				socket.getInputStream()));
+
+		assertEquals("p('a').", reader.readLine());
+		assertEquals("p('b').", reader.readLine());
+		assertNull(reader.readLine());
+
+		socket.close();
+	}
+
+	public void testShutdownWithoutListener() throws Exception {
+		streamer = new IrisOutputStreamer("localhost",
+				serverSocket.getLocalPort(), 16, 1000);
+		serverSocket.close();
+
+		streamer.stream("p('a').\n");
+
+		long start = System.currentTimeMillis();
+		streamer.shutdown();
+		assertTrue(System.currentTimeMillis() - start < 2000);
+	}
+}
@@ -0,0 +1,116 @@
+package at.sti2.streamingiris.evaluation.stratifiedbottomup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import junit.framework.TestCase;
+import at.sti2.streamingiris.Configuration;
+import at.sti2.streamingiris.KnowledgeBaseFactory;
+import at.sti2.streamingiris.api.basics.IPredicate;
+import at.sti2.streamingiris.api.basics.IQuery;
+import at.sti2.streamingiris.api.basics.IRule;
+import at.sti2.streamingiris.api.basics.ITuple;
+import at.sti2.streamingiris.api.terms.IVariable;
+import at.sti2.streamingiris.compiler.Parser;
+import at.sti2.streamingiris.evaluation.IEvaluationStrategy;
+import at.sti2.streamingiris.evaluation.stratifiedbottomup.seminaive.SemiNaiveEvaluatorFactory;
+import at.sti2.streamingiris.facts.Facts;
+import at.sti2.streamingiris.facts.IFacts;
+import at.sti2.streamingiris.storage.IRelation;
+
+/**
+ * Tests that the rules compiled once are evaluated correctly over many input
+ * batches, while facts are added and expired facts are cleaned.
+ */
+public class StratifiedBottomUpEvaluationStrategyTest extends TestCase {
+
+	private static final String RULES = "tc(?X, ?Y) :- edge(?X, ?Y)."
+			+ "tc(?X, ?Z) :- tc(?X, ?Y), edge(?Y, ?Z)."
+			+ "node(?X) :- edge(?X, ?Y)."
+			+ "sink(?X) :- tc(?Y, ?X), not node(?X).";
+
+	private Configuration configuration;
+
+	private IFacts facts;
+
+	private IEvaluationStrategy strategy;
+
+	protected void setUp() throws Exception {
+		configuration = KnowledgeBaseFactory.getDefaultConfiguration();
+		facts = new Facts(configuration.relationFactory);
+
+		Parser parser = new Parser();
+		parser.parse(RULES);
+		List<IRule> rules = parser.getRules();
+
+		strategy = new StratifiedBottomUpEvaluationStrategyFactory(
+				new SemiNaiveEvaluatorFactory()).createEvaluator(facts, rules,
+				configuration);
+	}
+
+	public void testBatches() throws Exception {
+		batch(0, "edge(1, 2). edge(2, 3).", 1000);
+		assertResult("?- tc(?X, ?Y).", "tc(1, 2). tc(2, 3). tc(1, 3).");
+		assertResult("?- sink(?X).", "sink(3).");
+
+		batch(500, "edge(3, 4).", 2000);
+		assertResult("?- tc(?X, ?Y).",
+				"tc(1, 2). tc(2, 3). tc(1, 3). tc(3, 4). tc(2, 4). tc(1, 4).");
+		assertResult("?- sink(?X).", "sink(4).");
+
+		// The first two edges expire.
+		batch(1500, "edge(4, 5).", 3000);
+		assertResult("?- tc(?X, ?Y).", "tc(3, 4). tc(4, 5). tc(3, 5).");
+		assertResult("?- sink(?X).", "sink(5).");
+
+		batch(1600, "edge(5, 3).", 3000);
+		assertResult("?- tc(?X, ?Y).", "tc(3, 4). tc(4, 5). tc(3, 5). "
+				+ "tc(5, 3). tc(5, 4). tc(5, 5). tc(4, 3). tc(4, 4). tc(3, 3).");
+		assertResult("?- sink(?X).", "");
+
+		// Everything expires.
+		batch(5000, "", 6000);
+		assertResult("?- tc(?X, ?Y).", "");
+	}
+
+	/**
+	 * Process an input batch the way the knowledge-base does.
+	 */
+	private void batch(long now, String newFacts, long expiry)
+			throws Exception {
+		Parser parser = new Parser();
+		parser.parse(newFacts);
+
+		facts.clean(now);
+		facts.addFacts(parser.getFacts(), expiry);
+		strategy.evaluateRules(facts, -1);
+	}
+
+	private void assertResult(String query, String expected) throws Exception {
+		Parser parser = new Parser();
+		parser.parse(query);
+		IQuery q = parser.getQueries().get(0);
+
+		parser = new Parser();
+		parser.parse(expected);
+		Set<ITuple> expectedTuples = new HashSet<ITuple>();
+		for (Map.Entry<IPredicate, IRelation> entry : parser.getFacts()
+				.entrySet())
+			expectedTuples.addAll(tuples(entry.getValue()));
+
+		IRelation result = strategy.evaluateQuery(q,
+				new ArrayList<IVariable>());
+
+		assertEquals(query, expectedTuples, tuples(result));
+	}
+
+	private static Set<ITuple> tuples(IRelation relation) {
+		Set<ITuple> result = new HashSet<ITuple>();
+		for (int i = 0; i < relation.size(); ++i)
+			result.add(relation.get(i));
+		return result;
+	}
+}
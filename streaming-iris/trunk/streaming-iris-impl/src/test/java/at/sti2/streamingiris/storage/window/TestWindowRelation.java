@@ -0,0 +1,119 @@
+package at.sti2.streamingiris.storage.window;
+
+import junit.framework.TestCase;
+import at.sti2.streamingiris.api.basics.ITuple;
+import at.sti2.streamingiris.rules.compiler.Helper;
+import at.sti2.streamingiris.storage.IRelation;
+
+public class TestWindowRelation extends TestCase {
+	IRelation mRelation;
+
+	protected void setUp() throws Exception {
+		mRelation = new WindowRelation();
+	}
+
+	public void testAll() {
+		assertEquals(mRelation.size(), 0);
+
+		ITuple t1 = Helper.createTuple(2, 1);
+		mRelation.add(t1);
+		assertEquals(mRelation.size(), 1);
+		assertEquals(mRelation.get(0), t1);
+
+		mRelation.add(t1);
+		assertEquals(mRelation.size(), 1);
+
+		ITuple t2 = Helper.createTuple(2, 2);
+		mRelation.add(t2);
+		assertEquals(mRelation.size(), 2);
+		assertEquals(mRelation.get(0), t1);
+		assertEquals(mRelation.get(1), t2);
+
+		IRelation r2 = new WindowRelation();
+		r2.addAll(mRelation);
+		assertEquals(r2.size(), 2);
+		r2.add(t1);
+		r2.add(t2);
+		assertEquals(r2.size(), 2);
+	}
+
+	public void testTimestamps() {
+		ITuple t1 = Helper.createTuple(1);
+		ITuple t2 = Helper.createTuple(2);
+
+		assertTrue(mRelation.add(t1, 10));
+		assertEquals(mRelation.getTimestamp(t1), 10);
+		assertEquals(mRelation.getTimestamp(t2), -1);
+
+		// Refreshing the timestamp does not add the tuple again.
+		assertFalse(mRelation.add(t1, 20));
+		assertEquals(mRelation.getTimestamp(t1), 20);
+
+		// Permanent tuples stay permanent.
+		mRelation.add(t2);
+		mRelation.add(t2, 5);
+		assertEquals(mRelation.getTimestamp(t2), 0);
+
+		mRelation.setTimestamp(t2, 7);
+		assertEquals(mRelation.getTimestamp(t2), 7);
+	}
+
+	public void testCleanExpiresInArrivalOrder() {
+		ITuple[] tuples = new ITuple[200];
+		for (int i = 0; i < tuples.length; ++i) {
+			tuples[i] = Helper.createTuple(i);
+			mRelation.add(tuples[i], i + 1);
+		}
+
+		mRelation.clean(101);
+		assertEquals(mRelation.size(), 100);
+		for (int i = 0; i < 100; ++i)
+			assertEquals(mRelation.get(i), tuples[i + 100]);
+		assertFalse(mRelation.contains(tuples[99]));
+		assertTrue(mRelation.contains(tuples[100]));
+
+		// Adding after the relation was trimmed.
+		ITuple t = Helper.createTuple(1000);
+		mRelation.add(t, 500);
+		assertEquals(mRelation.get(100), t);
+
+		mRelation.clean(200);
+		assertEquals(mRelation.size(), 2);
+		assertEquals(mRelation.get(0), tuples[199]);
+		assertEquals(mRelation.get(1), t);
+	}
+
+	public void testCleanKeepsOrderOfSurvivors() {
+		ITuple t1 = Helper.createTuple(1);
+		ITuple t2 = Helper.createTuple(2);
+		ITuple t3 = Helper.createTuple(3);
+		ITuple t4 = Helper.createTuple(4);
+		ITuple t5 = Helper.createTuple(5);
+
+		mRelation.add(t1, 10);
+		mRelation.add(t2, 3);
+		mRelation.add(t3);
+		mRelation.add(t4, -1);
+		mRelation.add(t5, 3);
+
+		// Refresh t5, so that its old expiry is ignored.
+		mRelation.add(t5, 12);
+
+		mRelation.clean(5);
+		assertEquals(mRelation.size(), 3);
+		assertEquals(mRelation.get(0), t1);
+		assertEquals(mRelation.get(1), t3);
+		assertEquals(mRelation.get(2), t5);
+
+		// An expired tuple can be added again.
+		mRelation.add(t2, 20);
+		assertEquals(mRelation.size(), 4);
+		assertEquals(mRelation.get(3), t2);
+
+		mRelation.clean(15);
+		assertEquals(mRelation.size(), 2);
+		assertEquals(mRelation.get(0), t3);
+		assertEquals(mRelation.get(1), t2);
+		assertEquals(mRelation.getTimestamp(t1), -1);
+	}
+}
@@ -0,0 +1,143 @@
+package at.sti2.streamingiris.threads;
+
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+import at.sti2.streamingiris.InputBuffer;
+import at.sti2.streamingiris.api.basics.IPredicate;
+import at.sti2.streamingiris.storage.IRelation;
+
+/**
+ * Tests the incremental reading of facts by the server.
+ */
+public class KnowledgeBaseServerTest extends TestCase {
+
+	private final BlockingQueue<Map<IPredicate, IRelation>> batches = new LinkedBlockingQueue<Map<IPredicate, IRelation>>();
+
+	private InputBuffer inputBuffer;
+
+	private KnowledgeBaseServer server;
+
+	private int port;
+
+	private final List<Socket> sockets = new ArrayList<Socket>();
+
+	@Override
+	protected void setUp() throws Exception {
+		inputBuffer = new InputBuffer(null) {
+			@Override
+			public void addFacts(Map<IPredicate, IRelation> facts) {
+				batches.add(facts);
+			}
+		};
+
+		ServerSocket socket = new ServerSocket(0);
+		port = socket.getLocalPort();
+		socket.close();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		for (Socket socket : sockets)
+			socket.close();
+		server.shutdown();
+		server.join(5000);
+		inputBuffer.shutdown();
+	}
+
+	public void testFactsOfOpenConnection() throws Exception {
+		start(1000, 50);
+
+		OutputStream out = connect();
+		out.write("p('a'). p('b').\nq(".getBytes());
+		out.flush();
+
+		// The complete facts arrive after the latency, although the
+		// connection is still open.
+		Map<IPredicate, IRelation> facts = batches.poll(5, TimeUnit.SECONDS);
+		assertNotNull(facts);
+		assertEquals(1, facts.size());
+		assertEquals(2, facts.values().iterator().next().size());
+
+		out.write("'c').\n".getBytes());
+		out.flush();
+
+		facts = batches.poll(5, TimeUnit.SECONDS);
+		assertNotNull(facts);
+		assertEquals("q", facts.keySet().iterator().next().getPredicateSymbol());
+	}
+
+	public void testBatchSize() throws Exception {
+		start(3, 60000);
+
+		OutputStream first = connect();
+		OutputStream second = connect();
+
+		first.write("p('a'). p('b'). ".getBytes());
+		first.flush();
+		second.write("p('c'). ".getBytes());
+		second.flush();
+
+		// The batch is full before the latency has passed.
+		Map<IPredicate, IRelation> facts = batches.poll(5, TimeUnit.SECONDS);
+		assertNotNull(facts);
+		assertEquals(3, facts.values().iterator().next().size());
+	}
+
+	public void testClosedConnection() throws Exception {
+		start(1000, 50);
+
+		OutputStream out = connect();
+		out.write("p('a')".getBytes());
+		out.flush();
+		out.write(".".getBytes());
+		out.close();
+
+		Map<IPredicate, IRelation> facts = batches.poll(5, TimeUnit.SECONDS);
+		assertNotNull(facts);
+		assertEquals(1, facts.values().iterator().next().size());
+	}
+
+	public void testMalformedStatement() throws Exception {
+		start(1000, 50);
+
+		OutputStream out = connect();
+		out.write("p('a'). p('b'. p('c').\n".getBytes());
+		out.flush();
+
+		// Only the malformed statement is skipped.
+		Map<IPredicate, IRelation> facts = batches.poll(5, TimeUnit.SECONDS);
+		assertNotNull(facts);
+		assertEquals(2, facts.values().iterator().next().size());
+	}
+
+	private void start(int batchSize, long batchLatency) throws Exception {
+		server = new KnowledgeBaseServer(inputBuffer, port, batchSize,
+				batchLatency);
+		server.start();
+	}
+
+	private OutputStream connect() throws Exception {
+		for (int i = 0;; i++) {
+			try {
+				Socket socket = new Socket("localhost", port);
+				sockets.add(socket);
+				return socket.getOutputStream();
+			} catch (ConnectException e) {
+				// The server might not be listening yet.
+				if (i == 50)
+					throw e;
+				Thread.sleep(100);
+			}
+		}
+	}
+}
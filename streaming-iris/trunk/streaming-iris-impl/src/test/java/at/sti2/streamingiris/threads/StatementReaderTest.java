@@ -0,0 +1,81 @@
+package at.sti2.streamingiris.threads;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the splitting of the input of a connection into statements.
+ */
+public class StatementReaderTest extends TestCase {
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private StatementReader reader;
+
+	@Override
+	protected void setUp() throws Exception {
+		reader = new StatementReader(UTF8);
+	}
+
+	public void testCompleteStatements() {
+		assertEquals("p('a'). q('b').", read("p('a'). q('b'). r("));
+		assertEquals(2, reader.getStatementCount());
+
+		assertNull(read("'c')"));
+		assertEquals(" r('c').", read(".\n"));
+		assertEquals(1, reader.getStatementCount());
+
+		assertNull(reader.finish());
+	}
+
+	public void testDotAtEndOfInput() {
+		// The dot might be part of a decimal, until the next character shows.
+		assertNull(read("p(1."));
+		assertNull(read("5)."));
+		assertEquals("p(1.5).", read(" "));
+	}
+
+	public void testStringsAndComments() {
+		String input = "p('a. b'). // c. d\n/* e. */ q(\"f. \\\" g. \"). ";
+
+		assertEquals(input.trim(), read(input));
+		assertEquals(2, reader.getStatementCount());
+	}
+
+	public void testSplitCharacter() {
+		byte[] bytes = "p('ä'). ".getBytes(UTF8);
+
+		// Split within the two bytes of the umlaut.
+		assertNull(read(ByteBuffer.wrap(bytes, 0, 4)));
+		assertEquals("p('ä').", read(ByteBuffer.wrap(bytes, 4,
+				bytes.length - 4)));
+	}
+
+	public void testFinish() {
+		// The last statement is complete at the end of the stream.
+		assertNull(read("p('a')."));
+		assertEquals("p('a').", reader.finish());
+	}
+
+	public void testSplit() {
+		List<String> statements = StatementReader
+				.split("p('a. b').\n// c. d\nq(1.5). r(");
+
+		assertEquals(3, statements.size());
+		assertEquals("p('a. b').", statements.get(0));
+		assertEquals("\n// c. d\nq(1.5).", statements.get(1));
+		assertEquals(" r(", statements.get(2));
+	}
+
+	private String read(String input) {
+		return read(ByteBuffer.wrap(input.getBytes(UTF8)));
+	}
+
+	private String read(ByteBuffer bytes) {
+		reader.decode(bytes);
+		return reader.next();
+	}
+}